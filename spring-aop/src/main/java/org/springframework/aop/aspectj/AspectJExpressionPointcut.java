@@ -60,6 +60,7 @@ import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
@@ -73,6 +74,10 @@ import org.springframework.util.StringUtils;
  * <p>Naturally, as this is to be processed by Spring AOP's proxy-based model,
  * only method execution pointcuts are supported.
  *
+ * <p>Parsed expressions and shadow match results are shared between equal
+ * pointcut instances within the same bean factory and ClassLoader, so that
+ * many advisors with the same expression only get evaluated once per method.
+ *
  * @author Rob Harrop
  * @author Adrian Colyer
  * @author Rod Johnson
@@ -103,6 +108,12 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 
 	private static final Log logger = LogFactory.getLog(AspectJExpressionPointcut.class);
 
+	private static final Map<SharingKey, PointcutExpression> sharedPointcutExpressions =
+			new ConcurrentReferenceHashMap<>(64);
+
+	private static final Map<ShadowMatchKey, ShadowMatch> sharedShadowMatches =
+			new ConcurrentReferenceHashMap<>(256);
+
 	@Nullable
 	private Class<?> pointcutDeclarationScope;
 
@@ -119,6 +130,9 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 	@Nullable
 	private transient PointcutExpression pointcutExpression;
 
+	@Nullable
+	private transient SharingKey sharingKey;
+
 	private transient Map<Method, ShadowMatch> shadowMatchCache = new ConcurrentHashMap<>(32);
 
 
@@ -195,11 +209,29 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		}
 		if (this.pointcutExpression == null) {
 			this.pointcutClassLoader = determinePointcutClassLoader();
-			this.pointcutExpression = buildPointcutExpression(this.pointcutClassLoader);
+			this.pointcutExpression = obtainSharedPointcutExpression(this.pointcutClassLoader);
 		}
 		return this.pointcutExpression;
 	}
 
+	/**
+	 * Obtain the underlying AspectJ pointcut expression from the shared cache,
+	 * building it on first access for the given settings.
+	 */
+	private PointcutExpression obtainSharedPointcutExpression(@Nullable ClassLoader classLoader) {
+		SharingKey key = new SharingKey(this, classLoader);
+		PointcutExpression expression = sharedPointcutExpressions.get(key);
+		if (expression == null) {
+			expression = buildPointcutExpression(classLoader);
+			PointcutExpression existing = sharedPointcutExpressions.putIfAbsent(key, expression);
+			if (existing != null) {
+				expression = existing;
+			}
+		}
+		this.sharingKey = key;
+		return expression;
+	}
+
 	/**
 	 * Determine the ClassLoader to use for pointcut evaluation.
 	 */
@@ -452,15 +484,24 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		// Avoid lock contention for known Methods through concurrent access...
 		ShadowMatch shadowMatch = this.shadowMatchCache.get(targetMethod);
 		if (shadowMatch == null) {
-			synchronized (this.shadowMatchCache) {
+			PointcutExpression pointcutExpression = obtainPointcutExpression();
+			ShadowMatchKey sharedKey = (this.sharingKey != null ? new ShadowMatchKey(this.sharingKey, targetMethod) : null);
+			shadowMatch = (sharedKey != null ? sharedShadowMatches.get(sharedKey) : null);
+			if (shadowMatch != null) {
+				this.shadowMatchCache.put(targetMethod, shadowMatch);
+				return shadowMatch;
+			}
+			// Lock on the (potentially shared) expression since AspectJ's matching
+			// state is not thread-safe, while other expressions may proceed in parallel.
+			synchronized (pointcutExpression) {
 				// Not found - now check again with full lock...
 				PointcutExpression fallbackExpression = null;
-				shadowMatch = this.shadowMatchCache.get(targetMethod);
+				shadowMatch = (sharedKey != null ? sharedShadowMatches.get(sharedKey) : null);
 				if (shadowMatch == null) {
 					Method methodToMatch = targetMethod;
 					try {
 						try {
-							shadowMatch = obtainPointcutExpression().matchesMethodExecution(methodToMatch);
+							shadowMatch = pointcutExpression.matchesMethodExecution(methodToMatch);
 						}
 						catch (ReflectionWorldException ex) {
 							// Failed to introspect target method, probably because it has been loaded
@@ -482,7 +523,7 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 							// redeclared methods).
 							methodToMatch = originalMethod;
 							try {
-								shadowMatch = obtainPointcutExpression().matchesMethodExecution(methodToMatch);
+								shadowMatch = pointcutExpression.matchesMethodExecution(methodToMatch);
 							}
 							catch (ReflectionWorldException ex) {
 								// Could neither introspect the target class nor the proxy class ->
@@ -511,8 +552,11 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 						shadowMatch = new DefensiveShadowMatch(shadowMatch,
 								fallbackExpression.matchesMethodExecution(methodToMatch));
 					}
-					this.shadowMatchCache.put(targetMethod, shadowMatch);
+					if (sharedKey != null) {
+						sharedShadowMatches.put(sharedKey, shadowMatch);
+					}
 				}
+				this.shadowMatchCache.put(targetMethod, shadowMatch);
 			}
 		}
 		return shadowMatch;
@@ -676,6 +720,103 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 	}
 
 
+	/**
+	 * Key for sharing parsed expressions between equal pointcut instances.
+	 * The bean factory and the pointcut class are part of the key since the
+	 * {@code bean()} designator handler is bound to the original instance.
+	 */
+	private static final class SharingKey {
+
+		private final String expression;
+
+		@Nullable
+		private final Class<?> declarationScope;
+
+		private final String[] parameterNames;
+
+		private final Class<?>[] parameterTypes;
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		@Nullable
+		private final BeanFactory beanFactory;
+
+		private final Class<?> pointcutClass;
+
+		public SharingKey(AspectJExpressionPointcut pointcut, @Nullable ClassLoader classLoader) {
+			this.expression = pointcut.resolveExpression();
+			this.declarationScope = pointcut.pointcutDeclarationScope;
+			this.parameterNames = pointcut.pointcutParameterNames.clone();
+			this.parameterTypes = pointcut.pointcutParameterTypes.clone();
+			this.classLoader = classLoader;
+			this.beanFactory = pointcut.beanFactory;
+			this.pointcutClass = pointcut.getClass();
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof SharingKey)) {
+				return false;
+			}
+			SharingKey otherKey = (SharingKey) other;
+			return (this.expression.equals(otherKey.expression) &&
+					this.declarationScope == otherKey.declarationScope &&
+					Arrays.equals(this.parameterNames, otherKey.parameterNames) &&
+					Arrays.equals(this.parameterTypes, otherKey.parameterTypes) &&
+					this.classLoader == otherKey.classLoader && this.beanFactory == otherKey.beanFactory &&
+					this.pointcutClass == otherKey.pointcutClass);
+		}
+
+		@Override
+		public int hashCode() {
+			int hashCode = this.expression.hashCode();
+			hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode(this.declarationScope);
+			hashCode = 31 * hashCode + Arrays.hashCode(this.parameterNames);
+			hashCode = 31 * hashCode + Arrays.hashCode(this.parameterTypes);
+			hashCode = 31 * hashCode + System.identityHashCode(this.classLoader);
+			hashCode = 31 * hashCode + System.identityHashCode(this.beanFactory);
+			return hashCode;
+		}
+	}
+
+
+	/**
+	 * Key for sharing shadow match results between equal pointcut instances.
+	 */
+	private static final class ShadowMatchKey {
+
+		private final SharingKey sharingKey;
+
+		private final Method method;
+
+		public ShadowMatchKey(SharingKey sharingKey, Method method) {
+			this.sharingKey = sharingKey;
+			this.method = method;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ShadowMatchKey)) {
+				return false;
+			}
+			ShadowMatchKey otherKey = (ShadowMatchKey) other;
+			return (this.sharingKey.equals(otherKey.sharingKey) && this.method.equals(otherKey.method));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.sharingKey.hashCode() * 29 + this.method.hashCode();
+		}
+	}
+
+
 	private static class DefensiveShadowMatch implements ShadowMatch {
 
 		private final ShadowMatch primary;
@@ -47,6 +47,14 @@ import org.springframework.beans.factory.xml.NamespaceHandlerSupport;
  *     pointcut-ref=&quot;getNameCalls&quot;
  *     advice-ref=&quot;getNameCounter&quot;/&gt;</pre>
  *
+ * <p>The {@code latency-monitor} tag registers a
+ * {@link org.springframework.aop.interceptor.LatencyMonitorInterceptor} for the
+ * methods matched by an in-line or referenced pointcut:
+ *
+ * <pre class="code">
+ * &lt;aop:latency-monitor id=&quot;serviceLatencies&quot;
+ *     pointcut=&quot;execution(* com.mycompany.service.*.*(..))&quot;/&gt;</pre>
+ *
  * @author Rob Harrop
  * @author Adrian Colyer
  * @author Juergen Hoeller
@@ -31,12 +31,14 @@ import org.springframework.aop.aspectj.AspectJExpressionPointcut;
 import org.springframework.aop.aspectj.AspectJMethodBeforeAdvice;
 import org.springframework.aop.aspectj.AspectJPointcutAdvisor;
 import org.springframework.aop.aspectj.DeclareParentsAdvisor;
+import org.springframework.aop.interceptor.LatencyMonitorInterceptor;
 import org.springframework.aop.support.DefaultBeanFactoryPointcutAdvisor;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanReference;
 import org.springframework.beans.factory.config.ConstructorArgumentValues;
 import org.springframework.beans.factory.config.RuntimeBeanNameReference;
 import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.parsing.BeanComponentDefinition;
 import org.springframework.beans.factory.parsing.CompositeComponentDefinition;
 import org.springframework.beans.factory.parsing.ParseState;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
@@ -62,6 +64,7 @@ import org.springframework.util.xml.DomUtils;
 class ConfigBeanDefinitionParser implements BeanDefinitionParser {
 
 	private static final String ASPECT = "aspect";
+	private static final String LATENCY_MONITOR = "latency-monitor";
 	private static final String EXPRESSION = "expression";
 	private static final String ID = "id";
 	private static final String POINTCUT = "pointcut";
@@ -117,6 +120,9 @@ class ConfigBeanDefinitionParser implements BeanDefinitionParser {
 			else if (ASPECT.equals(localName)) {
 				parseAspect(elt, parserContext);
 			}
+			else if (LATENCY_MONITOR.equals(localName)) {
+				parseLatencyMonitor(elt, parserContext);
+			}
 		}
 
 		parserContext.popAndRegisterContainingComponent();
@@ -195,6 +201,51 @@ class ConfigBeanDefinitionParser implements BeanDefinitionParser {
 		return advisorDefinition;
 	}
 
+	/**
+	 * Parses the supplied {@code <latency-monitor>} element and registers a
+	 * {@link LatencyMonitorInterceptor} along with an advisor applying it to
+	 * the specified pointcut.
+	 */
+	private void parseLatencyMonitor(Element monitorElement, ParserContext parserContext) {
+		RootBeanDefinition monitorDef = new RootBeanDefinition(LatencyMonitorInterceptor.class);
+		monitorDef.setSource(parserContext.extractSource(monitorElement));
+		String id = monitorElement.getAttribute(ID);
+
+		try {
+			this.parseState.push(new AdvisorEntry(id));
+			String monitorBeanName = id;
+			if (StringUtils.hasText(monitorBeanName)) {
+				parserContext.getRegistry().registerBeanDefinition(monitorBeanName, monitorDef);
+			}
+			else {
+				monitorBeanName = parserContext.getReaderContext().registerWithGeneratedName(monitorDef);
+			}
+			parserContext.registerComponent(new BeanComponentDefinition(monitorDef, monitorBeanName));
+
+			RootBeanDefinition advisorDef = new RootBeanDefinition(DefaultBeanFactoryPointcutAdvisor.class);
+			advisorDef.setSource(parserContext.extractSource(monitorElement));
+			advisorDef.getPropertyValues().add(ADVICE_BEAN_NAME, new RuntimeBeanNameReference(monitorBeanName));
+			if (monitorElement.hasAttribute(ORDER_PROPERTY)) {
+				advisorDef.getPropertyValues().add(ORDER_PROPERTY, monitorElement.getAttribute(ORDER_PROPERTY));
+			}
+			String advisorBeanName = parserContext.getReaderContext().registerWithGeneratedName(advisorDef);
+
+			Object pointcut = parsePointcutProperty(monitorElement, parserContext);
+			if (pointcut instanceof BeanDefinition) {
+				advisorDef.getPropertyValues().add(POINTCUT, pointcut);
+				parserContext.registerComponent(
+						new AdvisorComponentDefinition(advisorBeanName, advisorDef, (BeanDefinition) pointcut));
+			}
+			else if (pointcut instanceof String) {
+				advisorDef.getPropertyValues().add(POINTCUT, new RuntimeBeanReference((String) pointcut));
+				parserContext.registerComponent(new AdvisorComponentDefinition(advisorBeanName, advisorDef));
+			}
+		}
+		finally {
+			this.parseState.pop();
+		}
+	}
+
 	private void parseAspect(Element aspectElement, ParserContext parserContext) {
 		String aspectId = aspectElement.getAttribute(ID);
 		String aspectName = aspectElement.getAttribute(REF);
@@ -44,6 +44,22 @@ import org.springframework.util.ObjectUtils;
  */
 public abstract class AopProxyUtils {
 
+	/**
+	 * System property that instructs Spring to generate joinpoint invokers for
+	 * JDK dynamic proxies with a frozen configuration and a static target:
+	 * i.e. "spring.aop.generatedInvokers" is "true".
+	 * <p>The interceptor chain gets fixed per method, and the target method gets
+	 * invoked through a class generated for it instead of through reflection.
+	 * Methods that are not publicly accessible keep using reflection, as do all
+	 * methods when running with a {@link SecurityManager}.
+	 * <p>The default is "false", always using reflection for target invocations.
+	 * @since 5.1
+	 * @see Advised#isFrozen()
+	 * @see org.springframework.aop.TargetSource#isStatic()
+	 */
+	public static final String GENERATED_INVOKERS_PROPERTY_NAME = "spring.aop.generatedInvokers";
+
+
 	/**
 	 * Obtain the singleton target object behind the given proxy, if any.
 	 * @param candidate the (potential) proxy to check
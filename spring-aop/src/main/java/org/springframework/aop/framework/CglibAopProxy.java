@@ -38,8 +38,10 @@ import org.springframework.aop.PointcutAdvisor;
 import org.springframework.aop.RawTargetAccess;
 import org.springframework.aop.TargetSource;
 import org.springframework.aop.support.AopUtils;
+import org.springframework.cglib.core.CachingGeneratorStrategy;
 import org.springframework.cglib.core.ClassGenerator;
 import org.springframework.cglib.core.CodeGenerationException;
+import org.springframework.cglib.core.GeneratorStrategy;
 import org.springframework.cglib.core.SpringNamingPolicy;
 import org.springframework.cglib.proxy.Callback;
 import org.springframework.cglib.proxy.CallbackFilter;
@@ -179,17 +181,19 @@ class CglibAopProxy implements AopProxy, Serializable {
 
 			// Configure CGLIB Enhancer...
 			Enhancer enhancer = createEnhancer();
+			boolean reloadable = false;
 			if (classLoader != null) {
 				enhancer.setClassLoader(classLoader);
 				if (classLoader instanceof SmartClassLoader &&
 						((SmartClassLoader) classLoader).isClassReloadable(proxySuperClass)) {
 					enhancer.setUseCache(false);
+					reloadable = true;
 				}
 			}
+			Class<?>[] proxyInterfaces = AopProxyUtils.completeProxiedInterfaces(this.advised);
 			enhancer.setSuperclass(proxySuperClass);
-			enhancer.setInterfaces(AopProxyUtils.completeProxiedInterfaces(this.advised));
+			enhancer.setInterfaces(proxyInterfaces);
 			enhancer.setNamingPolicy(SpringNamingPolicy.INSTANCE);
-			enhancer.setStrategy(new ClassLoaderAwareUndeclaredThrowableStrategy(classLoader));
 
 			Callback[] callbacks = getCallbacks(rootClass);
 			Class<?>[] types = new Class<?>[callbacks.length];
@@ -197,10 +201,19 @@ class CglibAopProxy implements AopProxy, Serializable {
 				types[x] = callbacks[x].getClass();
 			}
 			// fixedInterceptorMap only populated at this point, after getCallbacks call above
-			enhancer.setCallbackFilter(new ProxyCallbackFilter(
-					this.advised.getConfigurationOnlyCopy(), this.fixedInterceptorMap, this.fixedInterceptorOffset));
+			CallbackFilter callbackFilter = new ProxyCallbackFilter(
+					this.advised.getConfigurationOnlyCopy(), this.fixedInterceptorMap, this.fixedInterceptorOffset);
+			enhancer.setCallbackFilter(callbackFilter);
 			enhancer.setCallbackTypes(types);
 
+			// Reuse a previously generated proxy class from disk, if configured (and not reloadable).
+			GeneratorStrategy strategy = new ClassLoaderAwareUndeclaredThrowableStrategy(classLoader);
+			if (!reloadable) {
+				strategy = CachingGeneratorStrategy.decorateIfEnabled(
+						strategy, proxySuperClass, proxyInterfaces, callbackFilter, types);
+			}
+			enhancer.setStrategy(strategy);
+
 			// Generate the proxy class and create a proxy instance.
 			return createProxyClassAndInstance(enhancer, callbacks);
 		}
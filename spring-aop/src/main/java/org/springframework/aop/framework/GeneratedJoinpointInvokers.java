@@ -0,0 +1,234 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Handle;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Internal factory for joinpoint invokers: classes generated per method which
+ * invoke the target method directly, as an alternative to reflective
+ * {@link Method#invoke} calls at the end of an AOP interceptor chain.
+ * Used by {@link JdkDynamicAopProxy} if
+ * {@link AopProxyUtils#GENERATED_INVOKERS_PROPERTY_NAME} is set.
+ *
+ * <p>A generated invoker implements {@link BiFunction}, taking the target
+ * object and the argument array and returning the (boxed) result. Exceptions
+ * thrown by the target method are propagated as-is, just like after unwrapping
+ * the {@link java.lang.reflect.InvocationTargetException} of a reflective call.
+ * Arguments are cast to the exact parameter types, without the widening
+ * conversions that {@link Method#invoke} would apply.
+ *
+ * <p>Invokers can only be generated for public methods with public parameter
+ * types on public classes; in all other cases, {@link #forMethod} returns
+ * {@code null} and callers are expected to fall back to reflection. The same
+ * applies if the generated class fails to link against the target method,
+ * since all of its references get resolved before the invoker is returned.
+ *
+ * <p>Invokers are generated once per method and shared across all proxies.
+ *
+ * @since 5.1
+ */
+abstract class GeneratedJoinpointInvokers {
+
+	private static final String INVOKER_CLASS_PREFIX = "org/springframework/aop/framework/JoinpointInvoker$$";
+
+	private static final Log logger = LogFactory.getLog(GeneratedJoinpointInvokers.class);
+
+	private static final Map<ClassLoader, InvokerClassLoader> classLoaders = new ConcurrentReferenceHashMap<>();
+
+	private static final Map<Method, BiFunction<Object, Object[], Object>> invokerCache =
+			new ConcurrentReferenceHashMap<>(256);
+
+	/** Marker for methods that have to be invoked through reflection */
+	private static final BiFunction<Object, Object[], Object> NO_INVOKER = (target, args) -> null;
+
+	private static final AtomicInteger invokerCount = new AtomicInteger();
+
+
+	/**
+	 * Obtain an invoker for the given method, generating it on first request.
+	 * @param method the method to invoke on the target object
+	 * @return the generated invoker, or {@code null} if none could be generated
+	 */
+	@Nullable
+	static BiFunction<Object, Object[], Object> forMethod(Method method) {
+		if (System.getSecurityManager() != null) {
+			return null;
+		}
+		BiFunction<Object, Object[], Object> invoker =
+				invokerCache.computeIfAbsent(method, GeneratedJoinpointInvokers::generateInvoker);
+		return (invoker != NO_INVOKER ? invoker : null);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static BiFunction<Object, Object[], Object> generateInvoker(Method method) {
+		if (!isAccessible(method)) {
+			return NO_INVOKER;
+		}
+		try {
+			String className = INVOKER_CLASS_PREFIX + invokerCount.incrementAndGet();
+			byte[] bytes = generateInvokerClass(className, method);
+			Class<?> invokerClass = getClassLoader(method.getDeclaringClass().getClassLoader())
+					.defineClass(className.replace('/', '.'), bytes);
+			// The constructor resolves all references, raising any LinkageError right here
+			return (BiFunction<Object, Object[], Object>) invokerClass.newInstance();
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Falling back to reflection for method [" + method + "]", ex);
+			}
+			return NO_INVOKER;
+		}
+	}
+
+	/**
+	 * Check whether the given method can be linked from a class
+	 * generated in a child ClassLoader of its declaring ClassLoader.
+	 */
+	private static boolean isAccessible(Method method) {
+		if (!Modifier.isPublic(method.getModifiers()) || Modifier.isStatic(method.getModifiers()) ||
+				!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+			return false;
+		}
+		for (Class<?> paramType : method.getParameterTypes()) {
+			Class<?> typeToCheck = paramType;
+			while (typeToCheck.isArray()) {
+				typeToCheck = typeToCheck.getComponentType();
+			}
+			if (!typeToCheck.isPrimitive() && !Modifier.isPublic(typeToCheck.getModifiers())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static InvokerClassLoader getClassLoader(@Nullable ClassLoader parent) {
+		return classLoaders.computeIfAbsent(parent, InvokerClassLoader::new);
+	}
+
+	private static byte[] generateInvokerClass(String className, Method method) {
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className,
+				null, "java/lang/Object", new String[] {"java/util/function/BiFunction"});
+
+		Class<?> declaringClass = method.getDeclaringClass();
+		String owner = Type.getInternalName(declaringClass);
+		boolean isInterface = declaringClass.isInterface();
+		Class<?>[] paramTypes = method.getParameterTypes();
+
+		MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+		// Load the target method as a constant: resolves it along with its declaring class
+		// and parameter types, applying the same access checks as the invocation in apply
+		mv.visitLdcInsn(new Handle(isInterface ? Opcodes.H_INVOKEINTERFACE : Opcodes.H_INVOKEVIRTUAL,
+				owner, method.getName(), Type.getMethodDescriptor(method), isInterface));
+		mv.visitInsn(Opcodes.POP);
+		for (Class<?> paramType : paramTypes) {
+			if (!paramType.isPrimitive()) {
+				mv.visitLdcInsn(Type.getType(paramType));
+				mv.visitInsn(Opcodes.POP);
+			}
+		}
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "apply",
+				"(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(Opcodes.ALOAD, 1);
+		mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+		for (int i = 0; i < paramTypes.length; i++) {
+			mv.visitVarInsn(Opcodes.ALOAD, 2);
+			mv.visitTypeInsn(Opcodes.CHECKCAST, "[Ljava/lang/Object;");
+			mv.visitLdcInsn(i);
+			mv.visitInsn(Opcodes.AALOAD);
+			unboxOrCast(mv, paramTypes[i]);
+		}
+		mv.visitMethodInsn(isInterface ? Opcodes.INVOKEINTERFACE : Opcodes.INVOKEVIRTUAL,
+				owner, method.getName(), Type.getMethodDescriptor(method), isInterface);
+		box(mv, method.getReturnType());
+		mv.visitInsn(Opcodes.ARETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	private static void unboxOrCast(MethodVisitor mv, Class<?> type) {
+		if (type.isPrimitive()) {
+			String wrapper = Type.getInternalName(ClassUtils.resolvePrimitiveIfNecessary(type));
+			mv.visitTypeInsn(Opcodes.CHECKCAST, wrapper);
+			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, wrapper, type.getName() + "Value",
+					"()" + Type.getDescriptor(type), false);
+		}
+		else if (type != Object.class) {
+			mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(type));
+		}
+	}
+
+	private static void box(MethodVisitor mv, Class<?> type) {
+		if (type == void.class) {
+			mv.visitInsn(Opcodes.ACONST_NULL);
+		}
+		else if (type.isPrimitive()) {
+			String wrapper = Type.getInternalName(ClassUtils.resolvePrimitiveIfNecessary(type));
+			mv.visitMethodInsn(Opcodes.INVOKESTATIC, wrapper, "valueOf",
+					"(" + Type.getDescriptor(type) + ")L" + wrapper + ";", false);
+		}
+	}
+
+
+	/**
+	 * ClassLoader for generated invokers, delegating to the ClassLoader
+	 * that declares the target methods.
+	 */
+	private static class InvokerClassLoader extends URLClassLoader {
+
+		private static final URL[] NO_URLS = new URL[0];
+
+		InvokerClassLoader(@Nullable ClassLoader parent) {
+			super(NO_URLS, parent);
+		}
+
+		Class<?> defineClass(String name, byte[] bytes) {
+			return super.defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+
+}
@@ -21,6 +21,9 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
@@ -31,6 +34,7 @@ import org.springframework.aop.RawTargetAccess;
 import org.springframework.aop.TargetSource;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.core.DecoratingProxy;
+import org.springframework.core.SpringProperties;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -79,6 +83,9 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	/** We use a static Log to avoid serialization issues */
 	private static final Log logger = LogFactory.getLog(JdkDynamicAopProxy.class);
 
+	private static final boolean shouldGenerateInvokers =
+			SpringProperties.getFlag(AopProxyUtils.GENERATED_INVOKERS_PROPERTY_NAME);
+
 	/** Config used to configure this proxy */
 	private final AdvisedSupport advised;
 
@@ -92,6 +99,13 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	 */
 	private boolean hashCodeDefined;
 
+	/**
+	 * Fixed interceptor chains per method, for a frozen configuration with a static
+	 * target if generated invokers are enabled ({@code null} otherwise).
+	 */
+	@Nullable
+	private transient Map<Method, FixedChain> fixedChains;
+
 
 	/**
 	 * Construct a new JdkDynamicAopProxy for the given AOP configuration.
@@ -100,11 +114,26 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	 * exception in this case, rather than let a mysterious failure happen later.
 	 */
 	public JdkDynamicAopProxy(AdvisedSupport config) throws AopConfigException {
+		this(config, shouldGenerateInvokers);
+	}
+
+	/**
+	 * Construct a new JdkDynamicAopProxy for the given AOP configuration.
+	 * @param config the AOP configuration as AdvisedSupport object
+	 * @param generateInvokers whether to generate joinpoint invokers for a frozen
+	 * configuration with a static target, independent from the system property
+	 * @throws AopConfigException if the config is invalid
+	 * @see AopProxyUtils#GENERATED_INVOKERS_PROPERTY_NAME
+	 */
+	JdkDynamicAopProxy(AdvisedSupport config, boolean generateInvokers) throws AopConfigException {
 		Assert.notNull(config, "AdvisedSupport must not be null");
 		if (config.getAdvisors().length == 0 && config.getTargetSource() == AdvisedSupport.EMPTY_TARGET_SOURCE) {
 			throw new AopConfigException("No advisors and no TargetSource specified");
 		}
 		this.advised = config;
+		if (generateInvokers && config.isFrozen() && config.getTargetSource().isStatic()) {
+			this.fixedChains = new ConcurrentHashMap<>(32);
+		}
 	}
 
 
@@ -194,7 +223,9 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 			Class<?> targetClass = (target != null ? target.getClass() : null);
 
 			// Get the interception chain for this method.
-			List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+			FixedChain fixedChain = (this.fixedChains != null ? getFixedChain(method, targetClass) : null);
+			List<Object> chain = (fixedChain != null ? fixedChain.chain :
+					this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass));
 
 			// Check whether we have any advice. If we don't, we can fallback on direct
 			// reflective invocation of the target, and avoid creating a MethodInvocation.
@@ -203,11 +234,16 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 				// Note that the final invoker must be an InvokerInterceptor so we know it does
 				// nothing but a reflective operation on the target, and no hot swapping or fancy proxying.
 				Object[] argsToUse = AopProxyUtils.adaptArgumentsIfNecessary(method, args);
-				retVal = AopUtils.invokeJoinpointUsingReflection(target, method, argsToUse);
+				retVal = (fixedChain != null && fixedChain.invoker != null ?
+						fixedChain.invoker.apply(target, argsToUse) :
+						AopUtils.invokeJoinpointUsingReflection(target, method, argsToUse));
 			}
 			else {
 				// We need to create a method invocation...
-				invocation = new ReflectiveMethodInvocation(proxy, target, method, args, targetClass, chain);
+				invocation = (fixedChain != null && fixedChain.invoker != null ?
+						new GeneratedInvokerMethodInvocation(proxy, target, method, args, targetClass,
+								chain, fixedChain.invoker) :
+						new ReflectiveMethodInvocation(proxy, target, method, args, targetClass, chain));
 				// Proceed to the joinpoint through the interceptor chain.
 				retVal = invocation.proceed();
 			}
@@ -240,6 +276,25 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 		}
 	}
 
+	/**
+	 * Obtain the fixed interceptor chain for the given method, computing it
+	 * (along with a generated joinpoint invoker) on first invocation.
+	 * @param method the proxied method
+	 * @param targetClass the target class
+	 * @return the fixed chain for the method
+	 */
+	private FixedChain getFixedChain(Method method, @Nullable Class<?> targetClass) {
+		Map<Method, FixedChain> fixedChains = this.fixedChains;
+		Assert.state(fixedChains != null, "No fixed chains");
+		FixedChain fixedChain = fixedChains.get(method);
+		if (fixedChain == null) {
+			List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+			fixedChain = new FixedChain(chain, GeneratedJoinpointInvokers.forMethod(method));
+			fixedChains.put(method, fixedChain);
+		}
+		return fixedChain;
+	}
+
 
 	/**
 	 * Equality means interfaces, advisors and TargetSource are equal.
@@ -283,4 +338,44 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 		return JdkDynamicAopProxy.class.hashCode() * 13 + this.advised.getTargetSource().hashCode();
 	}
 
+
+	/**
+	 * Interceptor chain for a method of a frozen proxy with a static target,
+	 * along with a generated invoker for the target method, if available.
+	 */
+	private static final class FixedChain {
+
+		final List<Object> chain;
+
+		@Nullable
+		final BiFunction<Object, Object[], Object> invoker;
+
+		FixedChain(List<Object> chain, @Nullable BiFunction<Object, Object[], Object> invoker) {
+			this.chain = chain;
+			this.invoker = invoker;
+		}
+	}
+
+
+	/**
+	 * MethodInvocation which invokes the target method through a generated invoker.
+	 */
+	private static class GeneratedInvokerMethodInvocation extends ReflectiveMethodInvocation {
+
+		private final BiFunction<Object, Object[], Object> invoker;
+
+		GeneratedInvokerMethodInvocation(Object proxy, @Nullable Object target, Method method,
+				Object[] arguments, @Nullable Class<?> targetClass,
+				List<Object> interceptorsAndDynamicMethodMatchers, BiFunction<Object, Object[], Object> invoker) {
+
+			super(proxy, target, method, arguments, targetClass, interceptorsAndDynamicMethodMatchers);
+			this.invoker = invoker;
+		}
+
+		@Override
+		protected Object invokeJoinpoint() throws Throwable {
+			return this.invoker.apply(this.target, this.arguments);
+		}
+	}
+
 }
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.interceptor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.util.Assert;
+
+/**
+ * Lock-free histogram of latency values with fixed memory footprint,
+ * using log-linear buckets in the style of an HDR histogram.
+ *
+ * <p>Values below 32 are counted exactly; larger values fall into one of
+ * 16 linear sub-buckets per power of two, bounding the relative error of
+ * reported percentiles to 1/16 (6.25%). The complete {@code long} range is
+ * covered by 960 buckets, independent of the number of recorded values.
+ *
+ * <p>Recording is a single atomic increment plus a few bit operations, so
+ * this histogram can be updated from any number of threads concurrently.
+ * Reads are not atomic snapshots: a percentile computed while values are
+ * being recorded may or may not include those concurrent values.
+ *
+ * @since 5.1
+ * @see LatencyMonitorInterceptor
+ */
+public class LatencyHistogram {
+
+	private static final int LINEAR_BITS = 5;
+
+	private static final int SUB_BUCKET_BITS = LINEAR_BITS - 1;
+
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	private static final int LINEAR_COUNT = 1 << LINEAR_BITS;
+
+	private static final int BUCKET_COUNT = LINEAR_COUNT + (Long.SIZE - 1 - LINEAR_BITS) * SUB_BUCKET_COUNT;
+
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+	private final LongAdder totalCount = new LongAdder();
+
+	private final LongAdder totalValue = new LongAdder();
+
+	private final AtomicLong maxValue = new AtomicLong();
+
+
+	/**
+	 * Record the given value, e.g. a latency in nanoseconds.
+	 * @param value the value to record (negative values count as 0)
+	 */
+	public void record(long value) {
+		long valueToRecord = Math.max(value, 0);
+		this.buckets.incrementAndGet(bucketIndex(valueToRecord));
+		this.totalCount.increment();
+		this.totalValue.add(valueToRecord);
+		long currentMax = this.maxValue.get();
+		while (valueToRecord > currentMax && !this.maxValue.compareAndSet(currentMax, valueToRecord)) {
+			currentMax = this.maxValue.get();
+		}
+	}
+
+	/**
+	 * Return the number of recorded values.
+	 */
+	public long getCount() {
+		return this.totalCount.sum();
+	}
+
+	/**
+	 * Return the highest recorded value, or 0 if none recorded.
+	 */
+	public long getMax() {
+		return this.maxValue.get();
+	}
+
+	/**
+	 * Return the mean of all recorded values, or 0 if none recorded.
+	 */
+	public double getMean() {
+		long count = this.totalCount.sum();
+		return (count > 0 ? (double) this.totalValue.sum() / count : 0);
+	}
+
+	/**
+	 * Return the value at the given percentile, that is, the highest value
+	 * in the bucket reached by the given share of all recorded values.
+	 * @param percentile the percentile, between 0 and 100 (e.g. 99.9)
+	 * @return the (approximate) value at the given percentile,
+	 * never exceeding the highest recorded value; 0 if none recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		Assert.isTrue(percentile >= 0 && percentile <= 100, "Percentile must be between 0 and 100");
+		long[] counts = new long[BUCKET_COUNT];
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts[i] = this.buckets.get(i);
+			total += counts[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long threshold = Math.max((long) Math.ceil(total * percentile / 100), 1);
+		long max = this.maxValue.get();
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += counts[i];
+			if (seen >= threshold) {
+				return Math.min(highestValueInBucket(i), max);
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Clear all recorded values.
+	 * <p>Values recorded concurrently with this call may be partially retained.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			this.buckets.set(i, 0);
+		}
+		this.totalCount.reset();
+		this.totalValue.reset();
+		this.maxValue.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return "count=" + getCount() + ", mean=" + (long) getMean() + ", p50=" + getValueAtPercentile(50) +
+				", p90=" + getValueAtPercentile(90) + ", p99=" + getValueAtPercentile(99) +
+				", p99.9=" + getValueAtPercentile(99.9) + ", max=" + getMax();
+	}
+
+
+	static int bucketIndex(long value) {
+		if (value < LINEAR_COUNT) {
+			return (int) value;
+		}
+		int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+		return LINEAR_COUNT + (exponent - LINEAR_BITS) * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	static long highestValueInBucket(int index) {
+		if (index < LINEAR_COUNT) {
+			return index;
+		}
+		int exponent = (index - LINEAR_COUNT) / SUB_BUCKET_COUNT + LINEAR_BITS;
+		long subBucket = (index - LINEAR_COUNT) % SUB_BUCKET_COUNT;
+		int shift = exponent - SUB_BUCKET_BITS;
+		long lowest = (SUB_BUCKET_COUNT + subBucket) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+}
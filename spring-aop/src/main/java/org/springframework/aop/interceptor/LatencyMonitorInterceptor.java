@@ -0,0 +1,196 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.interceptor;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * AOP Alliance {@code MethodInterceptor} that records the latency of each
+ * invoked method into a {@link LatencyHistogram}, for percentile reporting
+ * with fixed memory per method. This interceptor has no effect on the
+ * intercepted method call.
+ *
+ * <p>In contrast to {@link PerformanceMonitorInterceptor}, nothing is logged
+ * and no objects are created per invocation: the cost of a call is two
+ * {@link System#nanoTime()} calls plus a few lock-free counter updates,
+ * making this interceptor suitable for permanent use in production.
+ *
+ * <p>Latencies are recorded per method and target class, so that beans
+ * implementing the same interface get separate histograms. They can be
+ * accessed through {@link #getHistogram(Method, Class)} or through the
+ * {@link LatencyMonitorInterceptorMBean} management interface.
+ * In XML configuration, the {@code <aop:latency-monitor>} element defines
+ * an instance of this interceptor together with an advisor for a pointcut.
+ *
+ * @since 5.1
+ * @see LatencyHistogram
+ */
+@SuppressWarnings("serial")
+public class LatencyMonitorInterceptor implements MethodInterceptor, LatencyMonitorInterceptorMBean, Serializable {
+
+	private static final double NANOS_PER_MILLI = 1000000.0;
+
+	private transient Map<Class<?>, Map<Method, LatencyHistogram>> histograms = new ConcurrentHashMap<>(64);
+
+
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		long start = System.nanoTime();
+		try {
+			return invocation.proceed();
+		}
+		finally {
+			long latency = System.nanoTime() - start;
+			Method method = invocation.getMethod();
+			Object target = invocation.getThis();
+			obtainHistogram(method, (target != null ? target.getClass() : method.getDeclaringClass())).record(latency);
+		}
+	}
+
+	private LatencyHistogram obtainHistogram(Method method, Class<?> targetClass) {
+		Map<Method, LatencyHistogram> histogramsPerClass = this.histograms.get(targetClass);
+		if (histogramsPerClass == null) {
+			histogramsPerClass = this.histograms.computeIfAbsent(targetClass, key -> new ConcurrentHashMap<>(16));
+		}
+		LatencyHistogram histogram = histogramsPerClass.get(method);
+		if (histogram == null) {
+			histogram = histogramsPerClass.computeIfAbsent(method, key -> new LatencyHistogram());
+		}
+		return histogram;
+	}
+
+	/**
+	 * Return the histogram of latencies (in nanoseconds) for the given method.
+	 * @param method the method as exposed by the intercepted invocation
+	 * @param targetClass the class of the target object, or the declaring
+	 * class of the method in case of invocations without a target
+	 * @return the histogram, or {@code null} if the method has not been invoked
+	 */
+	@Nullable
+	public LatencyHistogram getHistogram(Method method, Class<?> targetClass) {
+		Map<Method, LatencyHistogram> histogramsPerClass = this.histograms.get(targetClass);
+		return (histogramsPerClass != null ? histogramsPerClass.get(method) : null);
+	}
+
+	/**
+	 * Build the name for the given method, as exposed via JMX: the name of the
+	 * target class and the method, followed by the fully qualified names of
+	 * the parameter types.
+	 * @param method the method to build a name for
+	 * @param targetClass the target class that the method got invoked on
+	 * @return the method name
+	 */
+	protected String getMethodName(Method method, Class<?> targetClass) {
+		StringBuilder sb = new StringBuilder(targetClass.getName());
+		sb.append('.').append(method.getName()).append('(');
+		Class<?>[] paramTypes = method.getParameterTypes();
+		for (int i = 0; i < paramTypes.length; i++) {
+			if (i > 0) {
+				sb.append(',');
+			}
+			sb.append(ClassUtils.getQualifiedName(paramTypes[i]));
+		}
+		return sb.append(')').toString();
+	}
+
+
+	//---------------------------------------------------------------------
+	// Implementation of LatencyMonitorInterceptorMBean interface
+	//---------------------------------------------------------------------
+
+	@Override
+	public String[] getMonitoredMethods() {
+		return StringUtils.toStringArray(getHistogramsByName().keySet());
+	}
+
+	@Override
+	public String[] getLatencySummaries() {
+		Map<String, LatencyHistogram> histogramsByName = getHistogramsByName();
+		String[] summaries = new String[histogramsByName.size()];
+		int i = 0;
+		for (Map.Entry<String, LatencyHistogram> entry : histogramsByName.entrySet()) {
+			LatencyHistogram histogram = entry.getValue();
+			summaries[i++] = entry.getKey() + ": count=" + histogram.getCount() +
+					", mean=" + toMillis(histogram.getMean()) + "ms" +
+					", p50=" + toMillis(histogram.getValueAtPercentile(50)) + "ms" +
+					", p90=" + toMillis(histogram.getValueAtPercentile(90)) + "ms" +
+					", p99=" + toMillis(histogram.getValueAtPercentile(99)) + "ms" +
+					", p99.9=" + toMillis(histogram.getValueAtPercentile(99.9)) + "ms" +
+					", max=" + toMillis(histogram.getMax()) + "ms";
+		}
+		return summaries;
+	}
+
+	@Override
+	public long getInvocationCount(String methodName) {
+		LatencyHistogram histogram = getHistogramsByName().get(methodName);
+		return (histogram != null ? histogram.getCount() : 0);
+	}
+
+	@Override
+	public double getLatencyMillis(String methodName, double percentile) {
+		LatencyHistogram histogram = getHistogramsByName().get(methodName);
+		return (histogram != null ? toMillis(histogram.getValueAtPercentile(percentile)) : 0);
+	}
+
+	@Override
+	public void reset() {
+		for (Map<Method, LatencyHistogram> histogramsPerClass : this.histograms.values()) {
+			for (LatencyHistogram histogram : histogramsPerClass.values()) {
+				histogram.reset();
+			}
+		}
+	}
+
+	private Map<String, LatencyHistogram> getHistogramsByName() {
+		Map<String, LatencyHistogram> histogramsByName = new TreeMap<>();
+		this.histograms.forEach((targetClass, histogramsPerClass) -> histogramsPerClass.forEach(
+				(method, histogram) -> histogramsByName.put(getMethodName(method, targetClass), histogram)));
+		return histogramsByName;
+	}
+
+	private static double toMillis(double nanos) {
+		return nanos / NANOS_PER_MILLI;
+	}
+
+
+	//---------------------------------------------------------------------
+	// Serialization support
+	//---------------------------------------------------------------------
+
+	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+		// Rely on default serialization, just initialize state after deserialization.
+		ois.defaultReadObject();
+
+		// Initialize transient fields: recorded latencies are not serialized.
+		this.histograms = new ConcurrentHashMap<>(64);
+	}
+
+}
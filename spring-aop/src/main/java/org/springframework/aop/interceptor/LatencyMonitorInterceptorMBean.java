@@ -0,0 +1,61 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.interceptor;
+
+/**
+ * Management interface for {@link LatencyMonitorInterceptor}, following the
+ * standard MBean naming convention so that a {@code LatencyMonitorInterceptor}
+ * bean gets picked up by an autodetecting Spring {@code MBeanExporter}
+ * (e.g. through {@code <context:mbean-export/>}).
+ *
+ * <p>Methods are identified by the names returned from {@link #getMonitoredMethods()}.
+ * All latencies are exposed in milliseconds.
+ *
+ * @since 5.1
+ */
+public interface LatencyMonitorInterceptorMBean {
+
+	/**
+	 * Return the names of all methods invoked so far.
+	 */
+	String[] getMonitoredMethods();
+
+	/**
+	 * Return a one-line latency summary per monitored method.
+	 */
+	String[] getLatencySummaries();
+
+	/**
+	 * Return the number of recorded invocations of the given method.
+	 * @param methodName the method name, as returned from {@link #getMonitoredMethods()}
+	 */
+	long getInvocationCount(String methodName);
+
+	/**
+	 * Return the latency of the given method at the given percentile.
+	 * @param methodName the method name, as returned from {@link #getMonitoredMethods()}
+	 * @param percentile the percentile, between 0 and 100 (e.g. 99.9)
+	 * @return the latency in milliseconds, or 0 if the method has not been invoked
+	 */
+	double getLatencyMillis(String methodName, double percentile);
+
+	/**
+	 * Clear the latencies recorded so far.
+	 */
+	void reset();
+
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.target;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link org.springframework.aop.TargetSource} implementation that holds
+ * objects in a lock-free pool, handing out an idle target instance per
+ * invocation and creating new prototype instances when none is available.
+ *
+ * <p>Idle instances are kept in a concurrent deque: borrowing and returning
+ * an instance are single non-blocking operations, so throughput scales with
+ * the number of calling threads instead of serializing on a lock. The most
+ * recently returned instance is handed out first, keeping a small working
+ * set of instances warm while older instances become eligible for eviction.
+ *
+ * <p>Idle instances are evicted and destroyed when exceeding the
+ * {@link #setMaxIdle "maxIdle"} count or when having been idle for longer
+ * than {@link #setMaxIdleTime "maxIdleTime"}. Eviction happens on return
+ * of an instance to the pool; no background thread is involved.
+ *
+ * <p>A {@link #setMaxSize "maxSize"} limit caps the number of instances
+ * in use at the same time. Callers exceeding that limit wait for up to
+ * {@link #setMaxWait "maxWait"} milliseconds for an instance to be returned.
+ * Without a size limit, borrowing never blocks.
+ *
+ * <p>Pool statistics are available through the {@link PoolingConfig}
+ * interface as well as through the {@link #getCreatedCount()} and
+ * {@link #getDestroyedCount()} methods, e.g. for export via JMX.
+ *
+ * @since 5.1
+ * @see #setMaxSize
+ * @see #setMaxIdle
+ * @see #setMaxIdleTime
+ */
+@SuppressWarnings("serial")
+public class ConcurrentPoolTargetSource extends AbstractPoolingTargetSource {
+
+	private int maxIdle = 8;
+
+	private long maxIdleTime = -1;
+
+	private long maxWait = -1;
+
+	@Nullable
+	private Semaphore permits;
+
+	private final ConcurrentLinkedDeque<IdleTarget> idleTargets = new ConcurrentLinkedDeque<>();
+
+	private final AtomicInteger idleCount = new AtomicInteger();
+
+	private final AtomicInteger activeCount = new AtomicInteger();
+
+	private final LongAdder createdCount = new LongAdder();
+
+	private final LongAdder destroyedCount = new LongAdder();
+
+	private volatile boolean closed;
+
+
+	/**
+	 * Set the maximum number of idle instances kept in the pool.
+	 * Instances returned beyond this number get destroyed.
+	 * <p>Default is 8. Specify 0 to destroy every instance on return.
+	 */
+	public void setMaxIdle(int maxIdle) {
+		this.maxIdle = maxIdle;
+	}
+
+	/**
+	 * Return the maximum number of idle instances kept in the pool.
+	 */
+	public int getMaxIdle() {
+		return this.maxIdle;
+	}
+
+	/**
+	 * Set the maximum time (in milliseconds) that an instance may stay idle
+	 * in the pool before it gets evicted.
+	 * <p>Default is -1, keeping idle instances for an unlimited time.
+	 */
+	public void setMaxIdleTime(long maxIdleTime) {
+		this.maxIdleTime = maxIdleTime;
+	}
+
+	/**
+	 * Return the maximum time (in milliseconds) that an instance may stay idle.
+	 */
+	public long getMaxIdleTime() {
+		return this.maxIdleTime;
+	}
+
+	/**
+	 * Set the maximum time (in milliseconds) to wait for an instance
+	 * when the pool has reached its {@link #setMaxSize "maxSize"} limit.
+	 * <p>Default is -1, waiting indefinitely.
+	 */
+	public void setMaxWait(long maxWait) {
+		this.maxWait = maxWait;
+	}
+
+	/**
+	 * Return the maximum time (in milliseconds) to wait for an instance.
+	 */
+	public long getMaxWait() {
+		return this.maxWait;
+	}
+
+
+	@Override
+	protected void createPool() {
+		this.permits = (getMaxSize() > 0 ? new Semaphore(getMaxSize()) : null);
+	}
+
+	/**
+	 * Borrow an idle instance from the pool or create a new one.
+	 * @throws NoSuchElementException if the pool is exhausted
+	 * and no instance got returned within the "maxWait" time
+	 */
+	@Override
+	public Object getTarget() throws Exception {
+		Semaphore permits = this.permits;
+		if (permits != null) {
+			if (this.maxWait < 0) {
+				permits.acquire();
+			}
+			else if (!permits.tryAcquire(this.maxWait, TimeUnit.MILLISECONDS)) {
+				throw new NoSuchElementException("Pool exhausted: no instance of bean '" + getTargetBeanName() +
+						"' returned within " + this.maxWait + " ms");
+			}
+		}
+		this.activeCount.incrementAndGet();
+		try {
+			IdleTarget idleTarget = this.idleTargets.pollFirst();
+			if (idleTarget != null) {
+				this.idleCount.decrementAndGet();
+				return idleTarget.target;
+			}
+			Object target = newPrototypeInstance();
+			this.createdCount.increment();
+			return target;
+		}
+		catch (Throwable ex) {
+			this.activeCount.decrementAndGet();
+			if (permits != null) {
+				permits.release();
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * Return the given instance to the pool, destroying it if the pool
+	 * already holds the maximum number of idle instances.
+	 */
+	@Override
+	public void releaseTarget(Object target) {
+		this.activeCount.decrementAndGet();
+		try {
+			if (this.closed) {
+				destroyTarget(target);
+				return;
+			}
+			if (this.idleCount.incrementAndGet() <= this.maxIdle) {
+				this.idleTargets.offerFirst(new IdleTarget(target));
+				if (this.closed) {
+					// Concurrently closed: make sure that no idle instance survives
+					drainIdleTargets();
+				}
+			}
+			else {
+				this.idleCount.decrementAndGet();
+				destroyTarget(target);
+			}
+			evictExpiredTargets();
+		}
+		finally {
+			Semaphore permits = this.permits;
+			if (permits != null) {
+				permits.release();
+			}
+		}
+	}
+
+	/**
+	 * Evict idle instances which exceeded the "maxIdleTime", starting with the
+	 * least recently returned one at the tail of the deque.
+	 */
+	private void evictExpiredTargets() {
+		if (this.maxIdleTime < 0) {
+			return;
+		}
+		long threshold = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(this.maxIdleTime);
+		IdleTarget idleTarget = this.idleTargets.peekLast();
+		while (idleTarget != null && idleTarget.returnTime - threshold < 0) {
+			if (this.idleTargets.removeLastOccurrence(idleTarget)) {
+				this.idleCount.decrementAndGet();
+				destroyTarget(idleTarget.target);
+			}
+			idleTarget = this.idleTargets.peekLast();
+		}
+	}
+
+	private void drainIdleTargets() {
+		IdleTarget idleTarget = this.idleTargets.pollLast();
+		while (idleTarget != null) {
+			this.idleCount.decrementAndGet();
+			destroyTarget(idleTarget.target);
+			idleTarget = this.idleTargets.pollLast();
+		}
+	}
+
+	private void destroyTarget(Object target) {
+		this.destroyedCount.increment();
+		destroyPrototypeInstance(target);
+	}
+
+
+	@Override
+	public int getActiveCount() {
+		return this.activeCount.get();
+	}
+
+	@Override
+	public int getIdleCount() {
+		return this.idleCount.get();
+	}
+
+	/**
+	 * Return the total number of instances created by this pool.
+	 */
+	public long getCreatedCount() {
+		return this.createdCount.sum();
+	}
+
+	/**
+	 * Return the total number of instances destroyed by this pool,
+	 * through eviction or on shutdown.
+	 */
+	public long getDestroyedCount() {
+		return this.destroyedCount.sum();
+	}
+
+
+	/**
+	 * Destroy all idle instances on shutdown. Instances still in use
+	 * get destroyed when they are returned to the pool.
+	 */
+	@Override
+	public void destroy() {
+		logger.debug("Closing ConcurrentPoolTargetSource");
+		this.closed = true;
+		drainIdleTargets();
+	}
+
+
+	/**
+	 * Holder for an idle instance, remembering when it was returned.
+	 */
+	private static final class IdleTarget {
+
+		final Object target;
+
+		final long returnTime = System.nanoTime();
+
+		IdleTarget(Object target) {
+			this.target = target;
+		}
+	}
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.target;
+
+/**
+ * Simple {@link org.springframework.aop.TargetSource} implementation,
+ * freshly obtaining the specified target bean from its containing
+ * Spring {@link org.springframework.beans.factory.BeanFactory}.
+ *
+ * <p>Can obtain any kind of target bean: singleton, scoped, or prototype.
+ * Typically used for scoped beans.
+ *
+ * @since 2.0.3
+ */
+@SuppressWarnings("serial")
+public class SimpleBeanTargetSource extends AbstractBeanFactoryBasedTargetSource {
+
+	@Override
+	public Object getTarget() throws Exception {
+		return getBeanFactory().getBean(getTargetBeanName());
+	}
+
+}
@@ -0,0 +1,16 @@
+/**
+ * Various {@link org.springframework.aop.TargetSource} implementations for use
+ * with Spring AOP. Pooling and thread-local target sources allow for handing
+ * out non-thread-safe objects from a stateless-looking proxy: ConcurrentPoolTargetSource
+ * borrows and returns without locking, whereas CommonsPool2TargetSource delegates
+ * to a Commons Pool 2 object pool.
+ *
+ * <p>Lazy-init, hot-swappable and simple bean-backed target sources complete
+ * the package, serving scoped proxies, JMX exporters and refreshable scripts.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.aop.target;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
@@ -31,6 +31,7 @@ import org.springframework.aop.MethodMatcher;
 import org.springframework.aop.Pointcut;
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.tests.sample.beans.IOther;
 import org.springframework.tests.sample.beans.ITestBean;
 import org.springframework.tests.sample.beans.TestBean;
@@ -306,6 +307,23 @@ public class AspectJExpressionPointcutTests {
 		assertEquals("execution(* *(..)) && args(String) && this(Object)",expr.getPointcutExpression());
 	}
 
+	@Test
+	public void testSharedPointcutExpression() throws Exception {
+		AspectJExpressionPointcut pc1 = new AspectJExpressionPointcut();
+		pc1.setExpression(MATCH_ALL_METHODS);
+		AspectJExpressionPointcut pc2 = new AspectJExpressionPointcut();
+		pc2.setExpression(MATCH_ALL_METHODS);
+		assertSame(pc1.getPointcutExpression(), pc2.getPointcutExpression());
+		assertTrue(pc1.matches(getAge, TestBean.class));
+		assertTrue(pc2.matches(getAge, TestBean.class));
+
+		AspectJExpressionPointcut pc3 = new AspectJExpressionPointcut();
+		pc3.setExpression(MATCH_ALL_METHODS);
+		pc3.setBeanFactory(new DefaultListableBeanFactory());
+		assertNotSame(pc1.getPointcutExpression(), pc3.getPointcutExpression());
+		assertTrue(pc3.matches(getAge, TestBean.class));
+	}
+
 	private Pointcut getPointcut(String expression) {
 		AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
 		pointcut.setExpression(expression);
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.config;
+
+import java.lang.reflect.Method;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.interceptor.LatencyMonitorInterceptor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.tests.sample.beans.ITestBean;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+import static org.springframework.tests.TestResourceUtils.*;
+
+/**
+ * Tests for the {@code <aop:latency-monitor>} element.
+ */
+public class AopNamespaceHandlerLatencyMonitorTests {
+
+	private DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+
+	@Before
+	public void setup() {
+		new XmlBeanDefinitionReader(this.beanFactory).loadBeanDefinitions(
+				qualifiedResource(AopNamespaceHandlerLatencyMonitorTests.class, "context.xml"));
+		this.beanFactory.addBeanPostProcessor(
+				this.beanFactory.getBean(AopConfigUtils.AUTO_PROXY_CREATOR_BEAN_NAME, BeanPostProcessor.class));
+	}
+
+
+	@Test
+	public void interceptorAndAdvisorRegistered() {
+		assertArrayEquals(new String[] {"latencyMonitor"},
+				this.beanFactory.getBeanNamesForType(LatencyMonitorInterceptor.class));
+		String[] advisorNames = this.beanFactory.getBeanNamesForType(Advisor.class);
+		assertEquals(1, advisorNames.length);
+		Advisor advisor = this.beanFactory.getBean(advisorNames[0], Advisor.class);
+		assertSame(this.beanFactory.getBean("latencyMonitor"), advisor.getAdvice());
+	}
+
+	@Test
+	public void latencyRecordedForMatchingMethods() throws Exception {
+		ITestBean testBean = this.beanFactory.getBean("testBean", ITestBean.class);
+		assertTrue(AopUtils.isAopProxy(testBean));
+		assertEquals("juergen", testBean.getName());
+		assertEquals("juergen", testBean.getName());
+		testBean.getAge();
+
+		LatencyMonitorInterceptor monitor = this.beanFactory.getBean(LatencyMonitorInterceptor.class);
+		Method getName = ITestBean.class.getMethod("getName");
+		assertEquals(2, monitor.getHistogram(getName, TestBean.class).getCount());
+		assertArrayEquals(new String[] {TestBean.class.getName() + ".getName()"}, monitor.getMonitoredMethods());
+	}
+
+}
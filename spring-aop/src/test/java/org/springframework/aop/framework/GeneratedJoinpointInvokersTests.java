@@ -0,0 +1,212 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.function.BiFunction;
+
+import org.junit.Test;
+
+import org.springframework.tests.aop.interceptor.NopInterceptor;
+import org.springframework.tests.sample.beans.ITestBean;
+import org.springframework.tests.sample.beans.TestBean;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.FileCopyUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link GeneratedJoinpointInvokers}.
+ */
+public class GeneratedJoinpointInvokersTests {
+
+	@Test
+	public void interfaceMethods() throws Exception {
+		TestBean target = new TestBean("juergen", 42);
+
+		BiFunction<Object, Object[], Object> getName =
+				GeneratedJoinpointInvokers.forMethod(ITestBean.class.getMethod("getName"));
+		assertNotNull(getName);
+		assertEquals("juergen", getName.apply(target, new Object[0]));
+
+		BiFunction<Object, Object[], Object> setAge =
+				GeneratedJoinpointInvokers.forMethod(ITestBean.class.getMethod("setAge", int.class));
+		assertNotNull(setAge);
+		assertNull(setAge.apply(target, new Object[] {43}));
+		assertEquals(43, target.getAge());
+
+		BiFunction<Object, Object[], Object> getAge =
+				GeneratedJoinpointInvokers.forMethod(ITestBean.class.getMethod("getAge"));
+		assertNotNull(getAge);
+		assertEquals(43, getAge.apply(target, null));
+
+		BiFunction<Object, Object[], Object> setStringArray =
+				GeneratedJoinpointInvokers.forMethod(ITestBean.class.getMethod("setStringArray", String[].class));
+		assertNotNull(setStringArray);
+		setStringArray.apply(target, new Object[] {new String[] {"a", "b"}});
+		assertArrayEquals(new String[] {"a", "b"}, target.getStringArray());
+	}
+
+	@Test
+	public void classMethod() throws Exception {
+		BiFunction<Object, Object[], Object> toString =
+				GeneratedJoinpointInvokers.forMethod(Object.class.getMethod("toString"));
+		assertNotNull(toString);
+		assertEquals("sample", toString.apply(new Sample(), new Object[0]));
+	}
+
+	@Test
+	public void exceptionPropagatedAsIs() throws Exception {
+		BiFunction<Object, Object[], Object> fail =
+				GeneratedJoinpointInvokers.forMethod(Sample.class.getMethod("fail"));
+		assertNotNull(fail);
+		try {
+			fail.apply(new Sample(), new Object[0]);
+			fail("Should have thrown IOException");
+		}
+		catch (Throwable ex) {
+			assertTrue(ex instanceof IOException);
+		}
+	}
+
+	@Test
+	public void nonPublicMethod() throws Exception {
+		assertNull(GeneratedJoinpointInvokers.forMethod(Sample.class.getDeclaredMethod("hidden")));
+		assertNull(GeneratedJoinpointInvokers.forMethod(HiddenSample.class.getMethod("toString")));
+	}
+
+	@Test
+	public void invokerSharedPerMethod() throws Exception {
+		Method getName = ITestBean.class.getMethod("getName");
+		BiFunction<Object, Object[], Object> invoker = GeneratedJoinpointInvokers.forMethod(getName);
+		assertNotNull(invoker);
+		assertSame(invoker, GeneratedJoinpointInvokers.forMethod(getName));
+	}
+
+	@Test
+	public void unlinkableMethod() throws Exception {
+		String className = Sample.class.getName();
+		byte[] bytes;
+		String resourceName = ClassUtils.getClassFileName(Sample.class);
+		try (InputStream is = Sample.class.getResourceAsStream(resourceName)) {
+			bytes = FileCopyUtils.copyToByteArray(is);
+		}
+		UnresolvableClassLoader classLoader = new UnresolvableClassLoader(getClass().getClassLoader(), className);
+		Class<?> sampleClass = classLoader.defineClass(className, bytes);
+		// Passes the accessibility checks but cannot be resolved from the generated class
+		assertNull(GeneratedJoinpointInvokers.forMethod(sampleClass.getMethod("fail")));
+	}
+
+	@Test
+	public void jdkProxyWithInterceptor() throws Throwable {
+		TestBean target = new TestBean("juergen", 42);
+		NopInterceptor interceptor = new NopInterceptor();
+		AdvisedSupport config = new AdvisedSupport(ITestBean.class);
+		config.setTarget(target);
+		config.addAdvice(interceptor);
+		config.setFrozen(true);
+		ITestBean proxy = (ITestBean) new JdkDynamicAopProxy(config, true).getProxy();
+
+		assertEquals("juergen", proxy.getName());
+		proxy.setAge(43);
+		assertEquals(43, proxy.getAge());
+		assertEquals(43, target.getAge());
+		try {
+			proxy.exceptional(new IOException());
+			fail("Should have thrown IOException");
+		}
+		catch (IOException ex) {
+			// expected
+		}
+		assertEquals(4, interceptor.getCount());
+	}
+
+	@Test
+	public void jdkProxyWithoutAdvice() throws Throwable {
+		TestBean target = new TestBean("juergen", 42);
+		AdvisedSupport config = new AdvisedSupport(ITestBean.class);
+		config.setTarget(target);
+		config.setFrozen(true);
+		ITestBean proxy = (ITestBean) new JdkDynamicAopProxy(config, true).getProxy();
+
+		assertEquals("juergen", proxy.getName());
+		proxy.setAge(43);
+		assertEquals(43, proxy.getAge());
+		try {
+			proxy.exceptional(new IOException());
+			fail("Should have thrown IOException");
+		}
+		catch (IOException ex) {
+			// expected
+		}
+	}
+
+
+	public static class Sample {
+
+		public void fail() throws IOException {
+			throw new IOException();
+		}
+
+		void hidden() {
+		}
+
+		@Override
+		public String toString() {
+			return "sample";
+		}
+	}
+
+
+	private static class HiddenSample {
+
+		@Override
+		public String toString() {
+			return "hidden";
+		}
+	}
+
+
+	/**
+	 * ClassLoader that defines a class which it does not expose by name,
+	 * so that references to it from child ClassLoaders fail to link.
+	 */
+	private static class UnresolvableClassLoader extends ClassLoader {
+
+		private final String hiddenClassName;
+
+		UnresolvableClassLoader(ClassLoader parent, String hiddenClassName) {
+			super(parent);
+			this.hiddenClassName = hiddenClassName;
+		}
+
+		Class<?> defineClass(String name, byte[] bytes) {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (name.equals(this.hiddenClassName)) {
+				throw new ClassNotFoundException(name);
+			}
+			return super.loadClass(name, resolve);
+		}
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.interceptor;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTests {
+
+	@Test
+	public void emptyHistogram() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getMax());
+		assertEquals(0, histogram.getMean(), 0);
+		assertEquals(0, histogram.getValueAtPercentile(99));
+	}
+
+	@Test
+	public void exactSmallValues() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 20; i++) {
+			histogram.record(i);
+		}
+		assertEquals(20, histogram.getCount());
+		assertEquals(20, histogram.getMax());
+		assertEquals(10.5, histogram.getMean(), 0);
+		assertEquals(10, histogram.getValueAtPercentile(50));
+		assertEquals(19, histogram.getValueAtPercentile(95));
+		assertEquals(20, histogram.getValueAtPercentile(100));
+		assertEquals(1, histogram.getValueAtPercentile(0));
+	}
+
+	@Test
+	public void percentilesWithinRelativeError() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long i = 1; i <= 100000; i++) {
+			histogram.record(i * 1000);
+		}
+		assertWithinRelativeError(50000000, histogram.getValueAtPercentile(50));
+		assertWithinRelativeError(99000000, histogram.getValueAtPercentile(99));
+		assertWithinRelativeError(99900000, histogram.getValueAtPercentile(99.9));
+		assertEquals(100000000, histogram.getValueAtPercentile(100));
+		assertEquals(100000000, histogram.getMax());
+	}
+
+	@Test
+	public void bucketBoundaries() {
+		long[] values = {0, 31, 32, 33, 47, 48, 1000, 123456789, Long.MAX_VALUE};
+		for (long value : values) {
+			int index = LatencyHistogram.bucketIndex(value);
+			assertTrue(LatencyHistogram.highestValueInBucket(index) >= value);
+			if (index > 0) {
+				assertTrue(LatencyHistogram.highestValueInBucket(index - 1) < value);
+			}
+		}
+		assertEquals(959, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void negativeValueCountsAsZero() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(-5);
+		assertEquals(1, histogram.getCount());
+		assertEquals(0, histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void reset() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(100);
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getMax());
+		assertEquals(0, histogram.getValueAtPercentile(50));
+	}
+
+	@Test
+	public void concurrentRecording() throws InterruptedException {
+		LatencyHistogram histogram = new LatencyHistogram();
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> {
+				for (int j = 0; j < 10000; j++) {
+					histogram.record(j);
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(40000, histogram.getCount());
+		assertEquals(9999, histogram.getMax());
+	}
+
+
+	private static void assertWithinRelativeError(long expected, long actual) {
+		assertTrue("Expected ~" + expected + " but was " + actual,
+				Math.abs(actual - expected) <= expected / 16);
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.interceptor;
+
+import java.lang.reflect.Method;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Unit tests for {@link LatencyMonitorInterceptor}.
+ */
+public class LatencyMonitorInterceptorTests {
+
+	@Test
+	public void recordsLatencyPerMethod() throws Throwable {
+		Method toString = Object.class.getMethod("toString");
+		Method equals = Object.class.getMethod("equals", Object.class);
+		LatencyMonitorInterceptor interceptor = new LatencyMonitorInterceptor();
+		assertNull(interceptor.getHistogram(toString, Object.class));
+
+		MethodInvocation mi = mock(MethodInvocation.class);
+		given(mi.getMethod()).willReturn(toString);
+		given(mi.proceed()).willReturn("result");
+		assertEquals("result", interceptor.invoke(mi));
+		assertEquals("result", interceptor.invoke(mi));
+
+		given(mi.getMethod()).willReturn(equals);
+		interceptor.invoke(mi);
+
+		assertEquals(2, interceptor.getHistogram(toString, Object.class).getCount());
+		assertEquals(1, interceptor.getHistogram(equals, Object.class).getCount());
+		assertArrayEquals(new String[] {"java.lang.Object.equals(java.lang.Object)", "java.lang.Object.toString()"},
+				interceptor.getMonitoredMethods());
+		assertEquals(2, interceptor.getInvocationCount("java.lang.Object.toString()"));
+		assertEquals(0, interceptor.getInvocationCount("java.lang.Object.hashCode()"));
+		assertTrue(interceptor.getLatencyMillis("java.lang.Object.toString()", 99) >= 0);
+		assertEquals(2, interceptor.getLatencySummaries().length);
+		assertTrue(interceptor.getLatencySummaries()[1].startsWith("java.lang.Object.toString(): count=2"));
+
+		interceptor.reset();
+		assertEquals(0, interceptor.getInvocationCount("java.lang.Object.toString()"));
+	}
+
+	@Test
+	public void recordsLatencyOnException() throws Throwable {
+		Method toString = Object.class.getMethod("toString");
+		LatencyMonitorInterceptor interceptor = new LatencyMonitorInterceptor();
+
+		MethodInvocation mi = mock(MethodInvocation.class);
+		given(mi.getMethod()).willReturn(toString);
+		given(mi.proceed()).willThrow(new IllegalArgumentException());
+		try {
+			interceptor.invoke(mi);
+			fail("Must have propagated the IllegalArgumentException");
+		}
+		catch (IllegalArgumentException expected) {
+		}
+		assertEquals(1, interceptor.getHistogram(toString, Object.class).getCount());
+	}
+
+	@Test
+	public void recordsLatencyPerTargetClass() throws Throwable {
+		Method compareTo = Comparable.class.getMethod("compareTo", Object.class);
+		LatencyMonitorInterceptor interceptor = new LatencyMonitorInterceptor();
+
+		MethodInvocation mi = mock(MethodInvocation.class);
+		given(mi.getMethod()).willReturn(compareTo);
+		given(mi.getThis()).willReturn("value");
+		interceptor.invoke(mi);
+		interceptor.invoke(mi);
+		given(mi.getThis()).willReturn(1);
+		interceptor.invoke(mi);
+
+		assertEquals(2, interceptor.getHistogram(compareTo, String.class).getCount());
+		assertEquals(1, interceptor.getHistogram(compareTo, Integer.class).getCount());
+		assertNull(interceptor.getHistogram(compareTo, Comparable.class));
+		assertArrayEquals(new String[] {"java.lang.Integer.compareTo(java.lang.Object)",
+				"java.lang.String.compareTo(java.lang.Object)"}, interceptor.getMonitoredMethods());
+	}
+
+}
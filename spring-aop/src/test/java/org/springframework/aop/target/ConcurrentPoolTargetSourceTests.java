@@ -0,0 +1,205 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.target;
+
+import java.util.NoSuchElementException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.tests.sample.beans.ITestBean;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ConcurrentPoolTargetSource}.
+ */
+public class ConcurrentPoolTargetSourceTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+
+	@Before
+	public void setup() {
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		this.beanFactory.registerBeanDefinition("target", bd);
+		this.beanFactory.registerBeanDefinition("singleton", new RootBeanDefinition(TestBean.class));
+	}
+
+
+	@Test
+	public void borrowAndReturn() throws Exception {
+		ConcurrentPoolTargetSource targetSource = createTargetSource();
+		assertEquals(TestBean.class, targetSource.getTargetClass());
+		assertFalse(targetSource.isStatic());
+
+		Object first = targetSource.getTarget();
+		Object second = targetSource.getTarget();
+		assertNotSame(first, second);
+		assertEquals(2, targetSource.getActiveCount());
+		assertEquals(0, targetSource.getIdleCount());
+
+		targetSource.releaseTarget(first);
+		targetSource.releaseTarget(second);
+		assertEquals(0, targetSource.getActiveCount());
+		assertEquals(2, targetSource.getIdleCount());
+
+		assertSame(second, targetSource.getTarget());
+		assertEquals(1, targetSource.getIdleCount());
+		assertEquals(2, targetSource.getCreatedCount());
+	}
+
+	@Test
+	public void maxIdleEviction() throws Exception {
+		ConcurrentPoolTargetSource targetSource = new ConcurrentPoolTargetSource();
+		targetSource.setTargetBeanName("target");
+		targetSource.setMaxIdle(1);
+		targetSource.setBeanFactory(this.beanFactory);
+
+		Object first = targetSource.getTarget();
+		Object second = targetSource.getTarget();
+		targetSource.releaseTarget(first);
+		targetSource.releaseTarget(second);
+		assertEquals(1, targetSource.getIdleCount());
+		assertEquals(1, targetSource.getDestroyedCount());
+		assertSame(first, targetSource.getTarget());
+	}
+
+	@Test
+	public void maxIdleTimeEviction() throws Exception {
+		ConcurrentPoolTargetSource targetSource = new ConcurrentPoolTargetSource();
+		targetSource.setTargetBeanName("target");
+		targetSource.setMaxIdleTime(0);
+		targetSource.setBeanFactory(this.beanFactory);
+
+		Object first = targetSource.getTarget();
+		Object second = targetSource.getTarget();
+		targetSource.releaseTarget(first);
+		Thread.sleep(5);
+		targetSource.releaseTarget(second);
+		assertEquals(0, targetSource.getIdleCount());
+		assertEquals(2, targetSource.getDestroyedCount());
+	}
+
+	@Test
+	public void maxSizeWithMaxWait() throws Exception {
+		ConcurrentPoolTargetSource targetSource = new ConcurrentPoolTargetSource();
+		targetSource.setTargetBeanName("target");
+		targetSource.setMaxSize(1);
+		targetSource.setMaxWait(10);
+		targetSource.setBeanFactory(this.beanFactory);
+		assertEquals(1, targetSource.getMaxSize());
+
+		Object target = targetSource.getTarget();
+		try {
+			targetSource.getTarget();
+			fail("Should have thrown NoSuchElementException");
+		}
+		catch (NoSuchElementException ex) {
+			// expected
+		}
+		targetSource.releaseTarget(target);
+		assertSame(target, targetSource.getTarget());
+	}
+
+	@Test
+	public void destroyDrainsIdleTargets() throws Exception {
+		ConcurrentPoolTargetSource targetSource = createTargetSource();
+		Object first = targetSource.getTarget();
+		Object second = targetSource.getTarget();
+		targetSource.releaseTarget(first);
+
+		targetSource.destroy();
+		assertEquals(0, targetSource.getIdleCount());
+		assertEquals(1, targetSource.getDestroyedCount());
+
+		targetSource.releaseTarget(second);
+		assertEquals(0, targetSource.getIdleCount());
+		assertEquals(2, targetSource.getDestroyedCount());
+	}
+
+	@Test
+	public void concurrentBorrowAndReturn() throws Exception {
+		ConcurrentPoolTargetSource targetSource = new ConcurrentPoolTargetSource();
+		targetSource.setTargetBeanName("target");
+		targetSource.setMaxSize(4);
+		targetSource.setBeanFactory(this.beanFactory);
+
+		Thread[] threads = new Thread[8];
+		Throwable[] failure = new Throwable[1];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> {
+				try {
+					for (int j = 0; j < 1000; j++) {
+						Object target = targetSource.getTarget();
+						targetSource.releaseTarget(target);
+					}
+				}
+				catch (Throwable ex) {
+					failure[0] = ex;
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertNull(failure[0]);
+		assertEquals(0, targetSource.getActiveCount());
+		assertTrue(targetSource.getCreatedCount() <= 4);
+		assertEquals(targetSource.getCreatedCount() - targetSource.getDestroyedCount(), targetSource.getIdleCount());
+	}
+
+	@Test(expected = BeanDefinitionStoreException.class)
+	public void rejectsSingletonTarget() {
+		ConcurrentPoolTargetSource targetSource = new ConcurrentPoolTargetSource();
+		targetSource.setTargetBeanName("singleton");
+		targetSource.setBeanFactory(this.beanFactory);
+	}
+
+	@Test
+	public void proxyWithPoolingConfigMixin() throws Exception {
+		ConcurrentPoolTargetSource targetSource = createTargetSource();
+		ProxyFactory pf = new ProxyFactory();
+		pf.setTargetSource(targetSource);
+		pf.addInterface(ITestBean.class);
+		pf.addAdvisor(targetSource.getPoolingConfigMixin());
+		ITestBean proxy = (ITestBean) pf.getProxy();
+
+		proxy.setAge(42);
+		assertEquals(42, proxy.getAge());
+		PoolingConfig config = (PoolingConfig) proxy;
+		assertEquals(0, config.getActiveCount());
+		assertEquals(1, config.getIdleCount());
+	}
+
+
+	private ConcurrentPoolTargetSource createTargetSource() {
+		ConcurrentPoolTargetSource targetSource = new ConcurrentPoolTargetSource();
+		targetSource.setTargetBeanName("target");
+		targetSource.setBeanFactory(this.beanFactory);
+		return targetSource;
+	}
+
+}
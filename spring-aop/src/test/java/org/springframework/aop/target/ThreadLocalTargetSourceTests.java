@@ -0,0 +1,81 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.target;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ThreadLocalTargetSource}.
+ */
+public class ThreadLocalTargetSourceTests {
+
+	private final ThreadLocalTargetSource targetSource = new ThreadLocalTargetSource();
+
+
+	@Before
+	public void setup() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		beanFactory.registerBeanDefinition("target", bd);
+		this.targetSource.setTargetBeanName("target");
+		this.targetSource.setBeanFactory(beanFactory);
+	}
+
+
+	@Test
+	public void sameTargetPerThread() throws Exception {
+		Object target = this.targetSource.getTarget();
+		assertSame(target, this.targetSource.getTarget());
+		assertEquals(2, this.targetSource.getInvocationCount());
+		assertEquals(1, this.targetSource.getHitCount());
+		assertEquals(1, this.targetSource.getObjectCount());
+
+		Object[] otherTarget = new Object[1];
+		Thread thread = new Thread(() -> {
+			try {
+				otherTarget[0] = this.targetSource.getTarget();
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+		thread.start();
+		thread.join();
+		assertNotNull(otherTarget[0]);
+		assertNotSame(target, otherTarget[0]);
+		assertEquals(3, this.targetSource.getInvocationCount());
+		assertEquals(2, this.targetSource.getObjectCount());
+	}
+
+	@Test
+	public void destroyUnbindsTargets() throws Exception {
+		Object target = this.targetSource.getTarget();
+		this.targetSource.destroy();
+		assertNotSame(target, this.targetSource.getTarget());
+		assertEquals(2, this.targetSource.getObjectCount());
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.target.dynamic;
+
+import org.junit.Test;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link AbstractRefreshableTargetSource} and
+ * {@link BeanFactoryRefreshableTargetSource}.
+ */
+public class RefreshableTargetSourceTests {
+
+	@Test
+	public void refreshCheckWithNonElapsedDelay() {
+		CountingRefreshableTargetSource ts = new CountingRefreshableTargetSource(true);
+		ts.setRefreshCheckDelay(Long.MAX_VALUE);
+
+		Object a = ts.getTarget();
+		Object b = ts.getTarget();
+		assertSame("Should be same", a, b);
+		assertEquals(1, ts.getRefreshCount());
+	}
+
+	@Test
+	public void refreshCheckWithElapsedDelay() throws Exception {
+		CountingRefreshableTargetSource ts = new CountingRefreshableTargetSource(true);
+		ts.setRefreshCheckDelay(0);
+
+		Object a = ts.getTarget();
+		Thread.sleep(1);
+		Object b = ts.getTarget();
+		assertNotSame("Should be different", a, b);
+		assertEquals(2, ts.getRefreshCount());
+	}
+
+	@Test
+	public void refreshOnlyWhenRequired() throws Exception {
+		CountingRefreshableTargetSource ts = new CountingRefreshableTargetSource(false);
+		ts.setRefreshCheckDelay(0);
+
+		Object a = ts.getTarget();
+		Thread.sleep(1);
+		Object b = ts.getTarget();
+		assertSame("Should be same", a, b);
+		assertEquals(1, ts.getRefreshCount());
+
+		ts.refresh();
+		assertNotSame("Should be different after explicit refresh", a, ts.getTarget());
+		assertEquals(2, ts.getRefreshCount());
+		assertTrue(ts.getLastRefreshTime() > 0);
+	}
+
+	@Test
+	public void beanFactoryRefresh() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		bf.registerBeanDefinition("target", bd);
+
+		BeanFactoryRefreshableTargetSource ts = new BeanFactoryRefreshableTargetSource(bf, "target");
+		assertEquals(TestBean.class, ts.getTargetClass());
+		Object a = ts.getTarget();
+		assertSame(a, ts.getTarget());
+		ts.refresh();
+		assertNotSame(a, ts.getTarget());
+		assertEquals(2, ts.getRefreshCount());
+	}
+
+
+	private static class CountingRefreshableTargetSource extends AbstractRefreshableTargetSource {
+
+		private final boolean requiresRefresh;
+
+		CountingRefreshableTargetSource(boolean requiresRefresh) {
+			this.requiresRefresh = requiresRefresh;
+		}
+
+		@Override
+		protected Object freshTarget() {
+			return new Object();
+		}
+
+		@Override
+		protected boolean requiresRefresh() {
+			return this.requiresRefresh;
+		}
+	}
+
+}
@@ -304,6 +304,11 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 				}
 			}
 			else {
+				GeneratedPropertyAccessors.ReadAccessor accessor =
+						getCachedIntrospectionResults().getReadAccessor(readMethod);
+				if (accessor != null) {
+					return accessor.getValue(getWrappedInstance());
+				}
 				ReflectionUtils.makeAccessible(readMethod);
 				return readMethod.invoke(getWrappedInstance(), (Object[]) null);
 			}
@@ -328,6 +333,12 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 				}
 			}
 			else {
+				GeneratedPropertyAccessors.WriteAccessor accessor =
+						getCachedIntrospectionResults().getWriteAccessor(writeMethod);
+				if (accessor != null) {
+					accessor.setValue(getWrappedInstance(), value);
+					return;
+				}
 				ReflectionUtils.makeAccessible(writeMethod);
 				writeMethod.invoke(getWrappedInstance(), value);
 			}
@@ -20,6 +20,7 @@ import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -92,10 +93,30 @@ public class CachedIntrospectionResults {
 	 */
 	public static final String IGNORE_BEANINFO_PROPERTY_NAME = "spring.beaninfo.ignore";
 
+	/**
+	 * System property that instructs Spring to access bean properties through accessors
+	 * generated by the {@link java.lang.invoke.LambdaMetafactory} instead of through
+	 * reflective {@link Method#invoke} calls: "spring.beans.generatedAccessors".
+	 * <p>The default is "false". Consider switching this flag to "true" if data binding
+	 * or property-driven configuration of large beans shows up in your profiles. Accessors
+	 * are generated on first access of each property and cached along with the
+	 * introspection results of the bean class; reflection remains in use for properties
+	 * whose methods are not publicly accessible or whose classes are not visible
+	 * to the ClassLoader of the Spring classes, as well as when running with a
+	 * {@link SecurityManager}.
+	 * @since 5.1
+	 */
+	public static final String GENERATED_ACCESSORS_PROPERTY_NAME = "spring.beans.generatedAccessors";
+
 
 	private static final boolean shouldIntrospectorIgnoreBeaninfoClasses =
 			SpringProperties.getFlag(IGNORE_BEANINFO_PROPERTY_NAME);
 
+	private static final boolean shouldGenerateAccessors =
+			SpringProperties.getFlag(GENERATED_ACCESSORS_PROPERTY_NAME);
+
+	private static final Object NO_ACCESSOR = new Object();
+
 	/** Stores the BeanInfoFactory instances */
 	private static List<BeanInfoFactory> beanInfoFactories = SpringFactoriesLoader.loadFactories(
 			BeanInfoFactory.class, CachedIntrospectionResults.class.getClassLoader());
@@ -259,6 +280,10 @@ public class CachedIntrospectionResults {
 	/** TypeDescriptor objects keyed by PropertyDescriptor */
 	private final ConcurrentMap<PropertyDescriptor, TypeDescriptor> typeDescriptorCache;
 
+	/** Generated accessors keyed by read or write Method, if enabled */
+	@Nullable
+	private final ConcurrentMap<Method, Object> accessorCache;
+
 
 	/**
 	 * Create a new CachedIntrospectionResults instance for the given class.
@@ -313,6 +338,7 @@ public class CachedIntrospectionResults {
 			}
 
 			this.typeDescriptorCache = new ConcurrentReferenceHashMap<>();
+			this.accessorCache = (shouldGenerateAccessors ? new ConcurrentHashMap<>() : null);
 		}
 		catch (IntrospectionException ex) {
 			throw new FatalBeanException("Failed to obtain BeanInfo for class [" + beanClass.getName() + "]", ex);
@@ -373,4 +399,44 @@ public class CachedIntrospectionResults {
 		return this.typeDescriptorCache.get(pd);
 	}
 
+	/**
+	 * Return a generated accessor for the given read method, if enabled and possible.
+	 * @param readMethod the read method of a property of the bean class
+	 * @return the accessor, or {@code null} to use reflection
+	 * @since 5.1
+	 * @see #GENERATED_ACCESSORS_PROPERTY_NAME
+	 */
+	@Nullable
+	GeneratedPropertyAccessors.ReadAccessor getReadAccessor(Method readMethod) {
+		if (this.accessorCache == null) {
+			return null;
+		}
+		Object accessor = this.accessorCache.get(readMethod);
+		if (accessor == null) {
+			accessor = GeneratedPropertyAccessors.forReadMethod(readMethod);
+			this.accessorCache.putIfAbsent(readMethod, (accessor != null ? accessor : NO_ACCESSOR));
+		}
+		return (accessor != NO_ACCESSOR ? (GeneratedPropertyAccessors.ReadAccessor) accessor : null);
+	}
+
+	/**
+	 * Return a generated accessor for the given write method, if enabled and possible.
+	 * @param writeMethod the write method of a property of the bean class
+	 * @return the accessor, or {@code null} to use reflection
+	 * @since 5.1
+	 * @see #GENERATED_ACCESSORS_PROPERTY_NAME
+	 */
+	@Nullable
+	GeneratedPropertyAccessors.WriteAccessor getWriteAccessor(Method writeMethod) {
+		if (this.accessorCache == null) {
+			return null;
+		}
+		Object accessor = this.accessorCache.get(writeMethod);
+		if (accessor == null) {
+			accessor = GeneratedPropertyAccessors.forWriteMethod(writeMethod);
+			this.accessorCache.putIfAbsent(writeMethod, (accessor != null ? accessor : NO_ACCESSOR));
+		}
+		return (accessor != NO_ACCESSOR ? (GeneratedPropertyAccessors.WriteAccessor) accessor : null);
+	}
+
 }
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Internal factory for property accessors which are generated through the
+ * {@link LambdaMetafactory}, as an alternative to reflective {@link Method#invoke}
+ * calls for bean property access. Used by {@link CachedIntrospectionResults}
+ * if {@link CachedIntrospectionResults#GENERATED_ACCESSORS_PROPERTY_NAME} is set.
+ *
+ * <p>Accessors can only be generated for public methods on public classes which
+ * are visible to the ClassLoader of this class; in all other cases, the factory
+ * methods return {@code null} and callers are expected to fall back to reflection.
+ *
+ * <p>Generated accessors follow the exception semantics of {@link Method#invoke}:
+ * exceptions thrown by the target method are wrapped in an
+ * {@link InvocationTargetException}, and write arguments that do not match the
+ * parameter type exactly are passed on to {@link Method#invoke} for the standard
+ * widening conversions or the standard {@link IllegalArgumentException}.
+ *
+ * @since 5.1
+ */
+abstract class GeneratedPropertyAccessors {
+
+	private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+	private static final Log logger = LogFactory.getLog(GeneratedPropertyAccessors.class);
+
+
+	/**
+	 * Generate an accessor for the given read method.
+	 * @param readMethod the read method of the property
+	 * @return the generated accessor, or {@code null} if none could be generated
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	static ReadAccessor forReadMethod(Method readMethod) {
+		if (readMethod.getParameterCount() != 0 || !isAccessible(readMethod, readMethod.getReturnType())) {
+			return null;
+		}
+		try {
+			MethodHandle target = lookup.unreflect(readMethod);
+			CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply",
+					MethodType.methodType(Function.class), MethodType.methodType(Object.class, Object.class),
+					target, MethodType.methodType(ClassUtils.resolvePrimitiveIfNecessary(readMethod.getReturnType()),
+							readMethod.getDeclaringClass()));
+			return new ReadAccessor((Function<Object, Object>) callSite.getTarget().invoke());
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Falling back to reflection for read method [" + readMethod + "]", ex);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Generate an accessor for the given write method.
+	 * @param writeMethod the write method of the property
+	 * @return the generated accessor, or {@code null} if none could be generated
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	static WriteAccessor forWriteMethod(Method writeMethod) {
+		if (writeMethod.getParameterCount() != 1) {
+			return null;
+		}
+		Class<?> parameterType = writeMethod.getParameterTypes()[0];
+		if (!isAccessible(writeMethod, parameterType) || !isVisible(writeMethod.getReturnType())) {
+			return null;
+		}
+		try {
+			MethodHandle target = lookup.unreflect(writeMethod);
+			CallSite callSite = LambdaMetafactory.metafactory(lookup, "accept",
+					MethodType.methodType(BiConsumer.class),
+					MethodType.methodType(void.class, Object.class, Object.class), target,
+					MethodType.methodType(void.class, writeMethod.getDeclaringClass(),
+							ClassUtils.resolvePrimitiveIfNecessary(parameterType)));
+			return new WriteAccessor((BiConsumer<Object, Object>) callSite.getTarget().invoke(), writeMethod);
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Falling back to reflection for write method [" + writeMethod + "]", ex);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Check whether the given method and property type can be linked from
+	 * a class generated in the context of this class.
+	 */
+	private static boolean isAccessible(Method method, Class<?> propertyType) {
+		Class<?> declaringClass = method.getDeclaringClass();
+		return (Modifier.isPublic(method.getModifiers()) && !Modifier.isStatic(method.getModifiers()) &&
+				Modifier.isPublic(declaringClass.getModifiers()) && isVisible(declaringClass) && isVisible(propertyType));
+	}
+
+	private static boolean isVisible(Class<?> type) {
+		Class<?> typeToCheck = type;
+		while (typeToCheck.isArray()) {
+			typeToCheck = typeToCheck.getComponentType();
+		}
+		return (typeToCheck.isPrimitive() ||
+				ClassUtils.isVisible(typeToCheck, GeneratedPropertyAccessors.class.getClassLoader()));
+	}
+
+
+	/**
+	 * A generated accessor for a property read method.
+	 */
+	static final class ReadAccessor {
+
+		private final Function<Object, Object> function;
+
+		private ReadAccessor(Function<Object, Object> function) {
+			this.function = function;
+		}
+
+		@Nullable
+		public Object getValue(Object target) throws InvocationTargetException {
+			try {
+				return this.function.apply(target);
+			}
+			catch (Throwable ex) {
+				throw new InvocationTargetException(ex);
+			}
+		}
+	}
+
+
+	/**
+	 * A generated accessor for a property write method.
+	 */
+	static final class WriteAccessor {
+
+		private final BiConsumer<Object, Object> consumer;
+
+		private final Method writeMethod;
+
+		private final Class<?> parameterType;
+
+		private WriteAccessor(BiConsumer<Object, Object> consumer, Method writeMethod) {
+			this.consumer = consumer;
+			this.writeMethod = writeMethod;
+			this.parameterType = writeMethod.getParameterTypes()[0];
+		}
+
+		public void setValue(Object target, @Nullable Object value)
+				throws IllegalAccessException, InvocationTargetException {
+
+			if (!ClassUtils.isAssignableValue(this.parameterType, value)) {
+				this.writeMethod.invoke(target, value);
+				return;
+			}
+			try {
+				this.consumer.accept(target, value);
+			}
+			catch (Throwable ex) {
+				throw new InvocationTargetException(ex);
+			}
+		}
+	}
+
+}
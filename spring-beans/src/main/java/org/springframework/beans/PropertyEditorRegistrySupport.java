@@ -29,6 +29,7 @@ import java.nio.file.Path;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Currency;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -42,6 +43,7 @@ import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TimeZone;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 import org.xml.sax.InputSource;
@@ -91,6 +93,21 @@ import org.springframework.util.ClassUtils;
  */
 public class PropertyEditorRegistrySupport implements PropertyEditorRegistry {
 
+	/**
+	 * Shared factories for the default editors, keyed by property type.
+	 * <p>Editors are not shared themselves since they hold the value being converted;
+	 * each registry instance only creates those default editors that it actually needs.
+	 */
+	private static final Map<Class<?>, Supplier<PropertyEditor>> defaultEditorFactories =
+			createDefaultEditorFactories();
+
+	/**
+	 * Shared factories for the config value editors, keyed by property type.
+	 */
+	private static final Map<Class<?>, Supplier<PropertyEditor>> configValueEditorFactories =
+			createConfigValueEditorFactories();
+
+
 	@Nullable
 	private ConversionService conversionService;
 
@@ -172,7 +189,8 @@ public class PropertyEditorRegistrySupport implements PropertyEditorRegistry {
 
 	/**
 	 * Retrieve the default editor for the given property type, if any.
-	 * <p>Lazily registers the default editors, if they are active.
+	 * <p>Lazily creates the default editor for the given type, if default editors
+	 * are active. Other default editors are only created once they are needed.
 	 * @param requiredType type of the property
 	 * @return the default editor, or {@code null} if none found
 	 * @see #registerDefaultEditors
@@ -189,83 +207,99 @@ public class PropertyEditorRegistrySupport implements PropertyEditorRegistry {
 			}
 		}
 		if (this.defaultEditors == null) {
-			createDefaultEditors();
+			this.defaultEditors = new HashMap<>();
 		}
-		return this.defaultEditors.get(requiredType);
+		PropertyEditor editor = this.defaultEditors.get(requiredType);
+		if (editor == null) {
+			Supplier<PropertyEditor> factory = defaultEditorFactories.get(requiredType);
+			if (factory == null && this.configValueEditorsActive) {
+				factory = configValueEditorFactories.get(requiredType);
+			}
+			if (factory != null) {
+				editor = factory.get();
+				this.defaultEditors.put(requiredType, editor);
+			}
+		}
+		return editor;
 	}
 
 	/**
-	 * Actually register the default editors for this registry instance.
+	 * Build the shared factories for the default editors.
 	 */
-	private void createDefaultEditors() {
-		this.defaultEditors = new HashMap<>(64);
+	private static Map<Class<?>, Supplier<PropertyEditor>> createDefaultEditorFactories() {
+		Map<Class<?>, Supplier<PropertyEditor>> factories = new HashMap<>(64);
 
 		// Simple editors, without parameterization capabilities.
 		// The JDK does not contain a default editor for any of these target types.
-		this.defaultEditors.put(Charset.class, new CharsetEditor());
-		this.defaultEditors.put(Class.class, new ClassEditor());
-		this.defaultEditors.put(Class[].class, new ClassArrayEditor());
-		this.defaultEditors.put(Currency.class, new CurrencyEditor());
-		this.defaultEditors.put(File.class, new FileEditor());
-		this.defaultEditors.put(InputStream.class, new InputStreamEditor());
-		this.defaultEditors.put(InputSource.class, new InputSourceEditor());
-		this.defaultEditors.put(Locale.class, new LocaleEditor());
-		this.defaultEditors.put(Path.class, new PathEditor());
-		this.defaultEditors.put(Pattern.class, new PatternEditor());
-		this.defaultEditors.put(Properties.class, new PropertiesEditor());
-		this.defaultEditors.put(Reader.class, new ReaderEditor());
-		this.defaultEditors.put(Resource[].class, new ResourceArrayPropertyEditor());
-		this.defaultEditors.put(TimeZone.class, new TimeZoneEditor());
-		this.defaultEditors.put(URI.class, new URIEditor());
-		this.defaultEditors.put(URL.class, new URLEditor());
-		this.defaultEditors.put(UUID.class, new UUIDEditor());
-		this.defaultEditors.put(ZoneId.class, new ZoneIdEditor());
+		factories.put(Charset.class, CharsetEditor::new);
+		factories.put(Class.class, ClassEditor::new);
+		factories.put(Class[].class, ClassArrayEditor::new);
+		factories.put(Currency.class, CurrencyEditor::new);
+		factories.put(File.class, FileEditor::new);
+		factories.put(InputStream.class, InputStreamEditor::new);
+		factories.put(InputSource.class, InputSourceEditor::new);
+		factories.put(Locale.class, LocaleEditor::new);
+		factories.put(Path.class, PathEditor::new);
+		factories.put(Pattern.class, PatternEditor::new);
+		factories.put(Properties.class, PropertiesEditor::new);
+		factories.put(Reader.class, ReaderEditor::new);
+		factories.put(Resource[].class, ResourceArrayPropertyEditor::new);
+		factories.put(TimeZone.class, TimeZoneEditor::new);
+		factories.put(URI.class, URIEditor::new);
+		factories.put(URL.class, URLEditor::new);
+		factories.put(UUID.class, UUIDEditor::new);
+		factories.put(ZoneId.class, ZoneIdEditor::new);
 
 		// Default instances of collection editors.
 		// Can be overridden by registering custom instances of those as custom editors.
-		this.defaultEditors.put(Collection.class, new CustomCollectionEditor(Collection.class));
-		this.defaultEditors.put(Set.class, new CustomCollectionEditor(Set.class));
-		this.defaultEditors.put(SortedSet.class, new CustomCollectionEditor(SortedSet.class));
-		this.defaultEditors.put(List.class, new CustomCollectionEditor(List.class));
-		this.defaultEditors.put(SortedMap.class, new CustomMapEditor(SortedMap.class));
+		factories.put(Collection.class, () -> new CustomCollectionEditor(Collection.class));
+		factories.put(Set.class, () -> new CustomCollectionEditor(Set.class));
+		factories.put(SortedSet.class, () -> new CustomCollectionEditor(SortedSet.class));
+		factories.put(List.class, () -> new CustomCollectionEditor(List.class));
+		factories.put(SortedMap.class, () -> new CustomMapEditor(SortedMap.class));
 
 		// Default editors for primitive arrays.
-		this.defaultEditors.put(byte[].class, new ByteArrayPropertyEditor());
-		this.defaultEditors.put(char[].class, new CharArrayPropertyEditor());
+		factories.put(byte[].class, ByteArrayPropertyEditor::new);
+		factories.put(char[].class, CharArrayPropertyEditor::new);
 
 		// The JDK does not contain a default editor for char!
-		this.defaultEditors.put(char.class, new CharacterEditor(false));
-		this.defaultEditors.put(Character.class, new CharacterEditor(true));
+		factories.put(char.class, () -> new CharacterEditor(false));
+		factories.put(Character.class, () -> new CharacterEditor(true));
 
 		// Spring's CustomBooleanEditor accepts more flag values than the JDK's default editor.
-		this.defaultEditors.put(boolean.class, new CustomBooleanEditor(false));
-		this.defaultEditors.put(Boolean.class, new CustomBooleanEditor(true));
+		factories.put(boolean.class, () -> new CustomBooleanEditor(false));
+		factories.put(Boolean.class, () -> new CustomBooleanEditor(true));
 
 		// The JDK does not contain default editors for number wrapper types!
 		// Override JDK primitive number editors with our own CustomNumberEditor.
-		this.defaultEditors.put(byte.class, new CustomNumberEditor(Byte.class, false));
-		this.defaultEditors.put(Byte.class, new CustomNumberEditor(Byte.class, true));
-		this.defaultEditors.put(short.class, new CustomNumberEditor(Short.class, false));
-		this.defaultEditors.put(Short.class, new CustomNumberEditor(Short.class, true));
-		this.defaultEditors.put(int.class, new CustomNumberEditor(Integer.class, false));
-		this.defaultEditors.put(Integer.class, new CustomNumberEditor(Integer.class, true));
-		this.defaultEditors.put(long.class, new CustomNumberEditor(Long.class, false));
-		this.defaultEditors.put(Long.class, new CustomNumberEditor(Long.class, true));
-		this.defaultEditors.put(float.class, new CustomNumberEditor(Float.class, false));
-		this.defaultEditors.put(Float.class, new CustomNumberEditor(Float.class, true));
-		this.defaultEditors.put(double.class, new CustomNumberEditor(Double.class, false));
-		this.defaultEditors.put(Double.class, new CustomNumberEditor(Double.class, true));
-		this.defaultEditors.put(BigDecimal.class, new CustomNumberEditor(BigDecimal.class, true));
-		this.defaultEditors.put(BigInteger.class, new CustomNumberEditor(BigInteger.class, true));
-
-		// Only register config value editors if explicitly requested.
-		if (this.configValueEditorsActive) {
-			StringArrayPropertyEditor sae = new StringArrayPropertyEditor();
-			this.defaultEditors.put(String[].class, sae);
-			this.defaultEditors.put(short[].class, sae);
-			this.defaultEditors.put(int[].class, sae);
-			this.defaultEditors.put(long[].class, sae);
-		}
+		factories.put(byte.class, () -> new CustomNumberEditor(Byte.class, false));
+		factories.put(Byte.class, () -> new CustomNumberEditor(Byte.class, true));
+		factories.put(short.class, () -> new CustomNumberEditor(Short.class, false));
+		factories.put(Short.class, () -> new CustomNumberEditor(Short.class, true));
+		factories.put(int.class, () -> new CustomNumberEditor(Integer.class, false));
+		factories.put(Integer.class, () -> new CustomNumberEditor(Integer.class, true));
+		factories.put(long.class, () -> new CustomNumberEditor(Long.class, false));
+		factories.put(Long.class, () -> new CustomNumberEditor(Long.class, true));
+		factories.put(float.class, () -> new CustomNumberEditor(Float.class, false));
+		factories.put(Float.class, () -> new CustomNumberEditor(Float.class, true));
+		factories.put(double.class, () -> new CustomNumberEditor(Double.class, false));
+		factories.put(Double.class, () -> new CustomNumberEditor(Double.class, true));
+		factories.put(BigDecimal.class, () -> new CustomNumberEditor(BigDecimal.class, true));
+		factories.put(BigInteger.class, () -> new CustomNumberEditor(BigInteger.class, true));
+
+		return Collections.unmodifiableMap(factories);
+	}
+
+	/**
+	 * Build the shared factories for the config value editors.
+	 */
+	private static Map<Class<?>, Supplier<PropertyEditor>> createConfigValueEditorFactories() {
+		Map<Class<?>, Supplier<PropertyEditor>> factories = new HashMap<>(8);
+		factories.put(String[].class, StringArrayPropertyEditor::new);
+		factories.put(short[].class, StringArrayPropertyEditor::new);
+		factories.put(int[].class, StringArrayPropertyEditor::new);
+		factories.put(long[].class, StringArrayPropertyEditor::new);
+		return Collections.unmodifiableMap(factories);
 	}
 
 	/**
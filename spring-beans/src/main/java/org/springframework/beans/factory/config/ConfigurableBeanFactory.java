@@ -27,6 +27,7 @@ import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.HierarchicalBeanFactory;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.core.metrics.ApplicationStartup;
 import org.springframework.lang.Nullable;
 import org.springframework.util.StringValueResolver;
 
@@ -283,6 +284,22 @@ public interface ConfigurableBeanFactory extends HierarchicalBeanFactory, Single
 	 */
 	AccessControlContext getAccessControlContext();
 
+	/**
+	 * Set the {@code ApplicationStartup} for this bean factory.
+	 * <p>This allows the bean factory to record metrics during bean creation.
+	 * Creation steps are recorded for singleton beans only, not for prototypes
+	 * or other scoped beans created at runtime.
+	 * @param applicationStartup the new application startup
+	 * @since 5.1
+	 */
+	void setApplicationStartup(ApplicationStartup applicationStartup);
+
+	/**
+	 * Return the {@code ApplicationStartup} for this bean factory.
+	 * @since 5.1
+	 */
+	ApplicationStartup getApplicationStartup();
+
 	/**
 	 * Copy all relevant configuration from the given other factory.
 	 * <p>Should include all standard configuration settings as well as
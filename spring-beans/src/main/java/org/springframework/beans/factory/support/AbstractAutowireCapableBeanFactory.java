@@ -75,6 +75,8 @@ import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.core.PriorityOrdered;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -503,6 +505,7 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 					"BeanPostProcessor before instantiation of bean failed", ex);
 		}
 
+		StartupStep createStep = startBeanStep("spring.beans.create", beanName, mbdToUse);
 		try {
 			Object beanInstance = doCreateBean(beanName, mbdToUse, args);
 			if (logger.isDebugEnabled()) {
@@ -519,6 +522,9 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 			throw new BeanCreationException(
 					mbdToUse.getResourceDescription(), beanName, "Unexpected exception during bean creation", ex);
 		}
+		finally {
+			createStep.end();
+		}
 	}
 
 	/**
@@ -556,7 +562,13 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 			 * 在这个方法中完成了对bean的创建(仅仅是new出来，也就是或在这个方法里面推断要使用哪个构造函数来创建bean对象)
 			 *
 			 */
-			instanceWrapper = createBeanInstance(beanName, mbd, args);
+			StartupStep instantiateStep = startBeanStep("spring.beans.instantiate", beanName, mbd);
+			try {
+				instanceWrapper = createBeanInstance(beanName, mbd, args);
+			}
+			finally {
+				instantiateStep.end();
+			}
 		}
 		final Object bean = instanceWrapper.getWrappedInstance();
 		Class<?> beanType = instanceWrapper.getWrappedClass();
@@ -614,9 +626,21 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 		Object exposedObject = bean;
 		try {
 			//在populateBean(beanName, mbd, instanceWrapper);方法中完成第五次第六次调用后置处理器
-			populateBean(beanName, mbd, instanceWrapper);
+			StartupStep populateStep = startBeanStep("spring.beans.populate", beanName, mbd);
+			try {
+				populateBean(beanName, mbd, instanceWrapper);
+			}
+			finally {
+				populateStep.end();
+			}
 			//在initialzeBean中完成第七次第八次后置处理器调用
-			exposedObject = initializeBean(beanName, exposedObject, mbd);
+			StartupStep initializeStep = startBeanStep("spring.beans.initialize", beanName, mbd);
+			try {
+				exposedObject = initializeBean(beanName, exposedObject, mbd);
+			}
+			finally {
+				initializeStep.end();
+			}
 		}
 		catch (Throwable ex) {
 			if (ex instanceof BeanCreationException && beanName.equals(((BeanCreationException) ex).getBeanName())) {
@@ -675,14 +699,11 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 		// Apply SmartInstantiationAwareBeanPostProcessors to predict the
 		// eventual type after a before-instantiation shortcut.
 		if (targetType != null && !mbd.isSynthetic() && hasInstantiationAwareBeanPostProcessors()) {
-			for (BeanPostProcessor bp : getBeanPostProcessors()) {
-				if (bp instanceof SmartInstantiationAwareBeanPostProcessor) {
-					SmartInstantiationAwareBeanPostProcessor ibp = (SmartInstantiationAwareBeanPostProcessor) bp;
-					Class<?> predicted = ibp.predictBeanType(targetType, beanName);
-					if (predicted != null && (typesToMatch.length != 1 || FactoryBean.class != typesToMatch[0] ||
-							FactoryBean.class.isAssignableFrom(predicted))) {
-						return predicted;
-					}
+			for (SmartInstantiationAwareBeanPostProcessor ibp : getBeanPostProcessorCache().smartInstantiationAware) {
+				Class<?> predicted = ibp.predictBeanType(targetType, beanName);
+				if (predicted != null && (typesToMatch.length != 1 || FactoryBean.class != typesToMatch[0] ||
+						FactoryBean.class.isAssignableFrom(predicted))) {
+					return predicted;
 				}
 			}
 		}
@@ -940,11 +961,8 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 	protected Object getEarlyBeanReference(String beanName, RootBeanDefinition mbd, Object bean) {
 		Object exposedObject = bean;
 		if (!mbd.isSynthetic() && hasInstantiationAwareBeanPostProcessors()) {
-			for (BeanPostProcessor bp : getBeanPostProcessors()) {
-				if (bp instanceof SmartInstantiationAwareBeanPostProcessor) {
-					SmartInstantiationAwareBeanPostProcessor ibp = (SmartInstantiationAwareBeanPostProcessor) bp;
-					exposedObject = ibp.getEarlyBeanReference(exposedObject, beanName);
-				}
+			for (SmartInstantiationAwareBeanPostProcessor ibp : getBeanPostProcessorCache().smartInstantiationAware) {
+				exposedObject = ibp.getEarlyBeanReference(exposedObject, beanName);
 			}
 		}
 		return exposedObject;
@@ -1053,11 +1071,8 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 	 * @see MergedBeanDefinitionPostProcessor#postProcessMergedBeanDefinition
 	 */
 	protected void applyMergedBeanDefinitionPostProcessors(RootBeanDefinition mbd, Class<?> beanType, String beanName) {
-		for (BeanPostProcessor bp : getBeanPostProcessors()) {
-			if (bp instanceof MergedBeanDefinitionPostProcessor) {
-				MergedBeanDefinitionPostProcessor bdp = (MergedBeanDefinitionPostProcessor) bp;
-				bdp.postProcessMergedBeanDefinition(mbd, beanType, beanName);
-			}
+		for (MergedBeanDefinitionPostProcessor bdp : getBeanPostProcessorCache().mergedDefinition) {
+			bdp.postProcessMergedBeanDefinition(mbd, beanType, beanName);
 		}
 	}
 
@@ -1115,13 +1130,10 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 	 */
 	@Nullable
 	protected Object applyBeanPostProcessorsBeforeInstantiation(Class<?> beanClass, String beanName) {
-		for (BeanPostProcessor bp : getBeanPostProcessors()) {
-			if (bp instanceof InstantiationAwareBeanPostProcessor) {
-				InstantiationAwareBeanPostProcessor ibp = (InstantiationAwareBeanPostProcessor) bp;
-				Object result = ibp.postProcessBeforeInstantiation(beanClass, beanName);
-				if (result != null) {
-					return result;
-				}
+		for (InstantiationAwareBeanPostProcessor ibp : getBeanPostProcessorCache().instantiationAware) {
+			Object result = ibp.postProcessBeforeInstantiation(beanClass, beanName);
+			if (result != null) {
+				return result;
 			}
 		}
 		return null;
@@ -1177,12 +1189,11 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 		boolean resolved = false;
 		boolean autowireNecessary = false;
 		if (args == null) {
-			synchronized (mbd.constructorArgumentLock) {
-				//如果bean是prototype，那么第二次获取bean的时候，会从这里来获取
-				if (mbd.resolvedConstructorOrFactoryMethod != null) {
-					resolved = true;
-					autowireNecessary = mbd.constructorArgumentsResolved;
-				}
+			// No lock needed: the constructor gets published after the argument state
+			//如果bean是prototype，那么第二次获取bean的时候，会从这里来获取
+			if (mbd.resolvedConstructorOrFactoryMethod != null) {
+				resolved = true;
+				autowireNecessary = mbd.constructorArgumentsResolved;
 			}
 		}
 		//如果要构造的bean是单实例的，resolved永远是 false
@@ -1293,13 +1304,10 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 			throws BeansException {
 
 		if (beanClass != null && hasInstantiationAwareBeanPostProcessors()) {
-			for (BeanPostProcessor bp : getBeanPostProcessors()) {
-				if (bp instanceof SmartInstantiationAwareBeanPostProcessor) {
-					SmartInstantiationAwareBeanPostProcessor ibp = (SmartInstantiationAwareBeanPostProcessor) bp;
-					Constructor<?>[] ctors = ibp.determineCandidateConstructors(beanClass, beanName);
-					if (ctors != null) {
-						return ctors;
-					}
+			for (SmartInstantiationAwareBeanPostProcessor ibp : getBeanPostProcessorCache().smartInstantiationAware) {
+				Constructor<?>[] ctors = ibp.determineCandidateConstructors(beanClass, beanName);
+				if (ctors != null) {
+					return ctors;
 				}
 			}
 		}
@@ -1407,13 +1415,10 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 		 *
 		 */
 		if (!mbd.isSynthetic() && hasInstantiationAwareBeanPostProcessors()) {
-			for (BeanPostProcessor bp : getBeanPostProcessors()) {
-				if (bp instanceof InstantiationAwareBeanPostProcessor) {
-					InstantiationAwareBeanPostProcessor ibp = (InstantiationAwareBeanPostProcessor) bp;
-					if (!ibp.postProcessAfterInstantiation(bw.getWrappedInstance(), beanName)) {
-						continueWithPropertyPopulation = false;
-						break;
-					}
+			for (InstantiationAwareBeanPostProcessor ibp : getBeanPostProcessorCache().instantiationAware) {
+				if (!ibp.postProcessAfterInstantiation(bw.getWrappedInstance(), beanName)) {
+					continueWithPropertyPopulation = false;
+					break;
 				}
 			}
 		}
@@ -1472,21 +1477,18 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 			PropertyDescriptor[] filteredPds = filterPropertyDescriptorsForDependencyCheck(bw, mbd.allowCaching);
 			if (hasInstAwareBpps) {
 				//第六次调用后置处理器  完成属性的填充
-				for (BeanPostProcessor bp : getBeanPostProcessors()) {
-					if (bp instanceof InstantiationAwareBeanPostProcessor) {
-						InstantiationAwareBeanPostProcessor ibp = (InstantiationAwareBeanPostProcessor) bp;
-						/**
-						 * @Autowire和@Resource 都可以注入属性，就是在这里，只不过对于@Autowire和@Resource，处理的beanPostProcessor不一样
-						 * @Autowire:
-						 *  AutowiredAnnotationBeanPostProcessor来处理
-						 *
-						 * @Resource:
-						 *  CommonAnnotationBeanPostProcessor来处理
-						 */
-						pvs = ibp.postProcessPropertyValues(pvs, filteredPds, bw.getWrappedInstance(), beanName);
-						if (pvs == null) {
-							return;
-						}
+				for (InstantiationAwareBeanPostProcessor ibp : getBeanPostProcessorCache().instantiationAware) {
+					/**
+					 * @Autowire和@Resource 都可以注入属性，就是在这里，只不过对于@Autowire和@Resource，处理的beanPostProcessor不一样
+					 * @Autowire:
+					 *  AutowiredAnnotationBeanPostProcessor来处理
+					 *
+					 * @Resource:
+					 *  CommonAnnotationBeanPostProcessor来处理
+					 */
+					pvs = ibp.postProcessPropertyValues(pvs, filteredPds, bw.getWrappedInstance(), beanName);
+					if (pvs == null) {
+						return;
 					}
 				}
 			}
@@ -1854,7 +1856,14 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 		Object wrappedBean = bean;
 		if (mbd == null || !mbd.isSynthetic()) {
 			//第七次调用后置处理器  处理@PostConstruct注解 (CommonAnnotationBeanPostprocessor)
-			wrappedBean = applyBeanPostProcessorsBeforeInitialization(wrappedBean, beanName);
+			StartupStep postProcessStep =
+					startBeanStep("spring.beans.post-process.before-initialization", beanName, mbd);
+			try {
+				wrappedBean = applyBeanPostProcessorsBeforeInitialization(wrappedBean, beanName);
+			}
+			finally {
+				postProcessStep.end();
+			}
 		}
 
 		try {
@@ -1868,12 +1877,38 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 		}
 		if (mbd == null || !mbd.isSynthetic()) {
 			//第八次调用后置处理器  在这里完成AOP代理
-			wrappedBean = applyBeanPostProcessorsAfterInitialization(wrappedBean, beanName);
+			StartupStep postProcessStep =
+					startBeanStep("spring.beans.post-process.after-initialization", beanName, mbd);
+			try {
+				wrappedBean = applyBeanPostProcessorsAfterInitialization(wrappedBean, beanName);
+			}
+			finally {
+				postProcessStep.end();
+			}
 		}
 
 		return wrappedBean;
 	}
 
+	/**
+	 * Start a {@link StartupStep} for a phase in the creation of the given bean.
+	 * <p>Steps are only recorded for singletons, typically created during the
+	 * pre-instantiation phase, and only if a recording {@link ApplicationStartup}
+	 * has been configured: prototypes and other scoped beans are created at
+	 * runtime, where a step per bean would just add allocation overhead.
+	 * @param name the step name
+	 * @param beanName the name of the bean
+	 * @param mbd the bean definition (can be {@code null} for existing bean instances)
+	 * @return the started step, or the shared no-op step if not recorded
+	 */
+	private StartupStep startBeanStep(String name, String beanName, @Nullable RootBeanDefinition mbd) {
+		ApplicationStartup applicationStartup = getApplicationStartup();
+		if (applicationStartup == ApplicationStartup.DEFAULT || mbd == null || !mbd.isSingleton()) {
+			return ApplicationStartup.DEFAULT.start(name);
+		}
+		return applicationStartup.start(name).tag("beanName", beanName);
+	}
+
 	private void invokeAwareMethods(final String beanName, final Object bean) {
 		if (bean instanceof Aware) {
 			if (bean instanceof BeanNameAware) {
@@ -22,9 +22,12 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -34,6 +37,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeanWrapper;
@@ -65,10 +70,12 @@ import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor;
 import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
 import org.springframework.beans.factory.config.Scope;
+import org.springframework.beans.factory.config.SmartInstantiationAwareBeanPostProcessor;
 import org.springframework.core.DecoratingClassLoader;
 import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.core.metrics.ApplicationStartup;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -148,13 +155,11 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 	private final List<StringValueResolver> embeddedValueResolvers = new CopyOnWriteArrayList<>();
 
 	/** BeanPostProcessors to apply in createBean */
-	private final List<BeanPostProcessor> beanPostProcessors = new CopyOnWriteArrayList<>();
+	private final List<BeanPostProcessor> beanPostProcessors = new BeanPostProcessorCacheAwareList();
 
-	/** Indicates whether any InstantiationAwareBeanPostProcessors have been registered */
-	private volatile boolean hasInstantiationAwareBeanPostProcessors;
-
-	/** Indicates whether any DestructionAwareBeanPostProcessors have been registered */
-	private volatile boolean hasDestructionAwareBeanPostProcessors;
+	/** Pre-filtered post-processors, reset on any change to the list above */
+	@Nullable
+	private volatile BeanPostProcessorCache beanPostProcessorCache;
 
 	/** Map from scope identifier String to corresponding Scope */
 	private final Map<String, Scope> scopes = new LinkedHashMap<>(8);
@@ -163,6 +168,9 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 	@Nullable
 	private SecurityContextProvider securityContextProvider;
 
+	/** Application startup metrics */
+	private ApplicationStartup applicationStartup = ApplicationStartup.DEFAULT;
+
 	/** Map from bean name to merged RootBeanDefinition */
 	private final Map<String, RootBeanDefinition> mergedBeanDefinitions = new ConcurrentHashMap<>(256);
 
@@ -891,13 +899,6 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 		Assert.notNull(beanPostProcessor, "BeanPostProcessor must not be null");
 		// Remove from old position, if any
 		this.beanPostProcessors.remove(beanPostProcessor);
-		// Track whether it is instantiation/destruction aware
-		if (beanPostProcessor instanceof InstantiationAwareBeanPostProcessor) {
-			this.hasInstantiationAwareBeanPostProcessors = true;
-		}
-		if (beanPostProcessor instanceof DestructionAwareBeanPostProcessor) {
-			this.hasDestructionAwareBeanPostProcessors = true;
-		}
 		// Add to end of list
 		this.beanPostProcessors.add(beanPostProcessor);
 	}
@@ -922,7 +923,7 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 	 * @see org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor
 	 */
 	protected boolean hasInstantiationAwareBeanPostProcessors() {
-		return this.hasInstantiationAwareBeanPostProcessors;
+		return !getBeanPostProcessorCache().instantiationAware.isEmpty();
 	}
 
 	/**
@@ -932,7 +933,40 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 	 * @see org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor
 	 */
 	protected boolean hasDestructionAwareBeanPostProcessors() {
-		return this.hasDestructionAwareBeanPostProcessors;
+		return !getBeanPostProcessorCache().destructionAware.isEmpty();
+	}
+
+	/**
+	 * Return the internal cache of pre-filtered post-processors,
+	 * freshly (re-)building it if necessary.
+	 * <p>This avoids type checks against every registered post-processor
+	 * for each bean creation step, which matters for non-singleton beans
+	 * that get created over and over again at runtime.
+	 * @since 5.1
+	 */
+	BeanPostProcessorCache getBeanPostProcessorCache() {
+		BeanPostProcessorCache bpCache = this.beanPostProcessorCache;
+		if (bpCache == null) {
+			synchronized (this.beanPostProcessors) {
+				bpCache = this.beanPostProcessorCache;
+				if (bpCache == null) {
+					bpCache = new BeanPostProcessorCache(this.beanPostProcessors);
+					this.beanPostProcessorCache = bpCache;
+				}
+			}
+		}
+		return bpCache;
+	}
+
+	/**
+	 * Reset the cache of pre-filtered post-processors.
+	 * <p>Synchronized with the (re-)building of the cache, so that a cache
+	 * built from the previous post-processors cannot get stored afterwards.
+	 */
+	void resetBeanPostProcessorCache() {
+		synchronized (this.beanPostProcessors) {
+			this.beanPostProcessorCache = null;
+		}
 	}
 
 	@Override
@@ -987,6 +1021,17 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 				AccessController.getContext());
 	}
 
+	@Override
+	public void setApplicationStartup(ApplicationStartup applicationStartup) {
+		Assert.notNull(applicationStartup, "ApplicationStartup must not be null");
+		this.applicationStartup = applicationStartup;
+	}
+
+	@Override
+	public ApplicationStartup getApplicationStartup() {
+		return this.applicationStartup;
+	}
+
 	@Override
 	public void copyConfigurationFrom(ConfigurableBeanFactory otherFactory) {
 		Assert.notNull(otherFactory, "BeanFactory must not be null");
@@ -994,16 +1039,13 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 		setCacheBeanMetadata(otherFactory.isCacheBeanMetadata());
 		setBeanExpressionResolver(otherFactory.getBeanExpressionResolver());
 		setConversionService(otherFactory.getConversionService());
+		setApplicationStartup(otherFactory.getApplicationStartup());
 		if (otherFactory instanceof AbstractBeanFactory) {
 			AbstractBeanFactory otherAbstractFactory = (AbstractBeanFactory) otherFactory;
 			this.propertyEditorRegistrars.addAll(otherAbstractFactory.propertyEditorRegistrars);
 			this.customEditors.putAll(otherAbstractFactory.customEditors);
 			this.typeConverter = otherAbstractFactory.typeConverter;
 			this.beanPostProcessors.addAll(otherAbstractFactory.beanPostProcessors);
-			this.hasInstantiationAwareBeanPostProcessors = this.hasInstantiationAwareBeanPostProcessors ||
-					otherAbstractFactory.hasInstantiationAwareBeanPostProcessors;
-			this.hasDestructionAwareBeanPostProcessors = this.hasDestructionAwareBeanPostProcessors ||
-					otherAbstractFactory.hasDestructionAwareBeanPostProcessors;
 			this.scopes.putAll(otherAbstractFactory.scopes);
 			this.securityContextProvider = otherAbstractFactory.securityContextProvider;
 		}
@@ -1852,4 +1894,196 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 	protected abstract Object createBean(String beanName, RootBeanDefinition mbd, @Nullable Object[] args)
 			throws BeanCreationException;
 
+
+	/**
+	 * CopyOnWriteArrayList which resets the beanPostProcessorCache field on modification.
+	 * @since 5.1
+	 */
+	@SuppressWarnings("serial")
+	private class BeanPostProcessorCacheAwareList extends CopyOnWriteArrayList<BeanPostProcessor> {
+
+		@Override
+		public BeanPostProcessor set(int index, BeanPostProcessor element) {
+			BeanPostProcessor result = super.set(index, element);
+			resetBeanPostProcessorCache();
+			return result;
+		}
+
+		@Override
+		public boolean add(BeanPostProcessor o) {
+			boolean success = super.add(o);
+			resetBeanPostProcessorCache();
+			return success;
+		}
+
+		@Override
+		public void add(int index, BeanPostProcessor element) {
+			super.add(index, element);
+			resetBeanPostProcessorCache();
+		}
+
+		@Override
+		public BeanPostProcessor remove(int index) {
+			BeanPostProcessor result = super.remove(index);
+			resetBeanPostProcessorCache();
+			return result;
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			boolean success = super.remove(o);
+			if (success) {
+				resetBeanPostProcessorCache();
+			}
+			return success;
+		}
+
+		@Override
+		public boolean removeAll(Collection<?> c) {
+			boolean success = super.removeAll(c);
+			if (success) {
+				resetBeanPostProcessorCache();
+			}
+			return success;
+		}
+
+		@Override
+		public boolean retainAll(Collection<?> c) {
+			boolean success = super.retainAll(c);
+			if (success) {
+				resetBeanPostProcessorCache();
+			}
+			return success;
+		}
+
+		@Override
+		public boolean addAll(Collection<? extends BeanPostProcessor> c) {
+			boolean success = super.addAll(c);
+			if (success) {
+				resetBeanPostProcessorCache();
+			}
+			return success;
+		}
+
+		@Override
+		public boolean addAll(int index, Collection<? extends BeanPostProcessor> c) {
+			boolean success = super.addAll(index, c);
+			if (success) {
+				resetBeanPostProcessorCache();
+			}
+			return success;
+		}
+
+		@Override
+		public boolean removeIf(Predicate<? super BeanPostProcessor> filter) {
+			boolean success = super.removeIf(filter);
+			if (success) {
+				resetBeanPostProcessorCache();
+			}
+			return success;
+		}
+
+		@Override
+		public void replaceAll(UnaryOperator<BeanPostProcessor> operator) {
+			super.replaceAll(operator);
+			resetBeanPostProcessorCache();
+		}
+
+		@Override
+		public void clear() {
+			super.clear();
+			resetBeanPostProcessorCache();
+		}
+
+		@Override
+		public boolean addIfAbsent(BeanPostProcessor e) {
+			boolean success = super.addIfAbsent(e);
+			if (success) {
+				resetBeanPostProcessorCache();
+			}
+			return success;
+		}
+
+		@Override
+		public int addAllAbsent(Collection<? extends BeanPostProcessor> c) {
+			int added = super.addAllAbsent(c);
+			if (added > 0) {
+				resetBeanPostProcessorCache();
+			}
+			return added;
+		}
+
+		@Override
+		public void sort(@Nullable Comparator<? super BeanPostProcessor> c) {
+			super.sort(c);
+			resetBeanPostProcessorCache();
+		}
+
+		@Override
+		public List<BeanPostProcessor> subList(int fromIndex, int toIndex) {
+			List<BeanPostProcessor> subList = super.subList(fromIndex, toIndex);
+			// The sub-list modifies the backing array directly: reset the cache on any change
+			return new AbstractList<BeanPostProcessor>() {
+				@Override
+				public BeanPostProcessor get(int index) {
+					return subList.get(index);
+				}
+				@Override
+				public int size() {
+					return subList.size();
+				}
+				@Override
+				public BeanPostProcessor set(int index, BeanPostProcessor element) {
+					BeanPostProcessor result = subList.set(index, element);
+					resetBeanPostProcessorCache();
+					return result;
+				}
+				@Override
+				public void add(int index, BeanPostProcessor element) {
+					subList.add(index, element);
+					resetBeanPostProcessorCache();
+				}
+				@Override
+				public BeanPostProcessor remove(int index) {
+					BeanPostProcessor result = subList.remove(index);
+					resetBeanPostProcessorCache();
+					return result;
+				}
+			};
+		}
+	}
+
+
+	/**
+	 * Internal cache of pre-filtered post-processors.
+	 * @since 5.1
+	 */
+	static class BeanPostProcessorCache {
+
+		final List<InstantiationAwareBeanPostProcessor> instantiationAware = new ArrayList<>();
+
+		final List<SmartInstantiationAwareBeanPostProcessor> smartInstantiationAware = new ArrayList<>();
+
+		final List<DestructionAwareBeanPostProcessor> destructionAware = new ArrayList<>();
+
+		final List<MergedBeanDefinitionPostProcessor> mergedDefinition = new ArrayList<>();
+
+		BeanPostProcessorCache(List<BeanPostProcessor> beanPostProcessors) {
+			for (BeanPostProcessor bp : beanPostProcessors) {
+				if (bp instanceof InstantiationAwareBeanPostProcessor) {
+					this.instantiationAware.add((InstantiationAwareBeanPostProcessor) bp);
+					if (bp instanceof SmartInstantiationAwareBeanPostProcessor) {
+						this.smartInstantiationAware.add((SmartInstantiationAwareBeanPostProcessor) bp);
+					}
+				}
+				if (bp instanceof DestructionAwareBeanPostProcessor) {
+					this.destructionAware.add((DestructionAwareBeanPostProcessor) bp);
+				}
+				if (bp instanceof MergedBeanDefinitionPostProcessor) {
+					this.mergedDefinition.add((MergedBeanDefinitionPostProcessor) bp);
+				}
+			}
+		}
+	}
+
 }
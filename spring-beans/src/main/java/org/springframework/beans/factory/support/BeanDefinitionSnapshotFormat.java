@@ -0,0 +1,122 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+/**
+ * Constants for the binary format shared by {@link BeanDefinitionSnapshotWriter}
+ * and {@link BeanDefinitionSnapshotReader}.
+ *
+ * <p>A snapshot consists of a header (magic number, format version, fingerprint),
+ * followed by the bean definitions in registration order and the registered aliases.
+ * Strings are written once and referenced by index afterwards, which keeps
+ * repeated class names, scopes and bean references compact.
+ *
+ * @since 5.1
+ */
+abstract class BeanDefinitionSnapshotFormat {
+
+	static final int MAGIC = 0x53424453;
+
+	static final short VERSION = 1;
+
+	static final int NULL_STRING = -1;
+
+	static final int NEW_STRING = -2;
+
+
+	// Bean definition kinds
+
+	static final byte GENERIC_DEFINITION = 0;
+
+	static final byte ROOT_DEFINITION = 1;
+
+
+	// Bean definition flags
+
+	static final int ABSTRACT_FLAG = 1;
+
+	static final int LAZY_INIT_FLAG = 1 << 1;
+
+	static final int AUTOWIRE_CANDIDATE_FLAG = 1 << 2;
+
+	static final int PRIMARY_FLAG = 1 << 3;
+
+	static final int NON_PUBLIC_ACCESS_ALLOWED_FLAG = 1 << 4;
+
+	static final int LENIENT_CONSTRUCTOR_RESOLUTION_FLAG = 1 << 5;
+
+	static final int ENFORCE_INIT_METHOD_FLAG = 1 << 6;
+
+	static final int ENFORCE_DESTROY_METHOD_FLAG = 1 << 7;
+
+	static final int SYNTHETIC_FLAG = 1 << 8;
+
+	static final int FACTORY_METHOD_UNIQUE_FLAG = 1 << 9;
+
+
+	// Method override kinds
+
+	static final byte LOOKUP_OVERRIDE = 0;
+
+	static final byte REPLACE_OVERRIDE = 1;
+
+
+	// Value kinds
+
+	static final byte NULL_VALUE = 0;
+
+	static final byte STRING_VALUE = 1;
+
+	static final byte BOOLEAN_VALUE = 2;
+
+	static final byte INTEGER_VALUE = 3;
+
+	static final byte LONG_VALUE = 4;
+
+	static final byte SHORT_VALUE = 5;
+
+	static final byte BYTE_VALUE = 6;
+
+	static final byte FLOAT_VALUE = 7;
+
+	static final byte DOUBLE_VALUE = 8;
+
+	static final byte CHARACTER_VALUE = 9;
+
+	static final byte CLASS_VALUE = 10;
+
+	static final byte TYPED_STRING_VALUE = 11;
+
+	static final byte BEAN_REFERENCE_VALUE = 12;
+
+	static final byte BEAN_NAME_REFERENCE_VALUE = 13;
+
+	static final byte BEAN_DEFINITION_HOLDER_VALUE = 14;
+
+	static final byte BEAN_DEFINITION_VALUE = 15;
+
+	static final byte MANAGED_LIST_VALUE = 16;
+
+	static final byte MANAGED_ARRAY_VALUE = 17;
+
+	static final byte MANAGED_SET_VALUE = 18;
+
+	static final byte MANAGED_MAP_VALUE = 19;
+
+	static final byte MANAGED_PROPERTIES_VALUE = 20;
+
+}
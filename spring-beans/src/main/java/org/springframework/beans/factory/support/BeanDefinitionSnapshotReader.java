@@ -0,0 +1,460 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.core.AttributeAccessor;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+import static org.springframework.beans.factory.support.BeanDefinitionSnapshotFormat.*;
+
+/**
+ * Bean definition reader for binary snapshots written by a
+ * {@link BeanDefinitionSnapshotWriter}, registering the contained bean
+ * definitions and aliases without any configuration parsing.
+ *
+ * <p>If an {@link #setExpectedFingerprint expected fingerprint} has been
+ * specified, snapshots with a different fingerprint are rejected with a
+ * {@link BeanDefinitionStoreException}. Use {@link #isSnapshotValid} to
+ * check a snapshot upfront and fall back to regular configuration parsing:
+ *
+ * <pre class="code">
+ * String fingerprint = BeanDefinitionSnapshotWriter.classPathFingerprint(activeProfiles);
+ * BeanDefinitionSnapshotReader reader = new BeanDefinitionSnapshotReader(registry);
+ * reader.setExpectedFingerprint(fingerprint);
+ * if (reader.isSnapshotValid(snapshot)) {
+ *     reader.loadBeanDefinitions(snapshot);
+ * }
+ * else {
+ *     // parse configuration, then write a new snapshot
+ * }</pre>
+ *
+ * <p>Bean classes are registered by name and only resolved on demand,
+ * just like for bean definitions parsed from XML.
+ *
+ * @since 5.1
+ * @see BeanDefinitionSnapshotWriter
+ */
+public class BeanDefinitionSnapshotReader extends AbstractBeanDefinitionReader {
+
+	@Nullable
+	private String expectedFingerprint;
+
+
+	/**
+	 * Create a new BeanDefinitionSnapshotReader for the given bean factory.
+	 * @param registry the BeanFactory to load bean definitions into,
+	 * in the form of a BeanDefinitionRegistry
+	 */
+	public BeanDefinitionSnapshotReader(BeanDefinitionRegistry registry) {
+		super(registry);
+	}
+
+
+	/**
+	 * Specify the fingerprint that snapshots need to carry in order to be loaded.
+	 * <p>Default is none, accepting any snapshot.
+	 * @see BeanDefinitionSnapshotWriter#classPathFingerprint
+	 */
+	public void setExpectedFingerprint(@Nullable String expectedFingerprint) {
+		this.expectedFingerprint = expectedFingerprint;
+	}
+
+	/**
+	 * Return the fingerprint that snapshots need to carry in order to be loaded.
+	 */
+	@Nullable
+	public String getExpectedFingerprint() {
+		return this.expectedFingerprint;
+	}
+
+
+	/**
+	 * Check whether the given resource contains a snapshot which can be loaded
+	 * by this reader, i.e. whether it exists, has the current format version and
+	 * carries the expected fingerprint (if any).
+	 * @param resource the resource descriptor for the snapshot
+	 * @return {@code true} if the snapshot can be loaded, {@code false} otherwise
+	 */
+	public boolean isSnapshotValid(Resource resource) {
+		if (!resource.exists()) {
+			return false;
+		}
+		try (InputStream is = resource.getInputStream()) {
+			SnapshotInput input = new SnapshotInput(new DataInputStream(new BufferedInputStream(is)));
+			return (input.readHeader() == null);
+		}
+		catch (IOException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * Load bean definitions from the specified snapshot.
+	 * @param resource the resource descriptor for the snapshot
+	 * @return the number of bean definitions found
+	 * @throws BeanDefinitionStoreException in case of loading or parsing errors,
+	 * including a fingerprint mismatch
+	 */
+	@Override
+	public int loadBeanDefinitions(Resource resource) throws BeanDefinitionStoreException {
+		if (logger.isTraceEnabled()) {
+			logger.trace("Loading bean definition snapshot from " + resource);
+		}
+		try (InputStream is = resource.getInputStream()) {
+			SnapshotInput input = new SnapshotInput(new DataInputStream(new BufferedInputStream(is)));
+			String problem = input.readHeader();
+			if (problem != null) {
+				throw new BeanDefinitionStoreException(resource.getDescription(), problem);
+			}
+
+			BeanDefinitionRegistry registry = getRegistry();
+			int count = input.in.readInt();
+			String[] beanNames = new String[count];
+			for (int i = 0; i < count; i++) {
+				beanNames[i] = input.readString();
+				registry.registerBeanDefinition(beanNames[i], input.readBeanDefinition());
+			}
+			for (String beanName : beanNames) {
+				String[] aliases = input.readStrings();
+				if (aliases != null) {
+					for (String alias : aliases) {
+						registry.registerAlias(beanName, alias);
+					}
+				}
+			}
+			return count;
+		}
+		catch (IOException ex) {
+			throw new BeanDefinitionStoreException(
+					"IOException reading bean definition snapshot from " + resource, ex);
+		}
+	}
+
+
+	/**
+	 * Decoding state for a single snapshot, in particular the string table.
+	 */
+	private class SnapshotInput {
+
+		private final DataInputStream in;
+
+		private final List<String> stringTable = new ArrayList<>(256);
+
+		public SnapshotInput(DataInputStream in) {
+			this.in = in;
+		}
+
+		/**
+		 * Read and check the header.
+		 * @return a description of the problem, or {@code null} if the header is valid
+		 */
+		@Nullable
+		public String readHeader() throws IOException {
+			if (this.in.readInt() != MAGIC) {
+				return "Not a bean definition snapshot";
+			}
+			short version = this.in.readShort();
+			if (version != VERSION) {
+				return "Unsupported bean definition snapshot version " + version;
+			}
+			String fingerprint = readString();
+			String expected = getExpectedFingerprint();
+			if (expected != null && !expected.equals(fingerprint)) {
+				return "Bean definition snapshot fingerprint [" + fingerprint +
+						"] does not match expected fingerprint [" + expected + "]";
+			}
+			return null;
+		}
+
+		public AbstractBeanDefinition readBeanDefinition() throws IOException {
+			byte kind = this.in.readByte();
+			AbstractBeanDefinition bd = (kind == ROOT_DEFINITION ? new RootBeanDefinition() : new GenericBeanDefinition());
+			String parentName = readString();
+			if (parentName != null) {
+				bd.setParentName(parentName);
+			}
+			bd.setBeanClassName(readString());
+			bd.setScope(readString());
+			int flags = this.in.readInt();
+			bd.setAbstract((flags & ABSTRACT_FLAG) != 0);
+			bd.setLazyInit((flags & LAZY_INIT_FLAG) != 0);
+			bd.setAutowireCandidate((flags & AUTOWIRE_CANDIDATE_FLAG) != 0);
+			bd.setPrimary((flags & PRIMARY_FLAG) != 0);
+			bd.setNonPublicAccessAllowed((flags & NON_PUBLIC_ACCESS_ALLOWED_FLAG) != 0);
+			bd.setLenientConstructorResolution((flags & LENIENT_CONSTRUCTOR_RESOLUTION_FLAG) != 0);
+			bd.setEnforceInitMethod((flags & ENFORCE_INIT_METHOD_FLAG) != 0);
+			bd.setEnforceDestroyMethod((flags & ENFORCE_DESTROY_METHOD_FLAG) != 0);
+			bd.setSynthetic((flags & SYNTHETIC_FLAG) != 0);
+			bd.setAutowireMode(this.in.readInt());
+			bd.setDependencyCheck(this.in.readInt());
+			bd.setRole(this.in.readInt());
+			bd.setDependsOn(readStrings());
+			bd.setFactoryBeanName(readString());
+			bd.setFactoryMethodName(readString());
+			bd.setInitMethodName(readString());
+			bd.setDestroyMethodName(readString());
+			bd.setDescription(readString());
+			bd.setResourceDescription(readString());
+
+			int qualifierCount = this.in.readInt();
+			for (int i = 0; i < qualifierCount; i++) {
+				AutowireCandidateQualifier qualifier = new AutowireCandidateQualifier(readString());
+				readAttributes(qualifier);
+				bd.addQualifier(qualifier);
+			}
+
+			readConstructorArguments(bd.getConstructorArgumentValues());
+			readPropertyValues(bd.getPropertyValues());
+			readMethodOverrides(bd.getMethodOverrides());
+			readAttributes(bd);
+
+			if (bd instanceof RootBeanDefinition) {
+				RootBeanDefinition rbd = (RootBeanDefinition) bd;
+				rbd.isFactoryMethodUnique = ((flags & FACTORY_METHOD_UNIQUE_FLAG) != 0);
+				if (this.in.readBoolean()) {
+					rbd.setDecoratedDefinition(readBeanDefinitionHolder());
+				}
+				String targetTypeName = readString();
+				if (targetTypeName != null) {
+					rbd.setTargetType(ClassUtils.resolveClassName(targetTypeName, getBeanClassLoader()));
+				}
+			}
+			return bd;
+		}
+
+		private void readConstructorArguments(ConstructorArgumentValues cargs) throws IOException {
+			int indexedCount = this.in.readInt();
+			for (int i = 0; i < indexedCount; i++) {
+				int index = this.in.readInt();
+				cargs.addIndexedArgumentValue(index, readValueHolder());
+			}
+			int genericCount = this.in.readInt();
+			for (int i = 0; i < genericCount; i++) {
+				cargs.addGenericArgumentValue(readValueHolder());
+			}
+		}
+
+		private ConstructorArgumentValues.ValueHolder readValueHolder() throws IOException {
+			Object value = readValue();
+			String type = readString();
+			String name = readString();
+			return new ConstructorArgumentValues.ValueHolder(value, type, name);
+		}
+
+		private void readPropertyValues(MutablePropertyValues pvs) throws IOException {
+			int count = this.in.readInt();
+			for (int i = 0; i < count; i++) {
+				String name = readString();
+				boolean optional = this.in.readBoolean();
+				PropertyValue pv = new PropertyValue(name, readValue());
+				pv.setOptional(optional);
+				pvs.addPropertyValue(pv);
+			}
+		}
+
+		private void readMethodOverrides(MethodOverrides methodOverrides) throws IOException {
+			int count = this.in.readInt();
+			for (int i = 0; i < count; i++) {
+				byte kind = this.in.readByte();
+				String methodName = readString();
+				if (kind == LOOKUP_OVERRIDE) {
+					methodOverrides.addOverride(new LookupOverride(methodName, readString()));
+				}
+				else {
+					ReplaceOverride override = new ReplaceOverride(methodName, readString());
+					String[] typeIdentifiers = readStrings();
+					if (typeIdentifiers != null) {
+						for (String typeIdentifier : typeIdentifiers) {
+							override.addTypeIdentifier(typeIdentifier);
+						}
+					}
+					methodOverrides.addOverride(override);
+				}
+			}
+		}
+
+		private void readAttributes(AttributeAccessor accessor) throws IOException {
+			int count = this.in.readInt();
+			for (int i = 0; i < count; i++) {
+				String name = readString();
+				accessor.setAttribute(name, readValue());
+			}
+		}
+
+		private BeanDefinitionHolder readBeanDefinitionHolder() throws IOException {
+			String beanName = readString();
+			String[] aliases = readStrings();
+			return new BeanDefinitionHolder(readBeanDefinition(), beanName, aliases);
+		}
+
+		@Nullable
+		private Object readValue() throws IOException {
+			byte kind = this.in.readByte();
+			switch (kind) {
+				case NULL_VALUE:
+					return null;
+				case STRING_VALUE:
+					return readString();
+				case BOOLEAN_VALUE:
+					return this.in.readBoolean();
+				case INTEGER_VALUE:
+					return this.in.readInt();
+				case LONG_VALUE:
+					return this.in.readLong();
+				case SHORT_VALUE:
+					return this.in.readShort();
+				case BYTE_VALUE:
+					return this.in.readByte();
+				case FLOAT_VALUE:
+					return this.in.readFloat();
+				case DOUBLE_VALUE:
+					return this.in.readDouble();
+				case CHARACTER_VALUE:
+					return this.in.readChar();
+				case CLASS_VALUE:
+					return ClassUtils.resolveClassName(readString(), getBeanClassLoader());
+				case TYPED_STRING_VALUE:
+					TypedStringValue typedStringValue = new TypedStringValue(readString());
+					typedStringValue.setTargetTypeName(readString());
+					typedStringValue.setSpecifiedTypeName(readString());
+					if (this.in.readBoolean()) {
+						typedStringValue.setDynamic();
+					}
+					return typedStringValue;
+				case BEAN_REFERENCE_VALUE:
+					String referencedName = readString();
+					return new RuntimeBeanReference(referencedName, this.in.readBoolean());
+				case BEAN_NAME_REFERENCE_VALUE:
+					return new RuntimeBeanNameReference(readString());
+				case BEAN_DEFINITION_HOLDER_VALUE:
+					return readBeanDefinitionHolder();
+				case BEAN_DEFINITION_VALUE:
+					return readBeanDefinition();
+				case MANAGED_ARRAY_VALUE:
+					String arrayElementTypeName = readString();
+					boolean arrayMergeEnabled = this.in.readBoolean();
+					int arraySize = this.in.readInt();
+					ManagedArray array = new ManagedArray(arrayElementTypeName, arraySize);
+					array.setMergeEnabled(arrayMergeEnabled);
+					readValues(array, arraySize);
+					return array;
+				case MANAGED_LIST_VALUE:
+					String listElementTypeName = readString();
+					boolean listMergeEnabled = this.in.readBoolean();
+					int listSize = this.in.readInt();
+					ManagedList<Object> list = new ManagedList<>(listSize);
+					list.setElementTypeName(listElementTypeName);
+					list.setMergeEnabled(listMergeEnabled);
+					readValues(list, listSize);
+					return list;
+				case MANAGED_SET_VALUE:
+					String setElementTypeName = readString();
+					boolean setMergeEnabled = this.in.readBoolean();
+					int setSize = this.in.readInt();
+					ManagedSet<Object> set = new ManagedSet<>(setSize);
+					set.setElementTypeName(setElementTypeName);
+					set.setMergeEnabled(setMergeEnabled);
+					readValues(set, setSize);
+					return set;
+				case MANAGED_MAP_VALUE:
+					String keyTypeName = readString();
+					String valueTypeName = readString();
+					boolean mapMergeEnabled = this.in.readBoolean();
+					int mapSize = this.in.readInt();
+					ManagedMap<Object, Object> map = new ManagedMap<>(mapSize);
+					map.setKeyTypeName(keyTypeName);
+					map.setValueTypeName(valueTypeName);
+					map.setMergeEnabled(mapMergeEnabled);
+					readEntries(map, mapSize);
+					return map;
+				case MANAGED_PROPERTIES_VALUE:
+					ManagedProperties properties = new ManagedProperties();
+					properties.setMergeEnabled(this.in.readBoolean());
+					readEntries(properties, this.in.readInt());
+					return properties;
+				default:
+					throw new IOException("Unknown value kind " + kind + " in bean definition snapshot");
+			}
+		}
+
+		private void readValues(Collection<Object> values, int size) throws IOException {
+			for (int i = 0; i < size; i++) {
+				values.add(readValue());
+			}
+		}
+
+		private void readEntries(Map<Object, Object> map, int size) throws IOException {
+			for (int i = 0; i < size; i++) {
+				Object key = readValue();
+				map.put(key, readValue());
+			}
+		}
+
+		@Nullable
+		public String[] readStrings() throws IOException {
+			int length = this.in.readInt();
+			if (length < 0) {
+				return null;
+			}
+			String[] values = new String[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = readString();
+			}
+			return values;
+		}
+
+		@Nullable
+		public String readString() throws IOException {
+			int index = this.in.readInt();
+			if (index == NULL_STRING) {
+				return null;
+			}
+			if (index != NEW_STRING) {
+				if (index < 0 || index >= this.stringTable.size()) {
+					throw new IOException("Invalid string reference " + index + " in bean definition snapshot");
+				}
+				return this.stringTable.get(index);
+			}
+			byte[] bytes = new byte[this.in.readInt()];
+			this.in.readFully(bytes);
+			String value = new String(bytes, StandardCharsets.UTF_8);
+			this.stringTable.add(value);
+			return value;
+		}
+	}
+
+}
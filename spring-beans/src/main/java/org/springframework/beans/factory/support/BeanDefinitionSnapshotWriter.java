@@ -0,0 +1,502 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.core.AttributeAccessor;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+import static org.springframework.beans.factory.support.BeanDefinitionSnapshotFormat.*;
+
+/**
+ * Writes the bean definitions of a {@link BeanDefinitionRegistry} to a compact
+ * binary snapshot, to be loaded through a {@link BeanDefinitionSnapshotReader}
+ * on a later start instead of parsing the original configuration again.
+ *
+ * <p>Each snapshot carries a fingerprint, typically derived from the class path
+ * and the active configuration through {@link #classPathFingerprint}. A reader
+ * only accepts a snapshot with the expected fingerprint, so any change to the
+ * application leads to a regular configuration parsing run (which may then
+ * write a fresh snapshot).
+ *
+ * <p>A snapshot contains the bean definition metadata only: bean class names,
+ * scopes, flags, constructor arguments and property values (including nested
+ * bean definitions, bean references and managed collections), method overrides,
+ * qualifiers and attributes. Definitions which cannot be represented that way,
+ * e.g. with an instance supplier or with property values of arbitrary object
+ * types, cause a {@link BeanDefinitionStoreException} to be thrown; the caller
+ * is then expected to keep parsing the configuration on every start.
+ * Side effects of configuration processing outside of the registry, such as
+ * property sources registered with the environment, are not part of a snapshot.
+ *
+ * @since 5.1
+ * @see BeanDefinitionSnapshotReader
+ */
+public class BeanDefinitionSnapshotWriter {
+
+	private final BeanDefinitionRegistry registry;
+
+
+	/**
+	 * Create a new BeanDefinitionSnapshotWriter for the given registry.
+	 * @param registry the BeanFactory or ApplicationContext to take the
+	 * bean definitions from, in the form of a BeanDefinitionRegistry
+	 */
+	public BeanDefinitionSnapshotWriter(BeanDefinitionRegistry registry) {
+		Assert.notNull(registry, "BeanDefinitionRegistry must not be null");
+		this.registry = registry;
+	}
+
+
+	/**
+	 * Write a snapshot of all bean definitions and aliases to the given file.
+	 * <p>The snapshot is written to a temporary file first and then moved into
+	 * place, so that concurrently starting processes never see a partial file.
+	 * @param file the target file
+	 * @param fingerprint the fingerprint to store with the snapshot
+	 * @throws IOException in case of I/O errors
+	 * @throws BeanDefinitionStoreException if a bean definition cannot be
+	 * represented in a snapshot
+	 */
+	public void writeSnapshot(File file, String fingerprint) throws IOException {
+		Path target = file.toPath().toAbsolutePath();
+		Path parent = target.getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		Path tempFile = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+		try {
+			try (OutputStream out = new FileOutputStream(tempFile.toFile())) {
+				writeSnapshot(out, fingerprint);
+			}
+			Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+	/**
+	 * Write a snapshot of all bean definitions and aliases to the given stream.
+	 * <p>The stream will be flushed but not closed.
+	 * @param out the stream to write to
+	 * @param fingerprint the fingerprint to store with the snapshot
+	 * @throws IOException in case of I/O errors
+	 * @throws BeanDefinitionStoreException if a bean definition cannot be
+	 * represented in a snapshot
+	 */
+	public void writeSnapshot(OutputStream out, String fingerprint) throws IOException {
+		Assert.notNull(fingerprint, "Fingerprint must not be null");
+		SnapshotOutput output = new SnapshotOutput(new DataOutputStream(new BufferedOutputStream(out)));
+		output.writeHeader(fingerprint);
+
+		String[] beanNames = this.registry.getBeanDefinitionNames();
+		output.out.writeInt(beanNames.length);
+		for (String beanName : beanNames) {
+			output.writeString(beanName);
+			output.writeBeanDefinition(beanName, this.registry.getBeanDefinition(beanName));
+		}
+		for (String beanName : beanNames) {
+			output.writeStrings(this.registry.getAliases(beanName));
+		}
+		output.out.flush();
+	}
+
+
+	/**
+	 * Compute a fingerprint for the current class path, i.e. the entries of the
+	 * {@code java.class.path} system property along with their sizes and
+	 * last-modified timestamps, plus the given application-specific keys.
+	 * <p>Additional keys typically include the active profiles and the content
+	 * or timestamps of external configuration files.
+	 * @param additionalKeys further keys to include in the fingerprint
+	 * @return the fingerprint as a hex String
+	 */
+	public static String classPathFingerprint(String... additionalKeys) {
+		StringBuilder sb = new StringBuilder();
+		String classPath = System.getProperty("java.class.path", "");
+		for (String entry : StringUtils.tokenizeToStringArray(classPath, File.pathSeparator)) {
+			File file = new File(entry);
+			sb.append(file.getAbsolutePath()).append('|');
+			if (file.isDirectory()) {
+				appendDirectoryFingerprint(file.toPath(), sb);
+			}
+			else {
+				sb.append(file.length()).append('|').append(file.lastModified());
+			}
+			sb.append('\n');
+		}
+		for (String key : additionalKeys) {
+			sb.append(key).append('\n');
+		}
+		return DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void appendDirectoryFingerprint(Path directory, StringBuilder sb) {
+		long fileCount = 0;
+		long lastModified = 0;
+		try (Stream<Path> files = Files.walk(directory)) {
+			for (Path path : (Iterable<Path>) files::iterator) {
+				fileCount++;
+				lastModified = Math.max(lastModified, path.toFile().lastModified());
+			}
+		}
+		catch (IOException ex) {
+			// Treat unreadable directories as empty; the entry itself is still part of the fingerprint
+		}
+		sb.append(fileCount).append('|').append(lastModified);
+	}
+
+
+	/**
+	 * Encoding state for a single snapshot, in particular the string table.
+	 */
+	private static class SnapshotOutput {
+
+		private final DataOutputStream out;
+
+		private final Map<String, Integer> stringTable = new HashMap<>(256);
+
+		public SnapshotOutput(DataOutputStream out) {
+			this.out = out;
+		}
+
+		public void writeHeader(String fingerprint) throws IOException {
+			this.out.writeInt(MAGIC);
+			this.out.writeShort(VERSION);
+			writeString(fingerprint);
+		}
+
+		public void writeBeanDefinition(String beanName, BeanDefinition beanDefinition) throws IOException {
+			if (!(beanDefinition instanceof AbstractBeanDefinition)) {
+				throw new BeanDefinitionStoreException(beanDefinition.getResourceDescription(), beanName,
+						"Cannot write snapshot for bean definition of type [" + beanDefinition.getClass().getName() + "]");
+			}
+			AbstractBeanDefinition bd = (AbstractBeanDefinition) beanDefinition;
+			if (bd.getInstanceSupplier() != null) {
+				throw new BeanDefinitionStoreException(bd.getResourceDescription(), beanName,
+						"Cannot write snapshot for bean definition with instance supplier");
+			}
+			RootBeanDefinition rbd = (bd instanceof RootBeanDefinition ? (RootBeanDefinition) bd : null);
+			if (rbd != null && rbd.getQualifiedElement() != null) {
+				throw new BeanDefinitionStoreException(bd.getResourceDescription(), beanName,
+						"Cannot write snapshot for bean definition with qualified element");
+			}
+
+			this.out.writeByte(rbd != null ? ROOT_DEFINITION : GENERIC_DEFINITION);
+			writeString(bd.getParentName());
+			writeString(bd.getBeanClassName());
+			writeString(bd.getScope());
+			int flags = 0;
+			flags |= (bd.isAbstract() ? ABSTRACT_FLAG : 0);
+			flags |= (bd.isLazyInit() ? LAZY_INIT_FLAG : 0);
+			flags |= (bd.isAutowireCandidate() ? AUTOWIRE_CANDIDATE_FLAG : 0);
+			flags |= (bd.isPrimary() ? PRIMARY_FLAG : 0);
+			flags |= (bd.isNonPublicAccessAllowed() ? NON_PUBLIC_ACCESS_ALLOWED_FLAG : 0);
+			flags |= (bd.isLenientConstructorResolution() ? LENIENT_CONSTRUCTOR_RESOLUTION_FLAG : 0);
+			flags |= (bd.isEnforceInitMethod() ? ENFORCE_INIT_METHOD_FLAG : 0);
+			flags |= (bd.isEnforceDestroyMethod() ? ENFORCE_DESTROY_METHOD_FLAG : 0);
+			flags |= (bd.isSynthetic() ? SYNTHETIC_FLAG : 0);
+			flags |= (rbd != null && rbd.isFactoryMethodUnique ? FACTORY_METHOD_UNIQUE_FLAG : 0);
+			this.out.writeInt(flags);
+			this.out.writeInt(bd.getAutowireMode());
+			this.out.writeInt(bd.getDependencyCheck());
+			this.out.writeInt(bd.getRole());
+			writeStrings(bd.getDependsOn());
+			writeString(bd.getFactoryBeanName());
+			writeString(bd.getFactoryMethodName());
+			writeString(bd.getInitMethodName());
+			writeString(bd.getDestroyMethodName());
+			writeString(bd.getDescription());
+			writeString(bd.getResourceDescription());
+
+			Set<AutowireCandidateQualifier> qualifiers = bd.getQualifiers();
+			this.out.writeInt(qualifiers.size());
+			for (AutowireCandidateQualifier qualifier : qualifiers) {
+				writeString(qualifier.getTypeName());
+				writeAttributes(beanName, qualifier);
+			}
+
+			writeConstructorArguments(beanName, bd.getConstructorArgumentValues());
+			writePropertyValues(beanName, bd.getPropertyValues());
+			writeMethodOverrides(beanName, bd.getMethodOverrides());
+			writeAttributes(beanName, bd);
+
+			if (rbd != null) {
+				BeanDefinitionHolder decoratedDefinition = rbd.getDecoratedDefinition();
+				this.out.writeBoolean(decoratedDefinition != null);
+				if (decoratedDefinition != null) {
+					writeBeanDefinitionHolder(decoratedDefinition);
+				}
+				Class<?> targetType = rbd.getTargetType();
+				writeString(targetType != null ? targetType.getName() : null);
+			}
+		}
+
+		private void writeConstructorArguments(String beanName, ConstructorArgumentValues cargs) throws IOException {
+			Map<Integer, ConstructorArgumentValues.ValueHolder> indexedArgs = cargs.getIndexedArgumentValues();
+			this.out.writeInt(indexedArgs.size());
+			for (Map.Entry<Integer, ConstructorArgumentValues.ValueHolder> entry : indexedArgs.entrySet()) {
+				this.out.writeInt(entry.getKey());
+				writeValueHolder(beanName, entry.getValue());
+			}
+			List<ConstructorArgumentValues.ValueHolder> genericArgs = cargs.getGenericArgumentValues();
+			this.out.writeInt(genericArgs.size());
+			for (ConstructorArgumentValues.ValueHolder valueHolder : genericArgs) {
+				writeValueHolder(beanName, valueHolder);
+			}
+		}
+
+		private void writeValueHolder(String beanName, ConstructorArgumentValues.ValueHolder valueHolder)
+				throws IOException {
+
+			writeValue(beanName, valueHolder.getValue());
+			writeString(valueHolder.getType());
+			writeString(valueHolder.getName());
+		}
+
+		private void writePropertyValues(String beanName, MutablePropertyValues pvs) throws IOException {
+			PropertyValue[] propertyValues = pvs.getPropertyValues();
+			this.out.writeInt(propertyValues.length);
+			for (PropertyValue pv : propertyValues) {
+				writeString(pv.getName());
+				this.out.writeBoolean(pv.isOptional());
+				writeValue(beanName, pv.getValue());
+			}
+		}
+
+		private void writeMethodOverrides(String beanName, MethodOverrides methodOverrides) throws IOException {
+			Set<MethodOverride> overrides = methodOverrides.getOverrides();
+			this.out.writeInt(overrides.size());
+			for (MethodOverride override : overrides) {
+				if (override instanceof LookupOverride) {
+					this.out.writeByte(LOOKUP_OVERRIDE);
+					writeString(override.getMethodName());
+					writeString(((LookupOverride) override).getBeanName());
+				}
+				else if (override instanceof ReplaceOverride) {
+					this.out.writeByte(REPLACE_OVERRIDE);
+					writeString(override.getMethodName());
+					writeString(((ReplaceOverride) override).getMethodReplacerBeanName());
+					writeStrings(StringUtils.toStringArray(((ReplaceOverride) override).getTypeIdentifiers()));
+				}
+				else {
+					throw new BeanDefinitionStoreException(null, beanName,
+							"Cannot write snapshot for method override of type [" + override.getClass().getName() + "]");
+				}
+			}
+		}
+
+		private void writeAttributes(String beanName, AttributeAccessor accessor) throws IOException {
+			String[] attributeNames = accessor.attributeNames();
+			this.out.writeInt(attributeNames.length);
+			for (String attributeName : attributeNames) {
+				writeString(attributeName);
+				writeValue(beanName, accessor.getAttribute(attributeName));
+			}
+		}
+
+		private void writeBeanDefinitionHolder(BeanDefinitionHolder holder) throws IOException {
+			writeString(holder.getBeanName());
+			writeStrings(holder.getAliases());
+			writeBeanDefinition(holder.getBeanName(), holder.getBeanDefinition());
+		}
+
+		private void writeValue(String beanName, @Nullable Object value) throws IOException {
+			if (value == null) {
+				this.out.writeByte(NULL_VALUE);
+			}
+			else if (value instanceof String) {
+				this.out.writeByte(STRING_VALUE);
+				writeString((String) value);
+			}
+			else if (value instanceof Boolean) {
+				this.out.writeByte(BOOLEAN_VALUE);
+				this.out.writeBoolean((Boolean) value);
+			}
+			else if (value instanceof Integer) {
+				this.out.writeByte(INTEGER_VALUE);
+				this.out.writeInt((Integer) value);
+			}
+			else if (value instanceof Long) {
+				this.out.writeByte(LONG_VALUE);
+				this.out.writeLong((Long) value);
+			}
+			else if (value instanceof Short) {
+				this.out.writeByte(SHORT_VALUE);
+				this.out.writeShort((Short) value);
+			}
+			else if (value instanceof Byte) {
+				this.out.writeByte(BYTE_VALUE);
+				this.out.writeByte((Byte) value);
+			}
+			else if (value instanceof Float) {
+				this.out.writeByte(FLOAT_VALUE);
+				this.out.writeFloat((Float) value);
+			}
+			else if (value instanceof Double) {
+				this.out.writeByte(DOUBLE_VALUE);
+				this.out.writeDouble((Double) value);
+			}
+			else if (value instanceof Character) {
+				this.out.writeByte(CHARACTER_VALUE);
+				this.out.writeChar((Character) value);
+			}
+			else if (value instanceof Class) {
+				this.out.writeByte(CLASS_VALUE);
+				writeString(((Class<?>) value).getName());
+			}
+			else if (value instanceof TypedStringValue) {
+				TypedStringValue typedStringValue = (TypedStringValue) value;
+				this.out.writeByte(TYPED_STRING_VALUE);
+				writeString(typedStringValue.getValue());
+				writeString(typedStringValue.getTargetTypeName());
+				writeString(typedStringValue.getSpecifiedTypeName());
+				this.out.writeBoolean(typedStringValue.isDynamic());
+			}
+			else if (value instanceof RuntimeBeanReference) {
+				RuntimeBeanReference reference = (RuntimeBeanReference) value;
+				this.out.writeByte(BEAN_REFERENCE_VALUE);
+				writeString(reference.getBeanName());
+				this.out.writeBoolean(reference.isToParent());
+			}
+			else if (value instanceof RuntimeBeanNameReference) {
+				this.out.writeByte(BEAN_NAME_REFERENCE_VALUE);
+				writeString(((RuntimeBeanNameReference) value).getBeanName());
+			}
+			else if (value instanceof BeanDefinitionHolder) {
+				this.out.writeByte(BEAN_DEFINITION_HOLDER_VALUE);
+				writeBeanDefinitionHolder((BeanDefinitionHolder) value);
+			}
+			else if (value instanceof BeanDefinition) {
+				this.out.writeByte(BEAN_DEFINITION_VALUE);
+				writeBeanDefinition(beanName, (BeanDefinition) value);
+			}
+			else if (value instanceof ManagedArray) {
+				ManagedArray array = (ManagedArray) value;
+				this.out.writeByte(MANAGED_ARRAY_VALUE);
+				writeString(array.getElementTypeName());
+				this.out.writeBoolean(array.isMergeEnabled());
+				writeValues(beanName, array);
+			}
+			else if (value instanceof ManagedList) {
+				ManagedList<?> list = (ManagedList<?>) value;
+				this.out.writeByte(MANAGED_LIST_VALUE);
+				writeString(list.getElementTypeName());
+				this.out.writeBoolean(list.isMergeEnabled());
+				writeValues(beanName, list);
+			}
+			else if (value instanceof ManagedSet) {
+				ManagedSet<?> set = (ManagedSet<?>) value;
+				this.out.writeByte(MANAGED_SET_VALUE);
+				writeString(set.getElementTypeName());
+				this.out.writeBoolean(set.isMergeEnabled());
+				writeValues(beanName, set);
+			}
+			else if (value instanceof ManagedMap) {
+				ManagedMap<?, ?> map = (ManagedMap<?, ?>) value;
+				this.out.writeByte(MANAGED_MAP_VALUE);
+				writeString(map.getKeyTypeName());
+				writeString(map.getValueTypeName());
+				this.out.writeBoolean(map.isMergeEnabled());
+				writeEntries(beanName, map);
+			}
+			else if (value instanceof ManagedProperties) {
+				ManagedProperties properties = (ManagedProperties) value;
+				this.out.writeByte(MANAGED_PROPERTIES_VALUE);
+				this.out.writeBoolean(properties.isMergeEnabled());
+				writeEntries(beanName, properties);
+			}
+			else {
+				throw new BeanDefinitionStoreException(null, beanName,
+						"Cannot write snapshot for value of type [" + value.getClass().getName() + "]");
+			}
+		}
+
+		private void writeValues(String beanName, Collection<?> values) throws IOException {
+			this.out.writeInt(values.size());
+			for (Object element : values) {
+				writeValue(beanName, element);
+			}
+		}
+
+		private void writeEntries(String beanName, Map<?, ?> map) throws IOException {
+			this.out.writeInt(map.size());
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				writeValue(beanName, entry.getKey());
+				writeValue(beanName, entry.getValue());
+			}
+		}
+
+		public void writeStrings(@Nullable String[] values) throws IOException {
+			if (values == null) {
+				this.out.writeInt(-1);
+				return;
+			}
+			this.out.writeInt(values.length);
+			for (String value : values) {
+				writeString(value);
+			}
+		}
+
+		public void writeString(@Nullable String value) throws IOException {
+			if (value == null) {
+				this.out.writeInt(NULL_STRING);
+				return;
+			}
+			Integer index = this.stringTable.get(value);
+			if (index != null) {
+				this.out.writeInt(index);
+				return;
+			}
+			this.stringTable.put(value, this.stringTable.size());
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			this.out.writeInt(NEW_STRING);
+			this.out.writeInt(bytes.length);
+			this.out.write(bytes);
+		}
+	}
+
+}
@@ -152,18 +152,16 @@ class ConstructorResolver {
 		}
 		else {
 			Object[] argsToResolve = null;
-			synchronized (mbd.constructorArgumentLock) {
-				/**
-				 * resolvedConstructorOrFactoryMethod:
-				 * 如果bean是原型的，那么会用到这个参数；如果bean是单实例的，永远不会进入到这里
-				 */
-				constructorToUse = (Constructor<?>) mbd.resolvedConstructorOrFactoryMethod;
-				if (constructorToUse != null && mbd.constructorArgumentsResolved) {
-					// Found a cached constructor...
-					argsToUse = mbd.resolvedConstructorArguments;
-					if (argsToUse == null) {
-						argsToResolve = mbd.preparedConstructorArguments;
-					}
+			/**
+			 * resolvedConstructorOrFactoryMethod:
+			 * 如果bean是原型的，那么会用到这个参数；如果bean是单实例的，永远不会进入到这里
+			 */
+			constructorToUse = (Constructor<?>) mbd.resolvedConstructorOrFactoryMethod;
+			if (constructorToUse != null && mbd.constructorArgumentsResolved) {
+				// Found a cached constructor...
+				argsToUse = mbd.resolvedConstructorArguments;
+				if (argsToUse == null) {
+					argsToResolve = mbd.preparedConstructorArguments;
 				}
 			}
 			if (argsToResolve != null) {
@@ -429,7 +427,10 @@ class ConstructorResolver {
 			}
 		}
 		synchronized (mbd.constructorArgumentLock) {
-			mbd.resolvedConstructorOrFactoryMethod = uniqueCandidate;
+			// Do not replace a factory method that has been cached along with its arguments
+			if (mbd.resolvedConstructorOrFactoryMethod == null) {
+				mbd.resolvedConstructorOrFactoryMethod = uniqueCandidate;
+			}
 		}
 	}
 
@@ -508,14 +509,12 @@ class ConstructorResolver {
 		}
 		else {
 			Object[] argsToResolve = null;
-			synchronized (mbd.constructorArgumentLock) {
-				factoryMethodToUse = (Method) mbd.resolvedConstructorOrFactoryMethod;
-				if (factoryMethodToUse != null && mbd.constructorArgumentsResolved) {
-					// Found a cached factory method...
-					argsToUse = mbd.resolvedConstructorArguments;
-					if (argsToUse == null) {
-						argsToResolve = mbd.preparedConstructorArguments;
-					}
+			factoryMethodToUse = (Method) mbd.resolvedConstructorOrFactoryMethod;
+			if (factoryMethodToUse != null && mbd.constructorArgumentsResolved) {
+				// Found a cached factory method...
+				argsToUse = mbd.resolvedConstructorArguments;
+				if (argsToUse == null) {
+					argsToResolve = mbd.preparedConstructorArguments;
 				}
 			}
 			if (argsToResolve != null) {
@@ -994,7 +993,6 @@ class ConstructorResolver {
 
 		public void storeCache(RootBeanDefinition mbd, Executable constructorOrFactoryMethod) {
 			synchronized (mbd.constructorArgumentLock) {
-				mbd.resolvedConstructorOrFactoryMethod = constructorOrFactoryMethod;
 				mbd.constructorArgumentsResolved = true;
 				if (this.resolveNecessary) {
 					mbd.preparedConstructorArguments = this.preparedArguments;
@@ -1002,6 +1000,8 @@ class ConstructorResolver {
 				else {
 					mbd.resolvedConstructorArguments = this.arguments;
 				}
+				// Publish the resolved state for lock-free reads
+				mbd.resolvedConstructorOrFactoryMethod = constructorOrFactoryMethod;
 			}
 		}
 	}
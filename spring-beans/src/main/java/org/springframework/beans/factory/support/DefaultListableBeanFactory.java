@@ -39,11 +39,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.inject.Provider;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.FatalBeanException;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanCurrentlyInCreationException;
@@ -148,6 +153,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	@Nullable
 	private Comparator<Object> dependencyComparator;
 
+	/** Optional Executor for creating independent non-lazy singletons in parallel */
+	@Nullable
+	private Executor preInstantiationExecutor;
+
 	/** Resolver to use for checking if a bean definition is an autowire candidate */
 	private AutowireCandidateResolver autowireCandidateResolver = new SimpleAutowireCandidateResolver();
 
@@ -164,10 +173,13 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	private final Map<String, BeanDefinition> beanDefinitionMap = new ConcurrentHashMap<>(256);
 
 	/** Map of singleton and non-singleton bean names, keyed by dependency type */
-	private final Map<Class<?>, String[]> allBeanNamesByType = new ConcurrentHashMap<>(64);
+	private final Map<Class<?>, BeanNamesForType> allBeanNamesByType = new ConcurrentHashMap<>(64);
 
 	/** Map of singleton-only bean names, keyed by dependency type */
-	private final Map<Class<?>, String[]> singletonBeanNamesByType = new ConcurrentHashMap<>(64);
+	private final Map<Class<?>, BeanNamesForType> singletonBeanNamesByType = new ConcurrentHashMap<>(64);
+
+	/** Modification count for the by-type caches, guarding against stale results */
+	private final AtomicInteger byTypeCacheModCount = new AtomicInteger();
 
 	/** List of bean definition names, in registration order */
 	private volatile List<String> beanDefinitionNames = new ArrayList<>(256);
@@ -285,6 +297,34 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return this.dependencyComparator;
 	}
 
+	/**
+	 * Set an {@link Executor} for parallel pre-instantiation of non-lazy singletons.
+	 * <p>If specified, {@link #preInstantiateSingletons()} splits the singletons into
+	 * groups without known dependencies between each other (as declared through
+	 * "depends-on", bean references, factory beans and already registered dependent
+	 * beans) and creates each group on the given executor, in registration order
+	 * within the group. Dependencies that only show up during creation (e.g. through
+	 * autowiring) are coordinated between the threads, including circular references.
+	 * {@link SmartInitializingSingleton} callbacks still happen on the calling thread,
+	 * in registration order, once all singletons have been created.
+	 * <p>The executor is expected to be bounded, e.g. a fixed thread pool.
+	 * Default is none, creating all singletons one after the other on the calling thread.
+	 * @since 5.1
+	 * @see #preInstantiateSingletons()
+	 */
+	public void setPreInstantiationExecutor(@Nullable Executor preInstantiationExecutor) {
+		this.preInstantiationExecutor = preInstantiationExecutor;
+	}
+
+	/**
+	 * Return the Executor for parallel pre-instantiation of non-lazy singletons, if any.
+	 * @since 5.1
+	 */
+	@Nullable
+	public Executor getPreInstantiationExecutor() {
+		return this.preInstantiationExecutor;
+	}
+
 	/**
 	 * Set a custom autowire candidate resolver for this BeanFactory to use
 	 * when deciding whether a bean definition should be considered as a
@@ -322,6 +362,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			this.allowBeanDefinitionOverriding = otherListableFactory.allowBeanDefinitionOverriding;
 			this.allowEagerClassLoading = otherListableFactory.allowEagerClassLoading;
 			this.dependencyComparator = otherListableFactory.dependencyComparator;
+			this.preInstantiationExecutor = otherListableFactory.preInstantiationExecutor;
 			// A clone of the AutowireCandidateResolver since it is potentially BeanFactoryAware...
 			setAutowireCandidateResolver(BeanUtils.instantiateClass(getAutowireCandidateResolver().getClass()));
 			// Make resolvable dependencies (e.g. ResourceLoader) available here as well...
@@ -381,6 +422,11 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
 	@Override
 	public String[] getBeanNamesForType(ResolvableType type) {
+		Class<?> resolved = type.resolve();
+		if (resolved != null && !type.hasGenerics()) {
+			// Plain class: use the by-type cache
+			return getBeanNamesForType(resolved, true, true);
+		}
 		return doGetBeanNamesForType(type, true, true);
 	}
 
@@ -389,36 +435,72 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return getBeanNamesForType(type, true, true);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>Results for eager lookups are cached per type, also before the
+	 * configuration has been frozen. Cached results get updated incrementally:
+	 * bean definitions and singletons registered later are matched on the next
+	 * lookup, removed beans are dropped from the affected results, and results
+	 * that turn out to disagree with a newly created singleton (e.g. a proxy or
+	 * a FactoryBean with a late-resolved object type) are evicted.
+	 */
 	@Override
 	public String[] getBeanNamesForType(@Nullable Class<?> type, boolean includeNonSingletons, boolean allowEagerInit) {
-		if (!isConfigurationFrozen() || type == null || !allowEagerInit) {
+		if (type == null || !allowEagerInit) {
 			return doGetBeanNamesForType(ResolvableType.forRawClass(type), includeNonSingletons, allowEagerInit);
 		}
-		Map<Class<?>, String[]> cache =
+		Map<Class<?>, BeanNamesForType> cache =
 				(includeNonSingletons ? this.allBeanNamesByType : this.singletonBeanNamesByType);
-		String[] resolvedBeanNames = cache.get(type);
-		if (resolvedBeanNames != null) {
-			return resolvedBeanNames;
-		}
-		resolvedBeanNames = doGetBeanNamesForType(ResolvableType.forRawClass(type), includeNonSingletons, true);
+		List<String> definitionNames = this.beanDefinitionNames;
+		Set<String> singletonNames = this.manualSingletonNames;
+		int definitionCount = definitionNames.size();
+		int singletonCount = singletonNames.size();
+		BeanNamesForType cached = cache.get(type);
+		if (cached != null && cached.definitionCount == definitionCount && cached.singletonCount == singletonCount) {
+			return cached.beanNames;
+		}
+
+		int modCount = this.byTypeCacheModCount.get();
+		ResolvableType resolvableType = ResolvableType.forRawClass(type);
+		if (cached == null || cached.definitionCount > definitionCount || cached.singletonCount > singletonCount) {
+			cached = BeanNamesForType.EMPTY;
+		}
+		// Only match the bean names registered since the cached lookup
+		List<String> definitionMatches = new ArrayList<>(Arrays.asList(cached.definitionMatches));
+		addBeanDefinitionMatches(resolvableType, includeNonSingletons, true,
+				definitionNames.subList(cached.definitionCount, definitionCount), definitionMatches);
+		List<String> singletonMatches = new ArrayList<>(Arrays.asList(cached.singletonMatches));
+		addManualSingletonMatches(resolvableType, includeNonSingletons,
+				new ArrayList<>(singletonNames).subList(cached.singletonCount, singletonCount), singletonMatches);
+		BeanNamesForType resolved = new BeanNamesForType(StringUtils.toStringArray(definitionMatches),
+				definitionCount, StringUtils.toStringArray(singletonMatches), singletonCount);
+
 		if (ClassUtils.isCacheSafe(type, getBeanClassLoader())) {
-			cache.put(type, resolvedBeanNames);
+			cache.put(type, resolved);
+			if (this.byTypeCacheModCount.get() != modCount) {
+				// A bean got removed or created in the meantime: the result
+				// might not reflect it, so let the next lookup recompute it.
+				cache.remove(type, resolved);
+			}
 		}
-		return resolvedBeanNames;
+		return resolved.beanNames;
 	}
 
-	/**
-	 *
-	 * @param type
-	 * @param includeNonSingletons
-	 * @param allowEagerInit
-	 * @return
-	 */
 	private String[] doGetBeanNamesForType(ResolvableType type, boolean includeNonSingletons, boolean allowEagerInit) {
 		List<String> result = new ArrayList<>();
+		addBeanDefinitionMatches(type, includeNonSingletons, allowEagerInit, this.beanDefinitionNames, result);
+		addManualSingletonMatches(type, includeNonSingletons, this.manualSingletonNames, result);
+		return StringUtils.toStringArray(result);
+	}
+
+	/**
+	 * Add the given bean definition names that match the given type to the result.
+	 */
+	private void addBeanDefinitionMatches(ResolvableType type, boolean includeNonSingletons,
+			boolean allowEagerInit, Collection<String> beanNames, List<String> result) {
 
 		// Check all bean definitions.
-		for (String beanName : this.beanDefinitionNames) {
+		for (String beanName : beanNames) {
 			// Only consider bean as eligible if the bean name
 			// is not defined as alias for some other bean.
 			if (!isAlias(beanName)) {
@@ -470,9 +552,16 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 				}
 			}
 		}
+	}
+
+	/**
+	 * Add the given manually registered singleton names that match the given type to the result.
+	 */
+	private void addManualSingletonMatches(ResolvableType type, boolean includeNonSingletons,
+			Collection<String> beanNames, List<String> result) {
 
 		// Check manually registered singletons too.
-		for (String beanName : this.manualSingletonNames) {
+		for (String beanName : beanNames) {
 			try {
 				// In case of FactoryBean, match object created by FactoryBean.
 				if (isFactoryBean(beanName)) {
@@ -496,8 +585,6 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 				}
 			}
 		}
-
-		return StringUtils.toStringArray(result);
 	}
 
 	/**
@@ -759,45 +846,13 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
 		// Trigger initialization of all non-lazy singleton beans...
 		//触发所有非延迟加载单实例bean的加载，加载的过程就是调用getBean()方法  上面获取到的是所有的beanName
-		for (String beanName : beanNames) {
-			/**
-			 * 合并父类beanDefinition；在前面初始化bean的时候，就已经合并了，这里是再判断一次，如果当前bean没有合并，就合并；如果已经合并了，就直接从
-			 * 对应的map集合中取出合并之后的beanDefinition
-			 *
-			 * 之所以要做beanDefinition的merge操作，是因为有些beanDefinition是RootBeanDefinition的子类，如果直接用子BeanDefinition去实例化，可能会有问题
-			 * 因为一个子BeanDefinition可以继承父beanDefinition，一些共性的信息可以放到父BeanDefinition中，所以，在对bean进行初始化的时候，都要对相应的beanDefinition进行合并的操作，得到RootBeanDefinition;比如：
-			 *  RootBeanDefinitionA设置需要注入name属性
-			 *  BeanDefinitionB设置需要注入type属性，再设置BeanDefinitionB 继承RootBeanDefinitionA,假如在这里不合并rootBeanDefinitionA，那么B这个bd需要注入的属性就只有type，不会有name，那也就不是我们想要的bd了；所以这里要把子bd的属性合并到新的RootBeanDefinition中
-			 *
-			 *  并且，spring在初始化bean的过程中，会对bd进行一些校验(比如：是否是单实例的，是否是抽象的等);所以：这里要先把bd进行合并，获取到父类的bd属性信息
-			 */
-			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
-			// 非抽象、非懒加载、单实例的bean
-			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
-				//判断当前bean是否是beanFactory；如果是factoryBean,在beanName前面加上 &
-				if (isFactoryBean(beanName)) {
-					Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
-					if (bean instanceof FactoryBean) {
-						final FactoryBean<?> factory = (FactoryBean<?>) bean;
-						boolean isEagerInit;
-						if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
-							isEagerInit = AccessController.doPrivileged((PrivilegedAction<Boolean>)
-											((SmartFactoryBean<?>) factory)::isEagerInit,
-									getAccessControlContext());
-						}
-						else {
-							isEagerInit = (factory instanceof SmartFactoryBean &&
-									((SmartFactoryBean<?>) factory).isEagerInit());
-						}
-						if (isEagerInit) {
-							getBean(beanName);
-						}
-					}
-				}
-				else {
-					//这里是去完成bean的实例化
-					getBean(beanName);
-				}
+		Executor executor = getPreInstantiationExecutor();
+		if (executor != null) {
+			preInstantiateSingletonsInParallel(beanNames, executor);
+		}
+		else {
+			for (String beanName : beanNames) {
+				preInstantiateSingleton(beanName);
 			}
 		}
 
@@ -824,6 +879,107 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		}
 	}
 
+	/**
+	 * Trigger initialization of the given bean if it is a non-lazy singleton,
+	 * including the object of an eager-init {@link SmartFactoryBean}.
+	 * @param beanName the name of the bean
+	 * @since 5.1
+	 */
+	private void preInstantiateSingleton(String beanName) {
+		/**
+		 * 合并父类beanDefinition；在前面初始化bean的时候，就已经合并了，这里是再判断一次，如果当前bean没有合并，就合并；如果已经合并了，就直接从
+		 * 对应的map集合中取出合并之后的beanDefinition
+		 *
+		 * 之所以要做beanDefinition的merge操作，是因为有些beanDefinition是RootBeanDefinition的子类，如果直接用子BeanDefinition去实例化，可能会有问题
+		 * 因为一个子BeanDefinition可以继承父beanDefinition，一些共性的信息可以放到父BeanDefinition中，所以，在对bean进行初始化的时候，都要对相应的beanDefinition进行合并的操作，得到RootBeanDefinition;比如：
+		 *  RootBeanDefinitionA设置需要注入name属性
+		 *  BeanDefinitionB设置需要注入type属性，再设置BeanDefinitionB 继承RootBeanDefinitionA,假如在这里不合并rootBeanDefinitionA，那么B这个bd需要注入的属性就只有type，不会有name，那也就不是我们想要的bd了；所以这里要把子bd的属性合并到新的RootBeanDefinition中
+		 *
+		 *  并且，spring在初始化bean的过程中，会对bd进行一些校验(比如：是否是单实例的，是否是抽象的等);所以：这里要先把bd进行合并，获取到父类的bd属性信息
+		 */
+		RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+		// 非抽象、非懒加载、单实例的bean
+		if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+			//判断当前bean是否是beanFactory；如果是factoryBean,在beanName前面加上 &
+			if (isFactoryBean(beanName)) {
+				Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
+				if (bean instanceof FactoryBean) {
+					final FactoryBean<?> factory = (FactoryBean<?>) bean;
+					boolean isEagerInit;
+					if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
+						isEagerInit = AccessController.doPrivileged((PrivilegedAction<Boolean>)
+										((SmartFactoryBean<?>) factory)::isEagerInit,
+								getAccessControlContext());
+					}
+					else {
+						isEagerInit = (factory instanceof SmartFactoryBean &&
+								((SmartFactoryBean<?>) factory).isEagerInit());
+					}
+					if (isEagerInit) {
+						getBean(beanName);
+					}
+				}
+			}
+			else {
+				//这里是去完成bean的实例化
+				getBean(beanName);
+			}
+		}
+	}
+
+	/**
+	 * Create the given non-lazy singletons on the given executor, one task per group
+	 * of singletons that are not known to depend on each other.
+	 * @param beanNames the names of all beans, in registration order
+	 * @param executor the executor to create the groups of singletons on
+	 * @since 5.1
+	 * @see #setPreInstantiationExecutor
+	 */
+	private void preInstantiateSingletonsInParallel(List<String> beanNames, Executor executor) {
+		List<List<String>> groups = new SingletonDependencyGraph(this, beanNames).getIndependentGroups();
+		if (groups.size() < 2) {
+			for (String beanName : beanNames) {
+				preInstantiateSingleton(beanName);
+			}
+			return;
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Pre-instantiating " + groups.size() + " independent groups of singletons in parallel");
+		}
+
+		setConcurrentSingletonCreation(true);
+		try {
+			List<CompletableFuture<Void>> futures = new ArrayList<>(groups.size());
+			for (List<String> group : groups) {
+				futures.add(CompletableFuture.runAsync(() -> group.forEach(this::preInstantiateSingleton), executor));
+			}
+			// Wait for all groups, even after a failure, before leaving concurrent mode
+			Throwable failure = null;
+			for (CompletableFuture<Void> future : futures) {
+				try {
+					future.join();
+				}
+				catch (CompletionException ex) {
+					if (failure == null) {
+						failure = (ex.getCause() != null ? ex.getCause() : ex);
+					}
+				}
+			}
+			if (failure instanceof RuntimeException) {
+				throw (RuntimeException) failure;
+			}
+			if (failure instanceof Error) {
+				throw (Error) failure;
+			}
+			if (failure != null) {
+				throw new FatalBeanException("Parallel pre-instantiation of singletons failed", failure);
+			}
+		}
+		finally {
+			setConcurrentSingletonCreation(false);
+		}
+	}
+
 
 	//---------------------------------------------------------------------
 	// Implementation of BeanDefinitionRegistry interface
@@ -907,7 +1063,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
 		if (existingDefinition != null || containsSingleton(beanName)) {
 			resetBeanDefinition(beanName);
+			// The replaced definition or singleton may have matched any type
+			clearByTypeCache();
 		}
+		// A new bean definition gets matched on the next by-type lookup
 	}
 
 	@Override
@@ -922,19 +1081,23 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			throw new NoSuchBeanDefinitionException(beanName);
 		}
 
+		int definitionIndex;
 		if (hasBeanCreationStarted()) {
 			// Cannot modify startup-time collection elements anymore (for stable iteration)
 			synchronized (this.beanDefinitionMap) {
 				List<String> updatedDefinitions = new ArrayList<>(this.beanDefinitionNames);
+				definitionIndex = updatedDefinitions.indexOf(beanName);
 				updatedDefinitions.remove(beanName);
 				this.beanDefinitionNames = updatedDefinitions;
 			}
 		}
 		else {
 			// Still in startup registration phase
+			definitionIndex = this.beanDefinitionNames.indexOf(beanName);
 			this.beanDefinitionNames.remove(beanName);
 		}
 		this.frozenBeanDefinitionNames = null;
+		removeFromByTypeCache(beanName, definitionIndex, -1);
 
 		resetBeanDefinition(beanName);
 	}
@@ -959,6 +1122,8 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 				BeanDefinition bd = this.beanDefinitionMap.get(bdName);
 				if (beanName.equals(bd.getParentName())) {
 					resetBeanDefinition(bdName);
+					// The merged child definition may match differently now
+					clearByTypeCache();
 				}
 			}
 		}
@@ -994,14 +1159,26 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			}
 		}
 
-		clearByTypeCache();
+		if (containsBeanDefinition(beanName)) {
+			// The given instance takes the place of the bean definition's predicted type
+			updateByTypeCache(beanName, singletonObject);
+		}
+		// A new manual singleton gets matched on the next by-type lookup
 	}
 
 	@Override
 	public void destroySingleton(String beanName) {
+		boolean hadSingleton = containsSingleton(beanName);
 		super.destroySingleton(beanName);
-		this.manualSingletonNames.remove(beanName);
-		clearByTypeCache();
+		int singletonIndex = indexOf(this.manualSingletonNames, beanName);
+		if (singletonIndex >= 0) {
+			this.manualSingletonNames.remove(beanName);
+			removeFromByTypeCache(beanName, -1, singletonIndex);
+		}
+		else if (hadSingleton) {
+			// Matching falls back to the bean definition's predicted type
+			clearByTypeCache();
+		}
 	}
 
 	@Override
@@ -1011,14 +1188,124 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		clearByTypeCache();
 	}
 
+	/**
+	 * Evicts the by-type lookup results that disagree with the newly created
+	 * singleton, since it may match differently than its bean definition
+	 * predicted (e.g. when exposed as a proxy, or as a FactoryBean whose
+	 * object type was unknown before).
+	 */
+	@Override
+	protected void onSingletonCreated(String beanName) {
+		Object singletonObject = getSingleton(beanName, false);
+		if (singletonObject != null && containsBeanDefinition(beanName)) {
+			updateByTypeCache(beanName, singletonObject);
+		}
+	}
+
+	/**
+	 * Evict any cached by-type lookup results that are
+	 * not consistent with the given singleton instance.
+	 */
+	private void updateByTypeCache(String beanName, Object singletonObject) {
+		this.byTypeCacheModCount.incrementAndGet();
+		updateByTypeCache(this.allBeanNamesByType, beanName, singletonObject, true);
+		updateByTypeCache(this.singletonBeanNamesByType, beanName, singletonObject, false);
+	}
+
+	private void updateByTypeCache(Map<Class<?>, BeanNamesForType> cache, String beanName,
+			Object singletonObject, boolean includeNonSingletons) {
+
+		String factoryBeanName = FACTORY_BEAN_PREFIX + beanName;
+		cache.forEach((type, cached) -> {
+			boolean consistent;
+			try {
+				String match = determineSingletonMatch(beanName, singletonObject, type, includeNonSingletons);
+				consistent = (match != null ? ObjectUtils.containsElement(cached.definitionMatches, match) :
+						!ObjectUtils.containsElement(cached.definitionMatches, beanName) &&
+								!ObjectUtils.containsElement(cached.definitionMatches, factoryBeanName));
+			}
+			catch (BeansException ex) {
+				// Cannot reliably determine the match: let the next lookup recompute it.
+				consistent = false;
+			}
+			if (!consistent) {
+				cache.remove(type, cached);
+			}
+		});
+	}
+
+	/**
+	 * Determine the name under which the given singleton would be returned
+	 * by {@link #doGetBeanNamesForType} for the given type, if any.
+	 */
+	@Nullable
+	private String determineSingletonMatch(String beanName, Object singletonObject,
+			Class<?> type, boolean includeNonSingletons) {
+
+		if (!(singletonObject instanceof FactoryBean) && singletonObject.getClass() != NullBean.class) {
+			// Common case: the exposed instance determines the match.
+			return (type.isInstance(singletonObject) ? beanName : null);
+		}
+		boolean eligible = includeNonSingletons;
+		if (!eligible) {
+			RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+			eligible = (mbd.getDecoratedDefinition() != null ? mbd.isSingleton() : isSingleton(beanName));
+		}
+		if (eligible && isTypeMatch(beanName, type)) {
+			return beanName;
+		}
+		String factoryBeanName = FACTORY_BEAN_PREFIX + beanName;
+		if (singletonObject instanceof FactoryBean && isTypeMatch(factoryBeanName, type)) {
+			return factoryBeanName;
+		}
+		return null;
+	}
+
+	/**
+	 * Drop the given bean from all cached by-type lookup results.
+	 * @param beanName the name of the removed bean
+	 * @param definitionIndex the former position among the bean definition names, or -1
+	 * @param singletonIndex the former position among the manual singleton names, or -1
+	 */
+	private void removeFromByTypeCache(String beanName, int definitionIndex, int singletonIndex) {
+		this.byTypeCacheModCount.incrementAndGet();
+		for (Map<Class<?>, BeanNamesForType> cache :
+				Arrays.asList(this.allBeanNamesByType, this.singletonBeanNamesByType)) {
+			cache.forEach((type, cached) -> cache.replace(type, cached,
+					cached.without(beanName, definitionIndex, singletonIndex)));
+		}
+	}
+
+	/**
+	 * Invalidate the by-type caches when post-processors change,
+	 * since these may predict bean types differently.
+	 */
+	@Override
+	void resetBeanPostProcessorCache() {
+		super.resetBeanPostProcessorCache();
+		clearByTypeCache();
+	}
+
 	/**
 	 * Remove any assumptions about by-type mappings.
 	 */
 	private void clearByTypeCache() {
+		this.byTypeCacheModCount.incrementAndGet();
 		this.allBeanNamesByType.clear();
 		this.singletonBeanNamesByType.clear();
 	}
 
+	private static int indexOf(Collection<String> names, String name) {
+		int index = 0;
+		for (String candidate : names) {
+			if (candidate.equals(name)) {
+				return index;
+			}
+			index++;
+		}
+		return -1;
+	}
+
 
 	//---------------------------------------------------------------------
 	// Dependency resolution functionality
@@ -1767,6 +2054,70 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	}
 
 
+	/**
+	 * Cached result of a by-type lookup, covering the bean definition names
+	 * and manual singleton names up to the recorded counts.
+	 */
+	private static final class BeanNamesForType {
+
+		static final BeanNamesForType EMPTY = new BeanNamesForType(new String[0], 0, new String[0], 0);
+
+		/** Matching bean definition names, in registration order */
+		final String[] definitionMatches;
+
+		/** Number of bean definition names that have been matched */
+		final int definitionCount;
+
+		/** Matching manual singleton names, in registration order */
+		final String[] singletonMatches;
+
+		/** Number of manual singleton names that have been matched */
+		final int singletonCount;
+
+		/** All matching bean names, as returned from a lookup */
+		final String[] beanNames;
+
+		BeanNamesForType(String[] definitionMatches, int definitionCount,
+				String[] singletonMatches, int singletonCount) {
+
+			this.definitionMatches = definitionMatches;
+			this.definitionCount = definitionCount;
+			this.singletonMatches = singletonMatches;
+			this.singletonCount = singletonCount;
+			this.beanNames = (singletonMatches.length == 0 ? definitionMatches :
+					StringUtils.concatenateStringArrays(definitionMatches, singletonMatches));
+		}
+
+		/**
+		 * Return a copy of this result without the given bean, which has been
+		 * removed from the given position of the bean names matched so far.
+		 */
+		BeanNamesForType without(String beanName, int definitionIndex, int singletonIndex) {
+			String factoryBeanName = FACTORY_BEAN_PREFIX + beanName;
+			return new BeanNamesForType(
+					without(this.definitionMatches, beanName, factoryBeanName),
+					(definitionIndex >= 0 && definitionIndex < this.definitionCount ?
+							this.definitionCount - 1 : this.definitionCount),
+					without(this.singletonMatches, beanName, factoryBeanName),
+					(singletonIndex >= 0 && singletonIndex < this.singletonCount ?
+							this.singletonCount - 1 : this.singletonCount));
+		}
+
+		private static String[] without(String[] names, String beanName, String factoryBeanName) {
+			if (!ObjectUtils.containsElement(names, beanName) && !ObjectUtils.containsElement(names, factoryBeanName)) {
+				return names;
+			}
+			List<String> result = new ArrayList<>(names.length);
+			for (String name : names) {
+				if (!name.equals(beanName) && !name.equals(factoryBeanName)) {
+					result.add(name);
+				}
+			}
+			return StringUtils.toStringArray(result);
+		}
+	}
+
+
 	/**
 	 * Minimal id reference to the factory.
 	 * Resolved to the actual factory instance on deserialization.
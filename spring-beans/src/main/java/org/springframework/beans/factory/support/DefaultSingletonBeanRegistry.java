@@ -86,6 +86,15 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Set<String> singletonsCurrentlyInCreation =
 			Collections.newSetFromMap(new ConcurrentHashMap<>(16));
 
+	/** Threads that create singletons while concurrent creation is active: bean name --> Thread */
+	private final Map<String, Thread> singletonCreationThreads = new HashMap<>(16);
+
+	/** Threads waiting for a singleton created by another thread: Thread --> bean name */
+	private final Map<Thread, String> singletonWaitingThreads = new HashMap<>(16);
+
+	/** Whether singletons may currently be created by several threads at the same time */
+	private volatile boolean concurrentSingletonCreation = false;
+
 	/** Names of beans currently excluded from in creation checks */
 	private final Set<String> inCreationCheckExclusions =
 			Collections.newSetFromMap(new ConcurrentHashMap<>(16));
@@ -101,13 +110,18 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Map<String, Object> disposableBeans = new LinkedHashMap<>();
 
 	/** Map between containing bean names: bean name --> Set of bean names that the bean contains */
-	private final Map<String, Set<String>> containedBeanMap = new ConcurrentHashMap<>(16);
+	private final Map<String, BeanNameSet> containedBeanMap = new ConcurrentHashMap<>(16);
 
-	/** Map between dependent bean names: bean name --> Set of dependent bean names */
-	private final Map<String, Set<String>> dependentBeanMap = new ConcurrentHashMap<>(64);
+	/**
+	 * Map between dependent bean names: bean name --> Set of dependent bean names.
+	 * <p>Like the other dependency maps, this holds insertion-ordered Sets which
+	 * get modified under the map's lock but may be read without locking, since
+	 * non-singleton beans keep registering their dependencies at runtime.
+	 */
+	private final Map<String, BeanNameSet> dependentBeanMap = new ConcurrentHashMap<>(64);
 
 	/** Map between depending bean names: bean name --> Set of bean names for the bean's dependencies */
-	private final Map<String, Set<String>> dependenciesForBeanMap = new ConcurrentHashMap<>(64);
+	private final Map<String, BeanNameSet> dependenciesForBeanMap = new ConcurrentHashMap<>(64);
 
 
 	@Override
@@ -197,6 +211,11 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		Object singletonObject = this.singletonObjects.get(beanName);
 		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
 			synchronized (this.singletonObjects) {
+				if (this.concurrentSingletonCreation && !isEarlySingletonVisible(beanName)) {
+					// Never expose another thread's partially initialized singleton:
+					// the caller is going to wait for its completion instead.
+					return null;
+				}
 				//mpy 这里只需要从二级缓存中拿一次就行，如果没有二级缓存，每次进来都需要从二级缓存get一次，影响效率
 				singletonObject = this.earlySingletonObjects.get(beanName);
 				if (singletonObject == null && allowEarlyReference) {
@@ -231,8 +250,13 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(beanName, "Bean name must not be null");
+		if (this.concurrentSingletonCreation) {
+			return getSingletonConcurrently(beanName, singletonFactory);
+		}
+		Object singletonObject;
+		boolean newSingleton = false;
 		synchronized (this.singletonObjects) {
-			Object singletonObject = this.singletonObjects.get(beanName);
+			singletonObject = this.singletonObjects.get(beanName);
 			if (singletonObject == null) {
 				if (this.singletonsCurrentlyInDestruction) {
 					throw new BeanCreationNotAllowedException(beanName,
@@ -243,7 +267,6 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 					logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
 				}
 				beforeSingletonCreation(beanName);
-				boolean newSingleton = false;
 				boolean recordSuppressedExceptions = (this.suppressedExceptions == null);
 				if (recordSuppressedExceptions) {
 					this.suppressedExceptions = new LinkedHashSet<>();
@@ -287,8 +310,169 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 					addSingleton(beanName, singletonObject);
 				}
 			}
-			return singletonObject;
 		}
+		if (newSingleton) {
+			onSingletonCreated(beanName);
+		}
+		return singletonObject;
+	}
+
+	/**
+	 * Variant of {@link #getSingleton(String, ObjectFactory)} for concurrent creation:
+	 * the singleton lock is only held for bookkeeping, not during the actual creation.
+	 * <p>A thread that asks for a singleton which is being created by another thread
+	 * waits for its completion. If that other thread is in turn (transitively) waiting
+	 * for a singleton created by the current thread, the circular reference gets
+	 * resolved through an early singleton reference, just like within a single thread.
+	 * @param beanName the name of the bean
+	 * @param singletonFactory the ObjectFactory to lazily create the singleton
+	 * with, if necessary
+	 * @return the registered singleton object
+	 * @since 5.1
+	 * @see #setConcurrentSingletonCreation
+	 */
+	private Object getSingletonConcurrently(String beanName, ObjectFactory<?> singletonFactory) {
+		Thread currentThread = Thread.currentThread();
+		synchronized (this.singletonObjects) {
+			Object singletonObject = this.singletonObjects.get(beanName);
+			while (singletonObject == null) {
+				Thread creationThread = this.singletonCreationThreads.get(beanName);
+				if (creationThread == null || creationThread == currentThread) {
+					break;
+				}
+				if (isWaitingForThread(creationThread, currentThread)) {
+					singletonObject = getSingleton(beanName, true);
+					if (singletonObject == null) {
+						throw new BeanCurrentlyInCreationException(beanName, "Requested bean is currently in " +
+								"creation by thread '" + creationThread.getName() + "' which in turn waits for " +
+								"a bean in creation by the current thread: Is there an unresolvable circular reference?");
+					}
+					return singletonObject;
+				}
+				this.singletonWaitingThreads.put(currentThread, beanName);
+				try {
+					this.singletonObjects.wait();
+				}
+				catch (InterruptedException ex) {
+					currentThread.interrupt();
+					throw new BeanCreationException(beanName,
+							"Interrupted while waiting for singleton creation in thread '" + creationThread.getName() + "'");
+				}
+				finally {
+					this.singletonWaitingThreads.remove(currentThread);
+				}
+				singletonObject = this.singletonObjects.get(beanName);
+			}
+			if (singletonObject != null) {
+				return singletonObject;
+			}
+			if (this.singletonsCurrentlyInDestruction) {
+				throw new BeanCreationNotAllowedException(beanName,
+						"Singleton bean creation not allowed while singletons of this factory are in destruction " +
+						"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Creating shared instance of singleton bean '" + beanName +
+						"' in thread '" + currentThread.getName() + "'");
+			}
+			beforeSingletonCreation(beanName);
+			this.singletonCreationThreads.put(beanName, currentThread);
+		}
+
+		Object singletonObject = null;
+		boolean newSingleton = false;
+		try {
+			singletonObject = singletonFactory.getObject();
+			newSingleton = true;
+		}
+		catch (IllegalStateException ex) {
+			// Has the singleton object implicitly appeared in the meantime ->
+			// if yes, proceed with it since the exception indicates that state.
+			singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject == null) {
+				throw ex;
+			}
+		}
+		finally {
+			synchronized (this.singletonObjects) {
+				if (newSingleton) {
+					addSingleton(beanName, singletonObject);
+				}
+				this.singletonCreationThreads.remove(beanName);
+				this.singletonObjects.notifyAll();
+				afterSingletonCreation(beanName);
+			}
+		}
+		if (newSingleton) {
+			onSingletonCreated(beanName);
+		}
+		return singletonObject;
+	}
+
+	/**
+	 * Determine whether an early reference to the given singleton may be handed
+	 * out to the current thread while concurrent creation is active: that is,
+	 * if the singleton is not being created by a different thread, or if that
+	 * thread (transitively) waits for the current thread, in which case we're
+	 * facing a circular reference across threads.
+	 * <p>To be called with the singleton lock held.
+	 * @param beanName the name of the bean
+	 */
+	private boolean isEarlySingletonVisible(String beanName) {
+		Thread creationThread = this.singletonCreationThreads.get(beanName);
+		Thread currentThread = Thread.currentThread();
+		return (creationThread == null || creationThread == currentThread ||
+				isWaitingForThread(creationThread, currentThread));
+	}
+
+	/**
+	 * Determine whether the given thread is (transitively) waiting for a singleton
+	 * that is being created by the target thread.
+	 * <p>To be called with the singleton lock held.
+	 * @param thread the potentially waiting thread
+	 * @param targetThread the thread that is potentially waited for
+	 */
+	private boolean isWaitingForThread(Thread thread, Thread targetThread) {
+		Thread current = thread;
+		// Bounded walk: each thread waits for at most one singleton at a time
+		for (int i = 0; i <= this.singletonWaitingThreads.size(); i++) {
+			String awaitedBeanName = this.singletonWaitingThreads.get(current);
+			if (awaitedBeanName == null) {
+				return false;
+			}
+			current = this.singletonCreationThreads.get(awaitedBeanName);
+			if (current == null) {
+				return false;
+			}
+			if (current == targetThread) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Specify whether singletons may be created by several threads at the same time,
+	 * e.g. during parallel pre-instantiation of independent singletons.
+	 * <p>While active, singleton creation no longer holds the singleton lock for its
+	 * entire duration; concurrent requests for the same singleton wait for the thread
+	 * that creates it, and early references are only handed out to other threads in
+	 * order to resolve a circular reference between them.
+	 * <p>Default is "false", with all singleton creation serialized on the
+	 * {@link #getSingletonMutex() singleton lock}.
+	 * @since 5.1
+	 */
+	protected void setConcurrentSingletonCreation(boolean concurrentSingletonCreation) {
+		this.concurrentSingletonCreation = concurrentSingletonCreation;
+	}
+
+	/**
+	 * Return whether singletons may currently be created by several threads at the same time.
+	 * @since 5.1
+	 * @see #setConcurrentSingletonCreation
+	 */
+	protected boolean isConcurrentSingletonCreation() {
+		return this.concurrentSingletonCreation;
 	}
 
 	/**
@@ -393,6 +577,18 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		}
 	}
 
+	/**
+	 * Callback after a new singleton has been created and registered through
+	 * {@link #getSingleton(String, ObjectFactory)}, invoked after releasing
+	 * the singleton lock. Note that without concurrent singleton creation,
+	 * the lock may still be held for an enclosing singleton creation.
+	 * <p>The default implementation is empty.
+	 * @param beanName the name of the singleton that has been created
+	 * @since 5.1
+	 */
+	protected void onSingletonCreated(String beanName) {
+	}
+
 
 	/**
 	 * Add the given bean to the list of disposable beans in this registry.
@@ -419,9 +615,15 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * @see #registerDependentBean
 	 */
 	public void registerContainedBean(String containedBeanName, String containingBeanName) {
+		// Quick check for an existing registration without full synchronization...
+		BeanNameSet existingBeans = this.containedBeanMap.get(containingBeanName);
+		if (existingBeans != null && existingBeans.contains(containedBeanName)) {
+			return;
+		}
+
 		synchronized (this.containedBeanMap) {
-			Set<String> containedBeans =
-					this.containedBeanMap.computeIfAbsent(containingBeanName, k -> new LinkedHashSet<>(8));
+			BeanNameSet containedBeans = this.containedBeanMap.computeIfAbsent(
+					containingBeanName, k -> new BeanNameSet(this.containedBeanMap));
 			if (!containedBeans.add(containedBeanName)) {
 				return;
 			}
@@ -438,17 +640,23 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	public void registerDependentBean(String beanName, String dependentBeanName) {
 		String canonicalName = canonicalName(beanName);
 
+		// Quick check for an existing registration without full synchronization...
+		BeanNameSet existingBeans = this.dependentBeanMap.get(canonicalName);
+		if (existingBeans != null && existingBeans.contains(dependentBeanName)) {
+			return;
+		}
+
 		synchronized (this.dependentBeanMap) {
-			Set<String> dependentBeans =
-					this.dependentBeanMap.computeIfAbsent(canonicalName, k -> new LinkedHashSet<>(8));
+			BeanNameSet dependentBeans =
+					this.dependentBeanMap.computeIfAbsent(canonicalName, k -> new BeanNameSet(this.dependentBeanMap));
 			if (!dependentBeans.add(dependentBeanName)) {
 				return;
 			}
 		}
 
 		synchronized (this.dependenciesForBeanMap) {
-			Set<String> dependenciesForBean =
-					this.dependenciesForBeanMap.computeIfAbsent(dependentBeanName, k -> new LinkedHashSet<>(8));
+			BeanNameSet dependenciesForBean = this.dependenciesForBeanMap.computeIfAbsent(
+					dependentBeanName, k -> new BeanNameSet(this.dependenciesForBeanMap));
 			dependenciesForBean.add(canonicalName);
 		}
 	}
@@ -461,9 +669,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * @since 4.0
 	 */
 	protected boolean isDependent(String beanName, String dependentBeanName) {
-		synchronized (this.dependentBeanMap) {
-			return isDependent(beanName, dependentBeanName, null);
-		}
+		return isDependent(beanName, dependentBeanName, null);
 	}
 
 	private boolean isDependent(String beanName, String dependentBeanName, @Nullable Set<String> alreadySeen) {
@@ -471,14 +677,14 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 			return false;
 		}
 		String canonicalName = canonicalName(beanName);
-		Set<String> dependentBeans = this.dependentBeanMap.get(canonicalName);
+		BeanNameSet dependentBeans = this.dependentBeanMap.get(canonicalName);
 		if (dependentBeans == null) {
 			return false;
 		}
 		if (dependentBeans.contains(dependentBeanName)) {
 			return true;
 		}
-		for (String transitiveDependency : dependentBeans) {
+		for (String transitiveDependency : dependentBeans.snapshot()) {
 			if (alreadySeen == null) {
 				alreadySeen = new HashSet<>();
 			}
@@ -504,13 +710,11 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * @return the array of dependent bean names, or an empty array if none
 	 */
 	public String[] getDependentBeans(String beanName) {
-		Set<String> dependentBeans = this.dependentBeanMap.get(beanName);
+		BeanNameSet dependentBeans = this.dependentBeanMap.get(beanName);
 		if (dependentBeans == null) {
 			return new String[0];
 		}
-		synchronized (this.dependentBeanMap) {
-			return StringUtils.toStringArray(dependentBeans);
-		}
+		return StringUtils.toStringArray(dependentBeans.snapshot());
 	}
 
 	/**
@@ -520,13 +724,11 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * or an empty array if none
 	 */
 	public String[] getDependenciesForBean(String beanName) {
-		Set<String> dependenciesForBean = this.dependenciesForBeanMap.get(beanName);
+		BeanNameSet dependenciesForBean = this.dependenciesForBeanMap.get(beanName);
 		if (dependenciesForBean == null) {
 			return new String[0];
 		}
-		synchronized (this.dependenciesForBeanMap) {
-			return StringUtils.toStringArray(dependenciesForBean);
-		}
+		return StringUtils.toStringArray(dependenciesForBean.snapshot());
 	}
 
 	public void destroySingletons() {
@@ -592,10 +794,13 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	protected void destroyBean(String beanName, @Nullable DisposableBean bean) {
 		// Trigger destruction of dependent beans first...
-		Set<String> dependencies;
+		Set<String> dependencies = null;
 		synchronized (this.dependentBeanMap) {
 			// Within full synchronization in order to guarantee a disconnected Set
-			dependencies = this.dependentBeanMap.remove(beanName);
+			BeanNameSet dependentBeans = this.dependentBeanMap.remove(beanName);
+			if (dependentBeans != null) {
+				dependencies = dependentBeans.snapshot();
+			}
 		}
 		if (dependencies != null) {
 			if (logger.isDebugEnabled()) {
@@ -617,10 +822,13 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		}
 
 		// Trigger destruction of contained beans...
-		Set<String> containedBeans;
+		Set<String> containedBeans = null;
 		synchronized (this.containedBeanMap) {
 			// Within full synchronization in order to guarantee a disconnected Set
-			containedBeans = this.containedBeanMap.remove(beanName);
+			BeanNameSet beanNames = this.containedBeanMap.remove(beanName);
+			if (beanNames != null) {
+				containedBeans = beanNames.snapshot();
+			}
 		}
 		if (containedBeans != null) {
 			for (String containedBeanName : containedBeans) {
@@ -630,9 +838,8 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 
 		// Remove destroyed bean from other beans' dependencies.
 		synchronized (this.dependentBeanMap) {
-			for (Iterator<Map.Entry<String, Set<String>>> it = this.dependentBeanMap.entrySet().iterator(); it.hasNext();) {
-				Map.Entry<String, Set<String>> entry = it.next();
-				Set<String> dependenciesToClean = entry.getValue();
+			for (Iterator<BeanNameSet> it = this.dependentBeanMap.values().iterator(); it.hasNext();) {
+				BeanNameSet dependenciesToClean = it.next();
 				dependenciesToClean.remove(beanName);
 				if (dependenciesToClean.isEmpty()) {
 					it.remove();
@@ -655,4 +862,76 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		return this.singletonObjects;
 	}
 
+
+	/**
+	 * Insertion-ordered set of bean names, modified under the lock of the
+	 * containing dependency map. Unsynchronized readers see an immutable
+	 * snapshot which gets rebuilt on first access after a modification,
+	 * keeping registration cheap even for beans with many dependents.
+	 */
+	private static final class BeanNameSet {
+
+		private final Object monitor;
+
+		private final Set<String> beanNames = new LinkedHashSet<>(8);
+
+		@Nullable
+		private volatile Set<String> snapshot;
+
+		BeanNameSet(Object monitor) {
+			this.monitor = monitor;
+		}
+
+		/**
+		 * Add the given bean name; to be called under the monitor.
+		 */
+		boolean add(String beanName) {
+			if (!this.beanNames.add(beanName)) {
+				return false;
+			}
+			this.snapshot = null;
+			return true;
+		}
+
+		/**
+		 * Remove the given bean name; to be called under the monitor.
+		 */
+		void remove(String beanName) {
+			if (this.beanNames.remove(beanName)) {
+				this.snapshot = null;
+			}
+		}
+
+		/**
+		 * Check whether this set is empty; to be called under the monitor.
+		 */
+		boolean isEmpty() {
+			return this.beanNames.isEmpty();
+		}
+
+		boolean contains(String beanName) {
+			Set<String> snapshot = this.snapshot;
+			if (snapshot != null) {
+				return snapshot.contains(beanName);
+			}
+			synchronized (this.monitor) {
+				return this.beanNames.contains(beanName);
+			}
+		}
+
+		Set<String> snapshot() {
+			Set<String> snapshot = this.snapshot;
+			if (snapshot == null) {
+				synchronized (this.monitor) {
+					snapshot = this.snapshot;
+					if (snapshot == null) {
+						snapshot = Collections.unmodifiableSet(new LinkedHashSet<>(this.beanNames));
+						this.snapshot = snapshot;
+					}
+				}
+			}
+			return snapshot;
+		}
+	}
+
 }
@@ -69,6 +69,14 @@ public class ReplaceOverride extends MethodOverride {
 		this.typeIdentifiers.add(identifier);
 	}
 
+	/**
+	 * Return the type identifiers added so far.
+	 * @see #addTypeIdentifier
+	 */
+	List<String> getTypeIdentifiers() {
+		return this.typeIdentifiers;
+	}
+
 	@Override
 	public boolean matches(Method method) {
 		if (!method.getName().equals(getMethodName())) {
@@ -80,9 +80,16 @@ public class RootBeanDefinition extends AbstractBeanDefinition {
 	/** Common lock for the four constructor fields below */
 	final Object constructorArgumentLock = new Object();
 
-	/** Package-visible field for caching the resolved constructor or factory method */
+	/**
+	 * Package-visible field for caching the resolved constructor or factory method.
+	 * <p>Written under the lock above, after the other constructor fields when
+	 * arguments get cached along with it: once this is non-null, the argument
+	 * fields may be read without the lock if they are marked as resolved.
+	 * A constructor or factory method may also be cached on its own, with the
+	 * arguments not marked as resolved.
+	 */
 	@Nullable
-	Executable resolvedConstructorOrFactoryMethod;
+	volatile Executable resolvedConstructorOrFactoryMethod;
 
 	/** Package-visible field that marks the constructor arguments as resolved */
 	boolean constructorArgumentsResolved = false;
@@ -62,26 +62,28 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 		// Don't override the class with CGLIB if no overrides.
 		//检测bean中是否配置了lookup-method或replace-method 如果配置了，就需要用CGLIB来构建对象
 		if (!bd.hasMethodOverrides()) {
-			Constructor<?> constructorToUse;
-			synchronized (bd.constructorArgumentLock) {
-				constructorToUse = (Constructor<?>) bd.resolvedConstructorOrFactoryMethod;
-				if (constructorToUse == null) {
-					final Class<?> clazz = bd.getBeanClass();
-					if (clazz.isInterface()) {
-						throw new BeanInstantiationException(clazz, "Specified class is an interface");
-					}
-					try {
-						if (System.getSecurityManager() != null) {
-							constructorToUse = AccessController.doPrivileged(
-									(PrivilegedExceptionAction<Constructor<?>>) clazz::getDeclaredConstructor);
+			Constructor<?> constructorToUse = (Constructor<?>) bd.resolvedConstructorOrFactoryMethod;
+			if (constructorToUse == null) {
+				synchronized (bd.constructorArgumentLock) {
+					constructorToUse = (Constructor<?>) bd.resolvedConstructorOrFactoryMethod;
+					if (constructorToUse == null) {
+						final Class<?> clazz = bd.getBeanClass();
+						if (clazz.isInterface()) {
+							throw new BeanInstantiationException(clazz, "Specified class is an interface");
 						}
-						else {
-							constructorToUse =	clazz.getDeclaredConstructor();
+						try {
+							if (System.getSecurityManager() != null) {
+								constructorToUse = AccessController.doPrivileged(
+										(PrivilegedExceptionAction<Constructor<?>>) clazz::getDeclaredConstructor);
+							}
+							else {
+								constructorToUse =	clazz.getDeclaredConstructor();
+							}
+							bd.resolvedConstructorOrFactoryMethod = constructorToUse;
+						}
+						catch (Throwable ex) {
+							throw new BeanInstantiationException(clazz, "No default constructor found", ex);
 						}
-						bd.resolvedConstructorOrFactoryMethod = constructorToUse;
-					}
-					catch (Throwable ex) {
-						throw new BeanInstantiationException(clazz, "No default constructor found", ex);
 					}
 				}
 			}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.lang.Nullable;
+
+/**
+ * Splits the bean definitions of a {@link DefaultListableBeanFactory} into groups
+ * of beans that are not known to depend on each other, for parallel pre-instantiation.
+ *
+ * <p>Two beans end up in the same group if one of them refers to the other through
+ * "depends-on", a bean reference in its property values or constructor arguments
+ * (including inner bean definitions and managed collections), its factory bean,
+ * or a dependency that has already been registered with the factory. Dependencies
+ * that are only discovered during creation, e.g. through autowiring, are not known
+ * upfront: they are coordinated at creation time by the singleton registry.
+ *
+ * @since 5.1
+ * @see DefaultListableBeanFactory#setPreInstantiationExecutor
+ */
+final class SingletonDependencyGraph {
+
+	private final DefaultListableBeanFactory beanFactory;
+
+	private final List<String> beanNames;
+
+	/** Union-find forest over canonical bean names: bean name --> parent bean name */
+	private final Map<String, String> parents = new HashMap<>(256);
+
+
+	SingletonDependencyGraph(DefaultListableBeanFactory beanFactory, List<String> beanNames) {
+		this.beanFactory = beanFactory;
+		this.beanNames = beanNames;
+		for (String beanName : beanNames) {
+			addDependencies(beanName);
+		}
+	}
+
+
+	/**
+	 * Return the groups of non-lazy singletons that are not known to depend on each
+	 * other, ordered by the registration order of their first bean, with the beans
+	 * of each group in registration order as well.
+	 */
+	public List<List<String>> getIndependentGroups() {
+		Map<String, List<String>> groups = new LinkedHashMap<>();
+		for (String beanName : this.beanNames) {
+			RootBeanDefinition bd = this.beanFactory.getMergedLocalBeanDefinition(beanName);
+			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+				groups.computeIfAbsent(find(beanName), key -> new ArrayList<>()).add(beanName);
+			}
+		}
+		return new ArrayList<>(groups.values());
+	}
+
+
+	private void addDependencies(String beanName) {
+		RootBeanDefinition bd = this.beanFactory.getMergedLocalBeanDefinition(beanName);
+		String[] dependsOn = bd.getDependsOn();
+		if (dependsOn != null) {
+			for (String dependsOnBean : dependsOn) {
+				union(beanName, dependsOnBean);
+			}
+		}
+		if (bd.getFactoryBeanName() != null) {
+			union(beanName, bd.getFactoryBeanName());
+		}
+		for (String dependency : this.beanFactory.getDependenciesForBean(beanName)) {
+			union(beanName, dependency);
+		}
+		for (String dependentBean : this.beanFactory.getDependentBeans(beanName)) {
+			union(beanName, dependentBean);
+		}
+		addReferences(beanName, bd);
+	}
+
+	private void addReferences(String beanName, BeanDefinition bd) {
+		for (PropertyValue pv : bd.getPropertyValues().getPropertyValues()) {
+			addReferences(beanName, pv.getValue());
+		}
+		ConstructorArgumentValues cargs = bd.getConstructorArgumentValues();
+		for (ConstructorArgumentValues.ValueHolder valueHolder : cargs.getIndexedArgumentValues().values()) {
+			addReferences(beanName, valueHolder.getValue());
+		}
+		for (ConstructorArgumentValues.ValueHolder valueHolder : cargs.getGenericArgumentValues()) {
+			addReferences(beanName, valueHolder.getValue());
+		}
+	}
+
+	private void addReferences(String beanName, @Nullable Object value) {
+		if (value instanceof RuntimeBeanReference) {
+			RuntimeBeanReference reference = (RuntimeBeanReference) value;
+			if (!reference.isToParent()) {
+				union(beanName, reference.getBeanName());
+			}
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			addReferences(beanName, ((BeanDefinitionHolder) value).getBeanDefinition());
+		}
+		else if (value instanceof BeanDefinition) {
+			addReferences(beanName, (BeanDefinition) value);
+		}
+		else if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				addReferences(beanName, element);
+			}
+		}
+		else if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				addReferences(beanName, entry.getKey());
+				addReferences(beanName, entry.getValue());
+			}
+		}
+		else if (value instanceof Object[]) {
+			for (Object element : (Object[]) value) {
+				addReferences(beanName, element);
+			}
+		}
+	}
+
+	private void union(String beanName, String otherBeanName) {
+		String root = find(beanName);
+		String otherRoot = find(this.beanFactory.transformedBeanName(otherBeanName));
+		if (!root.equals(otherRoot)) {
+			this.parents.put(otherRoot, root);
+		}
+	}
+
+	private String find(String beanName) {
+		String root = beanName;
+		String parent = this.parents.get(root);
+		while (parent != null) {
+			root = parent;
+			parent = this.parents.get(root);
+		}
+		// Path compression, keeping subsequent lookups short
+		String current = beanName;
+		while (!current.equals(root)) {
+			String next = this.parents.get(current);
+			this.parents.put(current, root);
+			current = next;
+		}
+		return root;
+	}
+
+}
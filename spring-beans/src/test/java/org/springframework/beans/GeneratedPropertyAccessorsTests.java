@@ -0,0 +1,129 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link GeneratedPropertyAccessors}.
+ */
+public class GeneratedPropertyAccessorsTests {
+
+	@Test
+	public void readAndWriteObjectProperty() throws Exception {
+		PublicBean bean = new PublicBean();
+		GeneratedPropertyAccessors.WriteAccessor writeAccessor =
+				GeneratedPropertyAccessors.forWriteMethod(PublicBean.class.getMethod("setName", String.class));
+		GeneratedPropertyAccessors.ReadAccessor readAccessor =
+				GeneratedPropertyAccessors.forReadMethod(PublicBean.class.getMethod("getName"));
+		assertNotNull(writeAccessor);
+		assertNotNull(readAccessor);
+		writeAccessor.setValue(bean, "juergen");
+		assertEquals("juergen", bean.getName());
+		assertEquals("juergen", readAccessor.getValue(bean));
+		writeAccessor.setValue(bean, null);
+		assertNull(readAccessor.getValue(bean));
+	}
+
+	@Test
+	public void readAndWritePrimitiveProperty() throws Exception {
+		PublicBean bean = new PublicBean();
+		GeneratedPropertyAccessors.WriteAccessor writeAccessor =
+				GeneratedPropertyAccessors.forWriteMethod(PublicBean.class.getMethod("setAge", long.class));
+		GeneratedPropertyAccessors.ReadAccessor readAccessor =
+				GeneratedPropertyAccessors.forReadMethod(PublicBean.class.getMethod("getAge"));
+		assertNotNull(writeAccessor);
+		assertNotNull(readAccessor);
+		writeAccessor.setValue(bean, 42L);
+		assertEquals(42L, readAccessor.getValue(bean));
+		// Widening conversion as with reflection
+		writeAccessor.setValue(bean, 43);
+		assertEquals(43L, bean.getAge());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void writeNullToPrimitiveProperty() throws Exception {
+		GeneratedPropertyAccessors.WriteAccessor writeAccessor =
+				GeneratedPropertyAccessors.forWriteMethod(PublicBean.class.getMethod("setAge", long.class));
+		assertNotNull(writeAccessor);
+		writeAccessor.setValue(new PublicBean(), null);
+	}
+
+	@Test
+	public void exceptionIsWrapped() throws Exception {
+		GeneratedPropertyAccessors.ReadAccessor readAccessor =
+				GeneratedPropertyAccessors.forReadMethod(PublicBean.class.getMethod("getBroken"));
+		assertNotNull(readAccessor);
+		try {
+			readAccessor.getValue(new PublicBean());
+			fail("Should have thrown InvocationTargetException");
+		}
+		catch (InvocationTargetException ex) {
+			assertTrue(ex.getTargetException() instanceof UnsupportedOperationException);
+		}
+	}
+
+	@Test
+	public void nonPublicClassIsNotSupported() throws Exception {
+		assertNull(GeneratedPropertyAccessors.forReadMethod(NonPublicBean.class.getMethod("getName")));
+		assertNull(GeneratedPropertyAccessors.forWriteMethod(NonPublicBean.class.getMethod("setName", String.class)));
+	}
+
+
+	public static class PublicBean {
+
+		private String name;
+
+		private long age;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public long getAge() {
+			return this.age;
+		}
+
+		public void setAge(long age) {
+			this.age = age;
+		}
+
+		public String getBroken() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+
+	static class NonPublicBean {
+
+		public String getName() {
+			return "";
+		}
+
+		public void setName(String name) {
+		}
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.beans.PropertyEditor;
+
+import org.junit.Test;
+
+import org.springframework.beans.propertyeditors.CustomNumberEditor;
+import org.springframework.beans.propertyeditors.StringArrayPropertyEditor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the default editor management in {@link PropertyEditorRegistrySupport}.
+ */
+public class PropertyEditorRegistrySupportTests {
+
+	@Test
+	public void defaultEditorsInactive() {
+		assertNull(new PropertyEditorRegistrySupport().getDefaultEditor(int.class));
+	}
+
+	@Test
+	public void defaultEditorIsCreatedOncePerRegistry() {
+		PropertyEditorRegistrySupport registry = createRegistry();
+		PropertyEditor editor = registry.getDefaultEditor(int.class);
+		assertTrue(editor instanceof CustomNumberEditor);
+		assertSame(editor, registry.getDefaultEditor(int.class));
+		assertNotSame(editor, createRegistry().getDefaultEditor(int.class));
+		assertNull(registry.getDefaultEditor(String.class));
+	}
+
+	@Test
+	public void defaultEditorsAreIndependent() {
+		PropertyEditor editor1 = createRegistry().getDefaultEditor(Integer.class);
+		PropertyEditor editor2 = createRegistry().getDefaultEditor(Integer.class);
+		editor1.setAsText("1");
+		editor2.setAsText("2");
+		assertEquals(1, editor1.getValue());
+		assertEquals(2, editor2.getValue());
+	}
+
+	@Test
+	public void configValueEditorsOnlyWhenActive() {
+		PropertyEditorRegistrySupport registry = createRegistry();
+		assertNull(registry.getDefaultEditor(String[].class));
+		registry.useConfigValueEditors();
+		assertTrue(registry.getDefaultEditor(String[].class) instanceof StringArrayPropertyEditor);
+	}
+
+	@Test
+	public void overriddenDefaultEditor() {
+		PropertyEditorRegistrySupport registry = createRegistry();
+		PropertyEditor editor = new CustomNumberEditor(Integer.class, true);
+		registry.overrideDefaultEditor(int.class, editor);
+		assertSame(editor, registry.getDefaultEditor(int.class));
+	}
+
+
+	private static PropertyEditorRegistrySupport createRegistry() {
+		PropertyEditorRegistrySupport registry = new PropertyEditorRegistrySupport();
+		registry.registerDefaultEditors();
+		return registry;
+	}
+
+}
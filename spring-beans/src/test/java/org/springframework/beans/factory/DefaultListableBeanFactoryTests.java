@@ -35,6 +35,7 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.Priority;
 import javax.security.auth.Subject;
 
@@ -83,6 +84,8 @@ import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.core.convert.support.GenericConversionService;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.core.metrics.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupTimeline;
 import org.springframework.lang.Nullable;
 import org.springframework.tests.Assume;
 import org.springframework.tests.TestGroup;
@@ -1728,6 +1731,146 @@ public class DefaultListableBeanFactoryTests {
 		assertEquals("&factoryBean", beanNames[0]);
 	}
 
+	@Test
+	public void testGetBeanNamesForTypeCachedBeforeConfigurationFrozen() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.registerBeanDefinition("tb", new RootBeanDefinition(TestBean.class));
+		lbf.addBeanPostProcessor(new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				return (bean instanceof TestBean ? new NestedTestBean("replaced") : bean);
+			}
+		});
+
+		String[] beanNames = lbf.getBeanNamesForType(ITestBean.class);
+		assertSame(beanNames, lbf.getBeanNamesForType(ITestBean.class));
+		assertSame(beanNames, lbf.getBeanNamesForType(ResolvableType.forClass(ITestBean.class)));
+		assertEquals(Arrays.asList("tb"), Arrays.asList(beanNames));
+		assertEquals(0, lbf.getBeanNamesForType(NestedTestBean.class).length);
+
+		// Actual instance does not match the predicted type anymore
+		assertTrue(lbf.getBean("tb") instanceof NestedTestBean);
+		assertEquals(0, lbf.getBeanNamesForType(ITestBean.class).length);
+		assertEquals(Arrays.asList("tb"), Arrays.asList(lbf.getBeanNamesForType(NestedTestBean.class)));
+
+		lbf.registerBeanDefinition("tb2", new RootBeanDefinition(TestBean.class));
+		assertEquals(Arrays.asList("tb2"), Arrays.asList(lbf.getBeanNamesForType(ITestBean.class)));
+		lbf.registerSingleton("tb3", new TestBean());
+		assertEquals(Arrays.asList("tb2", "tb3"), Arrays.asList(lbf.getBeanNamesForType(ITestBean.class)));
+
+		lbf.removeBeanDefinition("tb2");
+		assertEquals(Arrays.asList("tb3"), Arrays.asList(lbf.getBeanNamesForType(ITestBean.class)));
+		lbf.registerBeanDefinition("tb4", new RootBeanDefinition(TestBean.class));
+		assertEquals(Arrays.asList("tb4", "tb3"), Arrays.asList(lbf.getBeanNamesForType(ITestBean.class)));
+		lbf.destroySingleton("tb3");
+		assertEquals(Arrays.asList("tb4"), Arrays.asList(lbf.getBeanNamesForType(ITestBean.class)));
+	}
+
+	@Test
+	public void testPrototypeCreationWithBeanPostProcessorListModification() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		bd.getPropertyValues().add("name", "juergen");
+		lbf.registerBeanDefinition("test", bd);
+		assertEquals("juergen", ((TestBean) lbf.getBean("test")).getName());
+
+		BeanPostProcessor skipPopulation = new InstantiationAwareBeanPostProcessorAdapter() {
+			@Override
+			public boolean postProcessAfterInstantiation(Object bean, String beanName) {
+				return false;
+			}
+		};
+		lbf.getBeanPostProcessors().add(skipPopulation);
+		assertNull(((TestBean) lbf.getBean("test")).getName());
+		assertNull(((TestBean) lbf.getBean("test")).getName());
+
+		lbf.getBeanPostProcessors().removeIf(bp -> bp == skipPopulation);
+		assertEquals("juergen", ((TestBean) lbf.getBean("test")).getName());
+	}
+
+	@Test
+	public void testPrototypeCreationWithBeanPostProcessorSubListModification() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		bd.getPropertyValues().add("name", "juergen");
+		lbf.registerBeanDefinition("test", bd);
+
+		BeanPostProcessor skipPopulation = new InstantiationAwareBeanPostProcessorAdapter() {
+			@Override
+			public boolean postProcessAfterInstantiation(Object bean, String beanName) {
+				return false;
+			}
+		};
+		lbf.getBeanPostProcessors().add(skipPopulation);
+		assertNull(((TestBean) lbf.getBean("test")).getName());
+
+		lbf.getBeanPostProcessors().subList(0, 1).clear();
+		assertEquals("juergen", ((TestBean) lbf.getBean("test")).getName());
+	}
+
+	@Test
+	public void testStartupStepsRecordedForSingletonsOnly() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(100);
+		lbf.setApplicationStartup(applicationStartup);
+		lbf.registerBeanDefinition("singleton", new RootBeanDefinition(TestBean.class));
+		RootBeanDefinition prototype = new RootBeanDefinition(TestBean.class);
+		prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		lbf.registerBeanDefinition("prototype", prototype);
+		lbf.preInstantiateSingletons();
+		int singletonSteps = applicationStartup.getBufferedTimeline().getEvents().size();
+
+		for (int i = 0; i < 10; i++) {
+			lbf.getBean("prototype");
+		}
+
+		List<StartupTimeline.TimelineEvent> events = applicationStartup.getBufferedTimeline().getEvents();
+		assertTrue(singletonSteps > 0);
+		assertEquals(singletonSteps, events.size());
+		for (StartupTimeline.TimelineEvent event : events) {
+			assertEquals("singleton", event.getStep().getTags().iterator().next().getValue());
+		}
+	}
+
+	@Test
+	public void testPrototypeCreationWithConcurrentBeanPostProcessorRegistration() throws InterruptedException {
+		for (int i = 0; i < 100; i++) {
+			DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+			RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+			bd.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+			bd.getPropertyValues().add("name", "juergen");
+			lbf.registerBeanDefinition("test", bd);
+
+			AtomicBoolean stop = new AtomicBoolean();
+			Thread lookups = new Thread(() -> {
+				while (!stop.get()) {
+					lbf.getBean("test");
+				}
+			});
+			lookups.start();
+			try {
+				// Keep rebuilding the post-processor cache while the lookups are running
+				for (int j = 0; j < 100; j++) {
+					lbf.addBeanPostProcessor(new InstantiationAwareBeanPostProcessorAdapter() {});
+				}
+				lbf.addBeanPostProcessor(new InstantiationAwareBeanPostProcessorAdapter() {
+					@Override
+					public boolean postProcessAfterInstantiation(Object bean, String beanName) {
+						return false;
+					}
+				});
+				// The post-processor cache must not have been replaced with a stale one
+				assertNull(((TestBean) lbf.getBean("test")).getName());
+			}
+			finally {
+				stop.set(true);
+				lookups.join();
+			}
+		}
+	}
+
 	@Test
 	public void testGetBeanNamesForTypeAfterFactoryBeanCreation() {
 		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.junit.Test;
+
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link BeanDefinitionSnapshotWriter} and {@link BeanDefinitionSnapshotReader}.
+ */
+public class BeanDefinitionSnapshotTests {
+
+	@Test
+	public void roundTrip() throws IOException {
+		DefaultListableBeanFactory original = new DefaultListableBeanFactory();
+
+		RootBeanDefinition spouse = new RootBeanDefinition(TestBean.class);
+		spouse.getConstructorArgumentValues().addIndexedArgumentValue(0, "kerry");
+		spouse.getConstructorArgumentValues().addIndexedArgumentValue(1, new TypedStringValue("34", "int"));
+		spouse.setLazyInit(true);
+		spouse.setAttribute("order", 5);
+		original.registerBeanDefinition("spouse", spouse);
+		original.registerAlias("spouse", "kerry");
+
+		GenericBeanDefinition rod = new GenericBeanDefinition();
+		rod.setBeanClassName(TestBean.class.getName());
+		rod.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		rod.setDependsOn("spouse");
+		rod.setInitMethodName("toString");
+		rod.getPropertyValues().add("name", "rod");
+		rod.getPropertyValues().add("age", 31);
+		rod.getPropertyValues().add("spouse", new RuntimeBeanReference("kerry"));
+		RootBeanDefinition doctor = new RootBeanDefinition("org.springframework.tests.sample.beans.NestedTestBean");
+		doctor.getPropertyValues().add("company", "hospital");
+		rod.getPropertyValues().add("doctor", new BeanDefinitionHolder(doctor, "doctor"));
+		ManagedList<Object> friends = new ManagedList<>();
+		friends.add(new RuntimeBeanReference("spouse"));
+		friends.add("juergen");
+		rod.getPropertyValues().add("friends", friends);
+		ManagedMap<Object, Object> someMap = new ManagedMap<>();
+		someMap.put("key", new TypedStringValue("1", "java.lang.Integer"));
+		someMap.put(new TypedStringValue("null"), null);
+		rod.getPropertyValues().add("someMap", someMap);
+		ManagedProperties someProperties = new ManagedProperties();
+		someProperties.put("prop", "value");
+		rod.getPropertyValues().add("someProperties", someProperties);
+		original.registerBeanDefinition("rod", rod);
+
+		Resource snapshot = writeSnapshot(original, "v1");
+		DefaultListableBeanFactory restored = new DefaultListableBeanFactory();
+		BeanDefinitionSnapshotReader reader = new BeanDefinitionSnapshotReader(restored);
+		reader.setExpectedFingerprint("v1");
+		assertTrue(reader.isSnapshotValid(snapshot));
+		assertEquals(2, reader.loadBeanDefinitions(snapshot));
+
+		assertEquals(Arrays.asList(original.getBeanDefinitionNames()), Arrays.asList(restored.getBeanDefinitionNames()));
+		assertEquals(original.getBeanDefinition("spouse"), restored.getBeanDefinition("spouse"));
+		assertEquals(original.getBeanDefinition("rod"), restored.getBeanDefinition("rod"));
+		assertTrue(restored.getBeanDefinition("spouse") instanceof RootBeanDefinition);
+		assertTrue(restored.getBeanDefinition("rod") instanceof GenericBeanDefinition);
+		assertEquals(5, restored.getBeanDefinition("spouse").getAttribute("order"));
+		assertEquals(Arrays.asList("kerry"), Arrays.asList(restored.getAliases("spouse")));
+
+		TestBean bean = (TestBean) restored.getBean("rod");
+		assertEquals("rod", bean.getName());
+		assertEquals(31, bean.getAge());
+		assertSame(restored.getBean("spouse"), bean.getSpouse());
+		assertEquals("kerry", bean.getSpouse().getName());
+		assertEquals(34, bean.getSpouse().getAge());
+		assertEquals("hospital", bean.getDoctor().getCompany());
+		assertEquals(Arrays.asList(bean.getSpouse(), "juergen"), bean.getFriends());
+		assertEquals(1, bean.getSomeMap().get("key"));
+		assertTrue(bean.getSomeMap().containsKey("null"));
+		assertEquals("value", bean.getSomeProperties().getProperty("prop"));
+		assertNotSame(bean, restored.getBean("rod"));
+	}
+
+	@Test
+	public void fingerprintMismatch() throws IOException {
+		DefaultListableBeanFactory original = new DefaultListableBeanFactory();
+		original.registerBeanDefinition("tb", new RootBeanDefinition(TestBean.class));
+		Resource snapshot = writeSnapshot(original, "v1");
+
+		DefaultListableBeanFactory restored = new DefaultListableBeanFactory();
+		BeanDefinitionSnapshotReader reader = new BeanDefinitionSnapshotReader(restored);
+		reader.setExpectedFingerprint("v2");
+		assertFalse(reader.isSnapshotValid(snapshot));
+		try {
+			reader.loadBeanDefinitions(snapshot);
+			fail("Should have thrown BeanDefinitionStoreException");
+		}
+		catch (BeanDefinitionStoreException ex) {
+			assertTrue(ex.getMessage().contains("fingerprint"));
+		}
+		assertEquals(0, restored.getBeanDefinitionCount());
+	}
+
+	@Test
+	public void invalidSnapshot() {
+		BeanDefinitionSnapshotReader reader = new BeanDefinitionSnapshotReader(new DefaultListableBeanFactory());
+		assertFalse(reader.isSnapshotValid(new ByteArrayResource(new byte[0])));
+		assertFalse(reader.isSnapshotValid(new ByteArrayResource("<beans/>".getBytes())));
+	}
+
+	@Test(expected = BeanDefinitionStoreException.class)
+	public void unsupportedPropertyValue() throws IOException {
+		DefaultListableBeanFactory original = new DefaultListableBeanFactory();
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.getPropertyValues().add("date", new Date());
+		original.registerBeanDefinition("tb", bd);
+		writeSnapshot(original, "v1");
+	}
+
+	@Test(expected = BeanDefinitionStoreException.class)
+	public void unsupportedInstanceSupplier() throws IOException {
+		DefaultListableBeanFactory original = new DefaultListableBeanFactory();
+		original.registerBeanDefinition("tb", new RootBeanDefinition(TestBean.class, TestBean::new));
+		writeSnapshot(original, "v1");
+	}
+
+	@Test
+	public void classPathFingerprint() {
+		String fingerprint = BeanDefinitionSnapshotWriter.classPathFingerprint("dev");
+		assertEquals(fingerprint, BeanDefinitionSnapshotWriter.classPathFingerprint("dev"));
+		assertFalse(fingerprint.equals(BeanDefinitionSnapshotWriter.classPathFingerprint("prod")));
+	}
+
+
+	private static Resource writeSnapshot(BeanDefinitionRegistry registry, String fingerprint) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new BeanDefinitionSnapshotWriter(registry).writeSnapshot(out, fingerprint);
+		return new ByteArrayResource(out.toByteArray());
+	}
+
+}
@@ -101,4 +101,41 @@ public class DefaultSingletonBeanRegistryTests {
 		assertTrue(beanRegistry.isDependent("c", "c"));
 	}
 
+	@Test
+	public void testRepeatedDependentRegistration() {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+
+		beanRegistry.registerDependentBean("a", "b");
+		beanRegistry.registerDependentBean("a", "c");
+		beanRegistry.registerDependentBean("a", "b");
+		beanRegistry.registerContainedBean("d", "a");
+		beanRegistry.registerContainedBean("d", "a");
+		assertArrayEquals(new String[] {"b", "c"}, beanRegistry.getDependentBeans("a"));
+		assertArrayEquals(new String[] {"a"}, beanRegistry.getDependenciesForBean("b"));
+		assertArrayEquals(new String[] {"a"}, beanRegistry.getDependentBeans("d"));
+		assertArrayEquals(new String[] {"d"}, beanRegistry.getDependenciesForBean("a"));
+
+		beanRegistry.destroySingleton("b");
+		assertArrayEquals(new String[] {"c"}, beanRegistry.getDependentBeans("a"));
+		assertArrayEquals(new String[0], beanRegistry.getDependenciesForBean("b"));
+	}
+
+	@Test
+	public void testDependentRegistrationKeepsOrderAcrossReads() {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+
+		String[] expected = new String[1000];
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = "dependent" + i;
+			beanRegistry.registerDependentBean("a", expected[i]);
+			assertTrue(beanRegistry.isDependent("a", expected[i]));
+			assertEquals(i + 1, beanRegistry.getDependentBeans("a").length);
+		}
+		assertArrayEquals(expected, beanRegistry.getDependentBeans("a"));
+
+		beanRegistry.destroySingleton("dependent0");
+		assertEquals("dependent1", beanRegistry.getDependentBeans("a")[0]);
+		assertFalse(beanRegistry.isDependent("a", "dependent0"));
+	}
+
 }
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for parallel pre-instantiation of singletons in {@link DefaultListableBeanFactory}.
+ *
+ * @since 5.1
+ */
+public class ParallelSingletonPreInstantiationTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+	private ExecutorService executor;
+
+
+	@Before
+	public void setup() {
+		this.executor = Executors.newFixedThreadPool(4);
+		this.beanFactory.setPreInstantiationExecutor(this.executor);
+		SlowBean.threads.clear();
+		SlowBean.smartInitialized.clear();
+	}
+
+	@After
+	public void shutdown() {
+		this.executor.shutdownNow();
+	}
+
+
+	@Test
+	public void independentSingletonsAreCreatedInParallel() {
+		for (int i = 0; i < 8; i++) {
+			this.beanFactory.registerBeanDefinition("slow" + i, new RootBeanDefinition(SlowBean.class));
+		}
+		this.beanFactory.preInstantiateSingletons();
+
+		for (int i = 0; i < 8; i++) {
+			assertTrue(this.beanFactory.getBean("slow" + i, SlowBean.class).initialized);
+		}
+		assertTrue(SlowBean.threads.size() > 1);
+		assertFalse(SlowBean.threads.contains(Thread.currentThread().getName()));
+	}
+
+	@Test
+	public void smartInitializingSingletonsAreCalledInRegistrationOrder() {
+		for (int i = 0; i < 8; i++) {
+			this.beanFactory.registerBeanDefinition("slow" + i, new RootBeanDefinition(SlowBean.class));
+		}
+		this.beanFactory.preInstantiateSingletons();
+
+		List<String> expected = new ArrayList<>();
+		Collections.addAll(expected, this.beanFactory.getBeanDefinitionNames());
+		assertEquals(expected, SlowBean.smartInitialized);
+	}
+
+	@Test
+	public void referencedSingletonsEndUpInSameGroup() {
+		RootBeanDefinition consumer = new RootBeanDefinition(Consumer.class);
+		consumer.getPropertyValues().add("dependency", new RuntimeBeanReference("dependency"));
+		this.beanFactory.registerBeanDefinition("consumer", consumer);
+		this.beanFactory.registerBeanDefinition("dependency", new RootBeanDefinition(Dependency.class));
+		RootBeanDefinition dependsOn = new RootBeanDefinition(SlowBean.class);
+		dependsOn.setDependsOn("consumer");
+		this.beanFactory.registerBeanDefinition("dependsOn", dependsOn);
+		this.beanFactory.registerBeanDefinition("other", new RootBeanDefinition(SlowBean.class));
+
+		List<List<String>> groups = new SingletonDependencyGraph(this.beanFactory,
+				Arrays.asList(this.beanFactory.getBeanDefinitionNames())).getIndependentGroups();
+		assertEquals(2, groups.size());
+		assertEquals(Arrays.asList("consumer", "dependency", "dependsOn"), groups.get(0));
+		assertEquals(Collections.singletonList("other"), groups.get(1));
+	}
+
+	@Test
+	public void autowiredDependencyInOtherGroupIsFullyInitialized() {
+		for (int i = 0; i < 4; i++) {
+			this.beanFactory.registerBeanDefinition("slow" + i, new RootBeanDefinition(SlowBean.class));
+		}
+		RootBeanDefinition consumer = new RootBeanDefinition(Consumer.class);
+		consumer.setAutowireMode(RootBeanDefinition.AUTOWIRE_BY_TYPE);
+		this.beanFactory.registerBeanDefinition("consumer", consumer);
+		this.beanFactory.registerBeanDefinition("dependency", new RootBeanDefinition(Dependency.class));
+		this.beanFactory.preInstantiateSingletons();
+
+		Consumer bean = this.beanFactory.getBean(Consumer.class);
+		assertSame(this.beanFactory.getBean(Dependency.class), bean.dependency);
+		assertTrue(bean.dependencyInitializedWhenInjected);
+	}
+
+	@Test
+	public void circularReferenceAcrossThreads() {
+		for (int round = 0; round < 10; round++) {
+			DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+			beanFactory.setPreInstantiationExecutor(this.executor);
+			RootBeanDefinition left = new RootBeanDefinition(Left.class);
+			left.setAutowireMode(RootBeanDefinition.AUTOWIRE_BY_TYPE);
+			beanFactory.registerBeanDefinition("left", left);
+			RootBeanDefinition right = new RootBeanDefinition(Right.class);
+			right.setAutowireMode(RootBeanDefinition.AUTOWIRE_BY_TYPE);
+			beanFactory.registerBeanDefinition("right", right);
+			beanFactory.preInstantiateSingletons();
+
+			Left leftBean = beanFactory.getBean(Left.class);
+			Right rightBean = beanFactory.getBean(Right.class);
+			assertSame(rightBean, leftBean.right);
+			assertSame(leftBean, rightBean.left);
+		}
+	}
+
+	@Test
+	public void failureIsPropagated() {
+		this.beanFactory.registerBeanDefinition("slow", new RootBeanDefinition(SlowBean.class));
+		this.beanFactory.registerBeanDefinition("failing", new RootBeanDefinition(FailingBean.class));
+		try {
+			this.beanFactory.preInstantiateSingletons();
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertEquals("failing", ex.getBeanName());
+		}
+		assertFalse(this.beanFactory.isConcurrentSingletonCreation());
+	}
+
+
+	public static class SlowBean implements BeanNameAware, InitializingBean, SmartInitializingSingleton {
+
+		static final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+		static final List<String> smartInitialized = Collections.synchronizedList(new ArrayList<>());
+
+		private String beanName;
+
+		volatile boolean initialized;
+
+		@Override
+		public void setBeanName(String beanName) {
+			this.beanName = beanName;
+		}
+
+		@Override
+		public void afterPropertiesSet() throws Exception {
+			threads.add(Thread.currentThread().getName());
+			Thread.sleep(50);
+			this.initialized = true;
+		}
+
+		@Override
+		public void afterSingletonsInstantiated() {
+			smartInitialized.add(this.beanName);
+		}
+	}
+
+
+	public static class Dependency extends SlowBean {
+	}
+
+
+	public static class Consumer {
+
+		SlowBean dependency;
+
+		boolean dependencyInitializedWhenInjected;
+
+		public void setDependency(Dependency dependency) {
+			this.dependency = dependency;
+			this.dependencyInitializedWhenInjected = dependency.initialized;
+		}
+	}
+
+
+	public static class Left extends SlowBean {
+
+		Right right;
+
+		public void setRight(Right right) {
+			this.right = right;
+		}
+	}
+
+
+	public static class Right extends SlowBean {
+
+		Left left;
+
+		public void setLeft(Left left) {
+			this.left = left;
+		}
+	}
+
+
+	public static class FailingBean implements InitializingBean {
+
+		@Override
+		public void afterPropertiesSet() {
+			throw new IllegalStateException("Failing on purpose");
+		}
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+
+/**
+ * Benchmarks for {@link DefaultListableBeanFactory#getBean} lookups by name and by type,
+ * for both singleton and prototype bean definitions.
+ *
+ * @since 5.1
+ */
+@State(Scope.Benchmark)
+public class DefaultListableBeanFactoryBenchmark {
+
+	private static final int FILLER_BEAN_COUNT = 500;
+
+	private DefaultListableBeanFactory beanFactory;
+
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.beanFactory = new DefaultListableBeanFactory();
+		for (int i = 0; i < FILLER_BEAN_COUNT; i++) {
+			this.beanFactory.registerBeanDefinition("filler" + i, new RootBeanDefinition(Object.class));
+		}
+		this.beanFactory.registerBeanDefinition("service", new RootBeanDefinition(TestService.class));
+
+		RootBeanDefinition prototype = new RootBeanDefinition(TestCommand.class);
+		prototype.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		prototype.getPropertyValues().add("service", new RuntimeBeanReference("service"));
+		this.beanFactory.registerBeanDefinition("command", prototype);
+
+		this.beanFactory.freezeConfiguration();
+		this.beanFactory.preInstantiateSingletons();
+	}
+
+	@Benchmark
+	public Object singletonByName() {
+		return this.beanFactory.getBean("service");
+	}
+
+	@Benchmark
+	public Object singletonByType() {
+		return this.beanFactory.getBean(TestService.class);
+	}
+
+	@Benchmark
+	public Object prototypeByName() {
+		return this.beanFactory.getBean("command");
+	}
+
+	@Benchmark
+	public void prototypeByType(Blackhole bh) {
+		bh.consume(this.beanFactory.getBean(TestCommand.class));
+	}
+
+
+	public static class TestService {
+	}
+
+
+	public static class TestCommand {
+
+		private TestService service;
+
+		public void setService(TestService service) {
+			this.service = service;
+		}
+
+		public TestService getService() {
+			return this.service;
+		}
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for {@link ResolvableType#forMethodParameter} on raw and generic
+ * parameters, including resolution of the generics themselves, as well as for
+ * {@link ResolvableType#forClass} and plain class assignability checks.
+ *
+ * @since 5.1
+ */
+@State(Scope.Benchmark)
+public class ResolvableTypeBenchmark {
+
+	private MethodParameter rawParameter;
+
+	private MethodParameter genericParameter;
+
+
+	@Setup
+	public void setup() throws NoSuchMethodException {
+		Method method = Methods.class.getMethod("handle", String.class, Map.class);
+		this.rawParameter = new MethodParameter(method, 0);
+		this.genericParameter = new MethodParameter(method, 1);
+	}
+
+	@Benchmark
+	public Object rawParameter() {
+		return ResolvableType.forMethodParameter(this.rawParameter);
+	}
+
+	@Benchmark
+	public Object genericParameter() {
+		return ResolvableType.forMethodParameter(this.genericParameter);
+	}
+
+	@Benchmark
+	public Object genericParameterResolved() {
+		return ResolvableType.forMethodParameter(this.genericParameter).resolveGenerics();
+	}
+
+	@Benchmark
+	public boolean genericParameterAssignable() {
+		return ResolvableType.forMethodParameter(this.genericParameter).isAssignableFrom(
+				ResolvableType.forMethodParameter(this.genericParameter));
+	}
+
+	@Benchmark
+	public Object forClass() {
+		return ResolvableType.forClass(String.class);
+	}
+
+	@Benchmark
+	public boolean rawAssignable() {
+		return ResolvableType.forClass(CharSequence.class).isAssignableFrom(String.class);
+	}
+
+
+	public interface Methods {
+
+		void handle(String name, Map<String, List<Integer>> values);
+	}
+
+}
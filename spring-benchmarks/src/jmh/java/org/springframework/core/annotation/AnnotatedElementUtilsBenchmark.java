@@ -0,0 +1,113 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for {@link AnnotatedElementUtils#findMergedAnnotation} against
+ * directly present, meta-present and inherited annotations, plus a miss.
+ *
+ * @since 5.1
+ */
+@State(Scope.Benchmark)
+public class AnnotatedElementUtilsBenchmark {
+
+	private Method directMethod;
+
+	private Method interfaceMethod;
+
+
+	@Setup
+	public void setup() throws NoSuchMethodException {
+		this.directMethod = AnnotatedService.class.getMethod("direct");
+		this.interfaceMethod = AnnotatedService.class.getMethod("inherited");
+	}
+
+	@Benchmark
+	public Object directOnClass() {
+		return AnnotatedElementUtils.findMergedAnnotation(AnnotatedService.class, Stereotype.class);
+	}
+
+	@Benchmark
+	public Object composedOnClass() {
+		return AnnotatedElementUtils.findMergedAnnotation(AnnotatedService.class, Marker.class);
+	}
+
+	@Benchmark
+	public Object aliasedOnMethod() {
+		return AnnotatedElementUtils.findMergedAnnotation(this.directMethod, Marker.class);
+	}
+
+	@Benchmark
+	public Object inheritedFromInterface() {
+		return AnnotatedElementUtils.findMergedAnnotation(this.interfaceMethod, Marker.class);
+	}
+
+	@Benchmark
+	public Object missOnClass() {
+		return AnnotatedElementUtils.findMergedAnnotation(AnnotatedService.class, Deprecated.class);
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+	public @interface Marker {
+
+		String value() default "";
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD})
+	@Marker
+	public @interface Stereotype {
+
+		@AliasFor(annotation = Marker.class, attribute = "value")
+		String name() default "";
+	}
+
+
+	public interface ServiceContract {
+
+		@Marker("contract")
+		void inherited();
+	}
+
+
+	@Stereotype(name = "service")
+	public static class AnnotatedService implements ServiceContract {
+
+		@Stereotype(name = "direct")
+		public void direct() {
+		}
+
+		@Override
+		public void inherited() {
+		}
+	}
+
+}
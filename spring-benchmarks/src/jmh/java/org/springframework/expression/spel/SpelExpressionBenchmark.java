@@ -0,0 +1,100 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+/**
+ * Benchmarks for {@link SpelExpression#getValue} in interpreted and compiled mode.
+ *
+ * @since 5.1
+ */
+@State(Scope.Benchmark)
+public class SpelExpressionBenchmark {
+
+	private static final String EXPRESSION = "name.length() > 3 and age >= 18 ? name.toUpperCase() : 'minor'";
+
+	private final Person person = new Person("Juergen", 42);
+
+	private StandardEvaluationContext context;
+
+	private SpelExpression interpreted;
+
+	private SpelExpression compiled;
+
+
+	@Setup
+	public void setup() {
+		this.context = new StandardEvaluationContext(this.person);
+
+		SpelParserConfiguration interpretedConfig = new SpelParserConfiguration(SpelCompilerMode.OFF, null);
+		this.interpreted = (SpelExpression) new SpelExpressionParser(interpretedConfig).parseExpression(EXPRESSION);
+
+		SpelParserConfiguration compiledConfig = new SpelParserConfiguration(
+				SpelCompilerMode.IMMEDIATE, getClass().getClassLoader());
+		this.compiled = (SpelExpression) new SpelExpressionParser(compiledConfig).parseExpression(EXPRESSION);
+		// Interpret once so that the exit type descriptors are known, then compile
+		this.compiled.getValue(this.context);
+		if (!this.compiled.compileExpression()) {
+			throw new IllegalStateException("Expression is not compilable: " + EXPRESSION);
+		}
+	}
+
+	@Benchmark
+	public Object interpreted() {
+		return this.interpreted.getValue(this.context);
+	}
+
+	@Benchmark
+	public Object compiled() {
+		return this.compiled.getValue(this.context);
+	}
+
+	@Benchmark
+	public Object compiledWithRootObject() {
+		return this.compiled.getValue(this.person);
+	}
+
+
+	public static class Person {
+
+		private final String name;
+
+		private final int age;
+
+		public Person(String name, int age) {
+			this.name = name;
+			this.age = age;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+
+/**
+ * Benchmarks for {@link Jackson2JsonDecoder} and {@link Jackson2JsonEncoder},
+ * decoding and encoding a JSON array of small objects.
+ *
+ * @since 5.1
+ */
+@State(Scope.Benchmark)
+public class Jackson2CodecBenchmark {
+
+	private static final ResolvableType ELEMENT_TYPE = ResolvableType.forClass(Pojo.class);
+
+	@Param({"1", "100"})
+	public int elementCount;
+
+	private final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+	private final Jackson2JsonDecoder decoder = new Jackson2JsonDecoder();
+
+	private final Jackson2JsonEncoder encoder = new Jackson2JsonEncoder();
+
+	private List<Pojo> pojos;
+
+	private byte[] json;
+
+
+	@Setup
+	public void setup() {
+		this.pojos = new ArrayList<>(this.elementCount);
+		StringBuilder builder = new StringBuilder("[");
+		for (int i = 0; i < this.elementCount; i++) {
+			this.pojos.add(new Pojo("foo" + i, "bar" + i));
+			builder.append(i > 0 ? "," : "").append("{\"foo\":\"foo").append(i)
+					.append("\",\"bar\":\"bar").append(i).append("\"}");
+		}
+		this.json = builder.append("]").toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public List<Object> decode() {
+		DataBuffer buffer = this.bufferFactory.wrap(this.json);
+		return this.decoder.decode(Mono.just(buffer), ELEMENT_TYPE,
+				MediaType.APPLICATION_JSON, Collections.emptyMap()).collectList().block();
+	}
+
+	@Benchmark
+	public int encode() {
+		Flux<DataBuffer> output = this.encoder.encode(Flux.fromIterable(this.pojos), this.bufferFactory,
+				ELEMENT_TYPE, MediaType.APPLICATION_JSON, Collections.emptyMap());
+		return output.map(buffer -> {
+			int count = buffer.readableByteCount();
+			DataBufferUtils.release(buffer);
+			return count;
+		}).reduce(0, Integer::sum).block();
+	}
+
+
+	public static class Pojo {
+
+		private String foo;
+
+		private String bar;
+
+		public Pojo() {
+		}
+
+		public Pojo(String foo, String bar) {
+			this.foo = foo;
+			this.bar = bar;
+		}
+
+		public String getFoo() {
+			return this.foo;
+		}
+
+		public void setFoo(String foo) {
+			this.foo = foo;
+		}
+
+		public String getBar() {
+			return this.bar;
+		}
+
+		public void setBar(String bar) {
+			this.bar = bar;
+		}
+	}
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for {@link AntPathMatcher#match} with typical request mapping patterns.
+ *
+ * @since 5.1
+ */
+@State(Scope.Benchmark)
+public class AntPathMatcherBenchmark {
+
+	@Param({"/hotels/{hotel}/bookings/{booking}", "/static/**/*.js", "/api/v?/orders/*"})
+	public String pattern;
+
+	@Param({"/hotels/1/bookings/2", "/static/js/vendor/app.min.js", "/api/v2/orders/42"})
+	public String path;
+
+	private AntPathMatcher matcher;
+
+
+	@Setup
+	public void setup() {
+		this.matcher = new AntPathMatcher();
+	}
+
+	@Benchmark
+	public boolean match() {
+		return this.matcher.match(this.pattern, this.path);
+	}
+
+	@Benchmark
+	public boolean matchWithoutCache() {
+		return new AntPathMatcher().match(this.pattern, this.path);
+	}
+
+}
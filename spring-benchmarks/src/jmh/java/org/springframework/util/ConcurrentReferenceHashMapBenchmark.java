@@ -0,0 +1,86 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Contention benchmarks for {@link ConcurrentReferenceHashMap} and
+ * {@link ConcurrentOpenReferenceHashMap}, with 32 threads reading from
+ * (and occasionally writing to) a cache-like map.
+ *
+ * @since 5.1
+ */
+@State(Scope.Benchmark)
+@Threads(32)
+public class ConcurrentReferenceHashMapBenchmark {
+
+	private static final int KEY_COUNT = 1024;
+
+	@Param({"segmented", "open"})
+	public String implementation;
+
+	private ConcurrentMap<Object, Object> map;
+
+	private Object[] keys;
+
+
+	@Setup
+	public void setup() {
+		this.map = ("open".equals(this.implementation) ?
+				new ConcurrentOpenReferenceHashMap<>(256) : new ConcurrentReferenceHashMap<>(256));
+		this.keys = new Object[KEY_COUNT];
+		for (int i = 0; i < KEY_COUNT; i++) {
+			this.keys[i] = "key" + i;
+			this.map.put(this.keys[i], i);
+		}
+	}
+
+	@Benchmark
+	public Object get() {
+		return this.map.get(this.keys[ThreadLocalRandom.current().nextInt(KEY_COUNT)]);
+	}
+
+	@Benchmark
+	public Object getMissing() {
+		return this.map.get(ThreadLocalRandom.current().nextInt(KEY_COUNT));
+	}
+
+	@Benchmark
+	public Object getMostlyWithPut() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Object key = this.keys[random.nextInt(KEY_COUNT)];
+		if (random.nextInt(100) == 0) {
+			return this.map.put(key, key);
+		}
+		return this.map.get(key);
+	}
+
+	@Benchmark
+	public Object computeIfAbsent() {
+		return this.map.computeIfAbsent(this.keys[ThreadLocalRandom.current().nextInt(KEY_COUNT)], key -> key);
+	}
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.*;
+
+/**
+ * Benchmarks for request dispatch through {@link DispatcherServlet},
+ * driven via {@link MockMvc} against a standalone controller.
+ *
+ * @since 5.1
+ */
+@State(Scope.Benchmark)
+public class DispatcherServletBenchmark {
+
+	private MockMvc mockMvc;
+
+
+	@Setup
+	public void setup() {
+		this.mockMvc = standaloneSetup(new BenchmarkController()).build();
+	}
+
+	@Benchmark
+	public MvcResult plainText() throws Exception {
+		return this.mockMvc.perform(get("/hello")).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult pathVariableAndParam() throws Exception {
+		return this.mockMvc.perform(get("/orders/{id}", 42).param("expand", "true")).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult jsonRoundTrip() throws Exception {
+		return this.mockMvc.perform(post("/echo").contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON).content("{\"id\":42,\"name\":\"spring\"}")).andReturn();
+	}
+
+
+	@RestController
+	public static class BenchmarkController {
+
+		@GetMapping("/hello")
+		public String hello() {
+			return "Hello World";
+		}
+
+		@GetMapping("/orders/{id}")
+		public String order(@PathVariable long id, @RequestParam boolean expand) {
+			return "order-" + id + (expand ? "-expanded" : "");
+		}
+
+		@PostMapping("/echo")
+		public Item echo(@RequestBody Item item) {
+			return item;
+		}
+	}
+
+
+	public static class Item {
+
+		private long id;
+
+		private String name;
+
+		public long getId() {
+			return this.id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.SimpleAnnotationValueVisitor8;
+import javax.lang.model.util.Types;
+
+/**
+ * Encode the annotation metadata of a candidate type so that it can be
+ * recreated at runtime without reading the class file.
+ *
+ * <p>The encoded form is a single line: the class access flags, the super class
+ * ({@code -} if none), the interfaces in braces, optional {@code enclosing} and
+ * {@code member} entries, the type-level annotations and finally a {@code method}
+ * entry (access flags, name and return type) for each annotated method, followed
+ * by its annotations. Annotations are written as {@code @type(name=value,...)}
+ * using Java-like literals. Only annotations retained in the class file are
+ * included, mirroring what a class file reader would see.
+ *
+ * @since 5.1
+ */
+class AnnotationMetadataEncoder {
+
+	// Same values as the JVM access flags, see org.springframework.asm.Opcodes
+	private static final int ACC_PUBLIC = 0x0001;
+
+	private static final int ACC_PRIVATE = 0x0002;
+
+	private static final int ACC_PROTECTED = 0x0004;
+
+	private static final int ACC_STATIC = 0x0008;
+
+	private static final int ACC_FINAL = 0x0010;
+
+	private static final int ACC_SYNCHRONIZED = 0x0020;
+
+	private static final int ACC_INTERFACE = 0x0200;
+
+	private static final int ACC_ABSTRACT = 0x0400;
+
+	private static final int ACC_ANNOTATION = 0x2000;
+
+	private static final int ACC_ENUM = 0x4000;
+
+
+	private final Elements elements;
+
+	private final Types types;
+
+
+	AnnotationMetadataEncoder(ProcessingEnvironment env) {
+		this.elements = env.getElementUtils();
+		this.types = env.getTypeUtils();
+	}
+
+
+	public String encode(TypeElement type) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(getAccess(type)).append(' ');
+		TypeMirror superClass = type.getSuperclass();
+		sb.append(superClass.getKind() == TypeKind.DECLARED ? getTypeName(superClass) : "-").append(' ');
+		sb.append('{');
+		List<? extends TypeMirror> interfaces = type.getInterfaces();
+		for (int i = 0; i < interfaces.size(); i++) {
+			sb.append(i > 0 ? "," : "").append(getTypeName(interfaces.get(i)));
+		}
+		sb.append('}');
+		if (type.getNestingKind() == NestingKind.MEMBER) {
+			sb.append(" enclosing ").append(getBinaryName(type.getEnclosingElement()));
+		}
+		for (Element member : type.getEnclosedElements()) {
+			if (member instanceof TypeElement) {
+				sb.append(" member ").append(getBinaryName(member));
+			}
+		}
+		appendAnnotations(sb, type);
+		for (Element member : type.getEnclosedElements()) {
+			if (member.getKind() == ElementKind.METHOD && hasRetainedAnnotations(member)) {
+				ExecutableElement method = (ExecutableElement) member;
+				sb.append(" method ").append(getAccess(method)).append(' ');
+				sb.append(method.getSimpleName()).append(' ');
+				sb.append(getTypeName(method.getReturnType()));
+				appendAnnotations(sb, method);
+			}
+		}
+		return sb.toString();
+	}
+
+	private int getAccess(Element element) {
+		Set<Modifier> modifiers = element.getModifiers();
+		int access = 0;
+		access |= (modifiers.contains(Modifier.PUBLIC) ? ACC_PUBLIC : 0);
+		access |= (modifiers.contains(Modifier.PRIVATE) ? ACC_PRIVATE : 0);
+		access |= (modifiers.contains(Modifier.PROTECTED) ? ACC_PROTECTED : 0);
+		access |= (modifiers.contains(Modifier.STATIC) ? ACC_STATIC : 0);
+		access |= (modifiers.contains(Modifier.FINAL) ? ACC_FINAL : 0);
+		access |= (modifiers.contains(Modifier.SYNCHRONIZED) ? ACC_SYNCHRONIZED : 0);
+		access |= (modifiers.contains(Modifier.ABSTRACT) ? ACC_ABSTRACT : 0);
+		switch (element.getKind()) {
+			case ANNOTATION_TYPE:
+				access |= ACC_ANNOTATION;
+				// fall through
+			case INTERFACE:
+				access |= (ACC_INTERFACE | ACC_ABSTRACT);
+				break;
+			case ENUM:
+				access |= ACC_ENUM;
+				break;
+			default:
+				break;
+		}
+		return access;
+	}
+
+	private void appendAnnotations(StringBuilder sb, Element element) {
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			if (isRetained(annotation)) {
+				sb.append(' ');
+				appendAnnotation(sb, annotation);
+			}
+		}
+	}
+
+	private void appendAnnotation(StringBuilder sb, AnnotationMirror annotation) {
+		sb.append('@').append(getTypeName(annotation.getAnnotationType())).append('(');
+		boolean first = true;
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+				annotation.getElementValues().entrySet()) {
+			sb.append(first ? "" : ",").append(entry.getKey().getSimpleName()).append('=');
+			appendValue(sb, entry.getValue());
+			first = false;
+		}
+		sb.append(')');
+	}
+
+	private void appendValue(StringBuilder sb, AnnotationValue value) {
+		value.accept(new SimpleAnnotationValueVisitor8<Void, StringBuilder>() {
+			@Override
+			public Void visitBoolean(boolean b, StringBuilder out) {
+				out.append(b);
+				return null;
+			}
+			@Override
+			public Void visitByte(byte b, StringBuilder out) {
+				out.append(b).append('B');
+				return null;
+			}
+			@Override
+			public Void visitChar(char c, StringBuilder out) {
+				appendQuoted(out, String.valueOf(c), '\'');
+				return null;
+			}
+			@Override
+			public Void visitDouble(double d, StringBuilder out) {
+				out.append(d).append('D');
+				return null;
+			}
+			@Override
+			public Void visitFloat(float f, StringBuilder out) {
+				out.append(f).append('F');
+				return null;
+			}
+			@Override
+			public Void visitInt(int i, StringBuilder out) {
+				out.append(i);
+				return null;
+			}
+			@Override
+			public Void visitLong(long i, StringBuilder out) {
+				out.append(i).append('L');
+				return null;
+			}
+			@Override
+			public Void visitShort(short s, StringBuilder out) {
+				out.append(s).append('S');
+				return null;
+			}
+			@Override
+			public Void visitString(String s, StringBuilder out) {
+				appendQuoted(out, s, '"');
+				return null;
+			}
+			@Override
+			public Void visitType(TypeMirror t, StringBuilder out) {
+				out.append(getTypeName(t)).append(".class");
+				return null;
+			}
+			@Override
+			public Void visitEnumConstant(VariableElement c, StringBuilder out) {
+				out.append(getBinaryName(c.getEnclosingElement())).append('.').append(c.getSimpleName());
+				return null;
+			}
+			@Override
+			public Void visitAnnotation(AnnotationMirror a, StringBuilder out) {
+				appendAnnotation(out, a);
+				return null;
+			}
+			@Override
+			public Void visitArray(List<? extends AnnotationValue> values, StringBuilder out) {
+				out.append('{');
+				for (int i = 0; i < values.size(); i++) {
+					out.append(i > 0 ? "," : "");
+					values.get(i).accept(this, out);
+				}
+				out.append('}');
+				return null;
+			}
+		}, sb);
+	}
+
+	private static void appendQuoted(StringBuilder sb, String value, char quote) {
+		sb.append(quote);
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == quote || c == '\\') {
+				sb.append('\\').append(c);
+			}
+			else if (c < 0x20 || c > 0x7e) {
+				sb.append(String.format("\\u%04x", (int) c));
+			}
+			else {
+				sb.append(c);
+			}
+		}
+		sb.append(quote);
+	}
+
+	private boolean hasRetainedAnnotations(Element element) {
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			if (isRetained(annotation)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isRetained(AnnotationMirror annotation) {
+		Retention retention = annotation.getAnnotationType().asElement().getAnnotation(Retention.class);
+		return (retention == null || retention.value() != RetentionPolicy.SOURCE);
+	}
+
+	private String getTypeName(TypeMirror type) {
+		TypeMirror erasure = this.types.erasure(type);
+		if (erasure.getKind() == TypeKind.ARRAY) {
+			return getTypeName(((ArrayType) erasure).getComponentType()) + "[]";
+		}
+		if (erasure.getKind() == TypeKind.DECLARED) {
+			return getBinaryName(((DeclaredType) erasure).asElement());
+		}
+		// primitive or void
+		return erasure.toString();
+	}
+
+	private String getBinaryName(Element element) {
+		return this.elements.getBinaryName((TypeElement) element).toString();
+	}
+
+}
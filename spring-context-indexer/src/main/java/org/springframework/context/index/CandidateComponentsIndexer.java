@@ -39,6 +39,10 @@ import javax.lang.model.element.TypeElement;
  * Annotation {@link Processor} that writes {@link CandidateComponentsMetadata}
  * file for spring components.
  *
+ * <p>Alongside the candidates, the annotation metadata of each candidate type is
+ * written to {@code META-INF/spring.components.metadata} so that bean definitions
+ * can be created at runtime without reading the class files.
+ *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
  * @since 5.0
@@ -54,6 +58,8 @@ public class CandidateComponentsIndexer implements Processor {
 
 	private TypeHelper typeHelper;
 
+	private AnnotationMetadataEncoder annotationMetadataEncoder;
+
 	private List<StereotypesProvider> stereotypesProviders;
 
 
@@ -76,6 +82,7 @@ public class CandidateComponentsIndexer implements Processor {
 	public synchronized void init(ProcessingEnvironment env) {
 		this.stereotypesProviders = getStereotypesProviders(env);
 		this.typeHelper = new TypeHelper(env);
+		this.annotationMetadataEncoder = new AnnotationMetadataEncoder(env);
 		this.metadataStore = new MetadataStore(env);
 		this.metadataCollector = new MetadataCollector(env, this.metadataStore.readMetadata());
 	}
@@ -116,7 +123,10 @@ public class CandidateComponentsIndexer implements Processor {
 		Set<String> stereotypes = new LinkedHashSet<>();
 		this.stereotypesProviders.forEach(p -> stereotypes.addAll(p.getStereotypes(element)));
 		if (!stereotypes.isEmpty()) {
-			this.metadataCollector.add(new ItemMetadata(this.typeHelper.getType(element), stereotypes));
+			String annotationMetadata = (element instanceof TypeElement ?
+					this.annotationMetadataEncoder.encode((TypeElement) element) : null);
+			this.metadataCollector.add(
+					new ItemMetadata(this.typeHelper.getType(element), stereotypes, annotationMetadata));
 		}
 	}
 
@@ -34,10 +34,17 @@ class ItemMetadata {
 
 	private final Set<String> stereotypes;
 
+	private final String annotationMetadata;
+
 
 	public ItemMetadata(String type, Set<String> stereotypes) {
+		this(type, stereotypes, null);
+	}
+
+	public ItemMetadata(String type, Set<String> stereotypes, String annotationMetadata) {
 		this.type = type;
 		this.stereotypes = new HashSet<>(stereotypes);
+		this.annotationMetadata = annotationMetadata;
 	}
 
 
@@ -49,4 +56,13 @@ class ItemMetadata {
 		return this.stereotypes;
 	}
 
+	/**
+	 * Return the encoded annotation metadata of the candidate or {@code null}
+	 * if it is not available.
+	 * @see AnnotationMetadataEncoder
+	 */
+	public String getAnnotationMetadata() {
+		return this.annotationMetadata;
+	}
+
 }
@@ -38,6 +38,15 @@ abstract class PropertiesMarshaller {
 		props.store(out, "");
 	}
 
+	public static void writeAnnotationMetadata(CandidateComponentsMetadata metadata, OutputStream out)
+			throws IOException {
+
+		Properties props = new Properties();
+		metadata.getItems().stream().filter(m -> m.getAnnotationMetadata() != null)
+				.forEach(m -> props.put(m.getType(), m.getAnnotationMetadata()));
+		props.store(out, "");
+	}
+
 	public static CandidateComponentsMetadata read(InputStream in) throws IOException {
 		CandidateComponentsMetadata result = new CandidateComponentsMetadata();
 		Properties props = new Properties();
@@ -49,4 +58,15 @@ abstract class PropertiesMarshaller {
 		return result;
 	}
 
+	public static CandidateComponentsMetadata readAnnotationMetadata(
+			CandidateComponentsMetadata metadata, InputStream in) throws IOException {
+
+		CandidateComponentsMetadata result = new CandidateComponentsMetadata();
+		Properties props = new Properties();
+		props.load(in);
+		metadata.getItems().forEach(item -> result.add(new ItemMetadata(
+				item.getType(), item.getStereotypes(), props.getProperty(item.getType()))));
+		return result;
+	}
+
 }
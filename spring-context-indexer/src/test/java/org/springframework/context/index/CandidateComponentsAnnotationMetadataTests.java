@@ -0,0 +1,188 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.context.index;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.index.sample.SampleAnnotatedComponent;
+import org.springframework.context.index.sample.SampleEmbedded;
+import org.springframework.context.index.test.TestCompiler;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
+import org.springframework.util.ObjectUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the annotation metadata written by {@link CandidateComponentsIndexer}
+ * and read back by {@link CandidateComponentsIndex#getMetadataReader}: the result
+ * must be the same as reading the class file.
+ */
+public class CandidateComponentsAnnotationMetadataTests {
+
+	private TestCompiler compiler;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+	@Before
+	public void createCompiler() throws IOException {
+		this.compiler = new TestCompiler(this.temporaryFolder);
+	}
+
+
+	@Test
+	public void annotatedComponent() throws IOException {
+		assertSameMetadata(SampleAnnotatedComponent.class, SampleAnnotatedComponent.class);
+	}
+
+	@Test
+	public void embeddedComponent() throws IOException {
+		assertSameMetadata(SampleEmbedded.class, SampleEmbedded.PublicCandidate.class);
+	}
+
+	@Test
+	public void noAnnotationMetadata() throws IOException {
+		compile(SampleAnnotatedComponent.class);
+		CandidateComponentsIndex index = new CandidateComponentsIndex(
+				Collections.singletonList(load(MetadataStore.METADATA_PATH)));
+		assertNull(index.getMetadataReader(SampleAnnotatedComponent.class.getName(), getClass().getClassLoader()));
+	}
+
+	@Test
+	public void previousAnnotationMetadataIsRead() throws IOException {
+		compile(SampleAnnotatedComponent.class);
+		CandidateComponentsMetadata metadata;
+		try (InputStream in = new FileInputStream(getOutputFile(MetadataStore.METADATA_PATH))) {
+			metadata = PropertiesMarshaller.read(in);
+		}
+		try (InputStream in = new FileInputStream(getOutputFile(MetadataStore.ANNOTATION_METADATA_PATH))) {
+			metadata = PropertiesMarshaller.readAnnotationMetadata(metadata, in);
+		}
+		assertEquals(1, metadata.getItems().size());
+		assertNotNull(metadata.getItems().get(0).getAnnotationMetadata());
+	}
+
+
+	private void assertSameMetadata(Class<?> compiledType, Class<?> candidate) throws IOException {
+		compile(compiledType);
+		Properties components = load(MetadataStore.METADATA_PATH);
+		Properties annotationMetadata = load(MetadataStore.ANNOTATION_METADATA_PATH);
+		CandidateComponentsIndex index = new CandidateComponentsIndex(
+				Collections.singletonList(components), Collections.singletonList(annotationMetadata));
+		ClassLoader classLoader = getClass().getClassLoader();
+		MetadataReader indexedReader = index.getMetadataReader(candidate.getName(), classLoader);
+		assertNotNull("No indexed metadata for " + candidate.getName(), indexedReader);
+		AnnotationMetadata indexed = indexedReader.getAnnotationMetadata();
+		AnnotationMetadata expected = new SimpleMetadataReaderFactory(classLoader)
+				.getMetadataReader(candidate.getName()).getAnnotationMetadata();
+
+		assertEquals(expected.getClassName(), indexed.getClassName());
+		assertEquals(expected.isInterface(), indexed.isInterface());
+		assertEquals(expected.isAbstract(), indexed.isAbstract());
+		assertEquals(expected.isFinal(), indexed.isFinal());
+		assertEquals(expected.isIndependent(), indexed.isIndependent());
+		assertEquals(expected.getEnclosingClassName(), indexed.getEnclosingClassName());
+		assertEquals(expected.getSuperClassName(), indexed.getSuperClassName());
+		assertArrayEquals(expected.getInterfaceNames(), indexed.getInterfaceNames());
+		assertArrayEquals(expected.getMemberClassNames(), indexed.getMemberClassNames());
+
+		assertEquals(expected.getAnnotationTypes(), indexed.getAnnotationTypes());
+		for (String annotationType : expected.getAnnotationTypes()) {
+			assertEquals(expected.getMetaAnnotationTypes(annotationType),
+					indexed.getMetaAnnotationTypes(annotationType));
+			assertSameAttributes(expected.getAnnotationAttributes(annotationType),
+					indexed.getAnnotationAttributes(annotationType));
+			assertSameAttributes(expected.getAnnotationAttributes(annotationType, true),
+					indexed.getAnnotationAttributes(annotationType, true));
+		}
+
+		Set<MethodMetadata> expectedMethods = expected.getAnnotatedMethods(Bean.class.getName());
+		Set<MethodMetadata> indexedMethods = indexed.getAnnotatedMethods(Bean.class.getName());
+		assertEquals(expectedMethods.size(), indexedMethods.size());
+		Map<String, MethodMetadata> indexedByName = new LinkedHashMap<>();
+		indexedMethods.forEach(method -> indexedByName.put(method.getMethodName(), method));
+		for (MethodMetadata expectedMethod : expectedMethods) {
+			MethodMetadata indexedMethod = indexedByName.get(expectedMethod.getMethodName());
+			assertNotNull(indexedMethod);
+			assertEquals(expectedMethod.getReturnTypeName(), indexedMethod.getReturnTypeName());
+			assertEquals(expectedMethod.getDeclaringClassName(), indexedMethod.getDeclaringClassName());
+			assertEquals(expectedMethod.isStatic(), indexedMethod.isStatic());
+			assertEquals(expectedMethod.isOverridable(), indexedMethod.isOverridable());
+			assertSameAttributes(expectedMethod.getAnnotationAttributes(Bean.class.getName()),
+					indexedMethod.getAnnotationAttributes(Bean.class.getName()));
+		}
+	}
+
+	private void assertSameAttributes(Map<String, Object> expected, Map<String, Object> actual) {
+		assertNotNull(actual);
+		assertEquals(expected.keySet(), actual.keySet());
+		expected.forEach((name, value) -> {
+			Object actualValue = actual.get(name);
+			if (value instanceof AnnotationAttributes[]) {
+				AnnotationAttributes[] nested = (AnnotationAttributes[]) value;
+				AnnotationAttributes[] actualNested = (AnnotationAttributes[]) actualValue;
+				assertEquals(nested.length, actualNested.length);
+				for (int i = 0; i < nested.length; i++) {
+					assertSameAttributes(nested[i], actualNested[i]);
+				}
+			}
+			else {
+				assertTrue("Attribute '" + name + "': expected " + ObjectUtils.nullSafeToString(value) +
+						" but was " + ObjectUtils.nullSafeToString(actualValue),
+						ObjectUtils.nullSafeEquals(value, actualValue));
+				assertEquals(value.getClass(), actualValue.getClass());
+			}
+		});
+	}
+
+	private Properties load(String path) throws IOException {
+		Properties properties = new Properties();
+		try (InputStream in = new FileInputStream(getOutputFile(path))) {
+			properties.load(in);
+		}
+		return properties;
+	}
+
+	private void compile(Class<?> type) {
+		this.compiler.getTask(type).call(new CandidateComponentsIndexer());
+	}
+
+	private File getOutputFile(String path) {
+		return new File(this.compiler.getOutputLocation(), path);
+	}
+
+}
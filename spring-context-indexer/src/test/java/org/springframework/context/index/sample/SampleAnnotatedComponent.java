@@ -0,0 +1,67 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.context.index.sample;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.stereotype.Component;
+
+/**
+ * Test candidate whose annotation metadata is recorded in the index.
+ */
+@Component("annotated")
+@Lazy
+@Scope(value = "prototype", proxyMode = ScopedProxyMode.TARGET_CLASS)
+@DependsOn({"one", "two"})
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+@Import(SampleComponent.class)
+@SampleAttributes(text = "a \"quoted\" \u00e9 text", separator = '\'', sizes = {1, 2}, timeout = 30L,
+		ratio = 0.5d, flags = true, unit = TimeUnit.MINUTES, types = {String.class, int[].class},
+		tags = {@SampleAttributes.Tag("x"), @SampleAttributes.Tag("y")})
+public class SampleAnnotatedComponent implements Serializable {
+
+	@Bean
+	@Primary
+	public static String name() {
+		return "name";
+	}
+
+	@Bean(name = {"first", "second"}, initMethod = "toString")
+	protected SampleComponent component() {
+		return new SampleComponent();
+	}
+
+	@SuppressWarnings("unused")
+	private void notAnnotatedForClassFiles() {
+	}
+
+
+	public static class Nested {
+	}
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.context.index.sample;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test annotation exposing attributes of every supported kind.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SampleAttributes {
+
+	String text() default "";
+
+	char separator() default ',';
+
+	int[] sizes() default {};
+
+	long timeout() default 0L;
+
+	double ratio() default 0.0d;
+
+	boolean[] flags() default {};
+
+	TimeUnit unit() default TimeUnit.SECONDS;
+
+	Class<?>[] types() default {};
+
+	Tag[] tags() default {};
+
+
+	@interface Tag {
+
+		String value();
+	}
+
+}
@@ -18,11 +18,14 @@ package org.springframework.context.annotation;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -32,10 +35,13 @@ import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
 import org.springframework.beans.factory.annotation.AnnotatedGenericBeanDefinition;
 import org.springframework.beans.factory.annotation.Lookup;
 import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.index.CandidateComponentsIndex;
 import org.springframework.context.index.CandidateComponentsIndexLoader;
+import org.springframework.core.SpringProperties;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.EnvironmentCapable;
@@ -45,6 +51,8 @@ import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
 import org.springframework.core.type.classreading.MetadataReader;
@@ -89,6 +97,20 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 
 	static final String DEFAULT_RESOURCE_PATTERN = "**/*.class";
 
+	/**
+	 * System property that instructs Spring to read and filter scanned classes in
+	 * parallel on the {@link ForkJoinPool#commonPool() common pool}, unless a
+	 * {@link #setScanningPool scanning pool} has been specified explicitly.
+	 * <p>The default is "false", i.e. scanning one class after the other.
+	 * @since 5.1
+	 */
+	public static final String PARALLEL_SCANNING_PROPERTY_NAME = "spring.context.scan.parallel";
+
+	private static final boolean parallelScanning = SpringProperties.getFlag(PARALLEL_SCANNING_PROPERTY_NAME);
+
+	/** Number of resources below which a scanning task does not split any further */
+	private static final int SCANNING_TASK_THRESHOLD = 64;
+
 
 	protected final Log logger = LogFactory.getLog(getClass());
 
@@ -113,6 +135,9 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	@Nullable
 	private CandidateComponentsIndex componentsIndex;
 
+	@Nullable
+	private ForkJoinPool scanningPool = (parallelScanning ? ForkJoinPool.commonPool() : null);
+
 
 	/**
 	 * Protected constructor for flexible subclass initialization.
@@ -301,6 +326,20 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		this.metadataReaderFactory = metadataReaderFactory;
 	}
 
+	/**
+	 * Set the {@link ForkJoinPool} to read and filter scanned classes on.
+	 * <p>Default is none, scanning one class after the other, unless the
+	 * {@value #PARALLEL_SCANNING_PROPERTY_NAME} system property is set. The order
+	 * of the detected candidates is the same in both cases. Note that the
+	 * {@link #setMetadataReaderFactory MetadataReaderFactory} and any custom
+	 * {@link TypeFilter} need to be thread-safe when scanning in parallel.
+	 * @param scanningPool the pool to use, or {@code null} to scan sequentially
+	 * @since 5.1
+	 */
+	public void setScanningPool(@Nullable ForkJoinPool scanningPool) {
+		this.scanningPool = scanningPool;
+	}
+
 	/**
 	 * Return the MetadataReaderFactory used by this component provider.
 	 */
@@ -318,12 +357,37 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	 * @return a corresponding Set of autodetected bean definitions
 	 */
 	public Set<BeanDefinition> findCandidateComponents(String basePackage) {
-		if (this.componentsIndex != null && indexSupportsIncludeFilters()) {
-			return addCandidateComponentsFromIndex(this.componentsIndex, basePackage);
+		StartupStep scanStep = getApplicationStartup().start("spring.context.component-scan")
+				.tag("packageName", basePackage);
+		Set<BeanDefinition> candidates = null;
+		try {
+			if (this.componentsIndex != null && indexSupportsIncludeFilters()) {
+				candidates = addCandidateComponentsFromIndex(this.componentsIndex, basePackage);
+			}
+			else {
+				candidates = scanCandidateComponents(basePackage);
+			}
+			return candidates;
 		}
-		else {
-			return scanCandidateComponents(basePackage);
+		finally {
+			Set<BeanDefinition> found = candidates;
+			scanStep.tag("candidates", () -> (found != null ? String.valueOf(found.size()) : "failed")).end();
+		}
+	}
+
+	/**
+	 * Return the {@link ApplicationStartup} of the registry this scanner populates,
+	 * falling back to a no-op default.
+	 */
+	private ApplicationStartup getApplicationStartup() {
+		BeanDefinitionRegistry registry = getRegistry();
+		if (registry instanceof ConfigurableBeanFactory) {
+			return ((ConfigurableBeanFactory) registry).getApplicationStartup();
+		}
+		if (registry instanceof ConfigurableApplicationContext) {
+			return ((ConfigurableApplicationContext) registry).getApplicationStartup();
 		}
+		return ApplicationStartup.DEFAULT;
 	}
 
 	/**
@@ -392,8 +456,13 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 			}
 			boolean traceEnabled = logger.isTraceEnabled();
 			boolean debugEnabled = logger.isDebugEnabled();
+			ClassLoader classLoader = getResourcePatternResolver().getClassLoader();
 			for (String type : types) {
-				MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(type);
+				// Prefer the metadata recorded at build time over reading the class file
+				MetadataReader metadataReader = index.getMetadataReader(type, classLoader);
+				if (metadataReader == null) {
+					metadataReader = getMetadataReaderFactory().getMetadataReader(type);
+				}
 				if (isCandidateComponent(metadataReader)) {
 					AnnotatedGenericBeanDefinition sbd = new AnnotatedGenericBeanDefinition(
 							metadataReader.getAnnotationMetadata());
@@ -428,68 +497,113 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 			String packageSearchPath = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
 					resolveBasePackage(basePackage) + '/' + this.resourcePattern;
 			Resource[] resources = getResourcePatternResolver().getResources(packageSearchPath);
-			boolean traceEnabled = logger.isTraceEnabled();
-			boolean debugEnabled = logger.isDebugEnabled();
-			for (Resource resource : resources) {
-				if (traceEnabled) {
-					logger.trace("Scanning " + resource);
+			ForkJoinPool scanningPool = this.scanningPool;
+			if (scanningPool != null && resources.length > 1) {
+				candidates.addAll(scanCandidateComponentsInParallel(resources, scanningPool));
+			}
+			else {
+				boolean traceEnabled = logger.isTraceEnabled();
+				boolean debugEnabled = logger.isDebugEnabled();
+				for (Resource resource : resources) {
+					ScannedGenericBeanDefinition sbd = scanCandidateComponent(resource, traceEnabled, debugEnabled);
+					if (sbd != null) {
+						candidates.add(sbd);
+					}
 				}
-				// 判断文件是否可读：这里百度的结果是：如果返回true，不一定可读，但是如果返回false，一定不可读
-				if (resource.isReadable()) {
-					try {
-						MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
-						/**
-						 * isCandidateComponent 也是扫描bean中一个比较核心的方法吧
-						 * 由于这里的resource是包下所有的class文件，所以，需要在这个方法中判断是否符合注入条件
-						 *
-						 * 在AnnatationConfigApplication构造函数中，初始化了一个ClassPathBeanDefinitionScanner;
-						 * 在初始化这个bean的时候，给一个list中存入了三个类，其中有一个就是Component.class，个人理解：在这个方法中，会
-						 * 判断扫描出来的class文件是否有Component注解；需要注意的是@Controller @Service @Repository都是被@Component注解修饰的
-						 * 所以，@Controller... 这些注解修饰的bean也会被注入到spring容器中
-						 *
-						 * excludeFilter是在doScan()方法中赋值的，excludeFilter中包含的是当前配置类的beanClassName;因为当前配置类已经存在于beanDefinitionMap中，无需再次添加
-						 */
-						if (isCandidateComponent(metadataReader)) {
-							ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
-							sbd.setResource(resource);
-							sbd.setSource(resource);
-							/**
-							 * 对scannedGenericBeanDefinition进行判断
-							 */
-							if (isCandidateComponent(sbd)) {
-								if (debugEnabled) {
-									logger.debug("Identified candidate component class: " + resource);
-								}
-								candidates.add(sbd);
-							}
-							else {
-								if (debugEnabled) {
-									logger.debug("Ignored because not a concrete top-level class: " + resource);
-								}
-							}
-						}
-						else {
-							if (traceEnabled) {
-								logger.trace("Ignored because not matching any filter: " + resource);
-							}
+			}
+		}
+		catch (IOException ex) {
+			throw new BeanDefinitionStoreException("I/O failure during classpath scanning", ex);
+		}
+		return candidates;
+	}
+
+	/**
+	 * Read and filter the given resources on the given pool, returning the
+	 * candidates in the same order as a sequential scan would.
+	 */
+	private List<ScannedGenericBeanDefinition> scanCandidateComponentsInParallel(
+			Resource[] resources, ForkJoinPool scanningPool) {
+
+		// Initialize lazily created collaborators before sharing them across threads
+		getMetadataReaderFactory();
+		getConditionEvaluator();
+		boolean traceEnabled = logger.isTraceEnabled();
+		boolean debugEnabled = logger.isDebugEnabled();
+		ScannedGenericBeanDefinition[] results = new ScannedGenericBeanDefinition[resources.length];
+		scanningPool.invoke(new CandidateScanningTask(
+				resources, results, 0, resources.length, traceEnabled, debugEnabled));
+		List<ScannedGenericBeanDefinition> candidates = new ArrayList<>();
+		for (ScannedGenericBeanDefinition sbd : results) {
+			if (sbd != null) {
+				candidates.add(sbd);
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * Read the given resource and determine whether it is a candidate component.
+	 * @return the corresponding bean definition, or {@code null} if not a candidate
+	 */
+	@Nullable
+	private ScannedGenericBeanDefinition scanCandidateComponent(
+			Resource resource, boolean traceEnabled, boolean debugEnabled) {
+
+		if (traceEnabled) {
+			logger.trace("Scanning " + resource);
+		}
+		// 判断文件是否可读：这里百度的结果是：如果返回true，不一定可读，但是如果返回false，一定不可读
+		if (resource.isReadable()) {
+			try {
+				MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
+				/**
+				 * isCandidateComponent 也是扫描bean中一个比较核心的方法吧
+				 * 由于这里的resource是包下所有的class文件，所以，需要在这个方法中判断是否符合注入条件
+				 *
+				 * 在AnnatationConfigApplication构造函数中，初始化了一个ClassPathBeanDefinitionScanner;
+				 * 在初始化这个bean的时候，给一个list中存入了三个类，其中有一个就是Component.class，个人理解：在这个方法中，会
+				 * 判断扫描出来的class文件是否有Component注解；需要注意的是@Controller @Service @Repository都是被@Component注解修饰的
+				 * 所以，@Controller... 这些注解修饰的bean也会被注入到spring容器中
+				 *
+				 * excludeFilter是在doScan()方法中赋值的，excludeFilter中包含的是当前配置类的beanClassName;因为当前配置类已经存在于beanDefinitionMap中，无需再次添加
+				 */
+				if (isCandidateComponent(metadataReader)) {
+					ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
+					sbd.setResource(resource);
+					sbd.setSource(resource);
+					/**
+					 * 对scannedGenericBeanDefinition进行判断
+					 */
+					if (isCandidateComponent(sbd)) {
+						if (debugEnabled) {
+							logger.debug("Identified candidate component class: " + resource);
 						}
+						return sbd;
 					}
-					catch (Throwable ex) {
-						throw new BeanDefinitionStoreException(
-								"Failed to read candidate component class: " + resource, ex);
+					else {
+						if (debugEnabled) {
+							logger.debug("Ignored because not a concrete top-level class: " + resource);
+						}
 					}
 				}
 				else {
 					if (traceEnabled) {
-						logger.trace("Ignored because not readable: " + resource);
+						logger.trace("Ignored because not matching any filter: " + resource);
 					}
 				}
 			}
+			catch (Throwable ex) {
+				throw new BeanDefinitionStoreException(
+						"Failed to read candidate component class: " + resource, ex);
+			}
 		}
-		catch (IOException ex) {
-			throw new BeanDefinitionStoreException("I/O failure during classpath scanning", ex);
+		else {
+			if (traceEnabled) {
+				logger.trace("Ignored because not readable: " + resource);
+			}
 		}
-		return candidates;
+		return null;
 	}
 
 
@@ -532,11 +646,15 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	 * @return whether the class qualifies as a candidate component
 	 */
 	private boolean isConditionMatch(MetadataReader metadataReader) {
+		return !getConditionEvaluator().shouldSkip(metadataReader.getAnnotationMetadata());
+	}
+
+	private ConditionEvaluator getConditionEvaluator() {
 		if (this.conditionEvaluator == null) {
 			this.conditionEvaluator =
 					new ConditionEvaluator(getRegistry(), this.environment, this.resourcePatternResolver);
 		}
-		return !this.conditionEvaluator.shouldSkip(metadataReader.getAnnotationMetadata());
+		return this.conditionEvaluator;
 	}
 
 	/**
@@ -573,4 +691,52 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		}
 	}
 
+
+	/**
+	 * Fork/join task that scans a range of resources, recording each candidate
+	 * at the index of its resource so that the original order can be restored.
+	 */
+	@SuppressWarnings("serial")
+	private class CandidateScanningTask extends RecursiveAction {
+
+		private final Resource[] resources;
+
+		private final ScannedGenericBeanDefinition[] results;
+
+		private final int from;
+
+		private final int to;
+
+		private final boolean traceEnabled;
+
+		private final boolean debugEnabled;
+
+		CandidateScanningTask(Resource[] resources, ScannedGenericBeanDefinition[] results,
+				int from, int to, boolean traceEnabled, boolean debugEnabled) {
+
+			this.resources = resources;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+			this.traceEnabled = traceEnabled;
+			this.debugEnabled = debugEnabled;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.to - this.from <= SCANNING_TASK_THRESHOLD) {
+				for (int i = this.from; i < this.to; i++) {
+					this.results[i] = scanCandidateComponent(this.resources[i], this.traceEnabled, this.debugEnabled);
+				}
+			}
+			else {
+				int middle = (this.from + this.to) >>> 1;
+				invokeAll(new CandidateScanningTask(this.resources, this.results, this.from, middle,
+								this.traceEnabled, this.debugEnabled),
+						new CandidateScanningTask(this.resources, this.results, middle, this.to,
+								this.traceEnabled, this.debugEnabled));
+			}
+		}
+	}
+
 }
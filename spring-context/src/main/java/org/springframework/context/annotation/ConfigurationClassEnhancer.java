@@ -34,6 +34,7 @@ import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.support.SimpleInstantiationStrategy;
+import org.springframework.cglib.core.CachingGeneratorStrategy;
 import org.springframework.cglib.core.ClassGenerator;
 import org.springframework.cglib.core.Constants;
 import org.springframework.cglib.core.DefaultGeneratorStrategy;
@@ -140,7 +141,9 @@ class ConfigurationClassEnhancer {
 		 *
 		 *  该beanFactory的作用是在this调用时拦截该调用，并直接在beanFactory中获取目标bean对象
 		 */
-		enhancer.setStrategy(new BeanFactoryAwareGeneratorStrategy(classLoader));
+		enhancer.setStrategy(CachingGeneratorStrategy.decorateIfEnabled(
+				new BeanFactoryAwareGeneratorStrategy(classLoader), configSuperClass,
+				new Class<?>[] {EnhancedConfiguration.class}, CALLBACK_FILTER, CALLBACK_FILTER.getCallbackTypes()));
 		//对目标对象的所有方法进行拦截
 		enhancer.setCallbackFilter(CALLBACK_FILTER);
 		enhancer.setCallbackTypes(CALLBACK_FILTER.getCallbackTypes());
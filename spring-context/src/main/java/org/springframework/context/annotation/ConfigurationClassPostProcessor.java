@@ -37,6 +37,7 @@ import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
 import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
 import org.springframework.beans.factory.config.SingletonBeanRegistry;
@@ -57,6 +58,8 @@ import org.springframework.core.env.Environment;
 import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
 import org.springframework.core.type.classreading.MetadataReaderFactory;
@@ -365,18 +368,28 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		 */
 		Set<BeanDefinitionHolder> candidates = new LinkedHashSet<>(configCandidates);
 		Set<ConfigurationClass> alreadyParsed = new HashSet<>(configCandidates.size());
+		ApplicationStartup applicationStartup = (registry instanceof ConfigurableBeanFactory ?
+				((ConfigurableBeanFactory) registry).getApplicationStartup() : ApplicationStartup.DEFAULT);
 		do {
+			StartupStep parseStep = applicationStartup.start("spring.context.config-classes.parse");
 			/**
 			 *  如果将bean存入到beanDefinitionMap第三步
 			 *
 			 *  这里的candidates的个数是由项目中 配置文件的数量来决定的(或者说加了@Configuration或者@ComponentScan或者@Component注解的类)
 			 *  上面是对bean的解析，下面这一步是对bean中的注释进行解析
 			 */
-			parser.parse(candidates);
-			parser.validate();
+			Set<ConfigurationClass> configClasses;
+			try {
+				parser.parse(candidates);
+				parser.validate();
 
-			Set<ConfigurationClass> configClasses = new LinkedHashSet<>(parser.getConfigurationClasses());
-			configClasses.removeAll(alreadyParsed);
+				configClasses = new LinkedHashSet<>(parser.getConfigurationClasses());
+				configClasses.removeAll(alreadyParsed);
+				parseStep.tag("classCount", String.valueOf(configClasses.size()));
+			}
+			finally {
+				parseStep.end();
+			}
 
 			// Read the model and create bean definitions based on its content
 			if (this.reader == null) {
@@ -17,11 +17,15 @@
 package org.springframework.context.index;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.LinkedMultiValueMap;
@@ -43,6 +47,10 @@ import org.springframework.util.MultiValueMap;
  * not a rule. Similarly, the {@code stereotype} is usually the fully qualified name of
  * a target type but it can be any marker really.
  *
+ * <p>If the index was generated along with {@code META-INF/spring.components.metadata},
+ * the annotation metadata of a candidate can be obtained via
+ * {@link #getMetadataReader(String, ClassLoader)} without reading its class file.
+ *
  * @author Stephane Nicoll
  * @since 5.0
  */
@@ -52,9 +60,16 @@ public class CandidateComponentsIndex {
 
 	private final MultiValueMap<String, Entry> index;
 
+	private final Map<String, String> metadata;
+
 
 	CandidateComponentsIndex(List<Properties> content) {
+		this(content, Collections.emptyList());
+	}
+
+	CandidateComponentsIndex(List<Properties> content, List<Properties> metadata) {
 		this.index = parseIndex(content);
+		this.metadata = parseMetadata(metadata);
 	}
 
 
@@ -76,6 +91,21 @@ public class CandidateComponentsIndex {
 		return Collections.emptySet();
 	}
 
+	/**
+	 * Return a {@link MetadataReader} for the specified candidate type, based on
+	 * the annotation metadata recorded in the index.
+	 * @param type the candidate type
+	 * @param classLoader the ClassLoader to use to introspect annotation types
+	 * @return the metadata reader, or {@code null} if the index has no annotation
+	 * metadata for that type (in which case the class file needs to be read)
+	 * @since 5.1
+	 */
+	@Nullable
+	public MetadataReader getMetadataReader(String type, @Nullable ClassLoader classLoader) {
+		String entry = this.metadata.get(type);
+		return (entry != null ? new IndexedMetadataReader(type, entry, classLoader) : null);
+	}
+
 	private static MultiValueMap<String, Entry> parseIndex(List<Properties> content) {
 		MultiValueMap<String, Entry> index = new LinkedMultiValueMap<>();
 		for (Properties entry : content) {
@@ -89,6 +119,14 @@ public class CandidateComponentsIndex {
 		return index;
 	}
 
+	private static Map<String, String> parseMetadata(List<Properties> content) {
+		Map<String, String> metadata = new HashMap<>();
+		for (Properties entry : content) {
+			entry.forEach((type, value) -> metadata.put((String) type, (String) value));
+		}
+		return metadata;
+	}
+
 	private static class Entry {
 		private final String type;
 		private final String packageName;
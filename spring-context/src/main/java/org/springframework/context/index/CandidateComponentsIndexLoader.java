@@ -47,6 +47,14 @@ public class CandidateComponentsIndexLoader {
 	 */
 	public static final String COMPONENTS_RESOURCE_LOCATION = "META-INF/spring.components";
 
+	/**
+	 * The location to look for the annotation metadata of the components.
+	 * <p>Optional: if a JAR file does not provide it, the metadata of its
+	 * components is read from their class files.
+	 * @since 5.1
+	 */
+	public static final String METADATA_RESOURCE_LOCATION = "META-INF/spring.components.metadata";
+
 	/**
 	 * System property that instructs Spring to ignore the index, i.e.
 	 * to always return {@code null} from {@link #loadIndex(ClassLoader)}.
@@ -106,7 +114,7 @@ public class CandidateComponentsIndexLoader {
 				logger.debug("Loaded " + result.size() + "] index(es)");
 			}
 			int totalCount = result.stream().mapToInt(Properties::size).sum();
-			return (totalCount > 0 ? new CandidateComponentsIndex(result) : null);
+			return (totalCount > 0 ? new CandidateComponentsIndex(result, loadMetadata(classLoader)) : null);
 		}
 		catch (IOException ex) {
 			throw new IllegalStateException("Unable to load indexes from location [" +
@@ -114,4 +122,14 @@ public class CandidateComponentsIndexLoader {
 		}
 	}
 
+	private static List<Properties> loadMetadata(ClassLoader classLoader) throws IOException {
+		Enumeration<URL> urls = classLoader.getResources(METADATA_RESOURCE_LOCATION);
+		List<Properties> result = new ArrayList<>();
+		while (urls.hasMoreElements()) {
+			URL url = urls.nextElement();
+			result.add(PropertiesLoaderUtils.loadProperties(new UrlResource(url)));
+		}
+		return result;
+	}
+
 }
@@ -0,0 +1,388 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.asm.AnnotationVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.ClassMetadata;
+import org.springframework.core.type.classreading.AnnotationMetadataReadingVisitor;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link MetadataReader} implementation that recreates the metadata of a candidate
+ * from {@code META-INF/spring.components.metadata} rather than from its class file.
+ *
+ * <p>The recorded metadata is replayed through the same visitor that is used when
+ * reading class files, so the resulting {@link AnnotationMetadata} behaves exactly
+ * like the ASM-based one. The format is written at build time by the
+ * {@code CandidateComponentsIndexer} of the {@code spring-context-indexer} module.
+ *
+ * @since 5.1
+ */
+class IndexedMetadataReader implements MetadataReader {
+
+	private final Resource resource;
+
+	private final AnnotationMetadata annotationMetadata;
+
+
+	IndexedMetadataReader(String type, String metadata, @Nullable ClassLoader classLoader) {
+		this.resource = new ClassPathResource(ClassUtils.convertClassNameToResourcePath(type) +
+				ClassUtils.CLASS_FILE_SUFFIX, classLoader);
+		AnnotationMetadataReadingVisitor visitor = new AnnotationMetadataReadingVisitor(classLoader);
+		try {
+			new MetadataParser(type, metadata).replay(visitor);
+		}
+		catch (RuntimeException ex) {
+			throw new IllegalStateException("Invalid indexed metadata for type [" + type + "]: " + metadata, ex);
+		}
+		this.annotationMetadata = visitor;
+	}
+
+
+	@Override
+	public Resource getResource() {
+		return this.resource;
+	}
+
+	@Override
+	public ClassMetadata getClassMetadata() {
+		return this.annotationMetadata;
+	}
+
+	@Override
+	public AnnotationMetadata getAnnotationMetadata() {
+		return this.annotationMetadata;
+	}
+
+
+	/**
+	 * Recursive descent parser for a single entry of the metadata index.
+	 */
+	private static class MetadataParser {
+
+		private final String type;
+
+		private final String input;
+
+		private int pos;
+
+		MetadataParser(String type, String input) {
+			this.type = type;
+			this.input = input;
+		}
+
+		public void replay(AnnotationMetadataReadingVisitor visitor) {
+			int access = Integer.parseInt(nextWord());
+			String superName = nextWord();
+			List<String> interfaces = new ArrayList<>();
+			expect('{');
+			while (!tryConsume('}')) {
+				interfaces.add(toInternalName(nextWord()));
+				tryConsume(',');
+			}
+			visitor.visit(Opcodes.V1_8, access, toInternalName(this.type), null,
+					("-".equals(superName) ? null : toInternalName(superName)),
+					interfaces.toArray(new String[0]));
+
+			MethodVisitor methodVisitor = null;
+			while (hasMore()) {
+				if (peek() == '@') {
+					this.pos++;
+					String annotationType = nextWord();
+					AnnotationVisitor annotationVisitor = (methodVisitor != null ?
+							methodVisitor.visitAnnotation(toDescriptor(annotationType), true) :
+							visitor.visitAnnotation(toDescriptor(annotationType), true));
+					readAttributes(annotationVisitor);
+					continue;
+				}
+				String keyword = nextWord();
+				switch (keyword) {
+					case "enclosing":
+						String enclosing = nextWord();
+						visitor.visitInnerClass(toInternalName(this.type), toInternalName(enclosing),
+								ClassUtils.getShortName(this.type), access);
+						break;
+					case "member":
+						String member = nextWord();
+						visitor.visitInnerClass(toInternalName(member), toInternalName(this.type),
+								ClassUtils.getShortName(member), 0);
+						break;
+					case "method":
+						if (methodVisitor != null) {
+							methodVisitor.visitEnd();
+						}
+						int methodAccess = Integer.parseInt(nextWord());
+						String name = nextWord();
+						String returnType = nextWord();
+						methodVisitor = visitor.visitMethod(
+								methodAccess, name, "()" + toDescriptor(returnType), null, null);
+						break;
+					default:
+						throw new IllegalArgumentException("Unexpected token '" + keyword + "' at " + this.pos);
+				}
+			}
+			if (methodVisitor != null) {
+				methodVisitor.visitEnd();
+			}
+			visitor.visitEnd();
+		}
+
+		private void readAttributes(AnnotationVisitor annotationVisitor) {
+			expect('(');
+			while (!tryConsume(')')) {
+				String name = nextWord();
+				expect('=');
+				readValue(annotationVisitor, name);
+				tryConsume(',');
+			}
+			annotationVisitor.visitEnd();
+		}
+
+		private void readValue(AnnotationVisitor annotationVisitor, @Nullable String name) {
+			char c = peek();
+			if (c == '@') {
+				this.pos++;
+				String annotationType = nextWord();
+				readAttributes(annotationVisitor.visitAnnotation(name, toDescriptor(annotationType)));
+			}
+			else if (c == '{') {
+				this.pos++;
+				readArray(annotationVisitor, name);
+			}
+			else if (c == '"') {
+				annotationVisitor.visit(name, nextQuoted('"'));
+			}
+			else if (c == '\'') {
+				annotationVisitor.visit(name, nextQuoted('\'').charAt(0));
+			}
+			else {
+				String word = nextWord();
+				Object value = parseLiteral(word);
+				if (value != null) {
+					annotationVisitor.visit(name, value);
+				}
+				else {
+					int separator = word.lastIndexOf('.');
+					annotationVisitor.visitEnum(name, toDescriptor(word.substring(0, separator)),
+							word.substring(separator + 1));
+				}
+			}
+		}
+
+		private void readArray(AnnotationVisitor annotationVisitor, @Nullable String name) {
+			// Mirror the class file reader: non-empty primitive arrays are visited as a whole
+			int start = this.pos;
+			List<Object> primitives = new ArrayList<>();
+			while (hasMore() && peek() != '}' && peek() != '@' && peek() != '"' && peek() != '{') {
+				Object value = (peek() == '\'' ? nextQuoted('\'').charAt(0) : parseLiteral(nextWord()));
+				if (value == null || value instanceof Type) {
+					primitives = null;
+					break;
+				}
+				primitives.add(value);
+				tryConsume(',');
+			}
+			if (primitives != null && !primitives.isEmpty() && tryConsume('}')) {
+				annotationVisitor.visit(name, toPrimitiveArray(primitives));
+				return;
+			}
+			this.pos = start;
+			AnnotationVisitor arrayVisitor = annotationVisitor.visitArray(name);
+			while (!tryConsume('}')) {
+				readValue(arrayVisitor, null);
+				tryConsume(',');
+			}
+			arrayVisitor.visitEnd();
+		}
+
+		@Nullable
+		private Object parseLiteral(String word) {
+			if ("true".equals(word) || "false".equals(word)) {
+				return Boolean.valueOf(word);
+			}
+			if (word.endsWith(".class")) {
+				return Type.getType(toDescriptor(word.substring(0, word.length() - 6)));
+			}
+			char first = word.charAt(0);
+			if (!Character.isDigit(first) && first != '-' && !word.startsWith("NaN") && !word.startsWith("Infinity")) {
+				return null;
+			}
+			char suffix = word.charAt(word.length() - 1);
+			String number = word.substring(0, word.length() - 1);
+			switch (suffix) {
+				case 'B': return Byte.valueOf(number);
+				case 'S': return Short.valueOf(number);
+				case 'L': return Long.valueOf(number);
+				case 'F': return Float.valueOf(number);
+				case 'D': return Double.valueOf(number);
+				default: return Integer.valueOf(word);
+			}
+		}
+
+		private static Object toPrimitiveArray(List<Object> values) {
+			Object first = values.get(0);
+			int size = values.size();
+			if (first instanceof Boolean) {
+				boolean[] array = new boolean[size];
+				for (int i = 0; i < size; i++) {
+					array[i] = (Boolean) values.get(i);
+				}
+				return array;
+			}
+			if (first instanceof Character) {
+				char[] array = new char[size];
+				for (int i = 0; i < size; i++) {
+					array[i] = (Character) values.get(i);
+				}
+				return array;
+			}
+			if (first instanceof Byte) {
+				byte[] array = new byte[size];
+				for (int i = 0; i < size; i++) {
+					array[i] = ((Number) values.get(i)).byteValue();
+				}
+				return array;
+			}
+			if (first instanceof Short) {
+				short[] array = new short[size];
+				for (int i = 0; i < size; i++) {
+					array[i] = ((Number) values.get(i)).shortValue();
+				}
+				return array;
+			}
+			if (first instanceof Long) {
+				long[] array = new long[size];
+				for (int i = 0; i < size; i++) {
+					array[i] = ((Number) values.get(i)).longValue();
+				}
+				return array;
+			}
+			if (first instanceof Float) {
+				float[] array = new float[size];
+				for (int i = 0; i < size; i++) {
+					array[i] = ((Number) values.get(i)).floatValue();
+				}
+				return array;
+			}
+			if (first instanceof Double) {
+				double[] array = new double[size];
+				for (int i = 0; i < size; i++) {
+					array[i] = ((Number) values.get(i)).doubleValue();
+				}
+				return array;
+			}
+			int[] array = new int[size];
+			for (int i = 0; i < size; i++) {
+				array[i] = ((Number) values.get(i)).intValue();
+			}
+			return array;
+		}
+
+		private String nextWord() {
+			skipWhitespace();
+			int start = this.pos;
+			while (this.pos < this.input.length() && "(){},=@ \"'".indexOf(this.input.charAt(this.pos)) == -1) {
+				this.pos++;
+			}
+			if (start == this.pos) {
+				throw new IllegalArgumentException("Expected word at " + this.pos);
+			}
+			return this.input.substring(start, this.pos);
+		}
+
+		private String nextQuoted(char quote) {
+			expect(quote);
+			StringBuilder sb = new StringBuilder();
+			char c;
+			while ((c = this.input.charAt(this.pos++)) != quote) {
+				if (c == '\\') {
+					c = this.input.charAt(this.pos++);
+					if (c == 'u') {
+						c = (char) Integer.parseInt(this.input.substring(this.pos, this.pos + 4), 16);
+						this.pos += 4;
+					}
+				}
+				sb.append(c);
+			}
+			return sb.toString();
+		}
+
+		private boolean hasMore() {
+			skipWhitespace();
+			return (this.pos < this.input.length());
+		}
+
+		private char peek() {
+			skipWhitespace();
+			return this.input.charAt(this.pos);
+		}
+
+		private void expect(char c) {
+			if (!tryConsume(c)) {
+				throw new IllegalArgumentException("Expected '" + c + "' at " + this.pos);
+			}
+		}
+
+		private boolean tryConsume(char c) {
+			if (hasMore() && this.input.charAt(this.pos) == c) {
+				this.pos++;
+				return true;
+			}
+			return false;
+		}
+
+		private void skipWhitespace() {
+			while (this.pos < this.input.length() && this.input.charAt(this.pos) == ' ') {
+				this.pos++;
+			}
+		}
+
+		private static String toInternalName(String className) {
+			return className.replace('.', '/');
+		}
+
+		private static String toDescriptor(String typeName) {
+			if (typeName.endsWith("[]")) {
+				return "[" + toDescriptor(typeName.substring(0, typeName.length() - 2));
+			}
+			switch (typeName) {
+				case "void": return "V";
+				case "boolean": return "Z";
+				case "byte": return "B";
+				case "char": return "C";
+				case "short": return "S";
+				case "int": return "I";
+				case "long": return "J";
+				case "float": return "F";
+				case "double": return "D";
+				default: return "L" + toInternalName(typeName) + ";";
+			}
+		}
+	}
+
+}
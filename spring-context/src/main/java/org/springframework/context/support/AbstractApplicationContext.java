@@ -76,6 +76,8 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
@@ -174,6 +176,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	@Nullable
 	private ConfigurableEnvironment environment;
 
+	/** Records startup steps of this context and its bean factory */
+	private ApplicationStartup applicationStartup = ApplicationStartup.DEFAULT;
+
 	/** BeanFactoryPostProcessors to apply on refresh */
 	private final List<BeanFactoryPostProcessor> beanFactoryPostProcessors = new ArrayList<>();
 
@@ -314,6 +319,17 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		return this.environment;
 	}
 
+	@Override
+	public void setApplicationStartup(ApplicationStartup applicationStartup) {
+		Assert.notNull(applicationStartup, "ApplicationStartup must not be null");
+		this.applicationStartup = applicationStartup;
+	}
+
+	@Override
+	public ApplicationStartup getApplicationStartup() {
+		return this.applicationStartup;
+	}
+
 	/**
 	 * Create and return a new {@link StandardEnvironment}.
 	 * <p>Subclasses may override this method in order to supply
@@ -513,6 +529,8 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	@Override
 	public void refresh() throws BeansException, IllegalStateException {
 		synchronized (this.startupShutdownMonitor) {
+			StartupStep refreshStep = this.applicationStartup.start("spring.context.refresh");
+
 			// Prepare this context for refreshing.
 			//准备工作包括设置启动时间、是否激活标志位、初始化属性源配置
 			prepareRefresh();
@@ -568,7 +586,13 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 				 *
 				 * spring在把bean注入到beanDefinitionMaps的同时，会将当前beanName添加到一个list中 beanDefinitionNames,这个list和beanDefinitionMap是同时进行添加的，这个list在后面实例化bean的时候有用到，spring是遍历这个list，拿到每个beanName之后，从beanDefinitionMap中取到对应的beanDefinition
 				 */
-				invokeBeanFactoryPostProcessors(beanFactory);
+				StartupStep postProcessStep = this.applicationStartup.start("spring.context.beans.post-process");
+				try {
+					invokeBeanFactoryPostProcessors(beanFactory);
+				}
+				finally {
+					postProcessStep.end();
+				}
 
 				// Register bean processors that intercept bean creation.
 				/**
@@ -578,7 +602,13 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 				 * 把所有的beanPostProcessor放到了beanPostProcessors中，在后面初始化bean的时候，如果需要调用后置处理器，就会遍历这个list，
 				 */
 
-				registerBeanPostProcessors(beanFactory);
+				StartupStep registerStep = this.applicationStartup.start("spring.context.beans.post-processors.register");
+				try {
+					registerBeanPostProcessors(beanFactory);
+				}
+				finally {
+					registerStep.end();
+				}
 
 				// Initialize message source for this context.
 				//初始化MessageSource组件(该组件在spring中用来做国际化、消息绑定、消息解析)
@@ -643,6 +673,7 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 				// Reset common introspection caches in Spring's core, since we
 				// might not ever need metadata for singleton beans anymore...
 				resetCommonCaches();
+				refreshStep.end();
 			}
 		}
 	}
@@ -706,6 +737,7 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	protected void prepareBeanFactory(ConfigurableListableBeanFactory beanFactory) {
 		// Tell the internal bean factory to use the context's class loader etc.
 		beanFactory.setBeanClassLoader(getClassLoader());
+		beanFactory.setApplicationStartup(getApplicationStartup());
 		//bean 表达式解析器
 		beanFactory.setBeanExpressionResolver(new StandardBeanExpressionResolver(beanFactory.getBeanClassLoader()));
 
@@ -974,7 +1006,13 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 
 		// Instantiate all remaining (non-lazy-init) singletons.
 		//上面的代码可以简单理解为对spring进行的一些校验，下面是完成对bean的实例化
-		beanFactory.preInstantiateSingletons();
+		StartupStep instantiateStep = this.applicationStartup.start("spring.context.singletons.pre-instantiate");
+		try {
+			beanFactory.preInstantiateSingletons();
+		}
+		finally {
+			instantiateStep.end();
+		}
 	}
 
 	/**
@@ -1012,17 +1050,20 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	/**
 	 * Reset Spring's common reflection metadata caches, in particular the
 	 * {@link ReflectionUtils}, {@link AnnotationUtils}, {@link ResolvableType}
-	 * and {@link CachedIntrospectionResults} caches.
+	 * and {@link CachedIntrospectionResults} caches, as well as the jar entry
+	 * index of {@link PathMatchingResourcePatternResolver}.
 	 * @since 4.2
 	 * @see ReflectionUtils#clearCache()
 	 * @see AnnotationUtils#clearCache()
 	 * @see ResolvableType#clearCache()
+	 * @see PathMatchingResourcePatternResolver#clearCache()
 	 * @see CachedIntrospectionResults#clearClassLoader(ClassLoader)
 	 */
 	protected void resetCommonCaches() {
 		ReflectionUtils.clearCache();
 		AnnotationUtils.clearCache();
 		ResolvableType.clearCache();
+		PathMatchingResourcePatternResolver.clearCache();
 		CachedIntrospectionResults.clearClassLoader(getClassLoader());
 	}
 
@@ -18,7 +18,10 @@ package org.springframework.context.annotation;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
 
 import example.profilescan.DevComponent;
@@ -38,6 +41,7 @@ import example.scannable.ServiceInvocationCounter;
 import example.scannable.StubFooDao;
 import example.scannable.sub.BarComponent;
 import org.aspectj.lang.annotation.Aspect;
+import org.junit.AfterClass;
 import org.junit.Test;
 
 import org.springframework.beans.factory.annotation.AnnotatedGenericBeanDefinition;
@@ -74,6 +78,13 @@ public class ClassPathScanningCandidateComponentProviderTests {
 			ClassPathScanningCandidateComponentProviderTests.class.getClassLoader(),
 			new ClassPathResource("spring.components", NamedComponent.class));
 
+	private static final ForkJoinPool SCANNING_POOL = new ForkJoinPool(4);
+
+
+	@AfterClass
+	public static void shutdownScanningPool() {
+		SCANNING_POOL.shutdown();
+	}
 
 	@Test
 	public void defaultsWithScan() {
@@ -90,6 +101,35 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		testDefault(provider, AnnotatedGenericBeanDefinition.class);
 	}
 
+	@Test
+	public void defaultsWithParallelScan() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+		provider.setScanningPool(SCANNING_POOL);
+		testDefault(provider, ScannedGenericBeanDefinition.class);
+	}
+
+	@Test
+	public void parallelScanRetainsCandidateOrder() {
+		ClassLoader classLoader = CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader());
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(false);
+		provider.setResourceLoader(new DefaultResourceLoader(classLoader));
+		provider.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+		List<String> expected = getBeanClassNames(provider.findCandidateComponents(getClass().getPackage().getName()));
+
+		provider.setScanningPool(SCANNING_POOL);
+		List<String> actual = getBeanClassNames(provider.findCandidateComponents(getClass().getPackage().getName()));
+		assertTrue(expected.size() > 100);
+		assertEquals(expected, actual);
+	}
+
+	private List<String> getBeanClassNames(Set<BeanDefinition> candidates) {
+		List<String> beanClassNames = new ArrayList<>();
+		candidates.forEach(candidate -> beanClassNames.add(candidate.getBeanClassName()));
+		return beanClassNames;
+	}
+
 	private void testDefault(ClassPathScanningCandidateComponentProvider provider,
 			Class<? extends BeanDefinition> expectedBeanDefinitionType) {
 		Set<BeanDefinition> candidates = provider.findCandidateComponents(TEST_BASE_PACKAGE);
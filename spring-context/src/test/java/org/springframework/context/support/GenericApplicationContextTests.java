@@ -19,7 +19,12 @@ package org.springframework.context.support;
 import org.junit.Test;
 
 import org.springframework.beans.factory.NoUniqueBeanDefinitionException;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
 
 import static org.junit.Assert.*;
 
@@ -103,4 +108,74 @@ public class GenericApplicationContextTests {
 		}
 	}
 
+	@Test
+	public void byTypeLookupsCachedDuringRefresh() {
+		CountingBeanFactory bf = new CountingBeanFactory();
+		GenericApplicationContext ac = new GenericApplicationContext(bf);
+		ac.registerBeanDefinition("repository", new RootBeanDefinition(Repository.class));
+		for (int i = 0; i < 10; i++) {
+			RootBeanDefinition bd = new RootBeanDefinition(Service.class);
+			bd.setAutowireMode(AutowireCapableBeanFactory.AUTOWIRE_CONSTRUCTOR);
+			ac.registerBeanDefinition("service" + i, bd);
+		}
+		ac.refresh();
+
+		// Post-processors get created before the configuration is frozen:
+		// only the first lookup for the repository needs to match bean definitions
+		assertEquals(1, bf.misses);
+		assertEquals(9, bf.hits);
+		Repository repository = ac.getBean("repository", Repository.class);
+		for (int i = 0; i < 10; i++) {
+			assertSame(repository, ac.getBean("service" + i, Service.class).repository);
+		}
+	}
+
+
+	static class Repository {
+	}
+
+
+	static class Service implements BeanPostProcessor {
+
+		final Repository repository;
+
+		Service(Repository repository) {
+			this.repository = repository;
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	private static class CountingBeanFactory extends DefaultListableBeanFactory {
+
+		int hits;
+
+		int misses;
+
+		private int typeMatches;
+
+		@Override
+		public String[] getBeanNamesForType(@Nullable Class<?> type, boolean includeNonSingletons,
+				boolean allowEagerInit) {
+
+			int typeMatchesBefore = this.typeMatches;
+			String[] beanNames = super.getBeanNamesForType(type, includeNonSingletons, allowEagerInit);
+			if (type == Repository.class && allowEagerInit) {
+				if (this.typeMatches == typeMatchesBefore) {
+					this.hits++;
+				}
+				else {
+					this.misses++;
+				}
+			}
+			return beanNames;
+		}
+
+		@Override
+		public boolean isTypeMatch(String name, ResolvableType typeToMatch) {
+			this.typeMatches++;
+			return super.isTypeMatch(name, typeToMatch);
+		}
+	}
+
 }
@@ -0,0 +1,540 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cglib.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassReader;
+import org.springframework.cglib.proxy.CallbackFilter;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.core.SpringProperties;
+import org.springframework.core.SpringVersion;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+
+/**
+ * CGLIB {@link GeneratorStrategy} decorator which stores generated class files
+ * in a cache directory and defines them from there on later runs, skipping
+ * class generation as long as the generation input is unchanged.
+ *
+ * <p>Each cache entry is keyed by a description of the generation input,
+ * consisting of a caller-specific discriminator (e.g. the callback types
+ * and callback filter decisions) and a fingerprint of the class files of
+ * all source classes involved. The key is only computed when CGLIB actually
+ * asks for a class to be generated, i.e. not for classes that CGLIB serves
+ * from its own in-memory cache. Since generated class names are not stable
+ * across runs, a cached class file gets renamed to the class name chosen
+ * by the current generator before it is handed back to CGLIB.
+ *
+ * <p>Each cache file carries a SHA-256 digest of its cache key and class file
+ * content, protecting against corrupted or misplaced files: a file that does
+ * not match its digest gets regenerated. Since the digest does not protect
+ * against deliberate modification, a cache directory which is writable by
+ * other users (according to its POSIX permissions) is ignored altogether.
+ *
+ * <p>Caching is enabled through the {@value #CACHE_DIRECTORY_PROPERTY_NAME}
+ * property, specified as a JVM system property or in a "spring.properties"
+ * file. A first run populates the directory, which may also be done as part
+ * of the build and shipped with the application.
+ *
+ * @since 5.1
+ * @see #decorateIfEnabled
+ */
+public class CachingGeneratorStrategy implements GeneratorStrategy {
+
+	/**
+	 * System property that specifies the directory for cached CGLIB classes:
+	 * "spring.cglib.cacheDirectory". Caching is off if not specified.
+	 */
+	public static final String CACHE_DIRECTORY_PROPERTY_NAME = "spring.cglib.cacheDirectory";
+
+	private static final String DIGEST_ALGORITHM = "SHA-256";
+
+	private static final int DIGEST_LENGTH = 32;
+
+	private static final Log logger = LogFactory.getLog(CachingGeneratorStrategy.class);
+
+
+	private final GeneratorStrategy delegate;
+
+	private final File cacheDirectory;
+
+	private final Supplier<String> cacheKeySupplier;
+
+
+	/**
+	 * Create a new CachingGeneratorStrategy.
+	 * @param delegate the strategy to generate classes with on a cache miss
+	 * @param cacheDirectory the directory to keep cached class files in
+	 * @param cacheKey the key describing the complete generation input
+	 */
+	public CachingGeneratorStrategy(GeneratorStrategy delegate, File cacheDirectory, String cacheKey) {
+		this(delegate, cacheDirectory, () -> cacheKey);
+	}
+
+	/**
+	 * Create a new CachingGeneratorStrategy with a lazily computed cache key.
+	 * @param delegate the strategy to generate classes with on a cache miss
+	 * @param cacheDirectory the directory to keep cached class files in
+	 * @param cacheKeySupplier the supplier for the key describing the complete
+	 * generation input, returning {@code null} if the class is not to be cached
+	 */
+	private CachingGeneratorStrategy(GeneratorStrategy delegate, File cacheDirectory,
+			Supplier<String> cacheKeySupplier) {
+
+		this.delegate = delegate;
+		this.cacheDirectory = cacheDirectory;
+		this.cacheKeySupplier = cacheKeySupplier;
+	}
+
+
+	@Override
+	public byte[] generate(ClassGenerator cg) throws Exception {
+		String className = (cg instanceof AbstractClassGenerator ? ((AbstractClassGenerator) cg).getClassName() : null);
+		String cacheKey = (className != null ? this.cacheKeySupplier.get() : null);
+		if (cacheKey == null) {
+			return this.delegate.generate(cg);
+		}
+		if (isWritableByOthers(this.cacheDirectory)) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("Ignoring CGLIB cache directory " + this.cacheDirectory +
+						" since it is writable by other users");
+			}
+			return this.delegate.generate(cg);
+		}
+		File cacheFile = new File(this.cacheDirectory,
+				DigestUtils.md5DigestAsHex(cacheKey.getBytes(StandardCharsets.UTF_8)) + ".class");
+		if (cacheFile.isFile()) {
+			try {
+				byte[] bytes = readCacheFile(cacheFile, cacheKey);
+				if (bytes != null) {
+					return renameClass(bytes, className);
+				}
+				if (logger.isDebugEnabled()) {
+					logger.debug("Cached CGLIB class in " + cacheFile + " does not match its digest - regenerating");
+				}
+			}
+			catch (IOException | RuntimeException ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Failed to read cached CGLIB class from " + cacheFile + " - regenerating", ex);
+				}
+			}
+		}
+		byte[] bytes = this.delegate.generate(cg);
+		writeCacheFile(cacheFile, cacheKey, bytes);
+		return bytes;
+	}
+
+	/**
+	 * Read the class file content from the given cache file,
+	 * verifying the digest stored in front of it.
+	 * @return the class file content, or {@code null} if it does not match the digest
+	 */
+	@Nullable
+	private static byte[] readCacheFile(File cacheFile, String cacheKey) throws IOException {
+		byte[] content = Files.readAllBytes(cacheFile.toPath());
+		if (content.length <= DIGEST_LENGTH) {
+			return null;
+		}
+		byte[] bytes = Arrays.copyOfRange(content, DIGEST_LENGTH, content.length);
+		byte[] digest = Arrays.copyOfRange(content, 0, DIGEST_LENGTH);
+		return (MessageDigest.isEqual(digest, digest(cacheKey, bytes)) ? bytes : null);
+	}
+
+	private static void writeCacheFile(File cacheFile, String cacheKey, byte[] bytes) {
+		try {
+			Path target = cacheFile.toPath();
+			Files.createDirectories(target.getParent());
+			Path tempFile = Files.createTempFile(target.getParent(), cacheFile.getName(), ".tmp");
+			try {
+				ByteArrayOutputStream content = new ByteArrayOutputStream(DIGEST_LENGTH + bytes.length);
+				content.write(digest(cacheKey, bytes));
+				content.write(bytes);
+				Files.write(tempFile, content.toByteArray());
+				Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			finally {
+				Files.deleteIfExists(tempFile);
+			}
+		}
+		catch (IOException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to write cached CGLIB class to " + cacheFile, ex);
+			}
+		}
+	}
+
+	private static byte[] digest(String cacheKey, byte[] bytes) {
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+			messageDigest.update(cacheKey.getBytes(StandardCharsets.UTF_8));
+			messageDigest.update(bytes);
+			return messageDigest.digest();
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(
+					"Could not find MessageDigest with algorithm \"" + DIGEST_ALGORITHM + "\"", ex);
+		}
+	}
+
+	private static boolean isWritableByOthers(File directory) {
+		try {
+			Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(directory.toPath());
+			return (permissions.contains(PosixFilePermission.GROUP_WRITE) ||
+					permissions.contains(PosixFilePermission.OTHERS_WRITE));
+		}
+		catch (IOException | UnsupportedOperationException ex) {
+			// Not existing yet (to be created with default permissions) or no POSIX file system
+			return false;
+		}
+	}
+
+
+	/**
+	 * Return the cache directory for CGLIB classes, if configured.
+	 * @see #CACHE_DIRECTORY_PROPERTY_NAME
+	 */
+	@Nullable
+	public static File getCacheDirectory() {
+		String cacheDirectory = SpringProperties.getProperty(CACHE_DIRECTORY_PROPERTY_NAME);
+		return (cacheDirectory != null ? new File(cacheDirectory) : null);
+	}
+
+	/**
+	 * Decorate the given strategy with disk caching, if a cache directory has been
+	 * configured. Classes are only cached if the class files of all given source
+	 * classes are available.
+	 * @param strategy the original strategy
+	 * @param discriminator a description of all generation input other than the
+	 * source classes, e.g. callback types and callback filter decisions
+	 * @param sourceClasses the classes that the generated class is derived from,
+	 * typically the superclass and the implemented interfaces
+	 * @return the caching strategy, or the original strategy if not applicable
+	 */
+	public static GeneratorStrategy decorateIfEnabled(
+			GeneratorStrategy strategy, String discriminator, Class<?>... sourceClasses) {
+
+		File cacheDirectory = getCacheDirectory();
+		if (cacheDirectory == null) {
+			return strategy;
+		}
+		return new CachingGeneratorStrategy(strategy, cacheDirectory, () -> cacheKey(discriminator, sourceClasses));
+	}
+
+	/**
+	 * Decorate the given strategy for an {@link Enhancer} with disk caching, if a
+	 * cache directory has been configured. Classes are only cached if the class
+	 * files of the superclass and all interfaces are available.
+	 * <p>The cache key covers the callback types as well as the callback index
+	 * that the given filter assigns to each method, so any change in the
+	 * interception setup leads to a separate cache entry.
+	 * @param strategy the original strategy
+	 * @param superclass the superclass of the generated class
+	 * @param interfaces the interfaces implemented by the generated class
+	 * @param filter the callback filter
+	 * @param callbackTypes the callback types
+	 * @return the caching strategy, or the original strategy if not applicable
+	 */
+	public static GeneratorStrategy decorateIfEnabled(GeneratorStrategy strategy, Class<?> superclass,
+			Class<?>[] interfaces, CallbackFilter filter, Class<?>[] callbackTypes) {
+
+		File cacheDirectory = getCacheDirectory();
+		if (cacheDirectory == null) {
+			return strategy;
+		}
+		return new CachingGeneratorStrategy(strategy, cacheDirectory, () -> {
+			StringBuilder discriminator = new StringBuilder();
+			for (Class<?> callbackType : callbackTypes) {
+				discriminator.append(callbackType.getName()).append(';');
+			}
+			List<Method> methods = new ArrayList<>();
+			Enhancer.getMethods(superclass, interfaces, methods);
+			for (Method method : methods) {
+				discriminator.append(method).append('=').append(filter.accept(method)).append(';');
+			}
+			Class<?>[] sourceClasses = new Class<?>[interfaces.length + 1];
+			sourceClasses[0] = superclass;
+			System.arraycopy(interfaces, 0, sourceClasses, 1, interfaces.length);
+			return cacheKey(discriminator.toString(), sourceClasses);
+		});
+	}
+
+	@Nullable
+	private static String cacheKey(String discriminator, Class<?>... sourceClasses) {
+		String fingerprint = sourceFingerprint(sourceClasses);
+		return (fingerprint != null ? SpringVersion.getVersion() + "|" + discriminator + "|" + fingerprint : null);
+	}
+
+	/**
+	 * Compute a fingerprint of the class files of the given classes,
+	 * including their superclasses and interfaces.
+	 * @param classes the classes to introspect
+	 * @return the fingerprint, or {@code null} if any class file is not available
+	 */
+	@Nullable
+	static String sourceFingerprint(Class<?>... classes) {
+		Set<Class<?>> hierarchy = new LinkedHashSet<>();
+		for (Class<?> clazz : classes) {
+			collectHierarchy(clazz, hierarchy);
+		}
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		try {
+			for (Class<?> clazz : hierarchy) {
+				InputStream is = clazz.getResourceAsStream(ClassUtils.getClassFileName(clazz));
+				if (is == null) {
+					return null;
+				}
+				content.write(clazz.getName().getBytes(StandardCharsets.UTF_8));
+				StreamUtils.copy(is, content);
+				is.close();
+			}
+		}
+		catch (IOException ex) {
+			return null;
+		}
+		return DigestUtils.md5DigestAsHex(content.toByteArray());
+	}
+
+	private static void collectHierarchy(@Nullable Class<?> clazz, Set<Class<?>> hierarchy) {
+		if (clazz == null || clazz == Object.class || !hierarchy.add(clazz)) {
+			return;
+		}
+		collectHierarchy(clazz.getSuperclass(), hierarchy);
+		for (Class<?> ifc : clazz.getInterfaces()) {
+			collectHierarchy(ifc, hierarchy);
+		}
+	}
+
+	/**
+	 * Rename the class in the given class file to the given name. The constant
+	 * pool gets rewritten in the places that refer to the class: class entries,
+	 * type descriptors and generic signatures (of fields, methods, method types
+	 * and local variables), and String constants holding exactly the class name
+	 * (as used for {@code Class.forName} calls). All other parts of the class
+	 * file remain unchanged.
+	 */
+	static byte[] renameClass(byte[] bytes, String newName) throws IOException {
+		String oldInternalName = new ClassReader(bytes).getClassName();
+		String newInternalName = newName.replace('.', '/');
+		if (oldInternalName.equals(newInternalName)) {
+			return bytes;
+		}
+		ConstantPool pool = new ConstantPool(ByteBuffer.wrap(bytes));
+		pool.collectMemberDescriptors();
+		String oldName = oldInternalName.replace('/', '.');
+		ByteArrayOutputStream baos = new ByteArrayOutputStream(bytes.length + 64);
+		DataOutputStream out = new DataOutputStream(baos);
+		out.write(bytes, 0, 10);  // magic, minor version, major version, constant pool count
+		for (int i = 1; i < pool.count; i++) {
+			int offset = pool.offsets[i];
+			if (offset == 0) {
+				continue;  // second slot of a Long or Double
+			}
+			String value = pool.utf8Values[i];
+			if (value == null) {
+				out.write(bytes, offset, pool.ends[i] - offset);
+				continue;
+			}
+			if (pool.classNames.contains(i)) {
+				value = (value.equals(oldInternalName) ? newInternalName :
+						renameInDescriptor(value, oldInternalName, newInternalName));
+			}
+			if (pool.descriptors.contains(i)) {
+				value = renameInDescriptor(value, oldInternalName, newInternalName);
+			}
+			if (pool.strings.contains(i) && value.equals(oldName)) {
+				value = newName;
+			}
+			out.writeByte(1);
+			out.writeUTF(value);
+		}
+		out.write(bytes, pool.end, bytes.length - pool.end);
+		out.flush();
+		return baos.toByteArray();
+	}
+
+	/**
+	 * Replace all references to the given class in a type descriptor or
+	 * generic signature, e.g. "(Lcom/example/Foo;)V".
+	 */
+	private static String renameInDescriptor(String descriptor, String oldInternalName, String newInternalName) {
+		String result = descriptor;
+		for (char terminator : new char[] {';', '<', '.'}) {
+			result = result.replace('L' + oldInternalName + terminator, 'L' + newInternalName + terminator);
+		}
+		return result;
+	}
+
+
+	/**
+	 * Minimal parser for the constant pool of a class file, determining which
+	 * Utf8 entries are used as class names, descriptors and String constants.
+	 */
+	private static class ConstantPool {
+
+		private final ByteBuffer buffer;
+
+		final int count;
+
+		/** Offset of each entry (its tag), 0 for the second slot of Long and Double entries. */
+		final int[] offsets;
+
+		/** Offset right after each entry. */
+		final int[] ends;
+
+		final String[] utf8Values;
+
+		final Set<Integer> classNames = new HashSet<>();
+
+		final Set<Integer> descriptors = new HashSet<>();
+
+		final Set<Integer> strings = new HashSet<>();
+
+		/** Offset right after the constant pool. */
+		final int end;
+
+		ConstantPool(ByteBuffer buffer) throws IOException {
+			this.buffer = buffer;
+			buffer.position(8);
+			this.count = buffer.getShort() & 0xFFFF;
+			this.offsets = new int[this.count];
+			this.ends = new int[this.count];
+			this.utf8Values = new String[this.count];
+			for (int i = 1; i < this.count; i++) {
+				this.offsets[i] = buffer.position();
+				int tag = buffer.get() & 0xFF;
+				switch (tag) {
+					case 1:  // Utf8
+						int length = buffer.getShort() & 0xFFFF;
+						buffer.position(buffer.position() - 2);
+						byte[] utf8 = new byte[length + 2];
+						buffer.get(utf8);
+						this.utf8Values[i] = new DataInputStream(new ByteArrayInputStream(utf8)).readUTF();
+						break;
+					case 7:  // Class
+						this.classNames.add(buffer.getShort() & 0xFFFF);
+						break;
+					case 8:  // String
+						this.strings.add(buffer.getShort() & 0xFFFF);
+						break;
+					case 16:  // MethodType
+						this.descriptors.add(buffer.getShort() & 0xFFFF);
+						break;
+					case 19: case 20:  // Module, Package
+						skip(2);
+						break;
+					case 15:  // MethodHandle
+						skip(3);
+						break;
+					case 12:  // NameAndType
+						skip(2);
+						this.descriptors.add(buffer.getShort() & 0xFFFF);
+						break;
+					case 3: case 4: case 9: case 10: case 11: case 17: case 18:
+						// Integer, Float, Fieldref, Methodref, InterfaceMethodref, Dynamic, InvokeDynamic
+						skip(4);
+						break;
+					case 5: case 6:  // Long, Double: take up two entries
+						skip(8);
+						this.ends[i++] = buffer.position();
+						continue;
+					default:
+						throw new IOException("Unknown constant pool tag " + tag);
+				}
+				this.ends[i] = buffer.position();
+			}
+			this.end = buffer.position();
+		}
+
+		/**
+		 * Collect the descriptors and signatures of fields, methods and
+		 * local variables declared in the class file body.
+		 */
+		void collectMemberDescriptors() {
+			this.buffer.position(this.end + 6);  // access flags, this class, super class
+			skip(2 * (this.buffer.getShort() & 0xFFFF));  // interfaces
+			for (int members = 0; members < 2; members++) {  // fields, methods
+				int memberCount = this.buffer.getShort() & 0xFFFF;
+				for (int i = 0; i < memberCount; i++) {
+					skip(4);  // access flags, name
+					this.descriptors.add(this.buffer.getShort() & 0xFFFF);
+					collectAttributeDescriptors();
+				}
+			}
+			collectAttributeDescriptors();
+		}
+
+		private void collectAttributeDescriptors() {
+			int attributeCount = this.buffer.getShort() & 0xFFFF;
+			for (int i = 0; i < attributeCount; i++) {
+				String name = this.utf8Values[this.buffer.getShort() & 0xFFFF];
+				int length = this.buffer.getInt();
+				int next = this.buffer.position() + length;
+				if ("Signature".equals(name)) {
+					this.descriptors.add(this.buffer.getShort() & 0xFFFF);
+				}
+				else if ("Code".equals(name)) {
+					skip(4);  // max stack, max locals
+					skip(this.buffer.getInt());  // code
+					skip(8 * (this.buffer.getShort() & 0xFFFF));  // exception table
+					collectAttributeDescriptors();
+				}
+				else if ("LocalVariableTable".equals(name) || "LocalVariableTypeTable".equals(name)) {
+					int entryCount = this.buffer.getShort() & 0xFFFF;
+					for (int j = 0; j < entryCount; j++) {
+						skip(6);  // start pc, length, name
+						this.descriptors.add(this.buffer.getShort() & 0xFFFF);
+						skip(2);  // index
+					}
+				}
+				this.buffer.position(next);
+			}
+		}
+
+		private void skip(int length) {
+			this.buffer.position(this.buffer.position() + length);
+		}
+	}
+
+}
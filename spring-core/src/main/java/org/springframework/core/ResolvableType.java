@@ -93,6 +93,9 @@ public class ResolvableType implements Serializable {
 	private static final ConcurrentReferenceHashMap<ResolvableType, ResolvableType> cache =
 			new ConcurrentReferenceHashMap<>(256);
 
+	private static final ConcurrentReferenceHashMap<Class<?>, ResolvableType> classCache =
+			new ConcurrentReferenceHashMap<>(256);
+
 
 	/**
 	 * The underlying Java type being managed.
@@ -132,6 +135,19 @@ public class ResolvableType implements Serializable {
 	@Nullable
 	private volatile ResolvableType[] generics;
 
+	/**
+	 * The cached instance to share lazily resolved supertypes, interfaces and
+	 * generics with, or {@code null} if this instance resolves them itself.
+	 */
+	@Nullable
+	private transient ResolvableType canonical;
+
+	/**
+	 * Whether this type is a non-array {@code Class} without type parameters.
+	 */
+	@Nullable
+	private Boolean plainClass;
+
 
 	/**
 	 * Private constructor used to create a new {@link ResolvableType} for cache key purposes,
@@ -247,6 +263,10 @@ public class ResolvableType implements Serializable {
 	 * @see #isAssignableFrom(ResolvableType)
 	 */
 	public boolean isAssignableFrom(Class<?> other) {
+		if (other != null && isPlainClass()) {
+			// No generics to check: plain Class assignability, without further allocation
+			return ClassUtils.isAssignable((Class<?>) this.type, other);
+		}
 		return isAssignableFrom(forClass(other), null);
 	}
 
@@ -262,9 +282,24 @@ public class ResolvableType implements Serializable {
 	 * {@code ResolvableType}; {@code false} otherwise
 	 */
 	public boolean isAssignableFrom(ResolvableType other) {
+		Assert.notNull(other, "ResolvableType must not be null");
+		if (isPlainClass() && other.type instanceof Class) {
+			// No generics and no wildcard bounds to check: plain Class assignability
+			return ClassUtils.isAssignable((Class<?>) this.type, (Class<?>) other.type);
+		}
 		return isAssignableFrom(other, null);
 	}
 
+	private boolean isPlainClass() {
+		Boolean plainClass = this.plainClass;
+		if (plainClass == null) {
+			plainClass = (this.type instanceof Class && !((Class<?>) this.type).isArray() &&
+					((Class<?>) this.type).getTypeParameters().length == 0);
+			this.plainClass = plainClass;
+		}
+		return plainClass;
+	}
+
 	private boolean isAssignableFrom(ResolvableType other, @Nullable Map<Type, Type> matchedBefore) {
 		Assert.notNull(other, "ResolvableType must not be null");
 
@@ -455,7 +490,8 @@ public class ResolvableType implements Serializable {
 		}
 		ResolvableType superType = this.superType;
 		if (superType == null) {
-			superType = forType(SerializableTypeWrapper.forGenericSuperclass(resolved), asVariableResolver());
+			superType = (this.canonical != null ? this.canonical.getSuperType() :
+					forType(SerializableTypeWrapper.forGenericSuperclass(resolved), asVariableResolver()));
 			this.superType = superType;
 		}
 		return superType;
@@ -474,7 +510,8 @@ public class ResolvableType implements Serializable {
 		}
 		ResolvableType[] interfaces = this.interfaces;
 		if (interfaces == null) {
-			interfaces = forTypes(SerializableTypeWrapper.forGenericInterfaces(resolved), asVariableResolver());
+			interfaces = (this.canonical != null ? this.canonical.getInterfaces() :
+					forTypes(SerializableTypeWrapper.forGenericInterfaces(resolved), asVariableResolver()));
 			this.interfaces = interfaces;
 		}
 		return interfaces;
@@ -673,7 +710,10 @@ public class ResolvableType implements Serializable {
 		}
 		ResolvableType[] generics = this.generics;
 		if (generics == null) {
-			if (this.type instanceof Class) {
+			if (this.canonical != null) {
+				generics = this.canonical.getGenerics();
+			}
+			else if (this.type instanceof Class) {
 				Class<?> typeClass = (Class<?>) this.type;
 				generics = forTypes(SerializableTypeWrapper.forTypeParameters(typeClass), this.variableResolver);
 			}
@@ -964,7 +1004,16 @@ public class ResolvableType implements Serializable {
 	 * @see #forClassWithGenerics(Class, Class...)
 	 */
 	public static ResolvableType forClass(@Nullable Class<?> clazz) {
-		return new ResolvableType(clazz);
+		Class<?> classToUse = (clazz != null ? clazz : Object.class);
+		ResolvableType resolvableType = classCache.get(classToUse);
+		if (resolvableType == null) {
+			resolvableType = new ResolvableType(classToUse);
+			ResolvableType existing = classCache.putIfAbsent(classToUse, resolvableType);
+			if (existing != null) {
+				resolvableType = existing;
+			}
+		}
+		return resolvableType;
 	}
 
 	/**
@@ -1388,8 +1437,11 @@ public class ResolvableType implements Serializable {
 		}
 
 		// For simple Class references, build the wrapper right away -
-		// no expensive resolution necessary, so not worth caching...
+		// no expensive resolution necessary, so only the plain variant is cached...
 		if (type instanceof Class) {
+			if (typeProvider == null && variableResolver == null) {
+				return forClass((Class<?>) type);
+			}
 			return new ResolvableType(type, typeProvider, variableResolver, (ResolvableType) null);
 		}
 
@@ -1403,7 +1455,13 @@ public class ResolvableType implements Serializable {
 			cachedType = new ResolvableType(type, typeProvider, variableResolver, resultType.hash);
 			cache.put(cachedType, cachedType);
 		}
+		if (typeProvider == null) {
+			// Nothing instance-specific to expose: share the canonical instance
+			return cachedType;
+		}
+		// Keep our own type provider as source but share lazily resolved state
 		resultType.resolved = cachedType.resolved;
+		resultType.canonical = cachedType;
 		return resultType;
 	}
 
@@ -1413,6 +1471,7 @@ public class ResolvableType implements Serializable {
 	 */
 	public static void clearCache() {
 		cache.clear();
+		classCache.clear();
 		SerializableTypeWrapper.cache.clear();
 	}
 
@@ -86,6 +86,15 @@ import org.springframework.util.MultiValueMap;
  * search algorithm manually traverses type and method hierarchies and thereby
  * implicitly supports annotation inheritance without a need for {@code @Inherited}.
  *
+ * <h3>Caching</h3>
+ * <p>The results of the most common type-based lookups, such as
+ * {@code findMergedAnnotation()}, {@code hasAnnotation()} and
+ * {@code findAllMergedAnnotations()}, are indexed per annotated element, shared
+ * with {@link AnnotationUtils#findAnnotation(Class, Class)} and
+ * {@link AnnotationUtils#findAnnotation(Method, Class)}. Returned attribute maps
+ * and collections are copies which may be modified by the caller. The index
+ * can be reset through {@link AnnotationUtils#clearCache()}.
+ *
  * @author Phillip Webb
  * @author Juergen Hoeller
  * @author Sam Brannen
@@ -261,7 +270,8 @@ public class AnnotatedElementUtils {
 		if (element.isAnnotationPresent(annotationType)) {
 			return true;
 		}
-		return Boolean.TRUE.equals(searchWithGetSemantics(element, annotationType, null, alwaysTrueAnnotationProcessor));
+		return Boolean.TRUE.equals(MergedAnnotationIndex.lookup(element, "isAnnotated", annotationType,
+				() -> searchWithGetSemantics(element, annotationType, null, alwaysTrueAnnotationProcessor)));
 	}
 
 	/**
@@ -301,10 +311,15 @@ public class AnnotatedElementUtils {
 	public static AnnotationAttributes getMergedAnnotationAttributes(
 			AnnotatedElement element, Class<? extends Annotation> annotationType) {
 
-		AnnotationAttributes attributes = searchWithGetSemantics(element, annotationType, null,
-				new MergedAnnotationAttributesProcessor());
-		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, false, false);
-		return attributes;
+		AnnotationAttributes attributes = MergedAnnotationIndex.lookup(element, "getMergedAnnotationAttributes",
+				annotationType, () -> {
+					AnnotationAttributes resolved = searchWithGetSemantics(element, annotationType, null,
+							new MergedAnnotationAttributesProcessor());
+					AnnotationUtils.postProcessAnnotationAttributes(element, resolved, false, false);
+					return resolved;
+				});
+		// Hand out a copy, since the indexed attributes are shared
+		return MergedAnnotationIndex.copyAttributes(attributes);
 	}
 
 	/**
@@ -393,8 +408,10 @@ public class AnnotatedElementUtils {
 		}
 
 		// Exhaustive retrieval of merged annotation attributes...
-		AnnotationAttributes attributes = getMergedAnnotationAttributes(element, annotationType);
-		return (attributes != null ? AnnotationUtils.synthesizeAnnotation(attributes, annotationType, element) : null);
+		return MergedAnnotationIndex.lookup(element, "getMergedAnnotation", annotationType, () -> {
+			AnnotationAttributes attributes = getMergedAnnotationAttributes(element, annotationType);
+			return (attributes != null ? AnnotationUtils.synthesizeAnnotation(attributes, annotationType, element) : null);
+		});
 	}
 
 	/**
@@ -418,9 +435,12 @@ public class AnnotatedElementUtils {
 	 * @see #findAllMergedAnnotations(AnnotatedElement, Class)
 	 */
 	public static <A extends Annotation> Set<A> getAllMergedAnnotations(AnnotatedElement element, Class<A> annotationType) {
-		MergedAnnotationAttributesProcessor processor = new MergedAnnotationAttributesProcessor(false, false, true);
-		searchWithGetSemantics(element, annotationType, null, processor);
-		return postProcessAndSynthesizeAggregatedResults(element, annotationType, processor.getAggregatedResults());
+		Set<A> annotations = MergedAnnotationIndex.lookup(element, "getAllMergedAnnotations", annotationType, () -> {
+			MergedAnnotationAttributesProcessor processor = new MergedAnnotationAttributesProcessor(false, false, true);
+			searchWithGetSemantics(element, annotationType, null, processor);
+			return postProcessAndSynthesizeAggregatedResults(element, annotationType, processor.getAggregatedResults());
+		});
+		return new LinkedHashSet<>(annotations);
 	}
 
 	/**
@@ -570,7 +590,8 @@ public class AnnotatedElementUtils {
 		if (element.isAnnotationPresent(annotationType)) {
 			return true;
 		}
-		return Boolean.TRUE.equals(searchWithFindSemantics(element, annotationType, null, alwaysTrueAnnotationProcessor));
+		return Boolean.TRUE.equals(MergedAnnotationIndex.lookup(element, "hasAnnotation", annotationType,
+				() -> searchWithFindSemantics(element, annotationType, null, alwaysTrueAnnotationProcessor)));
 	}
 
 	/**
@@ -604,6 +625,19 @@ public class AnnotatedElementUtils {
 	public static AnnotationAttributes findMergedAnnotationAttributes(AnnotatedElement element,
 			Class<? extends Annotation> annotationType, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
+		if (classValuesAsString || nestedAnnotationsAsMap) {
+			return doFindMergedAnnotationAttributes(element, annotationType, classValuesAsString, nestedAnnotationsAsMap);
+		}
+		AnnotationAttributes attributes = MergedAnnotationIndex.lookup(element, "findMergedAnnotationAttributes",
+				annotationType, () -> doFindMergedAnnotationAttributes(element, annotationType, false, false));
+		// Hand out a copy, since the indexed attributes are shared
+		return MergedAnnotationIndex.copyAttributes(attributes);
+	}
+
+	@Nullable
+	private static AnnotationAttributes doFindMergedAnnotationAttributes(AnnotatedElement element,
+			Class<? extends Annotation> annotationType, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
+
 		AnnotationAttributes attributes = searchWithFindSemantics(element, annotationType, null,
 				new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
 		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
@@ -674,8 +708,10 @@ public class AnnotatedElementUtils {
 		}
 
 		// Exhaustive retrieval of merged annotation attributes...
-		AnnotationAttributes attributes = findMergedAnnotationAttributes(element, annotationType, false, false);
-		return (attributes != null ? AnnotationUtils.synthesizeAnnotation(attributes, annotationType, element) : null);
+		return MergedAnnotationIndex.lookup(element, "findMergedAnnotation", annotationType, () -> {
+			AnnotationAttributes attributes = doFindMergedAnnotationAttributes(element, annotationType, false, false);
+			return (attributes != null ? AnnotationUtils.synthesizeAnnotation(attributes, annotationType, element) : null);
+		});
 	}
 
 	/**
@@ -698,9 +734,12 @@ public class AnnotatedElementUtils {
 	 * @see #getAllMergedAnnotations(AnnotatedElement, Class)
 	 */
 	public static <A extends Annotation> Set<A> findAllMergedAnnotations(AnnotatedElement element, Class<A> annotationType) {
-		MergedAnnotationAttributesProcessor processor = new MergedAnnotationAttributesProcessor(false, false, true);
-		searchWithFindSemantics(element, annotationType, null, processor);
-		return postProcessAndSynthesizeAggregatedResults(element, annotationType, processor.getAggregatedResults());
+		Set<A> annotations = MergedAnnotationIndex.lookup(element, "findAllMergedAnnotations", annotationType, () -> {
+			MergedAnnotationAttributesProcessor processor = new MergedAnnotationAttributesProcessor(false, false, true);
+			searchWithFindSemantics(element, annotationType, null, processor);
+			return postProcessAndSynthesizeAggregatedResults(element, annotationType, processor.getAggregatedResults());
+		});
+		return new LinkedHashSet<>(annotations);
 	}
 
 	/**
@@ -118,12 +118,6 @@ public abstract class AnnotationUtils {
 	 */
 	public static final String VALUE = "value";
 
-	private static final Map<AnnotationCacheKey, Annotation> findAnnotationCache =
-			new ConcurrentReferenceHashMap<>(256);
-
-	private static final Map<AnnotationCacheKey, Boolean> metaPresentCache =
-			new ConcurrentReferenceHashMap<>(256);
-
 	private static final Map<Class<?>, Set<Method>> annotatedBaseTypeCache =
 			new ConcurrentReferenceHashMap<>(256);
 
@@ -477,7 +471,7 @@ public abstract class AnnotationUtils {
 	 */
 	@Nullable
 	public static <A extends Annotation> A findAnnotation(AnnotatedElement annotatedElement, Class<A> annotationType) {
-		// Do NOT store result in the findAnnotationCache since doing so could break
+		// Do NOT store result in the MergedAnnotationIndex since doing so could break
 		// findAnnotation(Class, Class) and findAnnotation(Method, Class).
 		A ann = findAnnotation(annotatedElement, annotationType, new HashSet<>());
 		return (ann != null ? synthesizeAnnotation(ann, annotatedElement) : null);
@@ -532,7 +526,6 @@ public abstract class AnnotationUtils {
 	 * @return the first matching annotation, or {@code null} if not found
 	 * @see #getAnnotation(Method, Class)
 	 */
-	@SuppressWarnings("unchecked")
 	@Nullable
 	public static <A extends Annotation> A findAnnotation(Method method, @Nullable Class<A> annotationType) {
 		Assert.notNull(method, "Method must not be null");
@@ -540,12 +533,9 @@ public abstract class AnnotationUtils {
 			return null;
 		}
 
-		AnnotationCacheKey cacheKey = new AnnotationCacheKey(method, annotationType);
-		A result = (A) findAnnotationCache.get(cacheKey);
-
-		if (result == null) {
+		return MergedAnnotationIndex.lookup(method, "findAnnotation", annotationType, () -> {
 			Method resolvedMethod = BridgeMethodResolver.findBridgedMethod(method);
-			result = findAnnotation((AnnotatedElement) resolvedMethod, annotationType);
+			A result = findAnnotation((AnnotatedElement) resolvedMethod, annotationType);
 			if (result == null) {
 				result = searchOnInterfaces(method, annotationType, method.getDeclaringClass().getInterfaces());
 			}
@@ -573,13 +563,8 @@ public abstract class AnnotationUtils {
 				}
 			}
 
-			if (result != null) {
-				result = synthesizeAnnotation(result, method);
-				findAnnotationCache.put(cacheKey, result);
-			}
-		}
-
-		return result;
+			return (result != null ? synthesizeAnnotation(result, method) : null);
+		});
 	}
 
 	@Nullable
@@ -721,7 +706,6 @@ public abstract class AnnotationUtils {
 	 * @return the first matching annotation, or {@code null} if not found
 	 * @since 4.2.1
 	 */
-	@SuppressWarnings("unchecked")
 	@Nullable
 	private static <A extends Annotation> A findAnnotation(
 			Class<?> clazz, @Nullable Class<A> annotationType, boolean synthesize) {
@@ -731,16 +715,13 @@ public abstract class AnnotationUtils {
 			return null;
 		}
 
-		AnnotationCacheKey cacheKey = new AnnotationCacheKey(clazz, annotationType);
-		A result = (A) findAnnotationCache.get(cacheKey);
-		if (result == null) {
-			result = findAnnotation(clazz, annotationType, new HashSet<>());
-			if (result != null && synthesize) {
-				result = synthesizeAnnotation(result, clazz);
-				findAnnotationCache.put(cacheKey, result);
-			}
+		if (!synthesize) {
+			return findAnnotation(clazz, annotationType, new HashSet<>());
 		}
-		return result;
+		return MergedAnnotationIndex.lookup(clazz, "findAnnotation", annotationType, () -> {
+			A result = findAnnotation(clazz, annotationType, new HashSet<>());
+			return (result != null ? synthesizeAnnotation(result, clazz) : null);
+		});
 	}
 
 	/**
@@ -927,17 +908,8 @@ public abstract class AnnotationUtils {
 			return false;
 		}
 
-		AnnotationCacheKey cacheKey = new AnnotationCacheKey(annotationType, metaAnnotationType);
-		Boolean metaPresent = metaPresentCache.get(cacheKey);
-		if (metaPresent != null) {
-			return metaPresent;
-		}
-		metaPresent = Boolean.FALSE;
-		if (findAnnotation(annotationType, metaAnnotationType, false) != null) {
-			metaPresent = Boolean.TRUE;
-		}
-		metaPresentCache.put(cacheKey, metaPresent);
-		return metaPresent;
+		return Boolean.TRUE.equals(MergedAnnotationIndex.lookup(annotationType, "isAnnotationMetaPresent",
+				metaAnnotationType, () -> findAnnotation(annotationType, metaAnnotationType, false) != null));
 	}
 
 	/**
@@ -1955,8 +1927,7 @@ public abstract class AnnotationUtils {
 	 * @since 4.3.15
 	 */
 	public static void clearCache() {
-		findAnnotationCache.clear();
-		metaPresentCache.clear();
+		MergedAnnotationIndex.clearCache();
 		annotatedBaseTypeCache.clear();
 		synthesizableCache.clear();
 		attributeAliasesCache.clear();
@@ -1965,53 +1936,6 @@ public abstract class AnnotationUtils {
 	}
 
 
-	/**
-	 * Cache key for the AnnotatedElement cache.
-	 */
-	private static final class AnnotationCacheKey implements Comparable<AnnotationCacheKey> {
-
-		private final AnnotatedElement element;
-
-		private final Class<? extends Annotation> annotationType;
-
-		public AnnotationCacheKey(AnnotatedElement element, Class<? extends Annotation> annotationType) {
-			this.element = element;
-			this.annotationType = annotationType;
-		}
-
-		@Override
-		public boolean equals(Object other) {
-			if (this == other) {
-				return true;
-			}
-			if (!(other instanceof AnnotationCacheKey)) {
-				return false;
-			}
-			AnnotationCacheKey otherKey = (AnnotationCacheKey) other;
-			return (this.element.equals(otherKey.element) && this.annotationType.equals(otherKey.annotationType));
-		}
-
-		@Override
-		public int hashCode() {
-			return (this.element.hashCode() * 29 + this.annotationType.hashCode());
-		}
-
-		@Override
-		public String toString() {
-			return "@" + this.annotationType + " on " + this.element;
-		}
-
-		@Override
-		public int compareTo(AnnotationCacheKey other) {
-			int result = this.element.toString().compareTo(other.element.toString());
-			if (result == 0) {
-				result = this.annotationType.getName().compareTo(other.annotationType.getName());
-			}
-			return result;
-		}
-	}
-
-
 	private static class AnnotationCollector<A extends Annotation> {
 
 		private final Class<A> annotationType;
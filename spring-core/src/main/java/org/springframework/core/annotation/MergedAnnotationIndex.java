@@ -0,0 +1,284 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Array;
+import java.lang.reflect.Member;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Internal index of annotation lookup results per {@link AnnotatedElement},
+ * shared by {@link AnnotationUtils} and {@link AnnotatedElementUtils}.
+ *
+ * <p>Each element gets a single index entry holding the results of all lookups
+ * performed against it so far: found annotations, merged and synthesized
+ * annotations including their attribute overrides, and presence checks, with
+ * negative results being recorded as well. Since the same elements are typically
+ * introspected by several infrastructure components (request mapping detection,
+ * transaction and cache operation parsing, event listener detection), each of
+ * them benefits from the hierarchy walks performed by the others.
+ *
+ * <p>Following {@code CachedIntrospectionResults}, lookups are kept in a strong
+ * cache which is bounded by {@link #STRONG_CACHE_LIMIT} if the declaring class of
+ * the element, the annotation type looked up and the result are all cache-safe
+ * with respect to the class loader of this class. All other lookups, including
+ * those beyond the limit, are kept in a soft cache so that they do not prevent
+ * their class loader from being garbage collected. Each element records up to
+ * {@link #ELEMENT_RESULT_LIMIT} results per cache, with further lookups being
+ * resolved on every access. Elements which cannot be traced back to a declaring
+ * class are not indexed.
+ *
+ * @since 5.1
+ * @see AnnotationUtils#clearCache()
+ */
+abstract class MergedAnnotationIndex {
+
+	/**
+	 * The maximum number of elements held in the strong cache.
+	 */
+	static final int STRONG_CACHE_LIMIT = 4096;
+
+	/**
+	 * The maximum number of results recorded per element in each cache.
+	 */
+	static final int ELEMENT_RESULT_LIMIT = 64;
+
+	private static final Object NOT_FOUND = new Object();
+
+	private static final Map<AnnotatedElement, ElementIndex> strongElementCache =
+			new ConcurrentHashMap<>(256);
+
+	private static final Map<AnnotatedElement, ElementIndex> softElementCache =
+			new ConcurrentReferenceHashMap<>(256);
+
+
+	/**
+	 * Return the result of the given kind of lookup on the given element,
+	 * resolving it through the given resolver on first access.
+	 * <p>Results are expected to be immutable or to be copied by the caller.
+	 * Exceptions thrown by the resolver are propagated without recording a result.
+	 * @param element the annotated element
+	 * @param lookup the kind of lookup, e.g. {@code "findAnnotation"}
+	 * @param target the annotation type or annotation name looked up
+	 * @param resolver the resolver for the actual result
+	 * @return the (potentially cached) result, or {@code null} if none
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	static <T> T lookup(AnnotatedElement element, String lookup, Object target, Supplier<T> resolver) {
+		Class<?> declaringClass = getDeclaringClass(element);
+		if (declaringClass == null) {
+			return resolver.get();
+		}
+		LookupKey key = new LookupKey(lookup, target);
+		Object result = getResult(strongElementCache, element, key);
+		if (result == null) {
+			result = getResult(softElementCache, element, key);
+		}
+		if (result == null) {
+			// No computeIfAbsent: resolvers may perform nested lookups on the same element
+			T resolved = resolver.get();
+			result = (resolved != null ? resolved : NOT_FOUND);
+			boolean cacheSafe = (isCacheSafe(declaringClass) && isCacheSafe(target) && isCacheSafe(result));
+			obtainElementIndex(element, cacheSafe).addResult(key, result);
+		}
+		return (result != NOT_FOUND ? (T) result : null);
+	}
+
+	/**
+	 * Clear all indexed lookup results.
+	 */
+	static void clearCache() {
+		strongElementCache.clear();
+		softElementCache.clear();
+	}
+
+	/**
+	 * Copy the given indexed attributes for handing them out to a caller,
+	 * including array values and nested attributes which could otherwise
+	 * be modified in place.
+	 * @param attributes the indexed attributes (may be {@code null})
+	 * @return the copy, or {@code null} if none
+	 */
+	@Nullable
+	static AnnotationAttributes copyAttributes(@Nullable AnnotationAttributes attributes) {
+		if (attributes == null) {
+			return null;
+		}
+		AnnotationAttributes copy = new AnnotationAttributes(attributes);
+		copy.replaceAll((attributeName, value) -> copyValue(value));
+		return copy;
+	}
+
+	private static Object copyValue(Object value) {
+		if (value instanceof AnnotationAttributes) {
+			return copyAttributes((AnnotationAttributes) value);
+		}
+		if (value instanceof AnnotationAttributes[]) {
+			AnnotationAttributes[] attributesArray = ((AnnotationAttributes[]) value).clone();
+			for (int i = 0; i < attributesArray.length; i++) {
+				attributesArray[i] = copyAttributes(attributesArray[i]);
+			}
+			return attributesArray;
+		}
+		if (value instanceof Object[]) {
+			return ((Object[]) value).clone();
+		}
+		if (value.getClass().isArray()) {
+			int length = Array.getLength(value);
+			Object array = Array.newInstance(value.getClass().getComponentType(), length);
+			System.arraycopy(value, 0, array, 0, length);
+			return array;
+		}
+		return value;
+	}
+
+	@Nullable
+	private static Object getResult(Map<AnnotatedElement, ElementIndex> cache, AnnotatedElement element,
+			LookupKey key) {
+
+		ElementIndex index = cache.get(element);
+		return (index != null ? index.results.get(key) : null);
+	}
+
+	private static ElementIndex obtainElementIndex(AnnotatedElement element, boolean cacheSafe) {
+		if (cacheSafe) {
+			ElementIndex index = strongElementCache.get(element);
+			if (index != null) {
+				return index;
+			}
+			if (strongElementCache.size() < STRONG_CACHE_LIMIT) {
+				return strongElementCache.computeIfAbsent(element, key -> new ElementIndex());
+			}
+		}
+		return softElementCache.computeIfAbsent(element, key -> new ElementIndex());
+	}
+
+	/**
+	 * Check whether the given lookup target or result, or the classes
+	 * it consists of, are cache-safe.
+	 */
+	private static boolean isCacheSafe(Object value) {
+		if (value instanceof Class) {
+			return ClassUtils.isCacheSafe((Class<?>) value, MergedAnnotationIndex.class.getClassLoader());
+		}
+		if (value instanceof Annotation) {
+			return isCacheSafe(((Annotation) value).annotationType());
+		}
+		if (value instanceof AnnotationAttributes) {
+			Class<? extends Annotation> annotationType = ((AnnotationAttributes) value).annotationType();
+			if (annotationType != null && !isCacheSafe(annotationType)) {
+				return false;
+			}
+		}
+		if (value instanceof Map) {
+			return isCacheSafe(((Map<?, ?>) value).values());
+		}
+		if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				if (element != null && !isCacheSafe(element)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if (value instanceof Object[]) {
+			return isCacheSafe(Arrays.asList((Object[]) value));
+		}
+		return isCacheSafe(value.getClass());
+	}
+
+	@Nullable
+	private static Class<?> getDeclaringClass(AnnotatedElement element) {
+		if (element instanceof Class) {
+			return (Class<?>) element;
+		}
+		if (element instanceof Member) {
+			return ((Member) element).getDeclaringClass();
+		}
+		if (element instanceof Parameter) {
+			return ((Parameter) element).getDeclaringExecutable().getDeclaringClass();
+		}
+		return null;
+	}
+
+
+	/**
+	 * Lookup results for a single element.
+	 */
+	private static class ElementIndex {
+
+		final Map<LookupKey, Object> results = new ConcurrentHashMap<>(8);
+
+		void addResult(LookupKey key, Object result) {
+			if (this.results.size() < ELEMENT_RESULT_LIMIT) {
+				this.results.putIfAbsent(key, result);
+			}
+		}
+	}
+
+
+	/**
+	 * Key for a single lookup result within an {@link ElementIndex}.
+	 */
+	private static final class LookupKey {
+
+		private final String lookup;
+
+		private final Object target;
+
+		LookupKey(String lookup, Object target) {
+			this.lookup = lookup;
+			this.target = target;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof LookupKey)) {
+				return false;
+			}
+			LookupKey otherKey = (LookupKey) other;
+			return (this.lookup.equals(otherKey.lookup) && ObjectUtils.nullSafeEquals(this.target, otherKey.target));
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.lookup.hashCode() * 29 + this.target.hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return this.lookup + ":" + this.target;
+		}
+	}
+
+}
@@ -17,8 +17,9 @@
 package org.springframework.core.codec;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.OptionalLong;
 
@@ -89,27 +90,56 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 			final String boundaryString = (String) hints.get(BOUNDARY_STRING_HINT);
 
 			byte[] startBoundary = getAsciiBytes("\r\n--" + boundaryString + "\r\n");
-			byte[] contentType =
-					(mimeType != null ? getAsciiBytes("Content-Type: " + mimeType + "\r\n") : new byte[0]);
+			byte[] contentType = getContentTypeHeader(mimeType);
 
 			Flux<DataBuffer> regions = Flux.from(inputStream).
 					concatMap(region ->
 							Flux.concat(
-									getRegionPrefix(bufferFactory, startBoundary, contentType, region),
+									Mono.just(getRegionPrefix(bufferFactory, startBoundary, contentType, region)),
 									writeResourceRegion(region, bufferFactory)
 							));
-			return Flux.concat(regions, getRegionSuffix(bufferFactory, boundaryString));
+			return Flux.concat(regions, Mono.just(getRegionSuffix(bufferFactory, boundaryString)));
 		}
 	}
 
-	private Flux<DataBuffer> getRegionPrefix(DataBufferFactory bufferFactory, byte[] startBoundary,
+	/**
+	 * Encode the multipart boundaries and part headers for the given regions,
+	 * without their content. This allows for the content of the regions to be
+	 * written separately, e.g. through zero-copy file transfers, with the
+	 * returned buffers written before each region and after the last one.
+	 * @param regions the regions to encode the boundaries for
+	 * @param bufferFactory the buffer factory to allocate buffers with
+	 * @param mimeType the mime type of the regions, if any
+	 * @param boundaryString the multipart boundary
+	 * @return a buffer to write before each region, followed by a buffer with
+	 * the closing boundary to write after the last region
+	 * @since 5.1
+	 */
+	public List<DataBuffer> encodeBoundaries(List<? extends ResourceRegion> regions,
+			DataBufferFactory bufferFactory, @Nullable MimeType mimeType, String boundaryString) {
+
+		Assert.notNull(regions, "'regions' must not be null");
+		Assert.notNull(bufferFactory, "'bufferFactory' must not be null");
+		Assert.hasLength(boundaryString, "'boundaryString' must not be empty");
+
+		byte[] startBoundary = getAsciiBytes("\r\n--" + boundaryString + "\r\n");
+		byte[] contentType = getContentTypeHeader(mimeType);
+		List<DataBuffer> result = new ArrayList<>(regions.size() + 1);
+		for (ResourceRegion region : regions) {
+			result.add(getRegionPrefix(bufferFactory, startBoundary, contentType, region));
+		}
+		result.add(getRegionSuffix(bufferFactory, boundaryString));
+		return result;
+	}
+
+	private DataBuffer getRegionPrefix(DataBufferFactory bufferFactory, byte[] startBoundary,
 			byte[] contentType, ResourceRegion region) {
 
-		return Flux.just(
-				bufferFactory.allocateBuffer(startBoundary.length).write(startBoundary),
-				bufferFactory.allocateBuffer(contentType.length).write(contentType),
-				bufferFactory.wrap(ByteBuffer.wrap(getContentRangeHeader(region)))
-		);
+		byte[] contentRange = getContentRangeHeader(region);
+		return bufferFactory.allocateBuffer(startBoundary.length + contentType.length + contentRange.length)
+				.write(startBoundary)
+				.write(contentType)
+				.write(contentRange);
 	}
 
 	private Flux<DataBuffer> writeResourceRegion(ResourceRegion region, DataBufferFactory bufferFactory) {
@@ -119,15 +149,19 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 		return DataBufferUtils.takeUntilByteCount(in, region.getCount());
 	}
 
-	private Flux<DataBuffer> getRegionSuffix(DataBufferFactory bufferFactory, String boundaryString) {
+	private DataBuffer getRegionSuffix(DataBufferFactory bufferFactory, String boundaryString) {
 		byte[] endBoundary = getAsciiBytes("\r\n--" + boundaryString + "--");
-		return Flux.just(bufferFactory.allocateBuffer(endBoundary.length).write(endBoundary));
+		return bufferFactory.allocateBuffer(endBoundary.length).write(endBoundary);
 	}
 
 	private byte[] getAsciiBytes(String in) {
 		return in.getBytes(StandardCharsets.US_ASCII);
 	}
 
+	private byte[] getContentTypeHeader(@Nullable MimeType mimeType) {
+		return (mimeType != null ? getAsciiBytes("Content-Type: " + mimeType + "\r\n") : new byte[0]);
+	}
+
 	private byte[] getContentRangeHeader(ResourceRegion region) {
 		long start = region.getPosition();
 		long end = start + region.getCount() - 1;
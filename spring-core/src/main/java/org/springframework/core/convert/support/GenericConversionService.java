@@ -78,6 +78,8 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private final Map<ConverterCacheKey, GenericConverter> converterCache = new ConcurrentReferenceHashMap<>(64);
 
+	private final Map<ConvertiblePair, ClassPairConversion> classPairCache = new ConcurrentReferenceHashMap<>(64);
+
 
 	// ConverterRegistry implementation
 
@@ -132,8 +134,10 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@Override
 	public boolean canConvert(@Nullable Class<?> sourceType, Class<?> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
-		return canConvert((sourceType != null ? TypeDescriptor.valueOf(sourceType) : null),
-				TypeDescriptor.valueOf(targetType));
+		if (sourceType == null) {
+			return true;
+		}
+		return (getClassPairConversion(sourceType, targetType).converter != null);
 	}
 
 	@Override
@@ -171,7 +175,16 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@Nullable
 	public <T> T convert(@Nullable Object source, Class<T> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
-		return (T) convert(source, TypeDescriptor.forObject(source), TypeDescriptor.valueOf(targetType));
+		if (source == null) {
+			return (T) convert(null, null, TypeDescriptor.valueOf(targetType));
+		}
+		ClassPairConversion conversion = getClassPairConversion(source.getClass(), targetType);
+		if (conversion.converter != null) {
+			Object result = ConversionUtils.invokeConverter(
+					conversion.converter, source, conversion.sourceType, conversion.targetType);
+			return (T) handleResult(conversion.sourceType, conversion.targetType, result);
+		}
+		return (T) handleConverterNotFound(source, conversion.sourceType, conversion.targetType);
 	}
 
 	@Override
@@ -243,6 +256,9 @@ public class GenericConversionService implements ConfigurableConversionService {
 	 * First queries this ConversionService's converter cache.
 	 * On a cache miss, then performs an exhaustive search for a matching converter.
 	 * If no converter matches, returns the default converter.
+	 * <p>The result for a pair of plain types (without generics and annotations)
+	 * is also cached per pair of classes, so that subsequent lookups for the same
+	 * pair of classes neither need to create nor to compare type descriptors.
 	 * @param sourceType the source type to convert from
 	 * @param targetType the target type to convert to
 	 * @return the generic converter that will perform the conversion,
@@ -251,24 +267,32 @@ public class GenericConversionService implements ConfigurableConversionService {
 	 */
 	@Nullable
 	protected GenericConverter getConverter(TypeDescriptor sourceType, TypeDescriptor targetType) {
-		ConverterCacheKey key = new ConverterCacheKey(sourceType, targetType);
-		GenericConverter converter = this.converterCache.get(key);
-		if (converter != null) {
-			return (converter != NO_MATCH ? converter : null);
+		ConvertiblePair classPair = null;
+		if (isPlainType(sourceType) && isPlainType(targetType)) {
+			classPair = new ConvertiblePair(sourceType.getType(), targetType.getType());
+			ClassPairConversion conversion = this.classPairCache.get(classPair);
+			if (conversion != null) {
+				return conversion.converter;
+			}
 		}
 
-		converter = this.converters.find(sourceType, targetType);
+		ConverterCacheKey key = new ConverterCacheKey(sourceType, targetType);
+		GenericConverter converter = this.converterCache.get(key);
 		if (converter == null) {
-			converter = getDefaultConverter(sourceType, targetType);
+			converter = this.converters.find(sourceType, targetType);
+			if (converter == null) {
+				converter = getDefaultConverter(sourceType, targetType);
+			}
+			this.converterCache.put(key, (converter != null ? converter : NO_MATCH));
 		}
+		GenericConverter result = (converter != NO_MATCH ? converter : null);
 
-		if (converter != null) {
-			this.converterCache.put(key, converter);
-			return converter;
+		if (classPair != null) {
+			this.classPairCache.put(classPair, new ClassPairConversion(
+					TypeDescriptor.valueOf(classPair.getSourceType()),
+					TypeDescriptor.valueOf(classPair.getTargetType()), result));
 		}
-
-		this.converterCache.put(key, NO_MATCH);
-		return null;
+		return result;
 	}
 
 	/**
@@ -302,8 +326,37 @@ public class GenericConversionService implements ConfigurableConversionService {
 		return generics;
 	}
 
+	/**
+	 * Return the converter and the type descriptors for the given pair of classes,
+	 * bypassing the creation of type descriptors for cached pairs.
+	 */
+	private ClassPairConversion getClassPairConversion(Class<?> sourceType, Class<?> targetType) {
+		ConvertiblePair classPair = new ConvertiblePair(sourceType, targetType);
+		ClassPairConversion conversion = this.classPairCache.get(classPair);
+		if (conversion == null) {
+			TypeDescriptor sourceDescriptor = TypeDescriptor.valueOf(sourceType);
+			TypeDescriptor targetDescriptor = TypeDescriptor.valueOf(targetType);
+			conversion = new ClassPairConversion(sourceDescriptor, targetDescriptor,
+					getConverter(sourceDescriptor, targetDescriptor));
+			this.classPairCache.put(classPair, conversion);
+		}
+		return conversion;
+	}
+
+	/**
+	 * Determine whether the given type descriptor is equivalent to the descriptor
+	 * for its plain class, i.e. whether it refers to a non-generic class and does
+	 * not carry any annotations.
+	 */
+	private static boolean isPlainType(TypeDescriptor typeDescriptor) {
+		ResolvableType resolvableType = typeDescriptor.getResolvableType();
+		return (resolvableType.getType() instanceof Class && !resolvableType.hasGenerics() &&
+				typeDescriptor.getAnnotations().length == 0);
+	}
+
 	private void invalidateCache() {
 		this.converterCache.clear();
+		this.classPairCache.clear();
 	}
 
 	@Nullable
@@ -494,6 +547,29 @@ public class GenericConversionService implements ConfigurableConversionService {
 	}
 
 
+	/**
+	 * Cached converter lookup result for a pair of classes, along with
+	 * the type descriptors to pass to the converter.
+	 */
+	private static final class ClassPairConversion {
+
+		private final TypeDescriptor sourceType;
+
+		private final TypeDescriptor targetType;
+
+		@Nullable
+		private final GenericConverter converter;
+
+		public ClassPairConversion(TypeDescriptor sourceType, TypeDescriptor targetType,
+				@Nullable GenericConverter converter) {
+
+			this.sourceType = sourceType;
+			this.targetType = targetType;
+			this.converter = converter;
+		}
+	}
+
+
 	/**
 	 * Manages all converters registered with the service.
 	 */
@@ -16,8 +16,11 @@
 
 package org.springframework.core.convert.support;
 
+import java.util.Map;
+
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.core.convert.converter.ConverterFactory;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.NumberUtils;
 
 /**
@@ -40,17 +43,22 @@ import org.springframework.util.NumberUtils;
  */
 final class StringToNumberConverterFactory implements ConverterFactory<String, Number> {
 
+	private final Map<Class<?>, Converter<String, ?>> converterCache = new ConcurrentReferenceHashMap<>(16);
+
+
 	@Override
+	@SuppressWarnings("unchecked")
 	public <T extends Number> Converter<String, T> getConverter(Class<T> targetType) {
-		return new StringToNumber<>(targetType);
+		return (Converter<String, T>) this.converterCache.computeIfAbsent(targetType, StringToNumber::new);
 	}
 
 
+	@SuppressWarnings({"unchecked", "rawtypes"})
 	private static final class StringToNumber<T extends Number> implements Converter<String, T> {
 
 		private final Class<T> targetType;
 
-		public StringToNumber(Class<T> targetType) {
+		public StringToNumber(Class targetType) {
 			this.targetType = targetType;
 		}
 
@@ -0,0 +1,543 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Extension of {@link DefaultDataBufferFactory} that recycles the memory of
+ * released buffers, for use on runtimes without Netty (i.e. Servlet).
+ *
+ * <p>Buffers allocated by this factory implement {@link PooledDataBuffer}: they
+ * start with a reference count of 1 and return their memory to the pool once
+ * the count drops to 0, so they <strong>must</strong> be released, e.g. through
+ * {@link DataBufferUtils#release(DataBuffer)}. Slices share the reference count
+ * of the buffer they were created from. A buffer must not be used after it has
+ * been released.
+ *
+ * <p>Memory is pooled in power-of-two size classes, from 256 bytes up to a
+ * configurable maximum; larger buffers are allocated and discarded as usual.
+ * Each thread keeps a small cache of recently released buffers, bounded to
+ * 256K per thread, backed by a bounded pool that is shared between threads.
+ * Buffers cached by threads that have become idle can be moved back to the
+ * shared pool through {@link #trim()}, e.g. from a periodic task.
+ *
+ * <p>A factory that is no longer in use should be {@linkplain #destroy() destroyed},
+ * dropping all pooled memory, including the buffers cached by other threads.
+ *
+ * <p>{@linkplain #setLeakDetection Leak detection} can be enabled to log buffers
+ * that are garbage collected without having been released, along with the stack
+ * trace of their allocation.
+ *
+ * @since 5.1
+ * @see PooledDataBuffer
+ */
+public class PooledDataBufferFactory extends DefaultDataBufferFactory {
+
+	/**
+	 * The default capacity of the largest pooled size class.
+	 */
+	public static final int DEFAULT_MAX_POOLED_CAPACITY = 64 * 1024;
+
+	/**
+	 * The default number of buffers to keep in the shared pool per size class.
+	 */
+	public static final int DEFAULT_MAX_POOLED_BUFFERS = 256;
+
+	private static final int MIN_POOLED_CAPACITY = 256;
+
+	private static final int MIN_SIZE_CLASS_SHIFT = Integer.numberOfTrailingZeros(MIN_POOLED_CAPACITY);
+
+	private static final int THREAD_LOCAL_CACHE_SIZE = 16;
+
+	private static final int THREAD_LOCAL_CACHE_BYTES = 256 * 1024;
+
+	private static final Log logger = LogFactory.getLog(PooledDataBufferFactory.class);
+
+
+	private final boolean preferDirect;
+
+	private final int maxPooledCapacity;
+
+	private final Queue<ByteBuffer>[] sharedPool;
+
+	private final ThreadLocal<LocalCache> localCache = new NamedThreadLocal<>("DataBuffer pool cache");
+
+	private final Set<LocalCache> localCaches = ConcurrentHashMap.newKeySet();
+
+	private volatile boolean destroyed;
+
+	private volatile boolean leakDetection;
+
+	private final Set<LeakTracker> leakTrackers = ConcurrentHashMap.newKeySet();
+
+	private final ReferenceQueue<DataBuffer> leakQueue = new ReferenceQueue<>();
+
+
+	/**
+	 * Creates a new {@code PooledDataBufferFactory} with default settings.
+	 */
+	public PooledDataBufferFactory() {
+		this(false);
+	}
+
+	/**
+	 * Creates a new {@code PooledDataBufferFactory}, indicating whether direct
+	 * buffers should be pooled.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 */
+	public PooledDataBufferFactory(boolean preferDirect) {
+		this(preferDirect, DEFAULT_INITIAL_CAPACITY, DEFAULT_MAX_POOLED_CAPACITY, DEFAULT_MAX_POOLED_BUFFERS);
+	}
+
+	/**
+	 * Creates a new {@code PooledDataBufferFactory}.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 * @param defaultInitialCapacity the capacity to be used for {@link #allocateBuffer()}
+	 * @param maxPooledCapacity the capacity of the largest size class, rounded up to
+	 * a power of two; larger buffers are not pooled
+	 * @param maxPooledBuffers the maximum number of buffers to keep in the shared
+	 * pool for each size class
+	 */
+	@SuppressWarnings("unchecked")
+	public PooledDataBufferFactory(boolean preferDirect, int defaultInitialCapacity,
+			int maxPooledCapacity, int maxPooledBuffers) {
+
+		super(preferDirect, defaultInitialCapacity);
+		Assert.isTrue(maxPooledCapacity > 0, "'maxPooledCapacity' should be larger than 0");
+		Assert.isTrue(maxPooledBuffers > 0, "'maxPooledBuffers' should be larger than 0");
+		this.preferDirect = preferDirect;
+		this.maxPooledCapacity = sizeClassCapacity(sizeClassIndex(maxPooledCapacity));
+		this.sharedPool = new Queue[sizeClassIndex(this.maxPooledCapacity) + 1];
+		for (int i = 0; i < this.sharedPool.length; i++) {
+			this.sharedPool[i] = new ArrayBlockingQueue<>(maxPooledBuffers);
+		}
+	}
+
+
+	/**
+	 * Specify whether buffers that are garbage collected without having been
+	 * released should be logged, along with the place where they were allocated.
+	 * <p>Default is "false". Note that leak detection captures a stack trace
+	 * for every allocation and is therefore not meant for production use.
+	 */
+	public void setLeakDetection(boolean leakDetection) {
+		this.leakDetection = leakDetection;
+	}
+
+	/**
+	 * Return whether leak detection is enabled.
+	 */
+	public boolean isLeakDetection() {
+		return this.leakDetection;
+	}
+
+
+	/**
+	 * Move the buffers cached by individual threads to the shared pool,
+	 * dropping them if the shared pool is full, and discard the caches of
+	 * threads that have terminated.
+	 * <p>Threads keep their cache until they allocate or release buffers
+	 * again, so this method can be called periodically for memory held by
+	 * idle threads to be reclaimed.
+	 */
+	public void trim() {
+		for (Iterator<LocalCache> it = this.localCaches.iterator(); it.hasNext();) {
+			LocalCache cache = it.next();
+			if (!cache.isOwnerAlive()) {
+				it.remove();
+			}
+			cache.drainTo(this.sharedPool);
+		}
+	}
+
+	/**
+	 * Drop all pooled memory, including the buffers cached by other threads.
+	 * <p>Buffers released after this call are left to the garbage collector,
+	 * and new buffers are allocated without pooling.
+	 */
+	public void destroy() {
+		this.destroyed = true;
+		this.localCache.remove();
+		for (LocalCache cache : this.localCaches) {
+			cache.drainTo(null);
+		}
+		this.localCaches.clear();
+		for (Queue<ByteBuffer> queue : this.sharedPool) {
+			queue.clear();
+		}
+	}
+
+
+	@Override
+	public DefaultDataBuffer allocateBuffer(int initialCapacity) {
+		Assert.isTrue(initialCapacity >= 0, "'initialCapacity' must be >= 0");
+		PooledByteBufferDataBuffer dataBuffer =
+				new PooledByteBufferDataBuffer(this, acquire(initialCapacity), initialCapacity);
+		if (this.leakDetection) {
+			reportLeaks();
+			dataBuffer.leakTracker = new LeakTracker(dataBuffer, this.leakQueue);
+			this.leakTrackers.add(dataBuffer.leakTracker);
+		}
+		return dataBuffer;
+	}
+
+	/**
+	 * Log all buffers that have been garbage collected without having been released.
+	 * @return the number of buffers reported
+	 */
+	int reportLeaks() {
+		int count = 0;
+		LeakTracker leakTracker;
+		while ((leakTracker = (LeakTracker) this.leakQueue.poll()) != null) {
+			if (this.leakTrackers.remove(leakTracker)) {
+				count++;
+				logger.error("DataBuffer was garbage collected without having been released; " +
+						"see the stack trace for where it was allocated", leakTracker.allocationSite);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Acquire a byte buffer with at least the given capacity, preferably from the pool.
+	 */
+	private ByteBuffer acquire(int capacity) {
+		if (capacity > this.maxPooledCapacity || this.destroyed) {
+			return allocateUnpooled(capacity);
+		}
+		int index = sizeClassIndex(capacity);
+		LocalCache cache = this.localCache.get();
+		ByteBuffer byteBuffer = (cache != null ? cache.poll(index) : null);
+		if (byteBuffer == null) {
+			byteBuffer = this.sharedPool[index].poll();
+		}
+		return (byteBuffer != null ? byteBuffer : allocateUnpooled(sizeClassCapacity(index)));
+	}
+
+	/**
+	 * Return the given byte buffer to the pool, if it matches one of the size classes.
+	 */
+	private void release(ByteBuffer byteBuffer) {
+		int capacity = byteBuffer.capacity();
+		if (capacity > this.maxPooledCapacity || capacity != sizeClassCapacity(sizeClassIndex(capacity)) ||
+				this.destroyed) {
+			return;
+		}
+		int index = sizeClassIndex(capacity);
+		LocalCache cache = this.localCache.get();
+		if (cache == null) {
+			cache = new LocalCache(this.sharedPool.length);
+			this.localCache.set(cache);
+			this.localCaches.add(cache);
+		}
+		if (!cache.offer(index, byteBuffer)) {
+			this.sharedPool[index].offer(byteBuffer);
+		}
+	}
+
+	private ByteBuffer allocateUnpooled(int capacity) {
+		return (this.preferDirect ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity));
+	}
+
+	private static int sizeClassIndex(int capacity) {
+		if (capacity <= MIN_POOLED_CAPACITY) {
+			return 0;
+		}
+		return (Integer.SIZE - Integer.numberOfLeadingZeros(capacity - 1)) - MIN_SIZE_CLASS_SHIFT;
+	}
+
+	private static int sizeClassCapacity(int index) {
+		return MIN_POOLED_CAPACITY << index;
+	}
+
+
+	@Override
+	public String toString() {
+		return "PooledDataBufferFactory (preferDirect=" + this.preferDirect +
+				", maxPooledCapacity=" + this.maxPooledCapacity + ")";
+	}
+
+
+	/**
+	 * Per-thread cache of released byte buffers, one bounded stack per size class,
+	 * with a limit on the total number of bytes cached.
+	 * <p>Only accessed by its owner thread, except for {@link #drainTo}: the
+	 * (uncontended) synchronization is there for the latter.
+	 */
+	private static class LocalCache {
+
+		private final WeakReference<Thread> owner = new WeakReference<>(Thread.currentThread());
+
+		private final ByteBuffer[][] byteBuffers;
+
+		private final int[] sizes;
+
+		private int cachedBytes;
+
+		public LocalCache(int sizeClasses) {
+			this.byteBuffers = new ByteBuffer[sizeClasses][THREAD_LOCAL_CACHE_SIZE];
+			this.sizes = new int[sizeClasses];
+		}
+
+		@Nullable
+		public synchronized ByteBuffer poll(int index) {
+			int size = this.sizes[index];
+			if (size == 0) {
+				return null;
+			}
+			this.sizes[index] = --size;
+			ByteBuffer byteBuffer = this.byteBuffers[index][size];
+			this.byteBuffers[index][size] = null;
+			this.cachedBytes -= byteBuffer.capacity();
+			return byteBuffer;
+		}
+
+		public synchronized boolean offer(int index, ByteBuffer byteBuffer) {
+			int size = this.sizes[index];
+			int capacity = byteBuffer.capacity();
+			if (size == THREAD_LOCAL_CACHE_SIZE || this.cachedBytes + capacity > THREAD_LOCAL_CACHE_BYTES) {
+				return false;
+			}
+			this.byteBuffers[index][size] = byteBuffer;
+			this.sizes[index] = size + 1;
+			this.cachedBytes += capacity;
+			return true;
+		}
+
+		/**
+		 * Remove all cached buffers, offering them to the given shared pool (if any).
+		 */
+		public synchronized void drainTo(@Nullable Queue<ByteBuffer>[] sharedPool) {
+			for (int index = 0; index < this.sizes.length; index++) {
+				for (int i = 0; i < this.sizes[index]; i++) {
+					if (sharedPool != null) {
+						sharedPool[index].offer(this.byteBuffers[index][i]);
+					}
+					this.byteBuffers[index][i] = null;
+				}
+				this.sizes[index] = 0;
+			}
+			this.cachedBytes = 0;
+		}
+
+		public boolean isOwnerAlive() {
+			Thread thread = this.owner.get();
+			return (thread != null && thread.isAlive());
+		}
+	}
+
+
+	/**
+	 * Records where a buffer was allocated, enqueued once the buffer has been
+	 * garbage collected without having been released.
+	 */
+	private static class LeakTracker extends WeakReference<DataBuffer> {
+
+		private final Throwable allocationSite = new Throwable("DataBuffer allocation");
+
+		public LeakTracker(DataBuffer dataBuffer, ReferenceQueue<DataBuffer> queue) {
+			super(dataBuffer, queue);
+		}
+	}
+
+
+	/**
+	 * {@link DefaultDataBuffer} backed by a pooled byte buffer.
+	 */
+	private static class PooledByteBufferDataBuffer extends DefaultDataBuffer implements PooledDataBuffer {
+
+		private static final AtomicIntegerFieldUpdater<PooledByteBufferDataBuffer> REF_COUNT_UPDATER =
+				AtomicIntegerFieldUpdater.newUpdater(PooledByteBufferDataBuffer.class, "refCount");
+
+		private final PooledDataBufferFactory dataBufferFactory;
+
+		private ByteBuffer pooledBuffer;
+
+		private volatile int refCount = 1;
+
+		@Nullable
+		private LeakTracker leakTracker;
+
+		public PooledByteBufferDataBuffer(PooledDataBufferFactory dataBufferFactory,
+				ByteBuffer pooledBuffer, int capacity) {
+
+			super(dataBufferFactory, limit(pooledBuffer, capacity));
+			this.dataBufferFactory = dataBufferFactory;
+			this.pooledBuffer = pooledBuffer;
+		}
+
+		private static ByteBuffer limit(ByteBuffer byteBuffer, int capacity) {
+			// Explicit cast for compatibility with covariant return type on JDK 9's ByteBuffer
+			((Buffer) byteBuffer).clear().limit(capacity);
+			return byteBuffer;
+		}
+
+		@Override
+		public DefaultDataBuffer capacity(int newCapacity) {
+			ByteBuffer oldBuffer = this.pooledBuffer;
+			super.capacity(newCapacity);
+			if (this.pooledBuffer != oldBuffer) {
+				// Contents have been copied to the buffer obtained via allocate
+				this.dataBufferFactory.release(oldBuffer);
+			}
+			return this;
+		}
+
+		@Override
+		ByteBuffer allocate(int capacity, boolean direct) {
+			this.pooledBuffer = this.dataBufferFactory.acquire(capacity);
+			return limit(this.pooledBuffer, capacity).slice();
+		}
+
+		@Override
+		public DefaultDataBuffer slice(int index, int length) {
+			ByteBuffer slice = super.slice(index, length).getNativeBuffer();
+			return new SlicedPooledDataBuffer(this, slice, length);
+		}
+
+		@Override
+		public InputStream asInputStream(boolean releaseOnClose) {
+			InputStream inputStream = asInputStream();
+			return (releaseOnClose ? new ReleasingInputStream(inputStream, this) : inputStream);
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			int refCount;
+			do {
+				refCount = this.refCount;
+				if (refCount <= 0) {
+					throw new IllegalStateException("DataBuffer has already been released");
+				}
+			}
+			while (!REF_COUNT_UPDATER.compareAndSet(this, refCount, refCount + 1));
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			int refCount;
+			do {
+				refCount = this.refCount;
+				if (refCount <= 0) {
+					throw new IllegalStateException("DataBuffer has already been released");
+				}
+			}
+			while (!REF_COUNT_UPDATER.compareAndSet(this, refCount, refCount - 1));
+			if (refCount > 1) {
+				return false;
+			}
+			LeakTracker leakTracker = this.leakTracker;
+			if (leakTracker != null) {
+				this.dataBufferFactory.leakTrackers.remove(leakTracker);
+				leakTracker.clear();
+			}
+			this.dataBufferFactory.release(this.pooledBuffer);
+			return true;
+		}
+	}
+
+
+	/**
+	 * Slice of a {@link PooledByteBufferDataBuffer}, sharing its reference count.
+	 */
+	private static class SlicedPooledDataBuffer extends DefaultDataBuffer implements PooledDataBuffer {
+
+		private final PooledByteBufferDataBuffer parent;
+
+		public SlicedPooledDataBuffer(PooledByteBufferDataBuffer parent, ByteBuffer byteBuffer, int length) {
+			super(parent.dataBufferFactory, byteBuffer);
+			this.parent = parent;
+			writePosition(length);
+		}
+
+		@Override
+		public DefaultDataBuffer capacity(int newCapacity) {
+			throw new UnsupportedOperationException("Changing the capacity of a sliced buffer is not supported");
+		}
+
+		@Override
+		public DefaultDataBuffer slice(int index, int length) {
+			ByteBuffer slice = super.slice(index, length).getNativeBuffer();
+			return new SlicedPooledDataBuffer(this.parent, slice, length);
+		}
+
+		@Override
+		public InputStream asInputStream(boolean releaseOnClose) {
+			InputStream inputStream = asInputStream();
+			return (releaseOnClose ? new ReleasingInputStream(inputStream, this) : inputStream);
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			this.parent.retain();
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			return this.parent.release();
+		}
+	}
+
+
+	/**
+	 * {@code InputStream} that releases its buffer when closed.
+	 */
+	private static class ReleasingInputStream extends FilterInputStream {
+
+		private final PooledDataBuffer dataBuffer;
+
+		private boolean closed;
+
+		public ReleasingInputStream(InputStream inputStream, PooledDataBuffer dataBuffer) {
+			super(inputStream);
+			this.dataBuffer = dataBuffer;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!this.closed) {
+				this.closed = true;
+				this.dataBuffer.release();
+			}
+		}
+	}
+
+}
@@ -27,11 +27,22 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLConnection;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Enumeration;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.zip.ZipException;
@@ -183,6 +194,8 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 
 	private static final Log logger = LogFactory.getLog(PathMatchingResourcePatternResolver.class);
 
+	private static final Map<String, JarEntryIndex> jarEntryIndexCache = new ConcurrentHashMap<>(64);
+
 	@Nullable
 	private static Method equinoxResolveMethod;
 
@@ -267,6 +280,17 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Clear the shared index of jar file entries, enforcing the entries of
+	 * each jar file to be read again on the next pattern lookup.
+	 * <p>Jar files in the file system are re-read automatically once their
+	 * last-modified timestamp changes.
+	 * @since 5.1
+	 */
+	public static void clearCache() {
+		jarEntryIndexCache.clear();
+	}
+
 
 	@Override
 	public Resource getResource(String location) {
@@ -574,6 +598,9 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 	/**
 	 * Find all resources in jar files that match the given location pattern
 	 * via the Ant-style PathMatcher.
+	 * <p>The entry names of each jar file are read once and kept in a shared
+	 * index, so that subsequent lookups in the same jar file do not need to
+	 * iterate over all of its entries again.
 	 * @param rootDirResource the root directory as Resource
 	 * @param rootDirURL the pre-resolved root directory URL
 	 * @param subPattern the sub pattern to match (below the root directory)
@@ -582,84 +609,117 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 	 * @since 4.3
 	 * @see java.net.JarURLConnection
 	 * @see org.springframework.util.PathMatcher
+	 * @see #clearCache()
 	 */
 	protected Set<Resource> doFindPathMatchingJarResources(Resource rootDirResource, URL rootDirURL, String subPattern)
 			throws IOException {
 
 		URLConnection con = rootDirURL.openConnection();
-		JarFile jarFile;
+		JarURLConnection jarCon = null;
+		String urlFile = null;
 		String jarFileUrl;
 		String rootEntryPath;
-		boolean closeJarFile;
 
 		if (con instanceof JarURLConnection) {
 			// Should usually be the case for traditional JAR files.
-			JarURLConnection jarCon = (JarURLConnection) con;
+			jarCon = (JarURLConnection) con;
 			ResourceUtils.useCachesIfNecessary(jarCon);
-			jarFile = jarCon.getJarFile();
 			jarFileUrl = jarCon.getJarFileURL().toExternalForm();
-			JarEntry jarEntry = jarCon.getJarEntry();
-			rootEntryPath = (jarEntry != null ? jarEntry.getName() : "");
-			closeJarFile = !jarCon.getUseCaches();
+			String entryName = jarCon.getEntryName();
+			rootEntryPath = (entryName != null ? entryName : "");
 		}
 		else {
 			// No JarURLConnection -> need to resort to URL file parsing.
 			// We'll assume URLs of the format "jar:path!/entry", with the protocol
 			// being arbitrary as long as following the entry format.
 			// We'll also handle paths with and without leading "file:" prefix.
-			String urlFile = rootDirURL.getFile();
-			try {
-				int separatorIndex = urlFile.indexOf(ResourceUtils.WAR_URL_SEPARATOR);
-				if (separatorIndex == -1) {
-					separatorIndex = urlFile.indexOf(ResourceUtils.JAR_URL_SEPARATOR);
-				}
-				if (separatorIndex != -1) {
-					jarFileUrl = urlFile.substring(0, separatorIndex);
-					rootEntryPath = urlFile.substring(separatorIndex + 2);  // both separators are 2 chars
-					jarFile = getJarFile(jarFileUrl);
-				}
-				else {
-					jarFile = new JarFile(urlFile);
-					jarFileUrl = urlFile;
-					rootEntryPath = "";
-				}
-				closeJarFile = true;
+			urlFile = rootDirURL.getFile();
+			int separatorIndex = urlFile.indexOf(ResourceUtils.WAR_URL_SEPARATOR);
+			if (separatorIndex == -1) {
+				separatorIndex = urlFile.indexOf(ResourceUtils.JAR_URL_SEPARATOR);
 			}
-			catch (ZipException ex) {
-				if (logger.isDebugEnabled()) {
-					logger.debug("Skipping invalid jar classpath entry [" + urlFile + "]");
-				}
-				return Collections.emptySet();
+			if (separatorIndex != -1) {
+				jarFileUrl = urlFile.substring(0, separatorIndex);
+				rootEntryPath = urlFile.substring(separatorIndex + 2);  // both separators are 2 chars
+			}
+			else {
+				jarFileUrl = urlFile;
+				rootEntryPath = "";
 			}
 		}
 
-		try {
+		long lastModified = getJarFileLastModified(jarFileUrl);
+		JarEntryIndex index = (lastModified > 0 ? jarEntryIndexCache.get(jarFileUrl) : null);
+		if (index == null || index.lastModified != lastModified) {
 			if (logger.isDebugEnabled()) {
-				logger.debug("Looking for matching resources in jar file [" + jarFileUrl + "]");
+				logger.debug("Indexing entries of jar file [" + jarFileUrl + "]");
 			}
-			if (!"".equals(rootEntryPath) && !rootEntryPath.endsWith("/")) {
-				// Root entry path must end with slash to allow for proper matching.
-				// The Sun JRE does not return a slash here, but BEA JRockit does.
-				rootEntryPath = rootEntryPath + "/";
+			JarFile jarFile;
+			boolean closeJarFile;
+			if (jarCon != null) {
+				jarFile = jarCon.getJarFile();
+				closeJarFile = !jarCon.getUseCaches();
 			}
-			Set<Resource> result = new LinkedHashSet<>(8);
-			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
-				JarEntry entry = entries.nextElement();
-				String entryPath = entry.getName();
-				if (entryPath.startsWith(rootEntryPath)) {
-					String relativePath = entryPath.substring(rootEntryPath.length());
-					if (getPathMatcher().match(subPattern, relativePath)) {
-						result.add(rootDirResource.createRelative(relativePath));
+			else {
+				try {
+					jarFile = (jarFileUrl.equals(urlFile) ? new JarFile(urlFile) : getJarFile(jarFileUrl));
+					closeJarFile = true;
+				}
+				catch (ZipException ex) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Skipping invalid jar classpath entry [" + urlFile + "]");
 					}
+					return Collections.emptySet();
 				}
 			}
-			return result;
+			try {
+				index = new JarEntryIndex(jarFile, lastModified);
+				if (lastModified > 0) {
+					// Only cache if stale entries can be detected later on
+					jarEntryIndexCache.put(jarFileUrl, index);
+				}
+			}
+			finally {
+				if (closeJarFile) {
+					jarFile.close();
+				}
+			}
+		}
+
+		if (logger.isDebugEnabled()) {
+			logger.debug("Looking for matching resources in jar file [" + jarFileUrl + "]");
+		}
+		if (!"".equals(rootEntryPath) && !rootEntryPath.endsWith("/")) {
+			// Root entry path must end with slash to allow for proper matching.
+			// The Sun JRE does not return a slash here, but BEA JRockit does.
+			rootEntryPath = rootEntryPath + "/";
 		}
-		finally {
-			if (closeJarFile) {
-				jarFile.close();
+		Set<Resource> result = new LinkedHashSet<>(8);
+		for (String entryPath : index.getEntriesStartingWith(rootEntryPath)) {
+			String relativePath = entryPath.substring(rootEntryPath.length());
+			if (getPathMatcher().match(subPattern, relativePath)) {
+				result.add(rootDirResource.createRelative(relativePath));
 			}
 		}
+		return result;
+	}
+
+	/**
+	 * Determine the last-modified timestamp of the given jar file URL,
+	 * used for detecting stale entries in the jar entry index.
+	 * @return the timestamp, or -1 if the jar file is not in the file system
+	 * (0 if it cannot be determined), in which case the index is not cached
+	 */
+	private static long getJarFileLastModified(String jarFileUrl) {
+		if (!jarFileUrl.startsWith(ResourceUtils.FILE_URL_PREFIX)) {
+			return -1;
+		}
+		try {
+			return new File(ResourceUtils.toURI(jarFileUrl).getSchemeSpecificPart()).lastModified();
+		}
+		catch (URISyntaxException ex) {
+			return new File(jarFileUrl.substring(ResourceUtils.FILE_URL_PREFIX.length())).lastModified();
+		}
 	}
 
 	/**
@@ -779,6 +839,9 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 	/**
 	 * Recursively retrieve files that match the given pattern,
 	 * adding them to the given result list.
+	 * <p>The directory tree is traversed via {@link Files#walkFileTree}, skipping
+	 * subdirectories that cannot contain matches. Matching files are added in
+	 * depth-first order, sorted by name within each directory.
 	 * @param fullPattern the pattern to match against,
 	 * with prepended root directory path
 	 * @param dir the current directory
@@ -790,30 +853,141 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 			logger.debug("Searching directory [" + dir.getAbsolutePath() +
 					"] for files matching pattern [" + fullPattern + "]");
 		}
-		File[] dirContents = dir.listFiles();
-		if (dirContents == null) {
-			if (logger.isWarnEnabled()) {
-				logger.warn("Could not retrieve contents of directory [" + dir.getAbsolutePath() + "]");
+		Path rootPath = dir.getAbsoluteFile().toPath();
+		List<Path> matchingPaths = new ArrayList<>();
+		Files.walkFileTree(rootPath, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+				new SimpleFileVisitor<Path>() {
+					@Override
+					public FileVisitResult preVisitDirectory(Path path, BasicFileAttributes attrs) {
+						if (path.equals(rootPath)) {
+							return FileVisitResult.CONTINUE;
+						}
+						String currPath = toPatternPath(path);
+						if (getPathMatcher().matchStart(fullPattern, currPath + "/")) {
+							if (Files.isReadable(path)) {
+								return FileVisitResult.CONTINUE;
+							}
+							if (logger.isDebugEnabled()) {
+								logger.debug("Skipping subdirectory [" + path +
+										"] because the application is not allowed to read the directory");
+							}
+						}
+						addIfMatching(path);
+						return FileVisitResult.SKIP_SUBTREE;
+					}
+					@Override
+					public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) {
+						addIfMatching(path);
+						return FileVisitResult.CONTINUE;
+					}
+					@Override
+					public FileVisitResult visitFileFailed(Path path, IOException ex) {
+						if (logger.isWarnEnabled()) {
+							logger.warn("Could not retrieve contents of [" + path + "]: " + ex);
+						}
+						addIfMatching(path);
+						return FileVisitResult.CONTINUE;
+					}
+					@Override
+					public FileVisitResult postVisitDirectory(Path path, @Nullable IOException ex) {
+						if (ex != null && logger.isWarnEnabled()) {
+							logger.warn("Could not retrieve contents of directory [" + path + "]: " + ex);
+						}
+						if (!path.equals(rootPath)) {
+							addIfMatching(path);
+						}
+						return FileVisitResult.CONTINUE;
+					}
+					private void addIfMatching(Path path) {
+						if (getPathMatcher().match(fullPattern, toPatternPath(path))) {
+							matchingPaths.add(path);
+						}
+					}
+				});
+		matchingPaths.sort(PathMatchingResourcePatternResolver::compareDepthFirst);
+		for (Path path : matchingPaths) {
+			result.add(path.toFile());
+		}
+	}
+
+	private static String toPatternPath(Path path) {
+		return StringUtils.replace(path.toString(), File.separator, "/");
+	}
+
+	/**
+	 * Compare the given paths name by name, ordering the contents of
+	 * a directory before the directory itself.
+	 */
+	private static int compareDepthFirst(Path path1, Path path2) {
+		int count = Math.min(path1.getNameCount(), path2.getNameCount());
+		for (int i = 0; i < count; i++) {
+			int result = path1.getName(i).compareTo(path2.getName(i));
+			if (result != 0) {
+				return result;
 			}
-			return;
 		}
-		Arrays.sort(dirContents);
-		for (File content : dirContents) {
-			String currPath = StringUtils.replace(content.getAbsolutePath(), File.separator, "/");
-			if (content.isDirectory() && getPathMatcher().matchStart(fullPattern, currPath + "/")) {
-				if (!content.canRead()) {
-					if (logger.isDebugEnabled()) {
-						logger.debug("Skipping subdirectory [" + dir.getAbsolutePath() +
-								"] because the application is not allowed to read the directory");
-					}
+		return path2.getNameCount() - path1.getNameCount();
+	}
+
+
+	/**
+	 * Entry names of a jar file, sorted for the entries below a given root
+	 * entry path to be found without a full iteration, while still returning
+	 * them in the original order of the jar file.
+	 */
+	private static class JarEntryIndex {
+
+		private final String[] entryNames;
+
+		private final int[] sortedPositions;
+
+		private final long lastModified;
+
+		public JarEntryIndex(JarFile jarFile, long lastModified) {
+			List<String> entryNames = new ArrayList<>(jarFile.size());
+			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
+				entryNames.add(entries.nextElement().getName());
+			}
+			this.entryNames = StringUtils.toStringArray(entryNames);
+			Integer[] positions = new Integer[this.entryNames.length];
+			for (int i = 0; i < positions.length; i++) {
+				positions[i] = i;
+			}
+			Arrays.sort(positions, (pos1, pos2) -> this.entryNames[pos1].compareTo(this.entryNames[pos2]));
+			this.sortedPositions = new int[positions.length];
+			for (int i = 0; i < positions.length; i++) {
+				this.sortedPositions[i] = positions[i];
+			}
+			this.lastModified = lastModified;
+		}
+
+		/**
+		 * Return all entry names starting with the given prefix,
+		 * in the order of the jar file.
+		 */
+		public List<String> getEntriesStartingWith(String prefix) {
+			int low = 0;
+			int high = this.sortedPositions.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (this.entryNames[this.sortedPositions[mid]].compareTo(prefix) < 0) {
+					low = mid + 1;
 				}
 				else {
-					doRetrieveMatchingFiles(fullPattern, content, result);
+					high = mid;
 				}
 			}
-			if (getPathMatcher().match(fullPattern, currPath)) {
-				result.add(content);
+			int end = low;
+			while (end < this.sortedPositions.length && this.entryNames[this.sortedPositions[end]].startsWith(prefix)) {
+				end++;
 			}
+			int[] hits = Arrays.copyOfRange(this.sortedPositions, low, end);
+			Arrays.sort(hits);
+			List<String> result = new ArrayList<>(hits.length);
+			for (int hit : hits) {
+				result.add(this.entryNames[hit]);
+			}
+			return result;
 		}
 	}
 
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ApplicationStartup} implementation that buffers {@link StartupStep steps}
+ * and records their timestamps as well as their processing time.
+ *
+ * <p>Once recording has been started, steps are buffered up until the configured
+ * {@link #BufferingApplicationStartup(int) capacity}; after that, new steps are
+ * not recorded anymore. Steps are nested per thread: a step started while another
+ * step is in progress on the same thread is recorded as its child.
+ *
+ * <p>The {@link #getBufferedTimeline() buffered timeline} can be written to a
+ * file via {@link StartupTimeline#writeTo(java.io.File)}, in a line-based format
+ * including ids, threads and timings, or via
+ * {@link StartupTimeline#writeStructureTo(java.io.Writer)} without them, for
+ * comparing the startup sequence between builds.
+ *
+ * @since 5.1
+ * @see StartupTimeline
+ */
+public class BufferingApplicationStartup implements ApplicationStartup {
+
+	private final int capacity;
+
+	private final AtomicLong idSeq = new AtomicLong();
+
+	private final ThreadLocal<BufferedStartupStep> currentStep =
+			new NamedThreadLocal<>("Current startup step");
+
+	private final List<StartupTimeline.TimelineEvent> events = new ArrayList<>();
+
+	private volatile Predicate<StartupStep> filter = step -> true;
+
+	private volatile long startNanos = System.nanoTime();
+
+	private volatile long startTime = System.currentTimeMillis();
+
+
+	/**
+	 * Create a new buffered {@link ApplicationStartup} with a limited capacity
+	 * and start the recording of steps.
+	 * @param capacity the maximum number of steps to be buffered
+	 */
+	public BufferingApplicationStartup(int capacity) {
+		Assert.isTrue(capacity > 0, "Capacity must be greater than 0");
+		this.capacity = capacity;
+	}
+
+
+	/**
+	 * Add a predicate filter to the list of existing ones.
+	 * <p>A {@link StartupStep step} that doesn't match all filters will not be recorded,
+	 * although it still counts as the parent of steps started within it.
+	 * @param filter the predicate filter to add
+	 */
+	public void addFilter(Predicate<StartupStep> filter) {
+		Assert.notNull(filter, "Filter must not be null");
+		this.filter = this.filter.and(filter);
+	}
+
+	/**
+	 * Start the recording of steps and mark the beginning of the
+	 * {@link StartupTimeline}, discarding any previously buffered steps.
+	 */
+	public void startRecording() {
+		synchronized (this.events) {
+			this.events.clear();
+			this.startNanos = System.nanoTime();
+			this.startTime = System.currentTimeMillis();
+		}
+	}
+
+	@Override
+	public StartupStep start(String name) {
+		Assert.notNull(name, "Name must not be null");
+		BufferedStartupStep parent = this.currentStep.get();
+		BufferedStartupStep step = new BufferedStartupStep(
+				this.idSeq.getAndIncrement(), name, parent, System.nanoTime());
+		this.currentStep.set(step);
+		return step;
+	}
+
+	/**
+	 * Return the {@link StartupTimeline timeline} as a snapshot of currently
+	 * buffered steps.
+	 * <p>This will not remove steps from the buffer, see {@link #drainBufferedTimeline()}
+	 * for its counterpart.
+	 */
+	public StartupTimeline getBufferedTimeline() {
+		synchronized (this.events) {
+			return new StartupTimeline(this.startTime, new ArrayList<>(this.events));
+		}
+	}
+
+	/**
+	 * Return the {@link StartupTimeline timeline} by pulling steps from the buffer.
+	 * <p>This removes steps from the buffer, see {@link #getBufferedTimeline()}
+	 * for its read-only counterpart.
+	 */
+	public StartupTimeline drainBufferedTimeline() {
+		synchronized (this.events) {
+			StartupTimeline timeline = new StartupTimeline(this.startTime, new ArrayList<>(this.events));
+			this.events.clear();
+			return timeline;
+		}
+	}
+
+	private void record(BufferedStartupStep step, long endNanos) {
+		if (this.currentStep.get() == step) {
+			BufferedStartupStep parent = step.parent;
+			if (parent != null) {
+				this.currentStep.set(parent);
+			}
+			else {
+				this.currentStep.remove();
+			}
+		}
+		if (this.filter.test(step)) {
+			synchronized (this.events) {
+				if (this.events.size() < this.capacity) {
+					this.events.add(new StartupTimeline.TimelineEvent(step, Thread.currentThread().getName(),
+							step.startNanos - this.startNanos, endNanos - step.startNanos));
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * {@link StartupStep} implementation that records its start time and
+	 * registers itself with the timeline once ended.
+	 */
+	private class BufferedStartupStep implements StartupStep {
+
+		private final long id;
+
+		private final String name;
+
+		@Nullable
+		private final BufferedStartupStep parent;
+
+		private final long startNanos;
+
+		private final DefaultTags tags = new DefaultTags();
+
+		private volatile boolean ended;
+
+		BufferedStartupStep(long id, String name, @Nullable BufferedStartupStep parent, long startNanos) {
+			this.id = id;
+			this.name = name;
+			this.parent = parent;
+			this.startNanos = startNanos;
+		}
+
+		@Override
+		public String getName() {
+			return this.name;
+		}
+
+		@Override
+		public long getId() {
+			return this.id;
+		}
+
+		@Override
+		@Nullable
+		public Long getParentId() {
+			return (this.parent != null ? this.parent.id : null);
+		}
+
+		@Override
+		public Tags getTags() {
+			return this.tags;
+		}
+
+		@Override
+		public StartupStep tag(String key, String value) {
+			Assert.state(!this.ended, "StartupStep has already ended");
+			this.tags.add(key, value);
+			return this;
+		}
+
+		@Override
+		public StartupStep tag(String key, Supplier<String> value) {
+			return tag(key, value.get());
+		}
+
+		@Override
+		public void end() {
+			Assert.state(!this.ended, "StartupStep has already ended");
+			this.ended = true;
+			record(this, System.nanoTime());
+		}
+
+		@Override
+		public String toString() {
+			return "StartupStep '" + this.name + "' [id=" + this.id + "]";
+		}
+	}
+
+
+	private static class DefaultTags implements StartupStep.Tags {
+
+		private final List<StartupStep.Tag> tags = new ArrayList<>(2);
+
+		void add(String key, String value) {
+			this.tags.add(new DefaultTag(key, value));
+		}
+
+		@Override
+		public Iterator<StartupStep.Tag> iterator() {
+			return Collections.unmodifiableList(this.tags).iterator();
+		}
+	}
+
+
+	private static class DefaultTag implements StartupStep.Tag {
+
+		private final String key;
+
+		private final String value;
+
+		DefaultTag(String key, String value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public String getKey() {
+			return this.key;
+		}
+
+		@Override
+		public String getValue() {
+			return this.value;
+		}
+
+		@Override
+		public String toString() {
+			return this.key + "=" + this.value;
+		}
+	}
+
+}
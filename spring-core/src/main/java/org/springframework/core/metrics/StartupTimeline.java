@@ -0,0 +1,221 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represent the timeline of {@link StartupStep steps} recorded by
+ * {@link BufferingApplicationStartup}. Each {@link TimelineEvent} has a start
+ * offset and a duration.
+ *
+ * <p>A timeline can be {@link #writeTo(Writer) written} in a line-based,
+ * tab-separated recording format: one line per step in start order, with its
+ * id, parent id, nesting depth, thread, start offset and duration in
+ * microseconds, name and tags.
+ *
+ * <p>Since ids, thread names and timings change from one run to the next, a
+ * timeline can also be {@link #writeStructureTo(Writer) written} without them:
+ * only the nested step names and their tags, in start order. That format is
+ * meant to be compared between builds, e.g. with a plain {@code diff}.
+ *
+ * @since 5.1
+ * @see BufferingApplicationStartup#getBufferedTimeline()
+ */
+public class StartupTimeline {
+
+	/** Header of the recording format, see {@link #writeTo(Writer)} */
+	public static final String RECORDING_HEADER = "# id\tparentId\tdepth\tthread\tstartMicros\tdurationMicros\tname\ttags";
+
+	private final long startTime;
+
+	private final List<TimelineEvent> events;
+
+
+	StartupTimeline(long startTime, List<TimelineEvent> events) {
+		events.sort(Comparator.comparingLong(event -> event.getStep().getId()));
+		this.startTime = startTime;
+		this.events = Collections.unmodifiableList(events);
+	}
+
+
+	/**
+	 * Return the start time of this timeline, in milliseconds since the epoch.
+	 */
+	public long getStartTime() {
+		return this.startTime;
+	}
+
+	/**
+	 * Return the recorded events, in the order in which their steps were started.
+	 */
+	public List<TimelineEvent> getEvents() {
+		return this.events;
+	}
+
+	/**
+	 * Write this timeline to the given file, in the recording format.
+	 * @param file the file to write to (will be overwritten if it exists)
+	 * @throws IOException in case of I/O errors
+	 * @see #writeTo(Writer)
+	 */
+	public void writeTo(File file) throws IOException {
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+			writeTo(writer);
+		}
+	}
+
+	/**
+	 * Write this timeline to the given Writer, in the recording format:
+	 * a {@link #RECORDING_HEADER header} line followed by one tab-separated
+	 * line per step, in start order. Nested steps are indented by their depth
+	 * in the name column. The Writer is flushed but not closed.
+	 * @param writer the Writer to write to
+	 * @throws IOException in case of I/O errors
+	 */
+	public void writeTo(Writer writer) throws IOException {
+		Map<Long, Integer> depths = new HashMap<>(this.events.size());
+		writer.write(RECORDING_HEADER);
+		writer.write('\n');
+		for (TimelineEvent event : this.events) {
+			StartupStep step = event.getStep();
+			Long parentId = step.getParentId();
+			int depth = determineDepth(step, depths);
+
+			StringBuilder line = new StringBuilder(128);
+			line.append(step.getId()).append('\t');
+			line.append(parentId != null ? parentId.toString() : "-").append('\t');
+			line.append(depth).append('\t');
+			line.append(event.getThreadName()).append('\t');
+			line.append(TimeUnit.NANOSECONDS.toMicros(event.getStartOffsetNanos())).append('\t');
+			line.append(TimeUnit.NANOSECONDS.toMicros(event.getDurationNanos())).append('\t');
+			appendStep(line, step, depth);
+			writer.write(line.append('\n').toString());
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Write the structure of this timeline to the given Writer: one line per
+	 * step, in start order, with its name indented by its nesting depth and
+	 * its tags, separated by a tab. Ids, thread names and timings are left out,
+	 * so that the output of two runs of the same startup sequence is identical.
+	 * The Writer is flushed but not closed.
+	 * @param writer the Writer to write to
+	 * @throws IOException in case of I/O errors
+	 * @see #writeTo(Writer)
+	 */
+	public void writeStructureTo(Writer writer) throws IOException {
+		Map<Long, Integer> depths = new HashMap<>(this.events.size());
+		for (TimelineEvent event : this.events) {
+			StartupStep step = event.getStep();
+			StringBuilder line = new StringBuilder(64);
+			appendStep(line, step, determineDepth(step, depths));
+			writer.write(line.append('\n').toString());
+		}
+		writer.flush();
+	}
+
+	private int determineDepth(StartupStep step, Map<Long, Integer> depths) {
+		Long parentId = step.getParentId();
+		Integer parentDepth = (parentId != null ? depths.get(parentId) : null);
+		int depth = (parentId == null ? 0 : (parentDepth != null ? parentDepth + 1 : 1));
+		depths.put(step.getId(), depth);
+		return depth;
+	}
+
+	private void appendStep(StringBuilder line, StartupStep step, int depth) {
+		for (int i = 0; i < depth; i++) {
+			line.append("  ");
+		}
+		line.append(step.getName()).append('\t');
+		boolean first = true;
+		for (StartupStep.Tag tag : step.getTags()) {
+			line.append(first ? "" : ",").append(tag.getKey()).append('=').append(tag.getValue());
+			first = false;
+		}
+	}
+
+
+	/**
+	 * Event on the current {@link StartupTimeline}.
+	 * <p>Each event has a start offset and a duration, and carries the
+	 * {@link StartupStep} that it measures.
+	 */
+	public static class TimelineEvent {
+
+		private final StartupStep step;
+
+		private final String threadName;
+
+		private final long startOffsetNanos;
+
+		private final long durationNanos;
+
+		TimelineEvent(StartupStep step, String threadName, long startOffsetNanos, long durationNanos) {
+			this.step = step;
+			this.threadName = threadName;
+			this.startOffsetNanos = startOffsetNanos;
+			this.durationNanos = durationNanos;
+		}
+
+		/**
+		 * Return the recorded step.
+		 */
+		public StartupStep getStep() {
+			return this.step;
+		}
+
+		/**
+		 * Return the name of the thread that ended the step.
+		 */
+		public String getThreadName() {
+			return this.threadName;
+		}
+
+		/**
+		 * Return the start of the step, in nanoseconds after the start of the timeline.
+		 */
+		public long getStartOffsetNanos() {
+			return this.startOffsetNanos;
+		}
+
+		/**
+		 * Return the duration of the step, in nanoseconds.
+		 */
+		public long getDurationNanos() {
+			return this.durationNanos;
+		}
+
+		@Override
+		public String toString() {
+			return this.step.getName() + " [" + TimeUnit.NANOSECONDS.toMicros(this.durationNanos) + " us]";
+		}
+	}
+
+}
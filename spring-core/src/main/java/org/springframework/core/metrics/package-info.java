@@ -0,0 +1,10 @@
+/**
+ * Support package for recording metrics during application startup,
+ * as a sequence of timed and nested {@link org.springframework.core.metrics.StartupStep steps}.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.core.metrics;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
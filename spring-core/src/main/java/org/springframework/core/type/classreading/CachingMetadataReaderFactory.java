@@ -126,14 +126,22 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 			return metadataReader;
 		}
 		else if (this.metadataReaderCache != null) {
-			synchronized (this.metadataReaderCache) {
-				MetadataReader metadataReader = this.metadataReaderCache.get(resource);
-				if (metadataReader == null) {
-					metadataReader = super.getMetadataReader(resource);
-					this.metadataReaderCache.put(resource, metadataReader);
+			Map<Resource, MetadataReader> cache = this.metadataReaderCache;
+			MetadataReader metadataReader;
+			synchronized (cache) {
+				metadataReader = cache.get(resource);
+			}
+			if (metadataReader == null) {
+				// Read outside of the lock, allowing for concurrent scanning threads
+				metadataReader = super.getMetadataReader(resource);
+				synchronized (cache) {
+					MetadataReader existing = cache.putIfAbsent(resource, metadataReader);
+					if (existing != null) {
+						metadataReader = existing;
+					}
 				}
-				return metadataReader;
 			}
+			return metadataReader;
 		}
 		else {
 			return super.getMetadataReader(resource);
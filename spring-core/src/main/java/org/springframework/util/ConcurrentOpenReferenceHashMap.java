@@ -0,0 +1,823 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap.ReferenceType;
+
+/**
+ * A variant of {@link ConcurrentReferenceHashMap} that is optimized for caches
+ * which are read far more often than they are written.
+ *
+ * <p>Like {@code ConcurrentReferenceHashMap}, this map uses {@linkplain ReferenceType#SOFT
+ * soft} or {@linkplain ReferenceType#WEAK weak} references for its entries and supports
+ * {@code null} keys and values. It differs in the following ways:
+ * <ul>
+ * <li>Reads never lock and never touch the reference queue: a lookup is a single
+ * probe sequence over the current table of a segment.</li>
+ * <li>Each segment is an open-addressed table with linear probing instead of an array
+ * of reference chains, avoiding the traversal of linked references on lookup.</li>
+ * <li>References that have been garbage collected are only purged as part of write
+ * operations (or through {@link #purgeUnreferencedEntries()}); until then, their slots
+ * are simply skipped by lookups.</li>
+ * </ul>
+ *
+ * <p>Writes are still serialized per segment. As a consequence, the garbage collected
+ * slots of a map that is never written to again are not reclaimed until the next call
+ * to {@link #purgeUnreferencedEntries()}, although the entries themselves are.
+ *
+ * <p><b>NOTE:</b> The use of references means that there is no guarantee that items
+ * placed into the map will be subsequently available. The garbage collector may discard
+ * references at any time, so it may appear that an unknown thread is silently removing
+ * entries.
+ *
+ * @since 5.1
+ * @param <K> the key type
+ * @param <V> the value type
+ * @see ConcurrentReferenceHashMap
+ */
+public class ConcurrentOpenReferenceHashMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+
+	private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+	private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+	private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+	private static final ReferenceType DEFAULT_REFERENCE_TYPE = ReferenceType.SOFT;
+
+	private static final int MAXIMUM_CONCURRENCY_LEVEL = 1 << 16;
+
+	private static final int MAXIMUM_SEGMENT_SIZE = 1 << 30;
+
+
+	/**
+	 * Array of segments indexed using the high order bits from the hash.
+	 */
+	private final Segment[] segments;
+
+	/**
+	 * When the number of occupied slots of a table exceeds this fraction of its
+	 * length, the table will be restructured.
+	 */
+	private final float loadFactor;
+
+	/**
+	 * The reference type: SOFT or WEAK.
+	 */
+	private final ReferenceType referenceType;
+
+	/**
+	 * The shift value used to calculate the size of the segments array and an index from the hash.
+	 */
+	private final int shift;
+
+	/**
+	 * Late binding entry set.
+	 */
+	@Nullable
+	private volatile Set<Map.Entry<K, V>> entrySet;
+
+
+	/**
+	 * Create a new {@code ConcurrentOpenReferenceHashMap} instance.
+	 */
+	public ConcurrentOpenReferenceHashMap() {
+		this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR, DEFAULT_CONCURRENCY_LEVEL, DEFAULT_REFERENCE_TYPE);
+	}
+
+	/**
+	 * Create a new {@code ConcurrentOpenReferenceHashMap} instance.
+	 * @param initialCapacity the initial capacity of the map
+	 */
+	public ConcurrentOpenReferenceHashMap(int initialCapacity) {
+		this(initialCapacity, DEFAULT_LOAD_FACTOR, DEFAULT_CONCURRENCY_LEVEL, DEFAULT_REFERENCE_TYPE);
+	}
+
+	/**
+	 * Create a new {@code ConcurrentOpenReferenceHashMap} instance.
+	 * @param initialCapacity the initial capacity of the map
+	 * @param referenceType the reference type used for entries (soft or weak)
+	 */
+	public ConcurrentOpenReferenceHashMap(int initialCapacity, ReferenceType referenceType) {
+		this(initialCapacity, DEFAULT_LOAD_FACTOR, DEFAULT_CONCURRENCY_LEVEL, referenceType);
+	}
+
+	/**
+	 * Create a new {@code ConcurrentOpenReferenceHashMap} instance.
+	 * @param initialCapacity the initial capacity of the map
+	 * @param loadFactor the load factor, between 0 and 1 (exclusive). When the
+	 * fraction of occupied slots of a table exceeds this value, the table will be
+	 * restructured.
+	 * @param concurrencyLevel the expected number of threads that will concurrently
+	 * write to the map
+	 * @param referenceType the reference type used for entries (soft or weak)
+	 */
+	@SuppressWarnings("unchecked")
+	public ConcurrentOpenReferenceHashMap(
+			int initialCapacity, float loadFactor, int concurrencyLevel, ReferenceType referenceType) {
+
+		Assert.isTrue(initialCapacity >= 0, "Initial capacity must not be negative");
+		Assert.isTrue(loadFactor > 0f && loadFactor < 1f, "Load factor must be between 0 and 1");
+		Assert.isTrue(concurrencyLevel > 0, "Concurrency level must be positive");
+		Assert.notNull(referenceType, "Reference type must not be null");
+		this.loadFactor = loadFactor;
+		this.shift = ConcurrentReferenceHashMap.calculateShift(concurrencyLevel, MAXIMUM_CONCURRENCY_LEVEL);
+		int size = 1 << this.shift;
+		this.referenceType = referenceType;
+		int roundedUpSegmentCapacity = (int) ((initialCapacity + size - 1L) / size);
+		this.segments = (Segment[]) Array.newInstance(Segment.class, size);
+		for (int i = 0; i < this.segments.length; i++) {
+			this.segments[i] = new Segment(roundedUpSegmentCapacity);
+		}
+	}
+
+
+	protected final float getLoadFactor() {
+		return this.loadFactor;
+	}
+
+	protected final int getSegmentsSize() {
+		return this.segments.length;
+	}
+
+	/**
+	 * Get the hash for a given object, apply an additional hash function to reduce
+	 * collisions. This implementation uses the same Wang/Jenkins algorithm as
+	 * {@link ConcurrentReferenceHashMap}. Subclasses can override to provide
+	 * alternative hashing.
+	 * @param o the object to hash (may be null)
+	 * @return the resulting hash code
+	 */
+	protected int getHash(@Nullable Object o) {
+		int hash = (o != null ? o.hashCode() : 0);
+		hash += (hash << 15) ^ 0xffffcd7d;
+		hash ^= (hash >>> 10);
+		hash += (hash << 3);
+		hash ^= (hash >>> 6);
+		hash += (hash << 2) + (hash << 14);
+		hash ^= (hash >>> 16);
+		return hash;
+	}
+
+	@Override
+	@Nullable
+	public V get(@Nullable Object key) {
+		Entry<K, V> entry = getEntry(key);
+		return (entry != null ? entry.getValue() : null);
+	}
+
+	@Override
+	@Nullable
+	public V getOrDefault(@Nullable Object key, @Nullable V defaultValue) {
+		Entry<K, V> entry = getEntry(key);
+		return (entry != null ? entry.getValue() : defaultValue);
+	}
+
+	@Override
+	public boolean containsKey(@Nullable Object key) {
+		return (getEntry(key) != null);
+	}
+
+	@Nullable
+	private Entry<K, V> getEntry(@Nullable Object key) {
+		int hash = getHash(key);
+		return getSegmentForHash(hash).getEntry(key, hash);
+	}
+
+	@Override
+	@Nullable
+	public V put(@Nullable K key, @Nullable V value) {
+		int hash = getHash(key);
+		return getSegmentForHash(hash).put(key, hash, value, true);
+	}
+
+	@Override
+	@Nullable
+	public V putIfAbsent(@Nullable K key, @Nullable V value) {
+		int hash = getHash(key);
+		return getSegmentForHash(hash).put(key, hash, value, false);
+	}
+
+	@Override
+	@Nullable
+	public V remove(Object key) {
+		int hash = getHash(key);
+		Entry<K, V> entry = getSegmentForHash(hash).remove(key, hash, null, false);
+		return (entry != null ? entry.getValue() : null);
+	}
+
+	@Override
+	public boolean remove(Object key, Object value) {
+		int hash = getHash(key);
+		return (getSegmentForHash(hash).remove(key, hash, value, true) != null);
+	}
+
+	@Override
+	public boolean replace(K key, V oldValue, V newValue) {
+		int hash = getHash(key);
+		return (getSegmentForHash(hash).replace(key, hash, oldValue, newValue, true) != null);
+	}
+
+	@Override
+	@Nullable
+	public V replace(K key, V value) {
+		int hash = getHash(key);
+		Entry<K, V> entry = getSegmentForHash(hash).replace(key, hash, null, value, false);
+		return (entry != null ? entry.getValue() : null);
+	}
+
+	@Override
+	public void clear() {
+		for (Segment segment : this.segments) {
+			segment.clear();
+		}
+	}
+
+	/**
+	 * Remove any entries that have been garbage collected and are no longer referenced.
+	 * Garbage collected entries are purged as items are added or removed from the Map,
+	 * but never while reading. This method can be used to force a purge, and is useful
+	 * when the Map is read frequently but updated rarely.
+	 */
+	public void purgeUnreferencedEntries() {
+		for (Segment segment : this.segments) {
+			segment.purge();
+		}
+	}
+
+
+	@Override
+	public int size() {
+		int size = 0;
+		for (Segment segment : this.segments) {
+			size += segment.getCount();
+		}
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		for (Segment segment : this.segments) {
+			if (segment.getCount() > 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		Set<Map.Entry<K, V>> entrySet = this.entrySet;
+		if (entrySet == null) {
+			entrySet = new EntrySet();
+			this.entrySet = entrySet;
+		}
+		return entrySet;
+	}
+
+	private Segment getSegmentForHash(int hash) {
+		return this.segments[(hash >>> (32 - this.shift)) & (this.segments.length - 1)];
+	}
+
+
+	/**
+	 * A single segment: an open-addressed table which is read without locking and
+	 * written under the segment lock.
+	 *
+	 * <p>Slots are never cleared once occupied: removed entries leave a cleared
+	 * reference behind, and garbage collected entries leave their enqueued reference
+	 * behind. Lookups skip such slots, and they are reclaimed when the table is
+	 * restructured, which always happens into a new table so that concurrent readers
+	 * keep a consistent view of the table they started with.
+	 */
+	@SuppressWarnings("serial")
+	protected final class Segment extends ReentrantLock {
+
+		private final ReferenceQueue<Entry<K, V>> queue = new ReferenceQueue<>();
+
+		private final int initialSize;
+
+		/**
+		 * The table of references indexed using the low order bits from the hash.
+		 * This property should only be set along with {@code resizeThreshold}.
+		 */
+		private volatile AtomicReferenceArray<EntryReference<K, V>> table;
+
+		/**
+		 * The number of entries in this segment. This includes entries that have been
+		 * garbage collected but not purged.
+		 */
+		private volatile int count;
+
+		/**
+		 * The number of occupied slots in the table, including removed and garbage
+		 * collected ones.
+		 */
+		private int occupied;
+
+		/**
+		 * The threshold when restructuring of the table should occur. When
+		 * {@code occupied} reaches this value, the table will be restructured.
+		 */
+		private int resizeThreshold;
+
+		public Segment(int initialCapacity) {
+			this.initialSize = 1 << ConcurrentReferenceHashMap.calculateShift(
+					Math.max(initialCapacity, 2), MAXIMUM_SEGMENT_SIZE);
+			setTable(new AtomicReferenceArray<>(this.initialSize));
+		}
+
+		@Nullable
+		public Entry<K, V> getEntry(@Nullable Object key, int hash) {
+			if (this.count == 0) {
+				return null;
+			}
+			// Use a local copy to protect against other threads restructuring
+			AtomicReferenceArray<EntryReference<K, V>> table = this.table;
+			int mask = table.length() - 1;
+			int index = hash & mask;
+			EntryReference<K, V> ref;
+			while ((ref = table.get(index)) != null) {
+				if (ref.getHash() == hash) {
+					Entry<K, V> entry = ref.get();
+					if (entry != null && ObjectUtils.nullSafeEquals(entry.getKey(), key)) {
+						return entry;
+					}
+				}
+				index = (index + 1) & mask;
+			}
+			return null;
+		}
+
+		@Nullable
+		public V put(@Nullable K key, int hash, @Nullable V value, boolean overwriteExisting) {
+			lock();
+			try {
+				drainQueue();
+				EntryReference<K, V> ref = findReference(this.table, key, hash);
+				Entry<K, V> entry = (ref != null ? ref.get() : null);
+				if (entry != null) {
+					return (overwriteExisting ? entry.setValue(value) : entry.getValue());
+				}
+				if (this.occupied + 1 >= this.resizeThreshold) {
+					restructure(true);
+				}
+				insert(this.table, createReference(new Entry<>(key, value), hash));
+				this.occupied++;
+				this.count++;
+				return null;
+			}
+			finally {
+				unlock();
+			}
+		}
+
+		@Nullable
+		public Entry<K, V> remove(@Nullable Object key, int hash, @Nullable Object value, boolean matchValue) {
+			if (this.count == 0) {
+				return null;
+			}
+			lock();
+			try {
+				drainQueue();
+				EntryReference<K, V> ref = findReference(this.table, key, hash);
+				Entry<K, V> entry = (ref != null ? ref.get() : null);
+				if (entry == null || (matchValue && !ObjectUtils.nullSafeEquals(entry.getValue(), value))) {
+					return null;
+				}
+				// A reference cleared by us is never enqueued, so it is counted exactly once
+				ref.clear();
+				this.count--;
+				return entry;
+			}
+			finally {
+				unlock();
+			}
+		}
+
+		@Nullable
+		public Entry<K, V> replace(@Nullable Object key, int hash, @Nullable V oldValue,
+				@Nullable V newValue, boolean matchValue) {
+
+			if (this.count == 0) {
+				return null;
+			}
+			lock();
+			try {
+				drainQueue();
+				EntryReference<K, V> ref = findReference(this.table, key, hash);
+				Entry<K, V> entry = (ref != null ? ref.get() : null);
+				if (entry == null || (matchValue && !ObjectUtils.nullSafeEquals(entry.getValue(), oldValue))) {
+					return null;
+				}
+				return new Entry<>(entry.getKey(), entry.setValue(newValue));
+			}
+			finally {
+				unlock();
+			}
+		}
+
+		/**
+		 * Clear all items from this segment.
+		 */
+		public void clear() {
+			if (this.count == 0) {
+				return;
+			}
+			lock();
+			try {
+				setTable(new AtomicReferenceArray<>(this.initialSize));
+				this.occupied = 0;
+				this.count = 0;
+			}
+			finally {
+				unlock();
+			}
+		}
+
+		/**
+		 * Account for garbage collected entries and reclaim their slots
+		 * along with the slots of removed entries.
+		 */
+		public void purge() {
+			lock();
+			try {
+				drainQueue();
+				if (this.occupied > this.count) {
+					restructure(false);
+				}
+			}
+			finally {
+				unlock();
+			}
+		}
+
+		/**
+		 * Drain the reference queue, decrementing the count for each garbage collected
+		 * entry that is still part of the current table. Entries that did not survive
+		 * a restructuring have not been counted in the first place.
+		 * <p>Must be called while holding the segment lock.
+		 */
+		private void drainQueue() {
+			EntryReference<?, ?> ref;
+			while ((ref = (EntryReference<?, ?>) this.queue.poll()) != null) {
+				if (containsReference(this.table, ref)) {
+					this.count--;
+				}
+			}
+		}
+
+		/**
+		 * Copy all live references into a new table, growing it if the live entries
+		 * alone would take up more than half of the resize threshold.
+		 * <p>Must be called while holding the segment lock.
+		 * @param allowResize if growing the table is permitted
+		 */
+		private void restructure(boolean allowResize) {
+			AtomicReferenceArray<EntryReference<K, V>> table = this.table;
+			int size = table.length();
+			if (allowResize && (this.count + 1) * 2 >= this.resizeThreshold && size < MAXIMUM_SEGMENT_SIZE) {
+				size <<= 1;
+			}
+			AtomicReferenceArray<EntryReference<K, V>> restructured = new AtomicReferenceArray<>(size);
+			int live = 0;
+			for (int i = 0; i < table.length(); i++) {
+				EntryReference<K, V> ref = table.get(i);
+				if (ref != null && ref.get() != null) {
+					insert(restructured, ref);
+					live++;
+				}
+			}
+			setTable(restructured);
+			this.occupied = live;
+			this.count = live;
+		}
+
+		private void setTable(AtomicReferenceArray<EntryReference<K, V>> table) {
+			this.resizeThreshold = Math.min((int) (table.length() * getLoadFactor()), table.length() - 1);
+			this.table = table;
+		}
+
+		@Nullable
+		private EntryReference<K, V> findReference(
+				AtomicReferenceArray<EntryReference<K, V>> table, @Nullable Object key, int hash) {
+
+			int mask = table.length() - 1;
+			int index = hash & mask;
+			EntryReference<K, V> ref;
+			while ((ref = table.get(index)) != null) {
+				if (ref.getHash() == hash) {
+					Entry<K, V> entry = ref.get();
+					if (entry != null && ObjectUtils.nullSafeEquals(entry.getKey(), key)) {
+						return ref;
+					}
+				}
+				index = (index + 1) & mask;
+			}
+			return null;
+		}
+
+		private boolean containsReference(AtomicReferenceArray<EntryReference<K, V>> table, EntryReference<?, ?> target) {
+			int mask = table.length() - 1;
+			int index = target.getHash() & mask;
+			EntryReference<K, V> ref;
+			while ((ref = table.get(index)) != null) {
+				if (ref == target) {
+					return true;
+				}
+				index = (index + 1) & mask;
+			}
+			return false;
+		}
+
+		private void insert(AtomicReferenceArray<EntryReference<K, V>> table, EntryReference<K, V> ref) {
+			int mask = table.length() - 1;
+			int index = ref.getHash() & mask;
+			while (table.get(index) != null) {
+				index = (index + 1) & mask;
+			}
+			table.set(index, ref);
+		}
+
+		private EntryReference<K, V> createReference(Entry<K, V> entry, int hash) {
+			if (ConcurrentOpenReferenceHashMap.this.referenceType == ReferenceType.WEAK) {
+				return new WeakEntryReference<>(entry, hash, this.queue);
+			}
+			return new SoftEntryReference<>(entry, hash, this.queue);
+		}
+
+		/**
+		 * Return the length of the current table.
+		 */
+		public final int getSize() {
+			return this.table.length();
+		}
+
+		/**
+		 * Return the total number of entries in this segment.
+		 */
+		public final int getCount() {
+			return this.count;
+		}
+	}
+
+
+	/**
+	 * A single map entry.
+	 */
+	protected static final class Entry<K, V> implements Map.Entry<K, V> {
+
+		@Nullable
+		private final K key;
+
+		@Nullable
+		private volatile V value;
+
+		public Entry(@Nullable K key, @Nullable V value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		@Nullable
+		public K getKey() {
+			return this.key;
+		}
+
+		@Override
+		@Nullable
+		public V getValue() {
+			return this.value;
+		}
+
+		@Override
+		@Nullable
+		public V setValue(@Nullable V value) {
+			V previous = this.value;
+			this.value = value;
+			return previous;
+		}
+
+		@Override
+		public String toString() {
+			return (this.key + "=" + this.value);
+		}
+
+		@Override
+		@SuppressWarnings("rawtypes")
+		public final boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry otherEntry = (Map.Entry) other;
+			return (ObjectUtils.nullSafeEquals(getKey(), otherEntry.getKey()) &&
+					ObjectUtils.nullSafeEquals(getValue(), otherEntry.getValue()));
+		}
+
+		@Override
+		public final int hashCode() {
+			return (ObjectUtils.nullSafeHashCode(this.key) ^ ObjectUtils.nullSafeHashCode(this.value));
+		}
+	}
+
+
+	/**
+	 * A reference to an {@link Entry} held in a {@link Segment} table.
+	 */
+	private interface EntryReference<K, V> {
+
+		/**
+		 * Return the referenced entry, or {@code null} if the entry is no longer available.
+		 */
+		@Nullable
+		Entry<K, V> get();
+
+		/**
+		 * Return the hash for the reference.
+		 */
+		int getHash();
+
+		/**
+		 * Clear the reference without enqueuing it.
+		 */
+		void clear();
+	}
+
+
+	/**
+	 * Internal {@link EntryReference} implementation for {@link SoftReference}s.
+	 */
+	private static final class SoftEntryReference<K, V> extends SoftReference<Entry<K, V>>
+			implements EntryReference<K, V> {
+
+		private final int hash;
+
+		public SoftEntryReference(Entry<K, V> entry, int hash, ReferenceQueue<Entry<K, V>> queue) {
+			super(entry, queue);
+			this.hash = hash;
+		}
+
+		@Override
+		public int getHash() {
+			return this.hash;
+		}
+	}
+
+
+	/**
+	 * Internal {@link EntryReference} implementation for {@link WeakReference}s.
+	 */
+	private static final class WeakEntryReference<K, V> extends WeakReference<Entry<K, V>>
+			implements EntryReference<K, V> {
+
+		private final int hash;
+
+		public WeakEntryReference(Entry<K, V> entry, int hash, ReferenceQueue<Entry<K, V>> queue) {
+			super(entry, queue);
+			this.hash = hash;
+		}
+
+		@Override
+		public int getHash() {
+			return this.hash;
+		}
+	}
+
+
+	/**
+	 * Internal entry-set implementation.
+	 */
+	private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public boolean contains(@Nullable Object o) {
+			if (o instanceof Map.Entry<?, ?>) {
+				Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+				Entry<K, V> otherEntry = ConcurrentOpenReferenceHashMap.this.getEntry(entry.getKey());
+				if (otherEntry != null) {
+					return ObjectUtils.nullSafeEquals(otherEntry.getValue(), entry.getValue());
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			if (o instanceof Map.Entry<?, ?>) {
+				Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+				return ConcurrentOpenReferenceHashMap.this.remove(entry.getKey(), entry.getValue());
+			}
+			return false;
+		}
+
+		@Override
+		public int size() {
+			return ConcurrentOpenReferenceHashMap.this.size();
+		}
+
+		@Override
+		public void clear() {
+			ConcurrentOpenReferenceHashMap.this.clear();
+		}
+	}
+
+
+	/**
+	 * Internal entry iterator implementation, iterating over a snapshot
+	 * of the table of each segment.
+	 */
+	private class EntryIterator implements Iterator<Map.Entry<K, V>> {
+
+		private int segmentIndex;
+
+		private int referenceIndex;
+
+		@Nullable
+		private AtomicReferenceArray<EntryReference<K, V>> table;
+
+		@Nullable
+		private Entry<K, V> next;
+
+		@Nullable
+		private Entry<K, V> last;
+
+		@Override
+		public boolean hasNext() {
+			getNextIfNecessary();
+			return (this.next != null);
+		}
+
+		@Override
+		public Entry<K, V> next() {
+			getNextIfNecessary();
+			if (this.next == null) {
+				throw new NoSuchElementException();
+			}
+			this.last = this.next;
+			this.next = null;
+			return this.last;
+		}
+
+		private void getNextIfNecessary() {
+			while (this.next == null) {
+				if (this.table == null || this.referenceIndex >= this.table.length()) {
+					if (this.segmentIndex >= ConcurrentOpenReferenceHashMap.this.segments.length) {
+						return;
+					}
+					this.table = ConcurrentOpenReferenceHashMap.this.segments[this.segmentIndex].table;
+					this.segmentIndex++;
+					this.referenceIndex = 0;
+				}
+				else {
+					EntryReference<K, V> ref = this.table.get(this.referenceIndex);
+					this.referenceIndex++;
+					this.next = (ref != null ? ref.get() : null);
+				}
+			}
+		}
+
+		@Override
+		public void remove() {
+			Assert.state(this.last != null, "No element to remove");
+			ConcurrentOpenReferenceHashMap.this.remove(this.last.getKey());
+		}
+	}
+
+}
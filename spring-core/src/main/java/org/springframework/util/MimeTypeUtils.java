@@ -152,6 +152,9 @@ public abstract class MimeTypeUtils {
 	 */
 	public static final String TEXT_XML_VALUE = "text/xml";
 
+	private static final ConcurrentLruCache<String, MimeType> cachedMimeTypes =
+			new ConcurrentLruCache<>(64, MimeTypeUtils::parseMimeTypeInternal);
+
 	@Nullable
 	private static volatile Random random;
 
@@ -172,6 +175,9 @@ public abstract class MimeTypeUtils {
 
 	/**
 	 * Parse the given String into a single {@code MimeType}.
+	 * <p>Recently parsed {@code MimeType} instances are cached, keyed by the
+	 * given string, since the same handful of values tends to be parsed over
+	 * and over again.
 	 * @param mimeType the string to parse
 	 * @return the mime type
 	 * @throws InvalidMimeTypeException if the string cannot be parsed
@@ -180,7 +186,18 @@ public abstract class MimeTypeUtils {
 		if (!StringUtils.hasLength(mimeType)) {
 			throw new InvalidMimeTypeException(mimeType, "'mimeType' must not be empty");
 		}
+		return cachedMimeTypes.get(mimeType);
+	}
+
+	/**
+	 * Return the cache of recently parsed mime types, e.g. for checking its
+	 * hit and miss counts.
+	 */
+	static ConcurrentLruCache<String, MimeType> getMimeTypeCache() {
+		return cachedMimeTypes;
+	}
 
+	private static MimeType parseMimeTypeInternal(String mimeType) {
 		int index = mimeType.indexOf(';');
 		String fullType = (index >= 0 ? mimeType.substring(0, index) : mimeType).trim();
 		if (fullType.isEmpty()) {
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cglib.core;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.asm.ClassReader;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.NoOp;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StreamUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link CachingGeneratorStrategy}.
+ */
+public class CachingGeneratorStrategyTests {
+
+	@Rule
+	public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+
+	@Test
+	public void renameClass() throws Exception {
+		byte[] bytes = classFile(SampleBean.class);
+		String newName = SampleBean.class.getName() + "$$Renamed";
+		byte[] renamed = CachingGeneratorStrategy.renameClass(bytes, newName);
+
+		assertEquals(newName.replace('.', '/'), new ClassReader(renamed).getClassName());
+		Class<?> renamedClass = new ByteArrayClassLoader(getClass().getClassLoader()).define(newName, renamed);
+		assertEquals(newName, renamedClass.getName());
+		Object instance = renamedClass.newInstance();
+		assertEquals("sample", renamedClass.getMethod("getName").invoke(instance));
+		assertEquals(renamedClass, renamedClass.getMethod("self").getReturnType());
+		assertEquals(newName, renamedClass.getMethod("getClassName").invoke(instance));
+		assertEquals(SampleBean.DESCRIPTION, renamedClass.getMethod("getDescription").invoke(instance));
+	}
+
+	@Test
+	public void renameClassToSameName() throws Exception {
+		byte[] bytes = classFile(SampleBean.class);
+		assertSame(bytes, CachingGeneratorStrategy.renameClass(bytes, SampleBean.class.getName()));
+	}
+
+	@Test
+	public void sourceFingerprint() {
+		String fingerprint = CachingGeneratorStrategy.sourceFingerprint(SampleBean.class);
+		assertNotNull(fingerprint);
+		assertEquals(fingerprint, CachingGeneratorStrategy.sourceFingerprint(SampleBean.class));
+		assertFalse(fingerprint.equals(CachingGeneratorStrategy.sourceFingerprint(SampleBean.class, Runnable.class)));
+	}
+
+	@Test
+	public void generatedClassReusedFromCacheDirectory() throws Exception {
+		File cacheDirectory = this.tempFolder.newFolder();
+		CountingGeneratorStrategy delegate = new CountingGeneratorStrategy();
+
+		Object first = createProxy(new CachingGeneratorStrategy(delegate, cacheDirectory, "key"));
+		assertEquals(1, delegate.count.get());
+		assertEquals(1, cacheDirectory.listFiles().length);
+
+		Object second = createProxy(new CachingGeneratorStrategy(delegate, cacheDirectory, "key"));
+		assertEquals(1, delegate.count.get());
+		assertNotSame(first.getClass(), second.getClass());
+		assertFalse(first.getClass().getName().equals(second.getClass().getName()));
+		assertTrue(second instanceof SampleBean);
+		assertEquals("sample", ((SampleBean) second).getName());
+
+		createProxy(new CachingGeneratorStrategy(delegate, cacheDirectory, "otherKey"));
+		assertEquals(2, delegate.count.get());
+		assertEquals(2, cacheDirectory.listFiles().length);
+	}
+
+	@Test
+	public void modifiedCacheFileIsRegenerated() throws Exception {
+		File cacheDirectory = this.tempFolder.newFolder();
+		CountingGeneratorStrategy delegate = new CountingGeneratorStrategy();
+		createProxy(new CachingGeneratorStrategy(delegate, cacheDirectory, "key"));
+		File cacheFile = cacheDirectory.listFiles()[0];
+		byte[] content = Files.readAllBytes(cacheFile.toPath());
+		content[content.length - 1]++;
+		Files.write(cacheFile.toPath(), content);
+
+		Object proxy = createProxy(new CachingGeneratorStrategy(delegate, cacheDirectory, "key"));
+		assertEquals(2, delegate.count.get());
+		assertEquals("sample", ((SampleBean) proxy).getName());
+		createProxy(new CachingGeneratorStrategy(delegate, cacheDirectory, "key"));
+		assertEquals(2, delegate.count.get());
+	}
+
+	@Test
+	public void cacheDirectoryWritableByOthersIsIgnored() throws Exception {
+		Assume.assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+		File cacheDirectory = this.tempFolder.newFolder();
+		Files.setPosixFilePermissions(cacheDirectory.toPath(), PosixFilePermissions.fromString("rwxrwxrwx"));
+		CountingGeneratorStrategy delegate = new CountingGeneratorStrategy();
+
+		createProxy(new CachingGeneratorStrategy(delegate, cacheDirectory, "key"));
+		createProxy(new CachingGeneratorStrategy(delegate, cacheDirectory, "key"));
+		assertEquals(2, delegate.count.get());
+		assertEquals(0, cacheDirectory.listFiles().length);
+	}
+
+
+	private static Object createProxy(GeneratorStrategy strategy) {
+		Enhancer enhancer = new Enhancer();
+		enhancer.setSuperclass(SampleBean.class);
+		enhancer.setUseCache(false);
+		enhancer.setStrategy(strategy);
+		enhancer.setCallback(NoOp.INSTANCE);
+		return enhancer.create();
+	}
+
+	private static byte[] classFile(Class<?> clazz) throws Exception {
+		try (InputStream is = clazz.getResourceAsStream(ClassUtils.getClassFileName(clazz))) {
+			return StreamUtils.copyToByteArray(is);
+		}
+	}
+
+
+	public static class SampleBean {
+
+		static final String DESCRIPTION =
+				"Instance of org.springframework.cglib.core.CachingGeneratorStrategyTests$SampleBean";
+
+		public String getName() {
+			return "sample";
+		}
+
+		public SampleBean self() {
+			return this;
+		}
+
+		public String getClassName() {
+			return "org.springframework.cglib.core.CachingGeneratorStrategyTests$SampleBean";
+		}
+
+		public String getDescription() {
+			return DESCRIPTION;
+		}
+	}
+
+
+	private static class CountingGeneratorStrategy extends DefaultGeneratorStrategy {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public byte[] generate(ClassGenerator cg) throws Exception {
+			this.count.incrementAndGet();
+			return super.generate(cg);
+		}
+	}
+
+
+	private static class ByteArrayClassLoader extends ClassLoader {
+
+		ByteArrayClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		Class<?> define(String name, byte[] bytes) {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+
+}
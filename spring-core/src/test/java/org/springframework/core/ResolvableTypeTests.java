@@ -117,6 +117,38 @@ public class ResolvableTypeTests {
 		assertTrue(type.isAssignableFrom(String.class));
 	}
 
+	@Test
+	public void forClassReturnsCanonicalInstance() throws Exception {
+		assertSame(ResolvableType.forClass(String.class), ResolvableType.forClass(String.class));
+		assertSame(ResolvableType.forClass(Object.class), ResolvableType.forClass(null));
+		assertSame(ResolvableType.forClass(String.class), ResolvableType.forType(String.class));
+	}
+
+	@Test
+	public void forFieldSharesResolvedGenerics() throws Exception {
+		Field field = Fields.class.getField("stringList");
+		ResolvableType type1 = ResolvableType.forField(field);
+		ResolvableType type2 = ResolvableType.forField(field);
+		assertThat(type1.getGeneric().resolve(), equalTo((Class) String.class));
+		assertSame(type1.getGeneric(), type2.getGeneric());
+		assertSame(type1.getInterfaces()[0], type2.getInterfaces()[0]);
+		assertThat(type2.getSource(), equalTo((Object) field));
+	}
+
+	@Test
+	public void isAssignableFromForPlainClass() throws Exception {
+		ResolvableType objectType = ResolvableType.forClass(Object.class);
+		ResolvableType intType = ResolvableType.forClass(int.class);
+		ResolvableType integerType = ResolvableType.forClass(Integer.class);
+		assertTrue(objectType.isAssignableFrom(String.class));
+		assertFalse(ResolvableType.forClass(String.class).isAssignableFrom(Object.class));
+		assertTrue(intType.isAssignableFrom(Integer.class));
+		assertTrue(integerType.isAssignableFrom(intType));
+		assertTrue(objectType.isAssignableFrom(ResolvableType.forClass(List.class, String.class)));
+		assertFalse(ResolvableType.forClass(Object[].class).isAssignableFrom(ResolvableType.forClass(Object.class)));
+		assertTrue(ResolvableType.forClass(Object[].class).isAssignableFrom(ResolvableType.forClass(String[].class)));
+	}
+
 	@Test
 	public void forRawClass() throws Exception {
 		ResolvableType type = ResolvableType.forRawClass(ExtendsList.class);
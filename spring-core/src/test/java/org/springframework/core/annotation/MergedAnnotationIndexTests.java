@@ -0,0 +1,181 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.springframework.core.OverridingClassLoader;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link MergedAnnotationIndex}.
+ */
+public class MergedAnnotationIndexTests {
+
+	@Test
+	public void lookupIsResolvedOnce() {
+		AtomicInteger counter = new AtomicInteger();
+		for (int i = 0; i < 3; i++) {
+			assertEquals("resolved", MergedAnnotationIndex.lookup(CachedType.class, "test", Order.class, () -> {
+				counter.incrementAndGet();
+				return "resolved";
+			}));
+		}
+		assertEquals(1, counter.get());
+	}
+
+	@Test
+	public void negativeLookupIsResolvedOnce() {
+		AtomicInteger counter = new AtomicInteger();
+		for (int i = 0; i < 3; i++) {
+			assertNull(MergedAnnotationIndex.lookup(UncachedType.class, "test", Order.class, () -> {
+				counter.incrementAndGet();
+				return null;
+			}));
+		}
+		assertEquals(1, counter.get());
+	}
+
+	@Test
+	public void lookupForTargetFromOtherClassLoaderIsResolvedOnce() throws Exception {
+		Class<?> target = new OverridingClassLoader(getClass().getClassLoader()).loadClass(
+				Prioritized.class.getName());
+		assertNotSame(Prioritized.class, target);
+		AtomicInteger counter = new AtomicInteger();
+		for (int i = 0; i < 3; i++) {
+			assertNull(MergedAnnotationIndex.lookup(CachedType.class, "test", target, () -> {
+				counter.incrementAndGet();
+				return null;
+			}));
+		}
+		assertEquals(1, counter.get());
+	}
+
+	@Test
+	public void lookupsBeyondElementLimitAreNotRecorded() {
+		AtomicInteger counter = new AtomicInteger();
+		for (int i = 0; i < MergedAnnotationIndex.ELEMENT_RESULT_LIMIT + 1; i++) {
+			MergedAnnotationIndex.lookup(LimitedType.class, "test", "target" + i, counter::incrementAndGet);
+		}
+		assertEquals(MergedAnnotationIndex.ELEMENT_RESULT_LIMIT + 1, counter.get());
+		MergedAnnotationIndex.lookup(LimitedType.class, "test", "target0", counter::incrementAndGet);
+		assertEquals(MergedAnnotationIndex.ELEMENT_RESULT_LIMIT + 1, counter.get());
+		String last = "target" + MergedAnnotationIndex.ELEMENT_RESULT_LIMIT;
+		MergedAnnotationIndex.lookup(LimitedType.class, "test", last, counter::incrementAndGet);
+		assertEquals(MergedAnnotationIndex.ELEMENT_RESULT_LIMIT + 2, counter.get());
+	}
+
+	@Test
+	public void elementWithoutDeclaringClassIsNotIndexed() {
+		AnnotatedElement element = AnnotatedElementUtils.forAnnotations();
+		AtomicInteger counter = new AtomicInteger();
+		MergedAnnotationIndex.lookup(element, "test", Order.class, counter::incrementAndGet);
+		MergedAnnotationIndex.lookup(element, "test", Order.class, counter::incrementAndGet);
+		assertEquals(2, counter.get());
+	}
+
+	@Test
+	public void clearCacheDiscardsResults() {
+		AtomicInteger counter = new AtomicInteger();
+		MergedAnnotationIndex.lookup(ClearedType.class, "test", Order.class, counter::incrementAndGet);
+		AnnotationUtils.clearCache();
+		MergedAnnotationIndex.lookup(ClearedType.class, "test", Order.class, counter::incrementAndGet);
+		assertEquals(2, counter.get());
+	}
+
+	@Test
+	public void findMergedAnnotationReturnsIndexedInstance() throws Exception {
+		Method method = CachedType.class.getMethod("handle");
+		Order order = AnnotatedElementUtils.findMergedAnnotation(method, Order.class);
+		assertNotNull(order);
+		assertEquals(42, order.value());
+		assertSame(order, AnnotatedElementUtils.findMergedAnnotation(method, Order.class));
+		assertTrue(AnnotatedElementUtils.hasAnnotation(method, Order.class));
+		assertNull(AnnotatedElementUtils.findMergedAnnotation(method, Deprecated.class));
+	}
+
+	@Test
+	public void findMergedAnnotationAttributesReturnsCopy() throws Exception {
+		Method method = CachedType.class.getMethod("handle");
+		AnnotationAttributes attributes = AnnotatedElementUtils.findMergedAnnotationAttributes(
+				method, Order.class, false, false);
+		assertNotNull(attributes);
+		attributes.put("value", 0);
+		attributes = AnnotatedElementUtils.findMergedAnnotationAttributes(method, Order.class, false, false);
+		assertEquals(42, attributes.getNumber("value").intValue());
+		assertEquals(Order.class, attributes.annotationType());
+	}
+
+	@Test
+	public void mergedAnnotationAttributesReturnCopiesOfArrayValues() throws Exception {
+		Method method = CachedType.class.getMethod("handle");
+		AnnotationAttributes attributes = AnnotatedElementUtils.getMergedAnnotationAttributes(method, Tags.class);
+		assertNotNull(attributes);
+		attributes.getStringArray("value")[0] = "modified";
+		((int[]) attributes.get("weights"))[0] = 0;
+		attributes = AnnotatedElementUtils.getMergedAnnotationAttributes(method, Tags.class);
+		assertArrayEquals(new String[] {"a", "b"}, attributes.getStringArray("value"));
+		assertArrayEquals(new int[] {1, 2}, (int[]) attributes.get("weights"));
+
+		attributes = AnnotatedElementUtils.findMergedAnnotationAttributes(method, Tags.class, false, false);
+		assertNotNull(attributes);
+		attributes.getStringArray("value")[0] = "modified";
+		((int[]) attributes.get("weights"))[0] = 0;
+		attributes = AnnotatedElementUtils.findMergedAnnotationAttributes(method, Tags.class, false, false);
+		assertArrayEquals(new String[] {"a", "b"}, attributes.getStringArray("value"));
+		assertArrayEquals(new int[] {1, 2}, (int[]) attributes.get("weights"));
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Order(42)
+	@interface Prioritized {
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface Tags {
+
+		String[] value();
+
+		int[] weights();
+	}
+
+	static class CachedType {
+
+		@Prioritized
+		@Tags(value = {"a", "b"}, weights = {1, 2})
+		public void handle() {
+		}
+	}
+
+	static class UncachedType {
+	}
+
+	static class ClearedType {
+	}
+
+	static class LimitedType {
+	}
+
+}
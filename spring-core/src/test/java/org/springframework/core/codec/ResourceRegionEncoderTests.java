@@ -17,7 +17,9 @@
 package org.springframework.core.codec;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -40,6 +42,7 @@ import org.springframework.util.MimeTypeUtils;
 import org.springframework.util.StringUtils;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -163,4 +166,25 @@ public class ResourceRegionEncoderTests extends AbstractDataBufferAllocatingTest
 				.verify();
 	}
 
+	@Test
+	public void shouldEncodeBoundaries() {
+		Resource resource = new ClassPathResource("ResourceRegionEncoderTests.txt", getClass());
+		List<ResourceRegion> regions = Arrays.asList(
+				new ResourceRegion(resource, 0, 6),
+				new ResourceRegion(resource, 22, 17));
+		String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+
+		List<DataBuffer> separators = this.encoder.encodeBoundaries(
+				regions, this.bufferFactory, MimeType.valueOf("text/plain"), boundary);
+
+		assertEquals(3, separators.size());
+		assertEquals("\r\n--" + boundary + "\r\nContent-Type: text/plain\r\nContent-Range: bytes 0-5/39\r\n\r\n",
+				DataBufferTestUtils.dumpString(separators.get(0), StandardCharsets.US_ASCII));
+		assertEquals("\r\n--" + boundary + "\r\nContent-Type: text/plain\r\nContent-Range: bytes 22-38/39\r\n\r\n",
+				DataBufferTestUtils.dumpString(separators.get(1), StandardCharsets.US_ASCII));
+		assertEquals("\r\n--" + boundary + "--",
+				DataBufferTestUtils.dumpString(separators.get(2), StandardCharsets.US_ASCII));
+		separators.forEach(DataBufferUtils::release);
+	}
+
 }
@@ -107,6 +107,20 @@ public class GenericConversionServiceTests {
 		assertEquals(Integer.valueOf(3), conversionService.convert("3", Integer.class));
 	}
 
+	@Test
+	public void convertWithClassPairCache() {
+		assertFalse(conversionService.canConvert(String.class, int.class));
+		assertFalse(conversionService.canConvert(String.class, int.class));
+		conversionService.addConverterFactory(new StringToNumberConverterFactory());
+		assertTrue(conversionService.canConvert(String.class, int.class));
+		assertEquals(Integer.valueOf(3), conversionService.convert("3", int.class));
+		assertEquals(Integer.valueOf(4), conversionService.convert("4", int.class));
+		assertEquals(Integer.valueOf(5), conversionService.convert("5", TypeDescriptor.valueOf(String.class),
+				TypeDescriptor.valueOf(int.class)));
+		conversionService.removeConvertible(String.class, Number.class);
+		assertFalse(conversionService.canConvert(String.class, int.class));
+	}
+
 	@Test
 	public void convertNullSource() {
 		assertEquals(null, conversionService.convert(null, Integer.class));
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PooledDataBufferFactory}.
+ */
+public class PooledDataBufferFactoryTests {
+
+	private final PooledDataBufferFactory bufferFactory = new PooledDataBufferFactory();
+
+
+	@Test
+	public void capacityIsRequestedCapacity() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(300);
+		assertEquals(300, buffer.capacity());
+		assertEquals(0, buffer.readableByteCount());
+		assertTrue(buffer instanceof PooledDataBuffer);
+		DataBufferUtils.release(buffer);
+	}
+
+	@Test
+	public void releasedMemoryIsReused() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(1000);
+		byte[] memory = buffer.getNativeBuffer().array();
+		assertTrue(DataBufferUtils.release(buffer));
+
+		DefaultDataBuffer other = this.bufferFactory.allocateBuffer(600);
+		assertSame(memory, other.getNativeBuffer().array());
+		assertEquals(600, other.capacity());
+		DataBufferUtils.release(other);
+	}
+
+	@Test
+	public void largeBuffersAreNotPooled() {
+		int capacity = PooledDataBufferFactory.DEFAULT_MAX_POOLED_CAPACITY + 1;
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(capacity);
+		byte[] memory = buffer.getNativeBuffer().array();
+		DataBufferUtils.release(buffer);
+
+		DefaultDataBuffer other = this.bufferFactory.allocateBuffer(capacity);
+		assertNotSame(memory, other.getNativeBuffer().array());
+		DataBufferUtils.release(other);
+	}
+
+	@Test
+	public void threadLocalCacheIsBoundedByBytes() throws Exception {
+		int capacity = PooledDataBufferFactory.DEFAULT_MAX_POOLED_CAPACITY;
+		DefaultDataBuffer[] buffers = new DefaultDataBuffer[5];
+		for (int i = 0; i < buffers.length; i++) {
+			buffers[i] = this.bufferFactory.allocateBuffer(capacity);
+		}
+		for (DefaultDataBuffer buffer : buffers) {
+			DataBufferUtils.release(buffer);
+		}
+
+		// 4 buffers fill up the cache of this thread, the last one went to the shared pool
+		assertSame(buffers[4].getNativeBuffer().array(), allocateInOtherThread(capacity));
+	}
+
+	@Test
+	public void trimMovesCachedBuffersToSharedPool() throws Exception {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(1000);
+		byte[] memory = buffer.getNativeBuffer().array();
+		DataBufferUtils.release(buffer);
+		assertNotSame(memory, allocateInOtherThread(1000));
+
+		this.bufferFactory.trim();
+		assertSame(memory, allocateInOtherThread(1000));
+	}
+
+	@Test
+	public void destroyDropsPooledMemory() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(1000);
+		byte[] memory = buffer.getNativeBuffer().array();
+		DataBufferUtils.release(buffer);
+		this.bufferFactory.destroy();
+
+		DefaultDataBuffer other = this.bufferFactory.allocateBuffer(1000);
+		assertNotSame(memory, other.getNativeBuffer().array());
+		DataBufferUtils.release(other);
+		DefaultDataBuffer unpooled = this.bufferFactory.allocateBuffer(1000);
+		assertNotSame(other.getNativeBuffer().array(), unpooled.getNativeBuffer().array());
+	}
+
+	@Test
+	public void growingKeepsContentsAndRecyclesMemory() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(4);
+		byte[] memory = buffer.getNativeBuffer().array();
+		byte[] bytes = new byte[1000];
+		Arrays.fill(bytes, (byte) 'a');
+		buffer.write(new byte[] {'b'});
+		buffer.write(bytes);
+		assertEquals(1001, buffer.readableByteCount());
+		assertEquals('b', buffer.read());
+		assertEquals('a', buffer.getByte(1000));
+
+		DefaultDataBuffer other = this.bufferFactory.allocateBuffer(10);
+		assertSame(memory, other.getNativeBuffer().array());
+		DataBufferUtils.release(other);
+		DataBufferUtils.release(buffer);
+	}
+
+	@Test
+	public void retainAndReleaseSlice() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		buffer.write("foobar".getBytes(StandardCharsets.UTF_8));
+		DataBuffer slice = buffer.slice(3, 3);
+		assertTrue(slice instanceof PooledDataBuffer);
+		assertEquals('b', slice.read());
+
+		DataBufferUtils.retain(slice);
+		assertFalse(DataBufferUtils.release(buffer));
+		assertTrue(DataBufferUtils.release(slice));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void retainAfterRelease() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		DataBufferUtils.release(buffer);
+		DataBufferUtils.retain(buffer);
+	}
+
+	@Test
+	public void inputStreamReleasesOnClose() throws Exception {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		buffer.write(new byte[] {'a'});
+		InputStream inputStream = buffer.asInputStream(true);
+		assertEquals('a', inputStream.read());
+		inputStream.close();
+		inputStream.close();
+		try {
+			DataBufferUtils.release(buffer);
+			fail("Expected IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	public void joinReleasesSources() {
+		DataBuffer foo = this.bufferFactory.wrap("foo".getBytes(StandardCharsets.UTF_8));
+		DataBuffer bar = this.bufferFactory.allocateBuffer(3);
+		bar.write("bar".getBytes(StandardCharsets.UTF_8));
+
+		DataBuffer result = this.bufferFactory.join(Arrays.asList(foo, bar));
+		byte[] bytes = new byte[result.readableByteCount()];
+		result.read(bytes);
+		assertEquals("foobar", new String(bytes, StandardCharsets.UTF_8));
+		assertTrue(DataBufferUtils.release(result));
+		try {
+			DataBufferUtils.release(bar);
+			fail("Expected IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	public void unreleasedBufferIsReported() throws Exception {
+		this.bufferFactory.setLeakDetection(true);
+		allocateAndForget();
+		DataBufferUtils.release(this.bufferFactory.allocateBuffer(10));
+
+		int leaks = 0;
+		for (int i = 0; i < 50 && leaks == 0; i++) {
+			System.gc();
+			Thread.sleep(10);
+			leaks = this.bufferFactory.reportLeaks();
+		}
+		assertEquals(1, leaks);
+	}
+
+	private byte[] allocateInOtherThread(int capacity) throws InterruptedException {
+		AtomicReference<byte[]> memory = new AtomicReference<>();
+		Thread thread = new Thread(() -> {
+			DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(capacity);
+			memory.set(buffer.getNativeBuffer().array());
+		});
+		thread.start();
+		thread.join();
+		return memory.get();
+	}
+
+	private void allocateAndForget() {
+		this.bufferFactory.allocateBuffer(10).write((byte) 'a');
+	}
+
+}
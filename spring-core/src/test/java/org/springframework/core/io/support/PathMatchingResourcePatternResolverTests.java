@@ -16,14 +16,20 @@
 
 package org.springframework.core.io.support;
 
+import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
 
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import org.springframework.core.io.Resource;
 import org.springframework.util.StringUtils;
@@ -54,6 +60,9 @@ public class PathMatchingResourcePatternResolverTests {
 	private static final String[] CLASSES_IN_REACTIVESTREAMS =
 			new String[] {"Processor.class", "Publisher.class", "Subscriber.class", "Subscription.class"};
 
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	private PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
 
 
@@ -118,6 +127,46 @@ public class PathMatchingResourcePatternResolverTests {
 		assertTrue("Could not find aspectj_1_5_0.dtd in the root of the aspectjweaver jar", found);
 	}
 
+	@Test
+	public void repeatedPatternRetrievalInJarFile() throws IOException {
+		File jar = this.temporaryFolder.newFile("sample.jar");
+		try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+			for (String name : new String[] {"z.txt", "sample/", "sample/b.txt", "sample/a.txt",
+					"sample/nested/c.txt", "sample/d.xml", "sample2/e.txt"}) {
+				out.putNextEntry(new ZipEntry(name));
+				out.closeEntry();
+			}
+		}
+		String jarUrl = "jar:" + jar.toURI().toURL() + "!/";
+
+		Resource[] resources = resolver.getResources(jarUrl + "sample/*.txt");
+		assertProtocolAndFilenames(resources, "jar", "a.txt", "b.txt");
+		resources = resolver.getResources(jarUrl + "sample/**/*.txt");
+		assertProtocolAndFilenames(resources, "jar", "a.txt", "b.txt", "c.txt");
+		resources = resolver.getResources(jarUrl + "sample2/*.txt");
+		assertProtocolAndFilenames(resources, "jar", "e.txt");
+
+		PathMatchingResourcePatternResolver.clearCache();
+		resources = resolver.getResources(jarUrl + "*.txt");
+		assertProtocolAndFilenames(resources, "jar", "z.txt");
+	}
+
+	@Test
+	public void matchingFilesAreRetrievedDepthFirst() throws IOException {
+		File root = this.temporaryFolder.newFolder("root");
+		for (String path : new String[] {"b/y.txt", "a.txt", "a/x.txt", "a/x.xml", "a/nested/w.txt"}) {
+			File file = new File(root, path);
+			file.getParentFile().mkdirs();
+			assertTrue(file.createNewFile());
+		}
+
+		List<String> paths = new ArrayList<>();
+		for (File file : resolver.retrieveMatchingFiles(root, "**/*.txt")) {
+			paths.add(root.toURI().relativize(file.toURI()).getPath());
+		}
+		assertEquals(Arrays.asList("a/nested/w.txt", "a/x.txt", "a.txt", "b/y.txt"), paths);
+	}
+
 
 	private void assertProtocolAndFilenames(Resource[] resources, String protocol, String... filenames)
 			throws IOException {
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics;
+
+import java.io.StringWriter;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link BufferingApplicationStartup} and {@link StartupTimeline}.
+ */
+public class BufferingApplicationStartupTests {
+
+	@Test
+	public void nestedStepsReferToTheirParent() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+		StartupStep outer = startup.start("spring.outer");
+		StartupStep inner = startup.start("spring.inner").tag("beanName", "foo");
+		inner.end();
+		outer.end();
+		StartupStep sibling = startup.start("spring.sibling");
+		sibling.end();
+
+		List<StartupTimeline.TimelineEvent> events = startup.getBufferedTimeline().getEvents();
+		assertEquals(3, events.size());
+		assertEquals("spring.outer", events.get(0).getStep().getName());
+		assertNull(events.get(0).getStep().getParentId());
+		assertEquals("spring.inner", events.get(1).getStep().getName());
+		assertEquals(Long.valueOf(outer.getId()), events.get(1).getStep().getParentId());
+		assertEquals("spring.sibling", events.get(2).getStep().getName());
+		assertNull(events.get(2).getStep().getParentId());
+	}
+
+	@Test
+	public void bufferIsLimitedToCapacity() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(2);
+		for (int i = 0; i < 5; i++) {
+			startup.start("spring.step").end();
+		}
+		assertEquals(2, startup.getBufferedTimeline().getEvents().size());
+	}
+
+	@Test
+	public void filteredStepsAreNotRecorded() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+		startup.addFilter(step -> step.getName().startsWith("spring.beans."));
+		startup.start("spring.context.refresh").end();
+		startup.start("spring.beans.instantiate").end();
+
+		List<StartupTimeline.TimelineEvent> events = startup.getBufferedTimeline().getEvents();
+		assertEquals(1, events.size());
+		assertEquals("spring.beans.instantiate", events.get(0).getStep().getName());
+	}
+
+	@Test
+	public void drainEmptiesBuffer() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+		startup.start("spring.step").end();
+		assertEquals(1, startup.drainBufferedTimeline().getEvents().size());
+		assertTrue(startup.getBufferedTimeline().getEvents().isEmpty());
+	}
+
+	@Test
+	public void writeToProducesOneLinePerStep() throws Exception {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+		StartupStep outer = startup.start("spring.outer");
+		startup.start("spring.inner").tag("beanName", "foo").tag("scope", () -> "singleton").end();
+		outer.end();
+
+		StringWriter writer = new StringWriter();
+		startup.getBufferedTimeline().writeTo(writer);
+		String[] lines = writer.toString().split("\n");
+		assertEquals(3, lines.length);
+		assertEquals(StartupTimeline.RECORDING_HEADER, lines[0]);
+
+		String[] outerColumns = lines[1].split("\t", -1);
+		assertEquals(String.valueOf(outer.getId()), outerColumns[0]);
+		assertEquals("-", outerColumns[1]);
+		assertEquals("0", outerColumns[2]);
+		assertEquals(Thread.currentThread().getName(), outerColumns[3]);
+		assertEquals("spring.outer", outerColumns[6]);
+		assertEquals("", outerColumns[7]);
+
+		String[] innerColumns = lines[2].split("\t", -1);
+		assertEquals(String.valueOf(outer.getId()), innerColumns[1]);
+		assertEquals("1", innerColumns[2]);
+		assertEquals("  spring.inner", innerColumns[6]);
+		assertEquals("beanName=foo,scope=singleton", innerColumns[7]);
+	}
+
+	@Test
+	public void writeStructureToIsStableAcrossRecordings() throws Exception {
+		String first = recordStructure(new BufferingApplicationStartup(10));
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+		startup.start("spring.warmup").end();
+		startup.startRecording();
+		String second = recordStructure(startup);
+
+		assertEquals("spring.outer\t\n  spring.inner\tbeanName=foo\nspring.sibling\t\n", first);
+		assertEquals(first, second);
+	}
+
+	@Test
+	public void defaultStartupIsNoOp() {
+		StartupStep step = ApplicationStartup.DEFAULT.start("spring.step").tag("key", "value");
+		step.end();
+		assertFalse(step.getTags().iterator().hasNext());
+	}
+
+
+	private String recordStructure(BufferingApplicationStartup startup) throws Exception {
+		StartupStep outer = startup.start("spring.outer");
+		startup.start("spring.inner").tag("beanName", "foo").end();
+		outer.end();
+		startup.start("spring.sibling").end();
+		StringWriter writer = new StringWriter();
+		startup.getBufferedTimeline().writeStructureTo(writer);
+		return writer.toString();
+	}
+
+}
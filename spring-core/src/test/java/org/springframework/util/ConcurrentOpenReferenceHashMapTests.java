@@ -0,0 +1,165 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import org.springframework.util.ConcurrentReferenceHashMap.ReferenceType;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ConcurrentOpenReferenceHashMap}.
+ */
+public class ConcurrentOpenReferenceHashMapTests {
+
+	private final ConcurrentOpenReferenceHashMap<Integer, String> map =
+			new ConcurrentOpenReferenceHashMap<>(4, 0.75f, 1, ReferenceType.SOFT);
+
+
+	@Test
+	public void putAndGet() {
+		assertNull(this.map.put(123, "123"));
+		assertEquals("123", this.map.put(123, "1234"));
+		assertEquals("1234", this.map.get(123));
+		assertEquals("1234", this.map.putIfAbsent(123, "12345"));
+		assertEquals("1234", this.map.get(123));
+		assertNull(this.map.get(456));
+		assertEquals("x", this.map.getOrDefault(456, "x"));
+		assertEquals(1, this.map.size());
+	}
+
+	@Test
+	public void nullKeysAndValues() {
+		this.map.put(null, "null");
+		this.map.put(1, null);
+		assertEquals("null", this.map.get(null));
+		assertTrue(this.map.containsKey(1));
+		assertNull(this.map.get(1));
+		assertFalse(this.map.containsKey(2));
+		assertEquals("null", this.map.remove(null));
+		assertFalse(this.map.containsKey(null));
+	}
+
+	@Test
+	public void growAndCompact() {
+		for (int i = 0; i < 1000; i++) {
+			this.map.put(i, String.valueOf(i));
+		}
+		assertEquals(1000, this.map.size());
+		for (int i = 0; i < 1000; i += 2) {
+			assertEquals(String.valueOf(i), this.map.remove(i));
+		}
+		assertEquals(500, this.map.size());
+		for (int i = 0; i < 1000; i++) {
+			assertEquals((i % 2 == 0 ? null : String.valueOf(i)), this.map.get(i));
+		}
+
+		// Keep adding and removing, so that removed slots have to be reclaimed
+		for (int i = 1000; i < 100000; i++) {
+			this.map.put(i, "temp");
+			assertEquals("temp", this.map.remove(i));
+		}
+		this.map.purgeUnreferencedEntries();
+		assertEquals(500, this.map.size());
+		assertEquals("999", this.map.get(999));
+	}
+
+	@Test
+	public void removeAndReplaceWithValue() {
+		this.map.put(1, "1");
+		assertFalse(this.map.remove(1, "2"));
+		assertFalse(this.map.replace(1, "2", "3"));
+		assertTrue(this.map.replace(1, "1", "2"));
+		assertEquals("2", this.map.replace(1, "3"));
+		assertNull(this.map.replace(2, "3"));
+		assertFalse(this.map.containsKey(2));
+		assertTrue(this.map.remove(1, "3"));
+		assertTrue(this.map.isEmpty());
+	}
+
+	@Test
+	public void entrySetIteration() {
+		Map<Integer, String> expected = new HashMap<>();
+		for (int i = 0; i < 100; i++) {
+			this.map.put(i, String.valueOf(i));
+			expected.put(i, String.valueOf(i));
+		}
+		assertEquals(expected, new HashMap<>(this.map));
+		assertEquals(expected, this.map);
+
+		Iterator<Map.Entry<Integer, String>> iterator = this.map.entrySet().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().getKey() % 10 != 0) {
+				iterator.remove();
+			}
+		}
+		assertEquals(10, this.map.size());
+		assertTrue(this.map.entrySet().contains(new ConcurrentOpenReferenceHashMap.Entry<>(10, "10")));
+		assertFalse(this.map.entrySet().contains(new ConcurrentOpenReferenceHashMap.Entry<>(10, "11")));
+		this.map.clear();
+		assertTrue(this.map.isEmpty());
+		assertFalse(this.map.entrySet().iterator().hasNext());
+	}
+
+	@Test
+	public void concurrentReadsAndWrites() throws Exception {
+		ConcurrentOpenReferenceHashMap<Integer, String> map = new ConcurrentOpenReferenceHashMap<>();
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			int offset = t * 10000;
+			threads.add(new Thread(() -> {
+				try {
+					for (int i = offset; i < offset + 10000; i++) {
+						map.put(i, String.valueOf(i));
+						assertEquals(String.valueOf(i), map.get(i));
+						if (i % 3 == 0) {
+							assertEquals(String.valueOf(i), map.remove(i));
+						}
+					}
+				}
+				catch (Throwable ex) {
+					failure.compareAndSet(null, ex);
+				}
+			}));
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertNull(failure.get());
+		int expected = 0;
+		for (int i = 0; i < 80000; i++) {
+			if (i % 3 != 0) {
+				assertEquals(String.valueOf(i), map.get(i));
+				expected++;
+			}
+		}
+		assertEquals(expected, map.size());
+	}
+
+}
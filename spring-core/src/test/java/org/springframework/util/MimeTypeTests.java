@@ -180,6 +180,27 @@ public class MimeTypeTests {
 		assertEquals("Invalid subtype", "*", mimeType.getSubtype());
 	}
 
+	@Test
+	public void parseMimeTypeReturnsCachedInstance() {
+		String s = "text/html;charset=UTF-8";
+		MimeType mimeType = MimeTypeUtils.parseMimeType(s);
+		assertSame(mimeType, MimeTypeUtils.parseMimeType(s));
+		assertEquals(StandardCharsets.UTF_8, mimeType.getCharset());
+	}
+
+	@Test
+	public void parseMimeTypeRecordsCacheHitsAndMisses() {
+		ConcurrentLruCache<String, MimeType> cache = MimeTypeUtils.getMimeTypeCache();
+		String s = "text/x-cache-test;id=" + Long.toHexString(System.nanoTime());
+		long hits = cache.getHitCount();
+		long misses = cache.getMissCount();
+		MimeTypeUtils.parseMimeType(s);
+		MimeTypeUtils.parseMimeType(s);
+		assertEquals(misses + 1, cache.getMissCount());
+		assertEquals(hits + 1, cache.getHitCount());
+		assertTrue(cache.contains(s));
+	}
+
 	@Test(expected = InvalidMimeTypeException.class)
 	public void parseMimeTypeNoSubtype() {
 		MimeTypeUtils.parseMimeType("audio");
@@ -0,0 +1,535 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * {@link Map} implementation for HTTP header names, which are case-insensitive
+ * ASCII tokens as per RFC 7230.
+ *
+ * <p>Compared to a {@link org.springframework.util.LinkedCaseInsensitiveMap},
+ * this map keeps a single set of entries: keys are compared by folding ASCII
+ * letters on the fly, so lookups do not allocate a lower-case copy of the key,
+ * and no secondary map of lower-case keys is needed. Entries are stored in
+ * insertion order in parallel arrays, with an open addressing (linear probing)
+ * hash table pointing into them. Non-ASCII characters are compared as-is.
+ *
+ * <p>Like {@code LinkedCaseInsensitiveMap}, this map preserves the original
+ * case of the header names, with the most recently stored case winning for
+ * an existing entry. Null keys are not supported.
+ *
+ * <p>Not thread-safe.
+ *
+ * @since 5.1
+ * @param <V> the value type
+ */
+class HttpHeaderMap<V> extends AbstractMap<String, V> implements Serializable {
+
+	private static final long serialVersionUID = 5318163498281735541L;
+
+	private static final int MINIMUM_CAPACITY = 4;
+
+
+	private String[] keys;
+
+	private Object[] values;
+
+	private int[] hashes;
+
+	/** Hash slots holding the entry index plus one, or 0 for a free slot. */
+	private int[] table;
+
+	/** Number of used entry positions, including removed ones. */
+	private int count;
+
+	private int size;
+
+	private transient int modCount;
+
+	@Nullable
+	private transient Set<String> keySet;
+
+	@Nullable
+	private transient Set<Map.Entry<String, V>> entrySet;
+
+
+	/**
+	 * Create a new {@code HttpHeaderMap} with a default initial capacity.
+	 */
+	HttpHeaderMap() {
+		this(8);
+	}
+
+	/**
+	 * Create a new {@code HttpHeaderMap} that can hold the given number of
+	 * headers without resizing.
+	 * @param expectedSize the expected number of headers
+	 */
+	HttpHeaderMap(int expectedSize) {
+		allocate(Math.max(expectedSize, MINIMUM_CAPACITY));
+	}
+
+
+	private void allocate(int capacity) {
+		this.keys = new String[capacity];
+		this.values = new Object[capacity];
+		this.hashes = new int[capacity];
+		// Keep the hash table at most half full, so that probe sequences stay short
+		int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+		this.table = new int[tableSize];
+	}
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (this.size == 0);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return (key instanceof String && indexOf((String) key, hash((String) key)) >= 0);
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		for (int i = 0; i < this.count; i++) {
+			if (this.keys[i] != null && ObjectUtils.nullSafeEquals(this.values[i], value)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	@Nullable
+	public V get(Object key) {
+		if (key instanceof String) {
+			int index = indexOf((String) key, hash((String) key));
+			if (index >= 0) {
+				return valueAt(index);
+			}
+		}
+		return null;
+	}
+
+	@Override
+	@Nullable
+	public V getOrDefault(Object key, V defaultValue) {
+		if (key instanceof String) {
+			int index = indexOf((String) key, hash((String) key));
+			if (index >= 0) {
+				return valueAt(index);
+			}
+		}
+		return defaultValue;
+	}
+
+	@Override
+	@Nullable
+	public V put(String key, @Nullable V value) {
+		Assert.notNull(key, "Header name must not be null");
+		int hash = hash(key);
+		int index = indexOf(key, hash);
+		if (index >= 0) {
+			V oldValue = valueAt(index);
+			this.keys[index] = key;
+			this.values[index] = value;
+			return oldValue;
+		}
+		addEntry(key, hash, value, -index - 1);
+		return null;
+	}
+
+	@Override
+	@Nullable
+	public V computeIfAbsent(String key, Function<? super String, ? extends V> mappingFunction) {
+		Assert.notNull(key, "Header name must not be null");
+		int hash = hash(key);
+		int index = indexOf(key, hash);
+		if (index >= 0 && this.values[index] != null) {
+			return valueAt(index);
+		}
+		V value = mappingFunction.apply(key);
+		if (value != null) {
+			if (index >= 0) {
+				this.values[index] = value;
+			}
+			else {
+				addEntry(key, hash, value, -index - 1);
+			}
+		}
+		return value;
+	}
+
+	@Override
+	@Nullable
+	public V remove(Object key) {
+		if (key instanceof String) {
+			int index = indexOf((String) key, hash((String) key));
+			if (index >= 0) {
+				V oldValue = valueAt(index);
+				removeEntry(index);
+				return oldValue;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(this.keys, 0, this.count, null);
+		Arrays.fill(this.values, 0, this.count, null);
+		Arrays.fill(this.table, 0);
+		this.count = 0;
+		this.size = 0;
+		this.modCount++;
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super String, ? super V> action) {
+		int expectedModCount = this.modCount;
+		for (int i = 0; i < this.count; i++) {
+			String key = this.keys[i];
+			if (key != null) {
+				action.accept(key, valueAt(i));
+			}
+		}
+		if (this.modCount != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+	}
+
+	@Override
+	public Set<String> keySet() {
+		Set<String> keySet = this.keySet;
+		if (keySet == null) {
+			keySet = new KeySet();
+			this.keySet = keySet;
+		}
+		return keySet;
+	}
+
+	@Override
+	public Set<Map.Entry<String, V>> entrySet() {
+		Set<Map.Entry<String, V>> entrySet = this.entrySet;
+		if (entrySet == null) {
+			entrySet = new EntrySet();
+			this.entrySet = entrySet;
+		}
+		return entrySet;
+	}
+
+
+	@SuppressWarnings("unchecked")
+	private V valueAt(int index) {
+		return (V) this.values[index];
+	}
+
+	/**
+	 * Return the index of the entry for the given key, or {@code -(slot + 1)}
+	 * for the free hash slot at which the key would be inserted.
+	 */
+	private int indexOf(String key, int hash) {
+		int mask = this.table.length - 1;
+		for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+			int entry = this.table[slot];
+			if (entry == 0) {
+				return -slot - 1;
+			}
+			entry--;
+			String candidate = this.keys[entry];
+			// Removed entries keep their slot, acting as a tombstone until the next rehash
+			if (candidate != null && this.hashes[entry] == hash && equalsIgnoreCase(candidate, key)) {
+				return entry;
+			}
+		}
+	}
+
+	private void addEntry(String key, int hash, @Nullable V value, int slot) {
+		if (this.count == this.keys.length) {
+			rehash(Math.max(this.size * 2, MINIMUM_CAPACITY));
+			slot = -indexOf(key, hash) - 1;
+		}
+		int index = this.count++;
+		this.keys[index] = key;
+		this.values[index] = value;
+		this.hashes[index] = hash;
+		this.table[slot] = index + 1;
+		this.size++;
+		this.modCount++;
+	}
+
+	private void removeEntry(int index) {
+		this.keys[index] = null;
+		this.values[index] = null;
+		this.size--;
+		this.modCount++;
+	}
+
+	/**
+	 * Compact the live entries into arrays of the given capacity,
+	 * preserving their order, and rebuild the hash table.
+	 */
+	private void rehash(int capacity) {
+		String[] oldKeys = this.keys;
+		Object[] oldValues = this.values;
+		int[] oldHashes = this.hashes;
+		int oldCount = this.count;
+		allocate(capacity);
+		int mask = this.table.length - 1;
+		int index = 0;
+		for (int i = 0; i < oldCount; i++) {
+			if (oldKeys[i] != null) {
+				this.keys[index] = oldKeys[i];
+				this.values[index] = oldValues[i];
+				int hash = oldHashes[i];
+				this.hashes[index] = hash;
+				int slot = hash & mask;
+				while (this.table[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				this.table[slot] = ++index;
+			}
+		}
+		this.count = index;
+	}
+
+	private static int hash(String key) {
+		int hash = 0;
+		for (int i = 0; i < key.length(); i++) {
+			hash = 31 * hash + toLowerCase(key.charAt(i));
+		}
+		return (hash ^ (hash >>> 16));
+	}
+
+	private static boolean equalsIgnoreCase(String key, String other) {
+		if (key == other) {
+			return true;
+		}
+		int length = key.length();
+		if (length != other.length()) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			char c1 = key.charAt(i);
+			char c2 = other.charAt(i);
+			if (c1 != c2 && toLowerCase(c1) != toLowerCase(c2)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static char toLowerCase(char c) {
+		return (c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+	}
+
+
+	private class KeySet extends AbstractSet<String> {
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public boolean contains(Object key) {
+			return containsKey(key);
+		}
+
+		@Override
+		public boolean remove(Object key) {
+			if (key instanceof String) {
+				int index = indexOf((String) key, hash((String) key));
+				if (index >= 0) {
+					removeEntry(index);
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public void clear() {
+			HttpHeaderMap.this.clear();
+		}
+
+		@Override
+		public Iterator<String> iterator() {
+			EntryIterator iterator = new EntryIterator();
+			return new Iterator<String>() {
+				@Override
+				public boolean hasNext() {
+					return iterator.hasNext();
+				}
+				@Override
+				public String next() {
+					return iterator.next().getKey();
+				}
+				@Override
+				public void remove() {
+					iterator.remove();
+				}
+			};
+		}
+	}
+
+
+	private class EntrySet extends AbstractSet<Map.Entry<String, V>> {
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public void clear() {
+			HttpHeaderMap.this.clear();
+		}
+
+		@Override
+		public Iterator<Map.Entry<String, V>> iterator() {
+			return new EntryIterator();
+		}
+	}
+
+
+	private class EntryIterator implements Iterator<Map.Entry<String, V>> {
+
+		private int next;
+
+		private int last = -1;
+
+		private int expectedModCount = modCount;
+
+		EntryIterator() {
+			skipRemoved();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return (this.next < count);
+		}
+
+		@Override
+		public Map.Entry<String, V> next() {
+			checkForComodification();
+			if (this.next >= count) {
+				throw new NoSuchElementException();
+			}
+			this.last = this.next++;
+			skipRemoved();
+			return new Entry(this.last);
+		}
+
+		@Override
+		public void remove() {
+			if (this.last < 0) {
+				throw new IllegalStateException("No current entry");
+			}
+			checkForComodification();
+			removeEntry(this.last);
+			this.last = -1;
+			this.expectedModCount = modCount;
+		}
+
+		private void skipRemoved() {
+			while (this.next < count && keys[this.next] == null) {
+				this.next++;
+			}
+		}
+
+		private void checkForComodification() {
+			if (modCount != this.expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+
+	private class Entry implements Map.Entry<String, V> {
+
+		private final String key;
+
+		private final int index;
+
+		Entry(int index) {
+			this.key = keys[index];
+			this.index = index;
+		}
+
+		@Override
+		public String getKey() {
+			return this.key;
+		}
+
+		@Override
+		public V getValue() {
+			return valueAt(this.index);
+		}
+
+		@Override
+		public V setValue(V value) {
+			V oldValue = valueAt(this.index);
+			values[this.index] = value;
+			return oldValue;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> otherEntry = (Map.Entry<?, ?>) other;
+			return (this.key.equals(otherEntry.getKey()) &&
+					ObjectUtils.nullSafeEquals(getValue(), otherEntry.getValue()));
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.key.hashCode() ^ ObjectUtils.nullSafeHashCode(getValue()));
+		}
+
+		@Override
+		public String toString() {
+			return this.key + "=" + getValue();
+		}
+	}
+
+}
@@ -44,7 +44,6 @@ import java.util.stream.Collectors;
 
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
-import org.springframework.util.LinkedCaseInsensitiveMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
 
@@ -410,7 +409,7 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 	 * Construct a new, empty instance of the {@code HttpHeaders} object.
 	 */
 	public HttpHeaders() {
-		this(new LinkedCaseInsensitiveMap<>(8, Locale.ENGLISH), false);
+		this(new HttpHeaderMap<>(8), false);
 	}
 
 	/**
@@ -418,7 +417,7 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 	 */
 	private HttpHeaders(Map<String, List<String>> headers, boolean readOnly) {
 		if (readOnly) {
-			Map<String, List<String>> map = new LinkedCaseInsensitiveMap<>(headers.size(), Locale.ENGLISH);
+			Map<String, List<String>> map = new HttpHeaderMap<>(headers.size());
 			headers.forEach((key, valueList) -> map.put(key, Collections.unmodifiableList(valueList)));
 			this.headers = Collections.unmodifiableMap(map);
 		}
@@ -17,9 +17,20 @@
 package org.springframework.http;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.util.Assert;
+import org.springframework.util.StreamUtils;
+
 /**
  * Sub-interface of {@code ReactiveOutputMessage} that has support for "zero-copy"
  * file transfers.
@@ -40,4 +51,38 @@ public interface ZeroCopyHttpOutputMessage extends ReactiveHttpOutputMessage {
 	 */
 	Mono<Void> writeWith(File file, long position, long count);
 
+	/**
+	 * Use the given {@link ResourceRegion ResourceRegions} to write the body of the
+	 * message, each preceded by the buffer at the same index of the given separators,
+	 * and followed by the last separator, e.g. for a "multipart/byteranges" body.
+	 * <p>The default implementation reads the regions into buffers. Implementations
+	 * supporting zero-copy transfer the regions of file-based resources directly,
+	 * with only the separators written through buffers.
+	 * @param regions the regions to transfer
+	 * @param separators the buffers to write before each region, plus the buffer
+	 * to write after the last region
+	 * @return a publisher that indicates completion or error.
+	 * @since 5.1
+	 * @see org.springframework.core.codec.ResourceRegionEncoder#encodeBoundaries
+	 */
+	default Mono<Void> writeWith(List<? extends ResourceRegion> regions, List<? extends DataBuffer> separators) {
+		Assert.isTrue(separators.size() == regions.size() + 1, "Expected one separator more than regions");
+		// Separators that have not been emitted in the end (e.g. after an error) get released
+		AtomicReferenceArray<DataBuffer> pending = new AtomicReferenceArray<>(separators.toArray(new DataBuffer[0]));
+		List<Publisher<? extends DataBuffer>> body = new ArrayList<>(regions.size() * 2 + 1);
+		for (int i = 0; i < regions.size(); i++) {
+			int index = i;
+			ResourceRegion region = regions.get(i);
+			body.add(Mono.defer(() -> Mono.justOrEmpty(pending.getAndSet(index, null))));
+			body.add(DataBufferUtils.takeUntilByteCount(DataBufferUtils.read(region.getResource(),
+					region.getPosition(), bufferFactory(), StreamUtils.BUFFER_SIZE), region.getCount()));
+		}
+		body.add(Mono.defer(() -> Mono.justOrEmpty(pending.getAndSet(regions.size(), null))));
+		return writeWith(Flux.concat(body)).doFinally(signal -> {
+			for (int i = 0; i < pending.length(); i++) {
+				DataBufferUtils.release(pending.getAndSet(i, null));
+			}
+		});
+	}
+
 }
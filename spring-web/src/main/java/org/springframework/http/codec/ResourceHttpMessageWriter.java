@@ -54,7 +54,9 @@ import org.springframework.util.MimeTypeUtils;
  *
  * <p>Also an implementation of {@code HttpMessageWriter} with support
  * for writing one or more {@link ResourceRegion}'s based on the HTTP ranges
- * specified in the request.
+ * specified in the request. If the response is a {@link ZeroCopyHttpOutputMessage}
+ * and the resource is a file, the content of the requested ranges is transferred
+ * with zero-copy, including the parts of a "multipart/byteranges" response.
  *
  * <p>For reading to a Resource, use {@link ResourceDecoder} wrapped with
  * {@link DecoderHttpMessageReader}.
@@ -218,6 +220,11 @@ public class ResourceHttpMessageWriter implements HttpMessageWriter<Resource> {
 				String boundary = MimeTypeUtils.generateMultipartBoundaryString();
 				MediaType multipartType = MediaType.parseMediaType("multipart/byteranges;boundary=" + boundary);
 				headers.setContentType(multipartType);
+				if (response instanceof ZeroCopyHttpOutputMessage && resource.isFile()) {
+					List<DataBuffer> separators = this.regionEncoder.encodeBoundaries(
+							regions, response.bufferFactory(), resourceMediaType, boundary);
+					return ((ZeroCopyHttpOutputMessage) response).writeWith(regions, separators);
+				}
 				Map<String, Object> theHints = new HashMap<>(hints);
 				theHints.put(ResourceRegionEncoder.BOUNDARY_STRING_HINT, boundary);
 				return encodeAndWriteRegions(Flux.fromIterable(regions), resourceMediaType, response, theHints);
@@ -17,6 +17,11 @@
 package org.springframework.http.server.reactive;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.HttpResponseStatus;
@@ -25,11 +30,14 @@ import io.netty.handler.codec.http.cookie.DefaultCookie;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.ipc.netty.NettyOutbound;
 import reactor.ipc.netty.http.server.HttpServerResponse;
 
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.core.io.support.ResourceRegion;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ZeroCopyHttpOutputMessage;
 import org.springframework.util.Assert;
@@ -116,6 +124,46 @@ class ReactorServerHttpResponse extends AbstractServerHttpResponse implements Ze
 		return doCommit(() -> this.response.sendFile(file.toPath(), position, count).then());
 	}
 
+	@Override
+	public Mono<Void> writeWith(List<? extends ResourceRegion> regions, List<? extends DataBuffer> separators) {
+		Assert.isTrue(separators.size() == regions.size() + 1, "Expected one separator more than regions");
+		List<Path> paths = new ArrayList<>(regions.size());
+		for (ResourceRegion region : regions) {
+			if (!region.getResource().isFile()) {
+				return ZeroCopyHttpOutputMessage.super.writeWith(regions, separators);
+			}
+			try {
+				paths.add(region.getResource().getFile().toPath());
+			}
+			catch (IOException ex) {
+				separators.forEach(DataBufferUtils::release);
+				return Mono.error(ex);
+			}
+		}
+		// Separators that have not been sent in the end (e.g. after an error) get released
+		AtomicReferenceArray<DataBuffer> pending = new AtomicReferenceArray<>(separators.toArray(new DataBuffer[0]));
+		return doCommit(() -> {
+			NettyOutbound outbound = this.response;
+			for (int i = 0; i < regions.size(); i++) {
+				ResourceRegion region = regions.get(i);
+				outbound = outbound.send(takeSeparator(pending, i))
+						.sendFile(paths.get(i), region.getPosition(), region.getCount());
+			}
+			return outbound.send(takeSeparator(pending, regions.size())).then();
+		}).doFinally(signal -> releasePending(pending));
+	}
+
+	private static Mono<ByteBuf> takeSeparator(AtomicReferenceArray<DataBuffer> pending, int index) {
+		return Mono.defer(() -> Mono.justOrEmpty(pending.getAndSet(index, null)))
+				.map(NettyDataBufferFactory::toByteBuf);
+	}
+
+	private static void releasePending(AtomicReferenceArray<DataBuffer> pending) {
+		for (int i = 0; i < pending.length(); i++) {
+			DataBufferUtils.release(pending.getAndSet(i, null));
+		}
+	}
+
 	private static Publisher<ByteBuf> toByteBufs(Publisher<? extends DataBuffer> dataBuffers) {
 		return Flux.from(dataBuffers).map(NettyDataBufferFactory::toByteBuf);
 	}
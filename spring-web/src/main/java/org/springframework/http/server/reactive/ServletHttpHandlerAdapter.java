@@ -108,6 +108,13 @@ public class ServletHttpHandlerAdapter implements Servlet {
 		return this.servletPath;
 	}
 
+	/**
+	 * Set the factory to allocate request and response buffers with.
+	 * <p>By default, a {@link DefaultDataBufferFactory} is used. Consider a
+	 * {@link org.springframework.core.io.buffer.PooledDataBufferFactory} for
+	 * recycling buffer memory, as long as all buffers are released reliably.
+	 * @param dataBufferFactory the buffer factory to use
+	 */
 	public void setDataBufferFactory(DataBufferFactory dataBufferFactory) {
 		Assert.notNull(dataBufferFactory, "DataBufferFactory must not be null");
 		this.dataBufferFactory = dataBufferFactory;
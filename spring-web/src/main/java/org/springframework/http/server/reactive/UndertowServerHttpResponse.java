@@ -20,7 +20,11 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import io.undertow.server.HttpServerExchange;
 import io.undertow.server.handlers.Cookie;
@@ -35,6 +39,7 @@ import reactor.core.publisher.Mono;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.support.ResourceRegion;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ZeroCopyHttpOutputMessage;
 import org.springframework.lang.Nullable;
@@ -120,6 +125,66 @@ class UndertowServerHttpResponse extends AbstractListenerServerHttpResponse impl
 				}));
 	}
 
+	@Override
+	public Mono<Void> writeWith(List<? extends ResourceRegion> regions, List<? extends DataBuffer> separators) {
+		Assert.isTrue(separators.size() == regions.size() + 1, "Expected one separator more than regions");
+		List<Path> paths = new ArrayList<>(regions.size());
+		for (ResourceRegion region : regions) {
+			if (!region.getResource().isFile()) {
+				return ZeroCopyHttpOutputMessage.super.writeWith(regions, separators);
+			}
+			try {
+				paths.add(region.getResource().getFile().toPath());
+			}
+			catch (IOException ex) {
+				separators.forEach(DataBufferUtils::release);
+				return Mono.error(ex);
+			}
+		}
+		// Separators that have not been written in the end (e.g. after an error) get released
+		AtomicReferenceArray<DataBuffer> pending = new AtomicReferenceArray<>(separators.toArray(new DataBuffer[0]));
+		return doCommit(() ->
+				Mono.defer(() -> {
+					StreamSinkChannel destination = this.exchange.getResponseChannel();
+					try {
+						for (int i = 0; i < regions.size(); i++) {
+							writeBlocking(destination, pending.getAndSet(i, null));
+							ResourceRegion region = regions.get(i);
+							try (FileChannel source = FileChannel.open(paths.get(i), StandardOpenOption.READ)) {
+								Channels.transferBlocking(destination, source, region.getPosition(), region.getCount());
+							}
+						}
+						writeBlocking(destination, pending.getAndSet(regions.size(), null));
+						return Mono.empty();
+					}
+					catch (IOException ex) {
+						return Mono.error(ex);
+					}
+				}))
+				.doFinally(signal -> releasePending(pending));
+	}
+
+	private static void writeBlocking(StreamSinkChannel destination, @Nullable DataBuffer dataBuffer)
+			throws IOException {
+
+		if (dataBuffer == null) {
+			// Already released after cancellation
+			throw new IOException("Write of separator cancelled");
+		}
+		try {
+			Channels.writeBlocking(destination, dataBuffer.asByteBuffer());
+		}
+		finally {
+			DataBufferUtils.release(dataBuffer);
+		}
+	}
+
+	private static void releasePending(AtomicReferenceArray<DataBuffer> pending) {
+		for (int i = 0; i < pending.length(); i++) {
+			DataBufferUtils.release(pending.getAndSet(i, null));
+		}
+	}
+
 
 	@Override
 	protected Processor<? super Publisher<? extends DataBuffer>, Void> createBodyFlushProcessor() {
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.springframework.util.SerializationTestUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link HttpHeaderMap}.
+ */
+public class HttpHeaderMapTests {
+
+	private final HttpHeaderMap<String> map = new HttpHeaderMap<>();
+
+
+	@Test
+	public void putAndGet() {
+		assertNull(this.map.put("Content-Type", "text/plain"));
+		assertEquals("text/plain", this.map.put("content-type", "text/html"));
+		assertEquals(1, this.map.size());
+		assertEquals("text/html", this.map.get("CONTENT-TYPE"));
+		assertEquals("text/html", this.map.get("Content-Type"));
+		assertTrue(this.map.containsKey("cOnTeNt-TyPe"));
+		assertTrue(this.map.keySet().contains("CONTENT-TYPE"));
+		assertEquals("content-type", this.map.keySet().iterator().next());
+		assertNull(this.map.get("Content-Length"));
+		assertNull(this.map.get(new Object()));
+		assertEquals("N", this.map.getOrDefault("Content-Length", "N"));
+	}
+
+	@Test
+	public void nonAsciiCharactersAreComparedAsIs() {
+		this.map.put("X-Ä", "upper");
+		this.map.put("x-ä", "lower");
+		assertEquals(2, this.map.size());
+		assertEquals("upper", this.map.get("x-Ä"));
+		assertEquals("lower", this.map.get("X-ä"));
+	}
+
+	@Test
+	public void insertionOrderIsPreserved() {
+		List<String> names = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			names.add("X-Header-" + i);
+			this.map.put("X-Header-" + i, String.valueOf(i));
+		}
+		assertEquals(100, this.map.size());
+		assertEquals(names, new ArrayList<>(this.map.keySet()));
+		for (int i = 0; i < 100; i++) {
+			assertEquals(String.valueOf(i), this.map.get("x-header-" + i));
+		}
+	}
+
+	@Test
+	public void removeAndReinsert() {
+		for (int i = 0; i < 10; i++) {
+			this.map.put("X-Header-" + i, String.valueOf(i));
+		}
+		for (int i = 0; i < 10; i += 2) {
+			assertEquals(String.valueOf(i), this.map.remove("x-header-" + i));
+		}
+		assertNull(this.map.remove("X-Header-0"));
+		assertEquals(5, this.map.size());
+		assertFalse(this.map.containsKey("X-Header-0"));
+		assertEquals(Arrays.asList("X-Header-1", "X-Header-3", "X-Header-5", "X-Header-7", "X-Header-9"),
+				new ArrayList<>(this.map.keySet()));
+
+		// Keep removing and adding, so that removed entries have to be compacted
+		for (int i = 0; i < 1000; i++) {
+			this.map.put("X-Temp-" + i, "temp");
+			assertEquals("temp", this.map.remove("x-temp-" + i));
+		}
+		this.map.put("X-Header-0", "0");
+		assertEquals(6, this.map.size());
+		assertEquals(Arrays.asList("X-Header-1", "X-Header-3", "X-Header-5", "X-Header-7", "X-Header-9", "X-Header-0"),
+				new ArrayList<>(this.map.keySet()));
+		assertEquals("9", this.map.get("x-header-9"));
+	}
+
+	@Test
+	public void computeIfAbsent() {
+		assertEquals("a", this.map.computeIfAbsent("Accept", key -> "a"));
+		assertEquals("a", this.map.computeIfAbsent("ACCEPT", key -> "b"));
+		assertEquals(1, this.map.size());
+		assertNull(this.map.computeIfAbsent("Allow", key -> null));
+		assertFalse(this.map.containsKey("Allow"));
+	}
+
+	@Test
+	public void iteratorRemove() {
+		this.map.put("Accept", "a");
+		this.map.put("Allow", "b");
+		this.map.put("Age", "c");
+		Iterator<Map.Entry<String, String>> iterator = this.map.entrySet().iterator();
+		iterator.next();
+		Map.Entry<String, String> entry = iterator.next();
+		entry.setValue("d");
+		assertEquals("d", this.map.get("allow"));
+		iterator.remove();
+		assertEquals(2, this.map.size());
+		assertTrue(this.map.keySet().remove("AGE"));
+		assertEquals(1, this.map.size());
+		assertEquals("{Accept=a}", this.map.toString());
+	}
+
+	@Test
+	public void equalsAndSerialization() throws Exception {
+		this.map.put("Accept", "a");
+		this.map.put("Allow", "b");
+		this.map.remove("Accept");
+		Map<String, String> expected = new LinkedHashMap<>();
+		expected.put("Allow", "b");
+		assertEquals(expected, this.map);
+		assertEquals(this.map, expected);
+		assertEquals(expected.hashCode(), this.map.hashCode());
+
+		HttpHeaderMap<String> copy = (HttpHeaderMap<String>) SerializationTestUtils.serializeAndDeserialize(this.map);
+		assertEquals(this.map, copy);
+		assertEquals("b", copy.get("ALLOW"));
+		copy.put("Age", "c");
+		assertEquals(2, copy.size());
+	}
+
+	@Test
+	public void clear() {
+		this.map.put("Accept", "a");
+		this.map.clear();
+		assertTrue(this.map.isEmpty());
+		assertFalse(this.map.containsKey("Accept"));
+		this.map.put("Accept", "b");
+		assertEquals("b", this.map.get("accept"));
+	}
+
+}
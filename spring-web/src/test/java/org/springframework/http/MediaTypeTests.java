@@ -26,6 +26,7 @@ import org.junit.Test;
 
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.util.ConcurrentLruCache;
 
 import static org.junit.Assert.*;
 
@@ -67,6 +68,27 @@ public class MediaTypeTests {
 		assertEquals("Invalid quality factor", 0.2D, mediaType.getQualityValue(), 0D);
 	}
 
+	@Test
+	public void parseMediaTypeReturnsCachedInstance() {
+		String s = "application/json;charset=UTF-8";
+		MediaType mediaType = MediaType.parseMediaType(s);
+		assertSame(mediaType, MediaType.parseMediaType(s));
+		assertEquals(MediaType.APPLICATION_JSON_UTF8, mediaType);
+	}
+
+	@Test
+	public void parseMediaTypeRecordsCacheHitsAndMisses() {
+		ConcurrentLruCache<String, MediaType> cache = MediaType.getMediaTypeCache();
+		String s = "text/x-cache-test;id=" + Long.toHexString(System.nanoTime());
+		long hits = cache.getHitCount();
+		long misses = cache.getMissCount();
+		MediaType.parseMediaType(s);
+		MediaType.parseMediaType(s);
+		assertEquals(misses + 1, cache.getMissCount());
+		assertEquals(hits + 1, cache.getHitCount());
+		assertTrue(cache.contains(s));
+	}
+
 	@Test(expected = InvalidMediaTypeException.class)
 	public void parseMediaTypeNoSubtype() {
 		MediaType.parseMediaType("audio");
@@ -16,8 +16,11 @@
 
 package org.springframework.http.codec;
 
+import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Test;
@@ -25,10 +28,14 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.support.ResourceRegion;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
 import org.springframework.mock.http.server.reactive.test.MockServerHttpRequest;
 import org.springframework.mock.http.server.reactive.test.MockServerHttpResponse;
 import org.springframework.util.MimeTypeUtils;
@@ -96,14 +103,33 @@ public class ResourceHttpMessageWriterTests {
 	public void writeMultipleRegions() throws Exception {
 
 		testWrite(get("/").range(of(0,5), of(7,15), of(17,20), of(22,38)).build());
+		assertMultipleRegions(this.response);
+	}
+
+	@Test
+	public void writeMultipleRegionsWithZeroCopy() throws Exception {
+		File file = File.createTempFile("resource", ".txt");
+		file.deleteOnExit();
+		Files.write(file.toPath(), "Spring Framework test resource content.".getBytes(StandardCharsets.UTF_8));
+		ZeroCopyResponse zeroCopyResponse = new ZeroCopyResponse();
+
+		MockServerHttpRequest request = get("/").range(of(0,5), of(7,15), of(17,20), of(22,38)).build();
+		Mono<Void> mono = this.writer.write(Mono.just(new FileSystemResource(file)), null, null,
+				TEXT_PLAIN, request, zeroCopyResponse, HINTS);
+		StepVerifier.create(mono).expectComplete().verify();
+
+		assertThat(zeroCopyResponse.regionCount, is(4));
+		assertMultipleRegions(zeroCopyResponse);
+	}
 
-		HttpHeaders headers = this.response.getHeaders();
+	private void assertMultipleRegions(MockServerHttpResponse response) {
+		HttpHeaders headers = response.getHeaders();
 		String contentType = headers.getContentType().toString();
 		String boundary = contentType.substring(30);
 
 		assertThat(contentType, startsWith("multipart/byteranges;boundary="));
 
-		StepVerifier.create(this.response.getBodyAsString())
+		StepVerifier.create(response.getBodyAsString())
 				.consumeNextWith(content -> {
 					String[] actualRanges = StringUtils.tokenizeToStringArray(content, "\r\n", false, true);
 					String[] expected = new String[] {
@@ -150,4 +176,21 @@ public class ResourceHttpMessageWriterTests {
 		return HttpRange.createByteRange(first, last);
 	}
 
+
+	private static class ZeroCopyResponse extends MockServerHttpResponse implements ZeroCopyHttpOutputMessage {
+
+		private int regionCount;
+
+		@Override
+		public Mono<Void> writeWith(File file, long position, long count) {
+			return Mono.error(new UnsupportedOperationException());
+		}
+
+		@Override
+		public Mono<Void> writeWith(List<? extends ResourceRegion> regions, List<? extends DataBuffer> separators) {
+			this.regionCount = regions.size();
+			return ZeroCopyHttpOutputMessage.super.writeWith(regions, separators);
+		}
+	}
+
 }
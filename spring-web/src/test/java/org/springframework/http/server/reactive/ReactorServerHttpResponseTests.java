@@ -0,0 +1,138 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.server.reactive;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.NettyOutbound;
+import reactor.ipc.netty.http.server.HttpServerResponse;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.util.StreamUtils;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Unit tests for the zero-copy support of {@link ReactorServerHttpResponse}.
+ *
+ * @since 5.1
+ */
+public class ReactorServerHttpResponseTests {
+
+	private final HttpServerResponse nativeResponse = mock(HttpServerResponse.class);
+
+	private final NettyDataBufferFactory bufferFactory =
+			new NettyDataBufferFactory(new UnpooledByteBufAllocator(false));
+
+	private final ReactorServerHttpResponse response =
+			new ReactorServerHttpResponse(this.nativeResponse, this.bufferFactory);
+
+	private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+
+	@Before
+	public void setup() {
+		given(this.nativeResponse.responseHeaders()).willReturn(new DefaultHttpHeaders());
+		given(this.nativeResponse.send(any())).willAnswer(invocation -> {
+			Publisher<ByteBuf> byteBufs = invocation.getArgument(0);
+			NettyOutbound outbound = mock(NettyOutbound.class);
+			given(outbound.then()).willReturn(Flux.from(byteBufs).doOnNext(this::write).then());
+			// Record file transfers chained onto a send against the native response
+			given(outbound.sendFile(any(), anyLong(), anyLong())).willAnswer(sendFile -> this.nativeResponse
+					.sendFile(sendFile.getArgument(0), sendFile.getArgument(1), sendFile.getArgument(2)));
+			return outbound;
+		});
+		given(this.nativeResponse.sendFile(any(), anyLong(), anyLong())).willReturn(this.nativeResponse);
+		given(this.nativeResponse.then()).willReturn(Mono.empty());
+	}
+
+
+	@Test
+	public void writeRegionsOfFileWithSendFile() throws Exception {
+		Resource logo = new ClassPathResource("spring.png", ZeroCopyIntegrationTests.class);
+		Path path = logo.getFile().toPath();
+		List<ResourceRegion> regions = Arrays.asList(
+				new ResourceRegion(logo, 0, 100), new ResourceRegion(logo, 200, 50));
+
+		this.response.writeWith(regions, separators("--a\r\n", "--b\r\n", "--end")).block(Duration.ofSeconds(5));
+
+		InOrder inOrder = inOrder(this.nativeResponse);
+		inOrder.verify(this.nativeResponse).send(any());
+		inOrder.verify(this.nativeResponse).sendFile(path, 0, 100);
+		inOrder.verify(this.nativeResponse).send(any());
+		inOrder.verify(this.nativeResponse).sendFile(path, 200, 50);
+		inOrder.verify(this.nativeResponse).send(any());
+	}
+
+	@Test
+	public void writeRegionsOfNonFileResourceWithCopy() throws Exception {
+		byte[] bytes = StreamUtils.copyToByteArray(
+				new ClassPathResource("spring.png", ZeroCopyIntegrationTests.class).getInputStream());
+		Resource resource = new ByteArrayResource(bytes);
+		List<ResourceRegion> regions = Arrays.asList(
+				new ResourceRegion(resource, 0, 100), new ResourceRegion(resource, 200, 50));
+
+		this.response.writeWith(regions, separators("--a\r\n", "--b\r\n", "--end")).block(Duration.ofSeconds(5));
+
+		verify(this.nativeResponse, never()).sendFile(any(), anyLong(), anyLong());
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		expected.write("--a\r\n".getBytes(StandardCharsets.UTF_8));
+		expected.write(bytes, 0, 100);
+		expected.write("--b\r\n".getBytes(StandardCharsets.UTF_8));
+		expected.write(bytes, 200, 50);
+		expected.write("--end".getBytes(StandardCharsets.UTF_8));
+		assertArrayEquals(expected.toByteArray(), this.body.toByteArray());
+	}
+
+
+	private List<DataBuffer> separators(String... separators) {
+		List<DataBuffer> buffers = new ArrayList<>(separators.length);
+		for (String separator : separators) {
+			buffers.add(this.bufferFactory.wrap(separator.getBytes(StandardCharsets.UTF_8)));
+		}
+		return buffers;
+	}
+
+	private void write(ByteBuf byteBuf) {
+		byte[] bytes = new byte[byteBuf.readableBytes()];
+		byteBuf.readBytes(bytes);
+		this.body.write(bytes, 0, bytes.length);
+		byteBuf.release();
+	}
+
+}
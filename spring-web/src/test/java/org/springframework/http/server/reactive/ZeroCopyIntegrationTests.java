@@ -16,20 +16,30 @@
 
 package org.springframework.http.server.reactive;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Test;
 import reactor.core.publisher.Mono;
 
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.support.ResourceRegion;
 import org.springframework.http.MediaType;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.ZeroCopyHttpOutputMessage;
 import org.springframework.http.server.reactive.bootstrap.ReactorHttpServer;
 import org.springframework.http.server.reactive.bootstrap.UndertowHttpServer;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.RestTemplate;
 
 import static org.junit.Assert.*;
@@ -66,6 +76,47 @@ public class ZeroCopyIntegrationTests extends AbstractHttpHandlerIntegrationTest
 		assertEquals(MediaType.IMAGE_PNG, response.getHeaders().getContentType());
 	}
 
+	@Test
+	public void zeroCopyRegions() throws Exception {
+		// Regions of a file get transferred with sendFile (Reactor Netty) or transferBlocking (Undertow)
+		assumeTrue(server instanceof ReactorHttpServer || server instanceof UndertowHttpServer);
+
+		assertArrayEquals(expectedRegionsBody(), getBody("/regions"));
+	}
+
+	@Test
+	public void zeroCopyRegionsWithCopyFallback() throws Exception {
+		// Regions of a non-file resource get read into buffers instead
+		assumeTrue(server instanceof ReactorHttpServer || server instanceof UndertowHttpServer);
+
+		assertArrayEquals(expectedRegionsBody(), getBody("/regions-copy"));
+	}
+
+	private byte[] getBody(String path) throws Exception {
+		URI url = new URI("http://localhost:" + port + path);
+		RequestEntity<?> request = RequestEntity.get(url).build();
+		ResponseEntity<byte[]> response = new RestTemplate().exchange(request, byte[].class);
+		assertTrue(response.hasBody());
+		assertEquals(response.getBody().length, response.getHeaders().getContentLength());
+		return response.getBody();
+	}
+
+	private static byte[] expectedRegionsBody() throws IOException {
+		byte[] logo = logoBytes();
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		body.write("--a\r\n".getBytes(StandardCharsets.UTF_8));
+		body.write(logo, 0, 100);
+		body.write("--b\r\n".getBytes(StandardCharsets.UTF_8));
+		body.write(logo, 200, 50);
+		body.write("--end".getBytes(StandardCharsets.UTF_8));
+		return body.toByteArray();
+	}
+
+	private static byte[] logoBytes() throws IOException {
+		return StreamUtils.copyToByteArray(
+				new ClassPathResource("spring.png", ZeroCopyIntegrationTests.class).getInputStream());
+	}
+
 
 	private static class ZeroCopyHandler implements HttpHandler {
 
@@ -74,6 +125,18 @@ public class ZeroCopyIntegrationTests extends AbstractHttpHandlerIntegrationTest
 			try {
 				ZeroCopyHttpOutputMessage zeroCopyResponse = (ZeroCopyHttpOutputMessage) response;
 				Resource logo = new ClassPathResource("spring.png", ZeroCopyIntegrationTests.class);
+				String path = request.getURI().getPath();
+				if (path.startsWith("/regions")) {
+					Resource resource = (path.equals("/regions") ? logo : new ByteArrayResource(logoBytes()));
+					List<ResourceRegion> regions = Arrays.asList(
+							new ResourceRegion(resource, 0, 100), new ResourceRegion(resource, 200, 50));
+					DataBufferFactory bufferFactory = zeroCopyResponse.bufferFactory();
+					List<DataBuffer> separators = Arrays.asList(wrap(bufferFactory, "--a\r\n"),
+							wrap(bufferFactory, "--b\r\n"), wrap(bufferFactory, "--end"));
+					zeroCopyResponse.getHeaders().setContentType(MediaType.APPLICATION_OCTET_STREAM);
+					zeroCopyResponse.getHeaders().setContentLength(expectedRegionsBody().length);
+					return zeroCopyResponse.writeWith(regions, separators);
+				}
 				File logoFile = logo.getFile();
 				zeroCopyResponse.getHeaders().setContentType(MediaType.IMAGE_PNG);
 				zeroCopyResponse.getHeaders().setContentLength(logoFile.length());
@@ -83,6 +146,10 @@ public class ZeroCopyIntegrationTests extends AbstractHttpHandlerIntegrationTest
 				return Mono.error(ex);
 			}
 		}
+
+		private static DataBuffer wrap(DataBufferFactory bufferFactory, String separator) {
+			return bufferFactory.wrap(separator.getBytes(StandardCharsets.UTF_8));
+		}
 	}
 
 }